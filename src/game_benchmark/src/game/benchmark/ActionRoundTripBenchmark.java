@@ -0,0 +1,90 @@
+package game.benchmark;
+
+import game.benchmark.stub.StubGameAction;
+import game.benchmark.stub.StubGames;
+import game.benchmark.stub.StubServerGameCreator;
+import game.benchmark.stub.StubServerSidePlayer;
+import game.common.IGameDescription;
+import game.communication.action.InconsistentActionTypeException;
+import game.gameclient.LocalGameClient;
+import game.gameserver.LocalGameServer;
+
+import java.util.HashSet;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measure the round trip of a game action sent by a local client: the
+ * lookup of the game and of the player by the server, the handling of the
+ * action by the game and the dispatch of the answering event to the
+ * client side player.
+ * 
+ * @author benobiwan
+ * 
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ActionRoundTripBenchmark
+{
+	/**
+	 * The server hosting the game.
+	 */
+	private LocalGameServer _server;
+
+	/**
+	 * The client hosting the players.
+	 */
+	private LocalGameClient _client;
+
+	/**
+	 * The action sent, actions being immutable it is sent again and again.
+	 */
+	private StubGameAction _action;
+
+	/**
+	 * Start a game of two players.
+	 * 
+	 * @throws InconsistentActionTypeException
+	 *             if an action is inconsistent.
+	 */
+	@Setup(Level.Trial)
+	public void setUp() throws InconsistentActionTypeException
+	{
+		_server = new LocalGameServer(new HashSet<IGameDescription>());
+		_client = new LocalGameClient("Benchmark client");
+		_client.registerGameServer(_server);
+		final StubServerGameCreator creator = StubGames.startGame(_server,
+				_client, 2);
+		final StubServerSidePlayer player = creator.getPlayers().iterator()
+				.next();
+		_action = new StubGameAction(creator.getGameId(), player.getId());
+	}
+
+	/**
+	 * Send the action and wait for the answer, which is delivered
+	 * synchronously by the local server.
+	 * 
+	 * @throws InconsistentActionTypeException
+	 *             if the action is inconsistent.
+	 */
+	@Benchmark
+	public void actionRoundTrip() throws InconsistentActionTypeException
+	{
+		_server.handleAction(_client, _action);
+	}
+}
@@ -0,0 +1,629 @@
+package game.benchmark;
+
+import game.benchmark.stub.StubClientGameCreator;
+import game.benchmark.stub.StubGameAction;
+import game.benchmark.stub.StubGameConfiguration;
+import game.benchmark.stub.StubGameDescription;
+import game.benchmark.stub.StubGameEvent;
+import game.benchmark.stub.StubMultiCastGameEvent;
+import game.benchmark.stub.StubServerGameCreator;
+import game.common.IGameInstanceDescription;
+import game.common.IPlayerDescription;
+import game.common.PlayerDescriptionImpl;
+import game.communication.action.AbstractAction;
+import game.communication.action.GameCtrlActionType;
+import game.communication.action.control.AskServerStateCtrlAction;
+import game.communication.action.control.CreateGameCtrlAction;
+import game.communication.action.control.SubscribeServerStateCtrlAction;
+import game.communication.action.game.EndTurnCmnAction;
+import game.communication.action.gamecreation.SendGameConfigurationGameCrAction;
+import game.communication.action.gamecreation.SendPlayerConfigurationGameCrAction;
+import game.communication.action.gamecreation.StartGameCrAction;
+import game.communication.action.gamecreation.UpdateStatusCrAction;
+import game.communication.action.gamectrl.AddAICrAction;
+import game.communication.action.gamectrl.JoinGameCrAction;
+import game.communication.action.gamectrl.KickPlayerCrAction;
+import game.communication.action.gamectrl.LeaveGameCrAction;
+import game.communication.event.AbstractEvent;
+import game.communication.event.control.GameCreationStartedCtrlEvent;
+import game.communication.event.control.GameJoinedCtrlEvent;
+import game.communication.event.control.GameListDeltaCtrlEvent;
+import game.communication.event.control.GameListDeltaType;
+import game.communication.event.control.ServerStateCtrlEvent;
+import game.communication.event.game.CantActCmnEvent;
+import game.communication.event.game.TurnTimeoutCmnEvent;
+import game.communication.event.game.UnauthorizedActionCmnEvent;
+import game.communication.event.game.YourTurnCmnEvent;
+import game.communication.event.gamecreation.ConfigurationUpdateCrEvent;
+import game.communication.event.gamecreation.GameCreatedCrEvent;
+import game.communication.event.gamectrl.GameDestroyedCrEvent;
+import game.communication.event.gamectrl.GameFullCrEvent;
+import game.communication.event.gamectrl.GameLeftCrEvent;
+import game.communication.event.gamectrl.KickedFromGameCrEvent;
+import game.communication.event.gamectrl.PlayerListUpdateCrEvent;
+import game.config.EmptyPlayerConfiguration;
+import game.gameserver.ServerStateImpl;
+import game.network.codec.BinaryCodecFactory;
+import game.network.codec.BinaryMessageEncoder;
+import game.network.config.RegistrationType;
+import game.network.messages.AbstractMessage;
+import game.network.messages.AuthenticateMessage;
+import game.network.messages.AuthenticationSuccessfulMessage;
+import game.network.messages.GameActionMessage;
+import game.network.messages.GameEventBatchMessage;
+import game.network.messages.GameEventFanOutMessage;
+import game.network.messages.GameEventMessage;
+import game.network.messages.KeepAliveRequestMessage;
+import game.network.messages.KeepAliveResponseMessage;
+import game.network.messages.MessageType;
+import game.network.messages.RegisterMessage;
+import game.network.messages.RegistrationErrorMessage;
+import game.network.messages.RequestAuthenticationMessage;
+import game.network.messages.UnexpectedMessage;
+import game.network.messages.WrongAuthenticationMessage;
+
+import java.io.Serializable;
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.mina.core.buffer.IoBuffer;
+import org.apache.mina.core.filterchain.IoFilter.NextFilter;
+import org.apache.mina.core.session.DummySession;
+import org.apache.mina.core.session.IoSession;
+import org.apache.mina.filter.codec.ProtocolDecoder;
+import org.apache.mina.filter.codec.ProtocolDecoderOutput;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measure the encoding and the decoding of each type of message by the
+ * binary codec. The events shared by several clients cache their encoded
+ * form, so their encoding is only measured once per trial, as it is on the
+ * server.
+ * 
+ * Before measuring, each trial checks that the measured message is decoded
+ * unchanged. The trials of {@link MessageType#GAME_ACTION} and
+ * {@link MessageType#GAME_EVENT} also check a sample of each action and of
+ * each event encoded field by field by the codec, and of a game specific one
+ * encoded using the java serialization.
+ * 
+ * @author benobiwan
+ * 
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CodecBenchmark
+{
+	/**
+	 * Number of events of the batches and of players of the fan-outs.
+	 */
+	private static final int BATCH_SIZE = 8;
+
+	/**
+	 * Id of the game of the sample actions and events.
+	 */
+	private static final int GAME_ID = 3;
+
+	/**
+	 * Id of the player of the sample actions and events.
+	 */
+	private static final int PLAYER_ID = 7;
+
+	/**
+	 * The type of the message encoded and decoded.
+	 */
+	@Param({ "KEEP_ALIVE_REQUEST", "KEEP_ALIVE_RESPONSE", "AUTHENTICATE",
+			"REQUEST_AUTHENTICATION", "WRONG_AUTHENTICATION", "REGISTER",
+			"REGISTRATION_ERROR", "AUTHENTICATION_SUCCESSFUL",
+			"UNEXPECTED_MESSAGE", "GAME_EVENT", "GAME_ACTION",
+			"GAME_EVENT_BATCH", "GAME_EVENT_FAN_OUT" })
+	public String _strMessageType;
+
+	/**
+	 * The message encoded.
+	 */
+	private AbstractMessage _message;
+
+	/**
+	 * The encoded message, decoded again and again.
+	 */
+	private IoBuffer _frame;
+
+	/**
+	 * The session used by the decoder.
+	 */
+	private IoSession _session;
+
+	/**
+	 * The decoder.
+	 */
+	private ProtocolDecoder _decoder;
+
+	/**
+	 * The output of the decoder, keeping the last decoded message.
+	 */
+	private final DecodedMessageOutput _output = new DecodedMessageOutput();
+
+	/**
+	 * Build the message, encode it once and check that the codec decodes it
+	 * unchanged.
+	 * 
+	 * @throws Exception
+	 *             if a message can't be decoded.
+	 * @throws IllegalStateException
+	 *             if a message isn't decoded unchanged.
+	 */
+	@Setup(Level.Trial)
+	public void setUp() throws Exception
+	{
+		_message = createMessage(MessageType.valueOf(_strMessageType));
+		_frame = BinaryMessageEncoder.encodeMessage(_message);
+		_session = new DummySession();
+		_decoder = new BinaryCodecFactory().getDecoder(_session);
+		checkRoundTrip(_message);
+		if (_message instanceof GameActionMessage)
+		{
+			for (final AbstractAction action : createActions())
+			{
+				checkRoundTrip(new GameActionMessage(action));
+			}
+		}
+		else if (_message instanceof GameEventMessage)
+		{
+			for (final AbstractEvent event : createEvents())
+			{
+				checkRoundTrip(new GameEventMessage(event));
+			}
+		}
+	}
+
+	/**
+	 * Encode the message.
+	 * 
+	 * @return the buffer holding the encoded message.
+	 */
+	@Benchmark
+	public IoBuffer encode()
+	{
+		return BinaryMessageEncoder.encodeMessage(_message);
+	}
+
+	/**
+	 * Decode the message.
+	 * 
+	 * @return the decoded message.
+	 * @throws Exception
+	 *             if the message can't be decoded.
+	 */
+	@Benchmark
+	public Object decode() throws Exception
+	{
+		_decoder.decode(_session, _frame.duplicate(), _output);
+		return _output._message;
+	}
+
+	/**
+	 * Creates a sample message of the specified type.
+	 * 
+	 * @param type
+	 *            the type of the message.
+	 * @return the message.
+	 */
+	private static AbstractMessage createMessage(final MessageType type)
+	{
+		switch (type)
+		{
+		case KEEP_ALIVE_REQUEST:
+			return new KeepAliveRequestMessage();
+		case KEEP_ALIVE_RESPONSE:
+			return new KeepAliveResponseMessage();
+		case AUTHENTICATE:
+			return new AuthenticateMessage("player", "secret");
+		case REQUEST_AUTHENTICATION:
+			return new RequestAuthenticationMessage(RegistrationType.OPTIONAL);
+		case WRONG_AUTHENTICATION:
+			return new WrongAuthenticationMessage("Wrong password.");
+		case REGISTER:
+			return new RegisterMessage("player", "secret");
+		case REGISTRATION_ERROR:
+			return new RegistrationErrorMessage("Name already used.");
+		case AUTHENTICATION_SUCCESSFUL:
+			return new AuthenticationSuccessfulMessage(42);
+		case UNEXPECTED_MESSAGE:
+			return new UnexpectedMessage();
+		case GAME_EVENT:
+			return new GameEventMessage(new StubGameEvent(1, 1));
+		case GAME_ACTION:
+			return new GameActionMessage(new StubGameAction(1, 1));
+		case GAME_EVENT_BATCH:
+			final List<AbstractEvent> eventList = new ArrayList<>(BATCH_SIZE);
+			for (int i = 1; i <= BATCH_SIZE; i++)
+			{
+				eventList.add(new StubGameEvent(1, i));
+			}
+			return new GameEventBatchMessage(eventList);
+		case GAME_EVENT_FAN_OUT:
+			final SortedSet<IPlayerDescription> playerList = new TreeSet<>();
+			final int[] playerIds = new int[BATCH_SIZE];
+			for (int i = 1; i <= BATCH_SIZE; i++)
+			{
+				playerList.add(new PlayerDescriptionImpl("Player " + i, false));
+				playerIds[i - 1] = i;
+			}
+			return new GameEventFanOutMessage(playerIds,
+					new PlayerListUpdateCrEvent(1, 0, playerList));
+		default:
+			throw new IllegalArgumentException("Unknown message type "
+					+ type);
+		}
+	}
+
+	/**
+	 * Creates a sample of each action written field by field by the codec,
+	 * and of a game specific action.
+	 * 
+	 * @return the actions.
+	 */
+	private static List<AbstractAction> createActions()
+	{
+		final List<AbstractAction> actionList = new ArrayList<>();
+		actionList.add(new AskServerStateCtrlAction(false));
+		actionList.add(new SubscribeServerStateCtrlAction(true));
+		actionList.add(new CreateGameCtrlAction(new StubServerGameCreator(4),
+				PLAYER_ID));
+		actionList.add(new SendGameConfigurationGameCrAction(GAME_ID,
+				PLAYER_ID, new StubGameConfiguration(4)));
+		actionList.add(new SendPlayerConfigurationGameCrAction(GAME_ID,
+				PLAYER_ID, new EmptyPlayerConfiguration(null, null)));
+		actionList.add(new UpdateStatusCrAction(GAME_ID, PLAYER_ID, true));
+		actionList.add(new AddAICrAction(GAME_ID, PLAYER_ID, 11, "AI"));
+		actionList.add(new KickPlayerCrAction(GAME_ID, PLAYER_ID, 11));
+		actionList.add(new EndTurnCmnAction(GAME_ID, PLAYER_ID));
+		actionList.add(new StartGameCrAction(GAME_ID, PLAYER_ID));
+		actionList.add(new JoinGameCrAction(GAME_ID, PLAYER_ID));
+		actionList.add(new LeaveGameCrAction(GAME_ID, PLAYER_ID));
+		actionList.add(new StubGameAction(GAME_ID, PLAYER_ID));
+		return actionList;
+	}
+
+	/**
+	 * Creates a sample of each event written field by field by the codec, and
+	 * of game specific events sent to one or to many clients.
+	 * 
+	 * @return the events.
+	 */
+	private static List<AbstractEvent> createEvents()
+	{
+		final TreeSet<IGameInstanceDescription> descriptionSet = new TreeSet<>();
+		descriptionSet.add(new StubGameDescription(GAME_ID, "Creator", 4));
+		final SortedSet<IPlayerDescription> playerList = new TreeSet<>();
+		final PlayerDescriptionImpl readyPlayer = new PlayerDescriptionImpl(
+				"Ready player", false);
+		readyPlayer.setReady(true);
+		playerList.add(readyPlayer);
+		playerList.add(new PlayerDescriptionImpl("AI", true));
+		final List<AbstractEvent> eventList = new ArrayList<>();
+		eventList.add(new GameCreationStartedCtrlEvent(GAME_ID, PLAYER_ID,
+				new StubClientGameCreator(4)));
+		eventList.add(new GameJoinedCtrlEvent(GAME_ID, PLAYER_ID,
+				new StubClientGameCreator(4)));
+		eventList.add(new ServerStateCtrlEvent(new ServerStateImpl(1, 2, 3, 4),
+				descriptionSet, false, 5));
+		eventList.add(new GameListDeltaCtrlEvent(6, GameListDeltaType.UPDATED,
+				GAME_ID, new StubGameDescription(GAME_ID, "Creator", 4),
+				new ServerStateImpl(1, 2, 3, 4)));
+		eventList.add(new UnauthorizedActionCmnEvent(GAME_ID, PLAYER_ID,
+				GameCtrlActionType.ADD_AI));
+		eventList.add(new ConfigurationUpdateCrEvent(GAME_ID, PLAYER_ID,
+				new StubGameConfiguration(4)));
+		eventList.add(new PlayerListUpdateCrEvent(GAME_ID, PLAYER_ID,
+				playerList));
+		eventList.add(new CantActCmnEvent(GAME_ID, PLAYER_ID));
+		eventList.add(new TurnTimeoutCmnEvent(GAME_ID, PLAYER_ID));
+		eventList.add(new YourTurnCmnEvent(GAME_ID, PLAYER_ID));
+		eventList.add(new GameCreatedCrEvent(GAME_ID, PLAYER_ID));
+		eventList.add(new GameDestroyedCrEvent(GAME_ID, PLAYER_ID));
+		eventList.add(new GameFullCrEvent(GAME_ID, PLAYER_ID));
+		eventList.add(new GameLeftCrEvent(GAME_ID, PLAYER_ID));
+		eventList.add(new KickedFromGameCrEvent(GAME_ID, PLAYER_ID));
+		eventList.add(new StubGameEvent(GAME_ID, PLAYER_ID));
+		eventList.add(new StubMultiCastGameEvent(GAME_ID));
+		return eventList;
+	}
+
+	/**
+	 * Encode and decode a message and check that the decoded message is equal
+	 * to the encoded one.
+	 * 
+	 * @param message
+	 *            the message.
+	 * @throws Exception
+	 *             if the message can't be decoded.
+	 * @throws IllegalStateException
+	 *             if the decoded message isn't equal to the encoded one.
+	 */
+	private void checkRoundTrip(final AbstractMessage message)
+			throws Exception
+	{
+		_output._message = null;
+		_decoder.decode(_session, BinaryMessageEncoder.encodeMessage(message),
+				_output);
+		final String strDifference = findDifference(message.getClass()
+				.getSimpleName(), message, _output._message,
+				new IdentityHashMap<Object, Object>());
+		if (strDifference != null)
+		{
+			throw new IllegalStateException("Message changed by the codec: "
+					+ strDifference);
+		}
+	}
+
+	/**
+	 * Compare an encoded value with the decoded one. Strings, numbers,
+	 * booleans, characters and enums are compared using equals, arrays,
+	 * collections and maps element by element, other objects field by field.
+	 * As for the java serialization, the static and transient fields and the
+	 * fields of the non serializable classes aren't compared.
+	 * 
+	 * @param strPath
+	 *            the path of the value from the message.
+	 * @param expected
+	 *            the encoded value.
+	 * @param actual
+	 *            the decoded value.
+	 * @param visitedMap
+	 *            the encoded objects already compared, to stop on cycles.
+	 * @return the description of the first difference, or null if the values
+	 *         are equal.
+	 * @throws IllegalAccessException
+	 *             if a field can't be read.
+	 */
+	private static String findDifference(final String strPath,
+			final Object expected, final Object actual,
+			final Map<Object, Object> visitedMap)
+			throws IllegalAccessException
+	{
+		if (expected == actual)
+		{
+			return null;
+		}
+		if (expected == null || actual == null
+				|| expected.getClass() != actual.getClass())
+		{
+			return strPath + " was " + expected + " and became " + actual;
+		}
+		if (expected instanceof String || expected instanceof Number
+				|| expected instanceof Boolean
+				|| expected instanceof Character || expected instanceof Enum)
+		{
+			return expected.equals(actual) ? null : strPath + " was "
+					+ expected + " and became " + actual;
+		}
+		if (visitedMap.put(expected, actual) != null)
+		{
+			return null;
+		}
+		if (expected.getClass().isArray())
+		{
+			return findArrayDifference(strPath, expected, actual, visitedMap);
+		}
+		if (expected instanceof Collection)
+		{
+			return findCollectionDifference(strPath,
+					(Collection<?>) expected, (Collection<?>) actual,
+					visitedMap);
+		}
+		if (expected instanceof Map)
+		{
+			return findMapDifference(strPath, (Map<?, ?>) expected,
+					(Map<?, ?>) actual, visitedMap);
+		}
+		for (Class<?> clazz = expected.getClass(); clazz != null
+				&& Serializable.class.isAssignableFrom(clazz); clazz = clazz
+				.getSuperclass())
+		{
+			for (final Field field : clazz.getDeclaredFields())
+			{
+				final int iModifiers = field.getModifiers();
+				if (Modifier.isStatic(iModifiers)
+						|| Modifier.isTransient(iModifiers))
+				{
+					continue;
+				}
+				field.setAccessible(true);
+				final String strDifference = findDifference(strPath + "."
+						+ field.getName(), field.get(expected),
+						field.get(actual), visitedMap);
+				if (strDifference != null)
+				{
+					return strDifference;
+				}
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Compare an encoded array with the decoded one, element by element.
+	 * 
+	 * @param strPath
+	 *            the path of the array from the message.
+	 * @param expected
+	 *            the encoded array.
+	 * @param actual
+	 *            the decoded array.
+	 * @param visitedMap
+	 *            the encoded objects already compared, to stop on cycles.
+	 * @return the description of the first difference, or null if the arrays
+	 *         are equal.
+	 * @throws IllegalAccessException
+	 *             if a field can't be read.
+	 */
+	private static String findArrayDifference(final String strPath,
+			final Object expected, final Object actual,
+			final Map<Object, Object> visitedMap)
+			throws IllegalAccessException
+	{
+		final int iLength = Array.getLength(expected);
+		if (iLength != Array.getLength(actual))
+		{
+			return strPath + " had " + iLength + " elements and got "
+					+ Array.getLength(actual);
+		}
+		for (int i = 0; i < iLength; i++)
+		{
+			final String strDifference = findDifference(strPath + "[" + i
+					+ "]", Array.get(expected, i), Array.get(actual, i),
+					visitedMap);
+			if (strDifference != null)
+			{
+				return strDifference;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Compare an encoded collection with the decoded one, element by element
+	 * in the order of their iterators.
+	 * 
+	 * @param strPath
+	 *            the path of the collection from the message.
+	 * @param expected
+	 *            the encoded collection.
+	 * @param actual
+	 *            the decoded collection.
+	 * @param visitedMap
+	 *            the encoded objects already compared, to stop on cycles.
+	 * @return the description of the first difference, or null if the
+	 *         collections are equal.
+	 * @throws IllegalAccessException
+	 *             if a field can't be read.
+	 */
+	private static String findCollectionDifference(final String strPath,
+			final Collection<?> expected, final Collection<?> actual,
+			final Map<Object, Object> visitedMap)
+			throws IllegalAccessException
+	{
+		if (expected.size() != actual.size())
+		{
+			return strPath + " had " + expected.size()
+					+ " elements and got " + actual.size();
+		}
+		final Iterator<?> actualIterator = actual.iterator();
+		int i = 0;
+		for (final Object element : expected)
+		{
+			final String strDifference = findDifference(strPath + "[" + i
+					+ "]", element, actualIterator.next(), visitedMap);
+			if (strDifference != null)
+			{
+				return strDifference;
+			}
+			i++;
+		}
+		return null;
+	}
+
+	/**
+	 * Compare an encoded map with the decoded one, value by value.
+	 * 
+	 * @param strPath
+	 *            the path of the map from the message.
+	 * @param expected
+	 *            the encoded map.
+	 * @param actual
+	 *            the decoded map.
+	 * @param visitedMap
+	 *            the encoded objects already compared, to stop on cycles.
+	 * @return the description of the first difference, or null if the maps
+	 *         are equal.
+	 * @throws IllegalAccessException
+	 *             if a field can't be read.
+	 */
+	private static String findMapDifference(final String strPath,
+			final Map<?, ?> expected, final Map<?, ?> actual,
+			final Map<Object, Object> visitedMap)
+			throws IllegalAccessException
+	{
+		if (expected.size() != actual.size())
+		{
+			return strPath + " had " + expected.size()
+					+ " entries and got " + actual.size();
+		}
+		for (final Map.Entry<?, ?> entry : expected.entrySet())
+		{
+			if (!actual.containsKey(entry.getKey()))
+			{
+				return strPath + " lost the key " + entry.getKey();
+			}
+			final String strDifference = findDifference(strPath + "["
+					+ entry.getKey() + "]", entry.getValue(),
+					actual.get(entry.getKey()), visitedMap);
+			if (strDifference != null)
+			{
+				return strDifference;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Output of the decoder keeping the last decoded message.
+	 * 
+	 * @author benobiwan
+	 * 
+	 */
+	private static final class DecodedMessageOutput implements
+			ProtocolDecoderOutput
+	{
+		/**
+		 * The last decoded message.
+		 */
+		Object _message;
+
+		/**
+		 * Creates a new DecodedMessageOutput.
+		 */
+		DecodedMessageOutput()
+		{
+			// nothing to do
+		}
+
+		@Override
+		public void write(final Object message)
+		{
+			_message = message;
+		}
+
+		@Override
+		public void flush(final NextFilter nextFilter, final IoSession session)
+		{
+			// nothing to do
+		}
+	}
+}
@@ -0,0 +1,157 @@
+package game.benchmark;
+
+import game.benchmark.stub.StubGameEvent;
+import game.benchmark.stub.StubGames;
+import game.benchmark.stub.StubMultiCastGameEvent;
+import game.benchmark.stub.StubServerGameCreator;
+import game.benchmark.stub.StubServerSidePlayer;
+import game.common.IGameDescription;
+import game.communication.action.InconsistentActionTypeException;
+import game.communication.event.InconsistentEventTypeException;
+import game.gameclient.LocalGameClient;
+import game.gameserver.LocalGameServer;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measure the dispatch of the game events by a client hosting from one to
+ * ten thousand players, split in games of at most {@link #GAME_SIZE}
+ * players. Each invocation delivers one event, to the next player or game
+ * in turn, so that the lookups don't always hit the same entries.
+ * 
+ * @author benobiwan
+ * 
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EventDispatchBenchmark
+{
+	/**
+	 * Maximum number of players of a game.
+	 */
+	private static final int GAME_SIZE = 8;
+
+	/**
+	 * Number of players hosted by the client.
+	 */
+	@Param({ "1", "10", "100", "1000", "10000" })
+	public int _iNbPlayers;
+
+	/**
+	 * The server hosting the games.
+	 */
+	private LocalGameServer _server;
+
+	/**
+	 * The client hosting the players.
+	 */
+	private LocalGameClient _client;
+
+	/**
+	 * One unicast event for each player.
+	 */
+	private StubGameEvent[] _unicastEvents;
+
+	/**
+	 * One multicast event for each game.
+	 */
+	private StubMultiCastGameEvent[] _multicastEvents;
+
+	/**
+	 * Index of the next unicast event to deliver.
+	 */
+	private int _iNextUnicast;
+
+	/**
+	 * Index of the next multicast event to deliver.
+	 */
+	private int _iNextMulticast;
+
+	/**
+	 * Start the games and build the events.
+	 * 
+	 * @throws InconsistentActionTypeException
+	 *             if an action is inconsistent.
+	 */
+	@Setup(Level.Trial)
+	public void setUp() throws InconsistentActionTypeException
+	{
+		_server = new LocalGameServer(new HashSet<IGameDescription>());
+		_client = new LocalGameClient("Benchmark client");
+		_client.registerGameServer(_server);
+		final List<StubGameEvent> unicastList = new ArrayList<>(_iNbPlayers);
+		final List<StubMultiCastGameEvent> multicastList = new ArrayList<>();
+		int iRemaining = _iNbPlayers;
+		while (iRemaining > 0)
+		{
+			final int iGameSize = Math.min(GAME_SIZE, iRemaining);
+			final StubServerGameCreator creator = StubGames.startGame(_server,
+					_client, iGameSize);
+			final int iGameId = creator.getGameId();
+			for (final StubServerSidePlayer player : creator.getPlayers())
+			{
+				unicastList.add(new StubGameEvent(iGameId, player.getId()));
+			}
+			multicastList.add(new StubMultiCastGameEvent(iGameId));
+			iRemaining -= iGameSize;
+		}
+		_unicastEvents = unicastList.toArray(new StubGameEvent[unicastList
+				.size()]);
+		_multicastEvents = multicastList
+				.toArray(new StubMultiCastGameEvent[multicastList.size()]);
+	}
+
+	/**
+	 * Deliver a unicast event to the next player.
+	 * 
+	 * @throws InconsistentEventTypeException
+	 *             if the event is inconsistent.
+	 */
+	@Benchmark
+	public void unicast() throws InconsistentEventTypeException
+	{
+		_client.handleEvent(_server, _unicastEvents[_iNextUnicast]);
+		if (++_iNextUnicast == _unicastEvents.length)
+		{
+			_iNextUnicast = 0;
+		}
+	}
+
+	/**
+	 * Broadcast a multicast event to the players of the next game.
+	 * 
+	 * @return whether the event was delivered.
+	 */
+	@Benchmark
+	public boolean multicast()
+	{
+		final boolean bDelivered = _server.broadcast(
+				_multicastEvents[_iNextMulticast].getGameId(),
+				_multicastEvents[_iNextMulticast]);
+		if (++_iNextMulticast == _multicastEvents.length)
+		{
+			_iNextMulticast = 0;
+		}
+		return bDelivered;
+	}
+}
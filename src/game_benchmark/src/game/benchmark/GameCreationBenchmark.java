@@ -0,0 +1,85 @@
+package game.benchmark;
+
+import game.benchmark.stub.StubGames;
+import game.benchmark.stub.StubServerGameCreator;
+import game.common.IGameDescription;
+import game.communication.action.InconsistentActionTypeException;
+import game.gameclient.LocalGameClient;
+import game.gameserver.LocalGameServer;
+
+import java.util.HashSet;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measure how the creation of games scales with the number of clients
+ * creating games at the same time on a single server. Each thread plays the
+ * part of a client creating, joining, starting and ending games. The
+ * benchmark runs one thread per processor; compare with a run on a single
+ * thread, with the <code>-t 1</code> option of JMH, to get the scaling.
+ * 
+ * @author benobiwan
+ * 
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(Threads.MAX)
+@State(Scope.Benchmark)
+public class GameCreationBenchmark
+{
+	/**
+	 * Number of players of each game.
+	 */
+	@Param({ "2", "8" })
+	public int _iGameSize;
+
+	/**
+	 * The server shared by all the threads.
+	 */
+	private LocalGameServer _server;
+
+	/**
+	 * Creates the server.
+	 */
+	@Setup(Level.Trial)
+	public void setUp()
+	{
+		_server = new LocalGameServer(new HashSet<IGameDescription>());
+	}
+
+	/**
+	 * Create, join, start and end a game, concurrently with the other
+	 * threads.
+	 * 
+	 * @return the creator of the game.
+	 * @throws InconsistentActionTypeException
+	 *             if an action is inconsistent.
+	 */
+	@Benchmark
+	public StubServerGameCreator concurrentCreateJoinStart()
+			throws InconsistentActionTypeException
+	{
+		final LocalGameClient client = new LocalGameClient("Benchmark client");
+		client.registerGameServer(_server);
+		final StubServerGameCreator creator = StubGames.startGame(_server,
+				client, _iGameSize);
+		_server.unregisterGame(creator.getGame());
+		return creator;
+	}
+}
@@ -0,0 +1,81 @@
+package game.benchmark;
+
+import game.benchmark.stub.StubGames;
+import game.benchmark.stub.StubServerGameCreator;
+import game.common.IGameDescription;
+import game.communication.action.InconsistentActionTypeException;
+import game.gameclient.LocalGameClient;
+import game.gameserver.LocalGameServer;
+
+import java.util.HashSet;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measure the life of a game in the lobby: its creation, the joining of the
+ * players, their configuration and status updates, the start of the game and
+ * its end. A new client is used for each game, as the players of a client
+ * are never forgotten.
+ * 
+ * @author benobiwan
+ * 
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LobbyBenchmark
+{
+	/**
+	 * Number of players of each game.
+	 */
+	@Param({ "2", "8" })
+	public int _iGameSize;
+
+	/**
+	 * The server hosting the games.
+	 */
+	private LocalGameServer _server;
+
+	/**
+	 * Creates the server.
+	 */
+	@Setup(Level.Trial)
+	public void setUp()
+	{
+		_server = new LocalGameServer(new HashSet<IGameDescription>());
+	}
+
+	/**
+	 * Create, join, start and end a game.
+	 * 
+	 * @return the creator of the game.
+	 * @throws InconsistentActionTypeException
+	 *             if an action is inconsistent.
+	 */
+	@Benchmark
+	public StubServerGameCreator createJoinStart()
+			throws InconsistentActionTypeException
+	{
+		final LocalGameClient client = new LocalGameClient("Benchmark client");
+		client.registerGameServer(_server);
+		final StubServerGameCreator creator = StubGames.startGame(_server,
+				client, _iGameSize);
+		_server.unregisterGame(creator.getGame());
+		return creator;
+	}
+}
@@ -0,0 +1,149 @@
+package game.benchmark;
+
+import game.common.PlayerIndex;
+
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Compare the {@link PlayerIndex} with the {@link ConcurrentSkipListMap}
+ * previously used by the game clients to find their players. The lookups
+ * are done by several threads, as the events of the different games of a
+ * client are dispatched concurrently.
+ * 
+ * @author benobiwan
+ * 
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class PlayerIndexBenchmark
+{
+	/**
+	 * Number of lookups done by each invocation.
+	 */
+	private static final int LOOKUPS = 1024;
+
+	/**
+	 * Number of players in the maps.
+	 */
+	@Param({ "8", "64", "1024", "10000" })
+	public int _iNbPlayers;
+
+	/**
+	 * The player index.
+	 */
+	private PlayerIndex<Object> _playerIndex;
+
+	/**
+	 * The skip list map.
+	 */
+	private ConcurrentSkipListMap<Integer, Object> _skipListMap;
+
+	/**
+	 * The ids looked up, half of them being in the maps.
+	 */
+	private int[] _playerIds;
+
+	/**
+	 * Fill the maps with the same players.
+	 */
+	@Setup(Level.Trial)
+	public void setUp()
+	{
+		_playerIndex = new PlayerIndex<>();
+		_skipListMap = new ConcurrentSkipListMap<>();
+		for (int i = 1; i <= _iNbPlayers; i++)
+		{
+			final Object player = new Object();
+			_playerIndex.put(i, player);
+			_skipListMap.put(Integer.valueOf(i), player);
+		}
+		_playerIds = new int[LOOKUPS];
+		for (int i = 0; i < LOOKUPS; i++)
+		{
+			_playerIds[i] = 1 + (i * 7919) % (_iNbPlayers * 2);
+		}
+	}
+
+	/**
+	 * Look players up in the {@link PlayerIndex}.
+	 * 
+	 * @param blackhole
+	 *            the blackhole consuming the players.
+	 */
+	@Benchmark
+	public void playerIndexGet(final Blackhole blackhole)
+	{
+		for (final int iPlayerId : _playerIds)
+		{
+			blackhole.consume(_playerIndex.get(iPlayerId));
+		}
+	}
+
+	/**
+	 * Look players up in the {@link ConcurrentSkipListMap}.
+	 * 
+	 * @param blackhole
+	 *            the blackhole consuming the players.
+	 */
+	@Benchmark
+	public void skipListGet(final Blackhole blackhole)
+	{
+		for (final int iPlayerId : _playerIds)
+		{
+			blackhole.consume(_skipListMap.get(Integer.valueOf(iPlayerId)));
+		}
+	}
+
+	/**
+	 * Add then remove a player from the {@link PlayerIndex}, as done when a
+	 * player joins and leaves a game.
+	 * 
+	 * @param blackhole
+	 *            the blackhole consuming the players.
+	 */
+	@Benchmark
+	@Threads(1)
+	public void playerIndexJoinLeave(final Blackhole blackhole)
+	{
+		final int iPlayerId = _iNbPlayers + 1;
+		blackhole.consume(_playerIndex.put(iPlayerId, this));
+		blackhole.consume(_playerIndex.remove(iPlayerId));
+	}
+
+	/**
+	 * Add then remove a player from the {@link ConcurrentSkipListMap}, as
+	 * done when a player joins and leaves a game.
+	 * 
+	 * @param blackhole
+	 *            the blackhole consuming the players.
+	 */
+	@Benchmark
+	@Threads(1)
+	public void skipListJoinLeave(final Blackhole blackhole)
+	{
+		final Integer playerId = Integer.valueOf(_iNbPlayers + 1);
+		blackhole.consume(_skipListMap.put(playerId, this));
+		blackhole.consume(_skipListMap.remove(playerId));
+	}
+}
@@ -0,0 +1,239 @@
+package game.benchmark;
+
+import game.network.SocketTuning;
+import game.network.config.INetworkTuningConfiguration;
+import game.network.config.NetworkTuningConfigurationImpl;
+
+import java.lang.management.ManagementFactory;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.mina.core.buffer.IoBuffer;
+import org.apache.mina.core.future.ConnectFuture;
+import org.apache.mina.core.service.IoHandlerAdapter;
+import org.apache.mina.core.session.IoSession;
+import org.apache.mina.transport.socket.nio.NioSocketAcceptor;
+import org.apache.mina.transport.socket.nio.NioSocketConnector;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import common.config.InvalidConfigurationException;
+
+/**
+ * Measure the effect of the socket options on a loopback connection: the
+ * latency of a small message echoed by the server and the throughput of a
+ * batch of larger messages. The options are applied through
+ * {@link SocketTuning} to both the acceptor and the connector, the messages
+ * are raw buffers so that only the transport is measured.
+ * 
+ * @author benobiwan
+ * 
+ */
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SocketTuningBenchmark
+{
+	/**
+	 * Size in bytes of the message of the round trip.
+	 */
+	private static final int SMALL_MESSAGE_SIZE = 64;
+
+	/**
+	 * Size in bytes of each message of the batch.
+	 */
+	private static final int LARGE_MESSAGE_SIZE = 1024;
+
+	/**
+	 * Number of messages of the batch.
+	 */
+	private static final int BATCH_SIZE = 64;
+
+	/**
+	 * Time in seconds allowed to connect to the server.
+	 */
+	private static final long CONNECTION_TIMEOUT = 10;
+
+	/**
+	 * Whether the TCP_NODELAY option is set.
+	 */
+	@Param({ "true", "false" })
+	public boolean _bTcpNoDelay;
+
+	/**
+	 * Size in bytes of the socket send and receive buffers, 0 for the system
+	 * default.
+	 */
+	@Param({ "0", "65536", "262144" })
+	public int _iSocketBufferSize;
+
+	/**
+	 * Minimum size in bytes of the read buffer.
+	 */
+	@Param({ "64", "2048" })
+	public int _iMinReadBufferSize;
+
+	/**
+	 * Number of bytes echoed by the server and not yet consumed by the
+	 * benchmark.
+	 */
+	private final Semaphore _receivedBytes = new Semaphore(0);
+
+	/**
+	 * The echo server.
+	 */
+	private NioSocketAcceptor _acceptor;
+
+	/**
+	 * The connector of the client.
+	 */
+	private NioSocketConnector _connector;
+
+	/**
+	 * The session of the client.
+	 */
+	private IoSession _session;
+
+	/**
+	 * The message of the round trip.
+	 */
+	private IoBuffer _smallMessage;
+
+	/**
+	 * A message of the batch.
+	 */
+	private IoBuffer _largeMessage;
+
+	/**
+	 * Start the echo server and connect the client.
+	 * 
+	 * @throws Exception
+	 *             if the server can't be started or the client can't
+	 *             connect.
+	 */
+	@Setup(Level.Trial)
+	public void setUp() throws Exception
+	{
+		final INetworkTuningConfiguration tuning = createTuning();
+		_acceptor = new NioSocketAcceptor(1);
+		SocketTuning.configure(_acceptor, tuning);
+		_acceptor.setHandler(new IoHandlerAdapter()
+		{
+			@Override
+			public void messageReceived(final IoSession session,
+					final Object message)
+			{
+				session.write(message);
+			}
+		});
+		_acceptor.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(),
+				0));
+		_connector = new NioSocketConnector(1);
+		SocketTuning.configure(_connector, tuning);
+		_connector.setHandler(new IoHandlerAdapter()
+		{
+			@Override
+			public void messageReceived(final IoSession session,
+					final Object message)
+			{
+				_receivedBytes.release(((IoBuffer) message).remaining());
+			}
+		});
+		final ConnectFuture connect = _connector.connect(_acceptor
+				.getLocalAddress());
+		if (!connect.await(CONNECTION_TIMEOUT, TimeUnit.SECONDS)
+				|| !connect.isConnected())
+		{
+			throw new IllegalStateException("Connection to "
+					+ _acceptor.getLocalAddress() + " failed.",
+					connect.getException());
+		}
+		_session = connect.getSession();
+		_smallMessage = IoBuffer.allocate(SMALL_MESSAGE_SIZE);
+		_smallMessage.put(new byte[SMALL_MESSAGE_SIZE]).flip();
+		_largeMessage = IoBuffer.allocate(LARGE_MESSAGE_SIZE);
+		_largeMessage.put(new byte[LARGE_MESSAGE_SIZE]).flip();
+	}
+
+	/**
+	 * Create the socket options of the trial.
+	 * 
+	 * @return the socket options of the trial.
+	 * @throws InvalidConfigurationException
+	 *             if a parameter is out of the bounds of its option.
+	 */
+	private INetworkTuningConfiguration createTuning()
+			throws InvalidConfigurationException
+	{
+		final Integer iSocketBufferSize = Integer.valueOf(_iSocketBufferSize);
+		return new NetworkTuningConfigurationImpl(null,
+				ManagementFactory.getPlatformMBeanServer(),
+				Boolean.valueOf(_bTcpNoDelay), iSocketBufferSize,
+				iSocketBufferSize, null, null,
+				Integer.valueOf(_iMinReadBufferSize), null);
+	}
+
+	/**
+	 * Close the client and stop the server.
+	 */
+	@TearDown(Level.Trial)
+	public void tearDown()
+	{
+		if (_session != null)
+		{
+			_session.close(true).awaitUninterruptibly();
+		}
+		_connector.dispose();
+		_acceptor.dispose();
+	}
+
+	/**
+	 * Send a small message and wait for its echo.
+	 * 
+	 * @throws InterruptedException
+	 *             if the benchmark is interrupted.
+	 */
+	@Benchmark
+	@BenchmarkMode(Mode.AverageTime)
+	@OutputTimeUnit(TimeUnit.MICROSECONDS)
+	public void roundTrip() throws InterruptedException
+	{
+		_session.write(_smallMessage.duplicate());
+		_receivedBytes.acquire(SMALL_MESSAGE_SIZE);
+	}
+
+	/**
+	 * Send a batch of messages without waiting, then wait for all their
+	 * echoes.
+	 * 
+	 * @throws InterruptedException
+	 *             if the benchmark is interrupted.
+	 */
+	@Benchmark
+	@BenchmarkMode(Mode.Throughput)
+	@OutputTimeUnit(TimeUnit.MILLISECONDS)
+	@OperationsPerInvocation(BATCH_SIZE)
+	public void throughput() throws InterruptedException
+	{
+		for (int i = 0; i < BATCH_SIZE; i++)
+		{
+			_session.write(_largeMessage.duplicate());
+		}
+		_receivedBytes.acquire(BATCH_SIZE * LARGE_MESSAGE_SIZE);
+	}
+}
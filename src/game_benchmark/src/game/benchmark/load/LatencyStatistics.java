@@ -0,0 +1,102 @@
+package game.benchmark.load;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Percentiles of a set of latencies, measured in nanoseconds.
+ * 
+ * @author benobiwan
+ * 
+ */
+final class LatencyStatistics
+{
+	/**
+	 * The percentiles reported.
+	 */
+	private static final double[] PERCENTILES = { 50, 90, 99, 99.9 };
+
+	/**
+	 * The sorted latencies.
+	 */
+	private final long[] _latencies;
+
+	/**
+	 * Creates a new LatencyStatistics.
+	 * 
+	 * @param latencies
+	 *            the latencies in nanoseconds, sorted in place.
+	 */
+	LatencyStatistics(final long[] latencies)
+	{
+		_latencies = latencies;
+		Arrays.sort(_latencies);
+	}
+
+	/**
+	 * Get the number of latencies.
+	 * 
+	 * @return the number of latencies.
+	 */
+	int getCount()
+	{
+		return _latencies.length;
+	}
+
+	/**
+	 * Get a percentile of the latencies.
+	 * 
+	 * @param dPercentile
+	 *            the percentile, between 0 and 100.
+	 * @return the latency in nanoseconds below which this percentage of the
+	 *         latencies are, 0 if there is no latency.
+	 */
+	long getPercentile(final double dPercentile)
+	{
+		if (_latencies.length == 0)
+		{
+			return 0;
+		}
+		final int iRank = (int) Math.ceil(dPercentile / 100
+				* _latencies.length);
+		return _latencies[Math.max(iRank - 1, 0)];
+	}
+
+	/**
+	 * Get the maximum latency.
+	 * 
+	 * @return the maximum latency in nanoseconds, 0 if there is no latency.
+	 */
+	long getMax()
+	{
+		return _latencies.length == 0 ? 0
+				: _latencies[_latencies.length - 1];
+	}
+
+	@Override
+	public String toString()
+	{
+		final StringBuilder builder = new StringBuilder();
+		for (final double dPercentile : PERCENTILES)
+		{
+			builder.append("p").append(dPercentile % 1 == 0 ? String
+					.valueOf((int) dPercentile) : String.valueOf(dPercentile));
+			builder.append("=").append(toMicros(getPercentile(dPercentile)))
+					.append("us ");
+		}
+		builder.append("max=").append(toMicros(getMax())).append("us");
+		return builder.toString();
+	}
+
+	/**
+	 * Convert a latency to microseconds.
+	 * 
+	 * @param lNanos
+	 *            the latency in nanoseconds.
+	 * @return the latency in microseconds.
+	 */
+	private static long toMicros(final long lNanos)
+	{
+		return TimeUnit.NANOSECONDS.toMicros(lNanos);
+	}
+}
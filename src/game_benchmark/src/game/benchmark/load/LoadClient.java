@@ -0,0 +1,475 @@
+package game.benchmark.load;
+
+import game.benchmark.stub.StubGameAction;
+import game.benchmark.stub.StubGameConfiguration;
+import game.benchmark.stub.StubGameEvent;
+import game.benchmark.stub.StubServerGameCreator;
+import game.common.IPlayerDescription;
+import game.communication.action.AbstractAction;
+import game.communication.action.control.CreateGameCtrlAction;
+import game.communication.action.gamecreation.SendGameConfigurationGameCrAction;
+import game.communication.action.gamecreation.SendPlayerConfigurationGameCrAction;
+import game.communication.action.gamecreation.StartGameCrAction;
+import game.communication.action.gamecreation.UpdateStatusCrAction;
+import game.communication.action.gamectrl.JoinGameCrAction;
+import game.communication.event.AbstractEvent;
+import game.communication.event.control.GameCreationStartedCtrlEvent;
+import game.communication.event.control.GameJoinedCtrlEvent;
+import game.communication.event.gamecreation.ConfigurationUpdateCrEvent;
+import game.communication.event.gamecreation.GameCreatedCrEvent;
+import game.communication.event.gamectrl.GameFullCrEvent;
+import game.communication.event.gamectrl.PlayerListUpdateCrEvent;
+import game.config.EmptyPlayerConfiguration;
+import game.network.messages.AbstractMessage;
+import game.network.messages.AuthenticateMessage;
+import game.network.messages.GameActionMessage;
+import game.network.messages.GameEventBatchMessage;
+import game.network.messages.GameEventFanOutMessage;
+import game.network.messages.GameEventMessage;
+import game.network.messages.WrongAuthenticationMessage;
+
+import java.net.InetSocketAddress;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.apache.mina.core.future.ConnectFuture;
+import org.apache.mina.core.future.IoFutureListener;
+import org.apache.mina.core.session.AttributeKey;
+import org.apache.mina.core.session.IoSession;
+import org.apache.mina.core.session.IoSessionInitializer;
+import org.apache.mina.transport.socket.nio.NioSocketConnector;
+
+/**
+ * A simulated client: it connects to the server, authenticates itself as an
+ * anonymous client, creates or joins a game, then plays it by sending its
+ * actions one after the other, each action being sent once the event
+ * answering the previous one is received. The messages of a session are
+ * received by a single thread at a time, so the state of the game is only
+ * accessed by this thread.
+ * 
+ * @author benobiwan
+ * 
+ */
+final class LoadClient
+{
+	/**
+	 * Key used to attach the client to its session.
+	 */
+	private static final AttributeKey LOAD_CLIENT_KEY = new AttributeKey(
+			LoadClient.class, "LoadClient");
+
+	/**
+	 * Id of the only player of the client.
+	 */
+	private static final int PLAYER_ID = 1;
+
+	/**
+	 * The generator running this client.
+	 */
+	private final LoadGenerator _generator;
+
+	/**
+	 * Name of the client.
+	 */
+	private final String _strName;
+
+	/**
+	 * Local address of the connection.
+	 */
+	private final InetSocketAddress _localAddress;
+
+	/**
+	 * Latencies of the actions, in nanoseconds.
+	 */
+	private final long[] _actionLatencies;
+
+	/**
+	 * Boolean telling whether the client finished playing or failed.
+	 */
+	private final AtomicBoolean _bDone = new AtomicBoolean();
+
+	/**
+	 * The game played by this client.
+	 */
+	private volatile LoadGame _game;
+
+	/**
+	 * Boolean telling whether this client creates the game.
+	 */
+	private volatile boolean _bCreator;
+
+	/**
+	 * The session with the server.
+	 */
+	private volatile IoSession _session;
+
+	/**
+	 * Time at which the connection was started, in nanoseconds.
+	 */
+	private volatile long _lConnectionStart;
+
+	/**
+	 * Time taken to connect and authenticate, in nanoseconds, -1 if the
+	 * client isn't authenticated.
+	 */
+	private volatile long _lConnectionLatency = -1;
+
+	/**
+	 * Boolean telling whether the authentication has been sent.
+	 */
+	private boolean _bAuthenticationSent;
+
+	/**
+	 * Id of the game on the server.
+	 */
+	private int _iGameId;
+
+	/**
+	 * Boolean telling whether the other players have been allowed to join
+	 * the game.
+	 */
+	private boolean _bJoinAllowed;
+
+	/**
+	 * Boolean telling whether the start of the game has been asked for.
+	 */
+	private boolean _bStartSent;
+
+	/**
+	 * Number of actions answered by the server.
+	 */
+	private volatile int _iNbActionsDone;
+
+	/**
+	 * Time at which the pending action was sent, in nanoseconds.
+	 */
+	private long _lActionSent;
+
+	/**
+	 * Creates a new LoadClient.
+	 * 
+	 * @param generator
+	 *            the generator running this client.
+	 * @param strName
+	 *            name of the client.
+	 * @param localAddress
+	 *            local address of the connection.
+	 * @param iNbActions
+	 *            number of actions played by this client.
+	 */
+	LoadClient(final LoadGenerator generator, final String strName,
+			final InetSocketAddress localAddress, final int iNbActions)
+	{
+		_generator = generator;
+		_strName = strName;
+		_localAddress = localAddress;
+		_actionLatencies = new long[iNbActions];
+	}
+
+	/**
+	 * Get the client attached to a session.
+	 * 
+	 * @param session
+	 *            the session.
+	 * @return the client attached to the session, null if there is none.
+	 */
+	static LoadClient get(final IoSession session)
+	{
+		return (LoadClient) session.getAttribute(LOAD_CLIENT_KEY);
+	}
+
+	/**
+	 * Set the game played by this client.
+	 * 
+	 * @param game
+	 *            the game played by this client.
+	 * @param bCreator
+	 *            whether this client creates the game.
+	 */
+	void setGame(final LoadGame game, final boolean bCreator)
+	{
+		_game = game;
+		_bCreator = bCreator;
+	}
+
+	/**
+	 * Connect to the server. The result of the connection is reported to the
+	 * generator.
+	 * 
+	 * @param connector
+	 *            the connector used to connect.
+	 * @param remoteAddress
+	 *            the address of the server.
+	 */
+	void connect(final NioSocketConnector connector,
+			final InetSocketAddress remoteAddress)
+	{
+		_lConnectionStart = System.nanoTime();
+		final ConnectFuture future = connector.connect(remoteAddress,
+				_localAddress, new IoSessionInitializer<ConnectFuture>()
+				{
+					@Override
+					public void initializeSession(final IoSession session,
+							final ConnectFuture connectFuture)
+					{
+						session.setAttribute(LOAD_CLIENT_KEY, LoadClient.this);
+						_session = session;
+					}
+				});
+		future.addListener(new IoFutureListener<ConnectFuture>()
+		{
+			@Override
+			public void operationComplete(final ConnectFuture connectFuture)
+			{
+				if (!connectFuture.isConnected())
+				{
+					fail("Connection failed: " + connectFuture.getException());
+				}
+			}
+		});
+	}
+
+	/**
+	 * Close the session with the server.
+	 */
+	void close()
+	{
+		final IoSession session = _session;
+		if (session != null)
+		{
+			session.close(true);
+		}
+	}
+
+	/**
+	 * Handle a message received from the server.
+	 * 
+	 * @param message
+	 *            the message.
+	 */
+	void messageReceived(final AbstractMessage message)
+	{
+		switch (message.getMessageType())
+		{
+		case REQUEST_AUTHENTICATION:
+			if (!_bAuthenticationSent)
+			{
+				_bAuthenticationSent = true;
+				_session.write(new AuthenticateMessage(_strName));
+			}
+			break;
+		case AUTHENTICATION_SUCCESSFUL:
+			_lConnectionLatency = System.nanoTime() - _lConnectionStart;
+			_generator.clientAuthenticated();
+			break;
+		case WRONG_AUTHENTICATION:
+			fail("Authentication failed: "
+					+ ((WrongAuthenticationMessage) message).getReason());
+			break;
+		case GAME_EVENT:
+			handleEvent(((GameEventMessage) message).getEvent());
+			break;
+		case GAME_EVENT_BATCH:
+			for (final AbstractEvent event : ((GameEventBatchMessage) message)
+					.getEventList())
+			{
+				handleEvent(event);
+			}
+			break;
+		case GAME_EVENT_FAN_OUT:
+			// the client has a single player, to which the event is addressed
+			handleEvent(((GameEventFanOutMessage) message).getEvent());
+			break;
+		default:
+			break;
+		}
+	}
+
+	/**
+	 * Called when the session with the server is closed.
+	 */
+	void sessionClosed()
+	{
+		fail("Connection closed by the server.");
+	}
+
+	/**
+	 * Create the game.
+	 */
+	void createGame()
+	{
+		send(new CreateGameCtrlAction(new StubServerGameCreator(
+				_game.getSize()), PLAYER_ID));
+	}
+
+	/**
+	 * Join a game.
+	 * 
+	 * @param iGameId
+	 *            the id of the game to join.
+	 */
+	void joinGame(final int iGameId)
+	{
+		send(new JoinGameCrAction(iGameId, PLAYER_ID));
+	}
+
+	/**
+	 * Get the time taken to connect and authenticate.
+	 * 
+	 * @return the time taken to connect and authenticate in nanoseconds, -1
+	 *         if the client isn't authenticated.
+	 */
+	long getConnectionLatency()
+	{
+		return _lConnectionLatency;
+	}
+
+	/**
+	 * Get the number of actions answered by the server.
+	 * 
+	 * @return the number of actions answered by the server.
+	 */
+	int getNbActionsDone()
+	{
+		return _iNbActionsDone;
+	}
+
+	/**
+	 * Get the latencies of the actions answered by the server.
+	 * 
+	 * @return the latencies in nanoseconds.
+	 */
+	long[] getActionLatencies()
+	{
+		return Arrays.copyOf(_actionLatencies, _iNbActionsDone);
+	}
+
+	/**
+	 * Handle an event received from the server.
+	 * 
+	 * @param event
+	 *            the event.
+	 */
+	private void handleEvent(final AbstractEvent event)
+	{
+		if (event instanceof StubGameEvent)
+		{
+			_actionLatencies[_iNbActionsDone] = System.nanoTime()
+					- _lActionSent;
+			_iNbActionsDone++;
+			sendNextAction();
+		}
+		else if (event instanceof PlayerListUpdateCrEvent)
+		{
+			if (_bCreator && !_bStartSent
+					&& isEverybodyReady((PlayerListUpdateCrEvent) event))
+			{
+				_bStartSent = true;
+				send(new StartGameCrAction(_iGameId, PLAYER_ID));
+			}
+		}
+		else if (event instanceof GameCreatedCrEvent)
+		{
+			sendNextAction();
+		}
+		else if (event instanceof GameCreationStartedCtrlEvent)
+		{
+			_iGameId = ((GameCreationStartedCtrlEvent) event).getGameId();
+			send(new SendPlayerConfigurationGameCrAction(_iGameId, PLAYER_ID,
+					new EmptyPlayerConfiguration(null, null)));
+			send(new SendGameConfigurationGameCrAction(_iGameId, PLAYER_ID,
+					new StubGameConfiguration(_game.getSize())));
+		}
+		else if (event instanceof ConfigurationUpdateCrEvent)
+		{
+			// the game can't be joined before it is configured
+			if (_bCreator && !_bJoinAllowed)
+			{
+				_bJoinAllowed = true;
+				_game.gameConfigured(_iGameId);
+			}
+		}
+		else if (event instanceof GameJoinedCtrlEvent)
+		{
+			_iGameId = ((GameJoinedCtrlEvent) event).getGameId();
+			send(new SendPlayerConfigurationGameCrAction(_iGameId, PLAYER_ID,
+					new EmptyPlayerConfiguration(null, null)));
+			send(new UpdateStatusCrAction(_iGameId, PLAYER_ID, true));
+		}
+		else if (event instanceof GameFullCrEvent)
+		{
+			fail("Game " + ((GameFullCrEvent) event).getGameId() + " is full.");
+		}
+	}
+
+	/**
+	 * Check whether all the players of the game joined it and are ready, the
+	 * creator being ready as soon as the game is created.
+	 * 
+	 * @param event
+	 *            the last update of the list of players.
+	 * @return true if the game can be started.
+	 */
+	private boolean isEverybodyReady(final PlayerListUpdateCrEvent event)
+	{
+		int iNbReady = 0;
+		for (final IPlayerDescription player : event.getPlayerList())
+		{
+			if (player.isReady())
+			{
+				iNbReady++;
+			}
+		}
+		return event.getPlayerList().size() == _game.getSize()
+				&& iNbReady == _game.getSize();
+	}
+
+	/**
+	 * Send the next action, or report that the client is done if all its
+	 * actions have been answered.
+	 */
+	private void sendNextAction()
+	{
+		if (_iNbActionsDone == _actionLatencies.length)
+		{
+			if (_bDone.compareAndSet(false, true))
+			{
+				_generator.clientFinished();
+			}
+			return;
+		}
+		_lActionSent = System.nanoTime();
+		send(new StubGameAction(_iGameId, PLAYER_ID));
+	}
+
+	/**
+	 * Send an action to the server.
+	 * 
+	 * @param action
+	 *            the action.
+	 */
+	private void send(final AbstractAction action)
+	{
+		_session.write(new GameActionMessage(action));
+	}
+
+	/**
+	 * Report the failure of this client, unless it is already done.
+	 * 
+	 * @param strReason
+	 *            the reason of the failure.
+	 */
+	private void fail(final String strReason)
+	{
+		if (_bDone.compareAndSet(false, true))
+		{
+			_generator.clientFailed(this, _lConnectionLatency < 0, strReason);
+		}
+	}
+
+	@Override
+	public String toString()
+	{
+		return _strName;
+	}
+}
@@ -0,0 +1,60 @@
+package game.benchmark.load;
+
+/**
+ * A game played by some of the simulated clients. The first client creates
+ * the game, the others join it once it is configured.
+ * 
+ * @author benobiwan
+ * 
+ */
+final class LoadGame
+{
+	/**
+	 * The players of the game, the creator first.
+	 */
+	private final LoadClient[] _players;
+
+	/**
+	 * Creates a new LoadGame.
+	 * 
+	 * @param players
+	 *            the players of the game, the creator first.
+	 */
+	LoadGame(final LoadClient[] players)
+	{
+		_players = players;
+	}
+
+	/**
+	 * Get the number of players of the game.
+	 * 
+	 * @return the number of players of the game.
+	 */
+	int getSize()
+	{
+		return _players.length;
+	}
+
+	/**
+	 * Create the game on the server.
+	 */
+	void create()
+	{
+		_players[0].createGame();
+	}
+
+	/**
+	 * Called by the creator once the server acknowledged the configuration of
+	 * the game: the other players can now join it.
+	 * 
+	 * @param iGameId
+	 *            the id of the game on the server.
+	 */
+	void gameConfigured(final int iGameId)
+	{
+		for (int i = 1; i < _players.length; i++)
+		{
+			_players[i].joinGame(iGameId);
+		}
+	}
+}
@@ -0,0 +1,780 @@
+package game.benchmark.load;
+
+import game.common.IGameDescription;
+import game.gameclient.LocalGameClient;
+import game.gameserver.LocalGameServer;
+import game.network.ActiveKeepAliveMessageFactory;
+import game.network.ClientAuthenticator;
+import game.network.ConnectionList;
+import game.network.ServerConnection;
+import game.network.SocketTuning;
+import game.network.codec.BinaryCodecFactory;
+import game.network.config.CodecType;
+import game.network.config.INetworkClientConfigurationList;
+import game.network.config.INetworkConfiguration;
+import game.network.config.INetworkServerConfiguration;
+import game.network.config.INetworkTuningConfiguration;
+import game.network.config.NetworkClientConfigurationListImpl;
+import game.network.config.NetworkConfigurationImpl;
+import game.network.config.NetworkServerConfigurationImpl;
+import game.network.config.NetworkTuningConfigurationImpl;
+import game.network.config.RegistrationType;
+import game.network.messages.AbstractMessage;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.UnknownHostException;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.management.MBeanServer;
+
+import org.apache.commons.cli.CommandLine;
+import org.apache.commons.cli.HelpFormatter;
+import org.apache.commons.cli.Option;
+import org.apache.commons.cli.Options;
+import org.apache.commons.cli.ParseException;
+import org.apache.commons.cli.PosixParser;
+import org.apache.log4j.BasicConfigurator;
+import org.apache.log4j.ConsoleAppender;
+import org.apache.log4j.Level;
+import org.apache.log4j.PatternLayout;
+import org.apache.mina.core.service.IoHandlerAdapter;
+import org.apache.mina.core.session.IdleStatus;
+import org.apache.mina.core.session.IoSession;
+import org.apache.mina.filter.codec.ProtocolCodecFilter;
+import org.apache.mina.filter.keepalive.KeepAliveFilter;
+import org.apache.mina.transport.socket.nio.NioSocketConnector;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import common.config.InvalidConfigurationException;
+
+/**
+ * Headless load generator: it starts a server in this process, then
+ * simulates distant clients connecting to it on the loopback interface.
+ * Each client authenticates itself, creates or joins a stub game and plays
+ * it by sending a fixed number of actions, each action being answered by an
+ * event from the server. Once all the clients are done, the number of
+ * connections per second, the number of actions per second and the
+ * percentiles of the latencies are reported.
+ * 
+ * @author benobiwan
+ * 
+ */
+public final class LoadGenerator
+{
+	/**
+	 * Logger object.
+	 */
+	private static final Logger LOGGER = LoggerFactory
+			.getLogger(LoadGenerator.class);
+
+	/**
+	 * Option used to set the number of simulated clients.
+	 */
+	public static final String OPTION_CLIENTS = "c";
+
+	/**
+	 * Option used to set the number of players of each game.
+	 */
+	public static final String OPTION_GAME_SIZE = "g";
+
+	/**
+	 * Option used to set the number of actions played by each client.
+	 */
+	public static final String OPTION_ACTIONS = "a";
+
+	/**
+	 * Option used to set the port of the server.
+	 */
+	public static final String OPTION_PORT = "p";
+
+	/**
+	 * Option used to set the time allowed to each phase of the test.
+	 */
+	public static final String OPTION_TIMEOUT = "t";
+
+	/**
+	 * Option used to display the help message.
+	 */
+	public static final String OPTION_HELP = "h";
+
+	/**
+	 * Maximum number of connections being established at the same time, kept
+	 * below the default backlog of the server socket, 50, so that it doesn't
+	 * overflow.
+	 */
+	private static final int MAX_PENDING_CONNECTIONS = 32;
+
+	/**
+	 * Number of clients whose address share the last two bytes, the host
+	 * byte never being 0 nor 255.
+	 */
+	private static final int CLIENTS_PER_SUBNET = 254 * 256;
+
+	/**
+	 * Number of connections an address can open in a burst when all the
+	 * clients share 127.0.0.1, the largest accepted by the configuration.
+	 */
+	private static final int SHARED_ADDRESS_CONNECTION_BURST = 1000;
+
+	/**
+	 * Interval in milliseconds needed by an address to regain a connection
+	 * when all the clients share 127.0.0.1, the shortest accepted by the
+	 * configuration.
+	 */
+	private static final long SHARED_ADDRESS_ALLOWED_INTERVAL = 100;
+
+	/**
+	 * The network configuration.
+	 */
+	private final INetworkConfiguration _networkConfiguration;
+
+	/**
+	 * The network server configuration.
+	 */
+	private final INetworkServerConfiguration _networkServerConfiguration;
+
+	/**
+	 * The list of network client configuration of the server.
+	 */
+	private final INetworkClientConfigurationList _networkClientConfigurationList;
+
+	/**
+	 * The socket options of the server and of the clients.
+	 */
+	private final INetworkTuningConfiguration _networkTuningConfiguration;
+
+	/**
+	 * Number of players of each game.
+	 */
+	private final int _iGameSize;
+
+	/**
+	 * Number of actions played by each client.
+	 */
+	private final int _iNbActions;
+
+	/**
+	 * Time allowed to each phase of the test, in seconds.
+	 */
+	private final long _lTimeout;
+
+	/**
+	 * Whether each client has its own loopback address, otherwise they all
+	 * connect from 127.0.0.1.
+	 */
+	private final boolean _bDistinctAddresses;
+
+	/**
+	 * The simulated clients.
+	 */
+	private final LoadClient[] _clients;
+
+	/**
+	 * Permits to establish a connection.
+	 */
+	private final Semaphore _pendingConnections = new Semaphore(
+			MAX_PENDING_CONNECTIONS);
+
+	/**
+	 * Latch released once all the clients are authenticated or failed.
+	 */
+	private final CountDownLatch _authenticatedLatch;
+
+	/**
+	 * Latch released once all the clients are done playing or failed.
+	 */
+	private final CountDownLatch _finishedLatch;
+
+	/**
+	 * Number of clients which failed.
+	 */
+	private final AtomicInteger _iNbFailures = new AtomicInteger();
+
+	/**
+	 * Report of the test.
+	 */
+	private final StringBuilder _report = new StringBuilder();
+
+	/**
+	 * The game server under test.
+	 */
+	private LocalGameServer _locGameServer;
+
+	/**
+	 * The server under test.
+	 */
+	private ServerConnection _serverConnection;
+
+	/**
+	 * The connector used by all the simulated clients.
+	 */
+	private NioSocketConnector _connector;
+
+	/**
+	 * Creates a new LoadGenerator.
+	 * 
+	 * @param networkConfiguration
+	 *            the network configuration.
+	 * @param networkServerConfiguration
+	 *            the network server configuration.
+	 * @param networkClientConfigurationList
+	 *            the list of network client configuration of the server.
+	 * @param networkTuningConfiguration
+	 *            the socket options of the server and of the clients.
+	 * @param iNbClients
+	 *            number of simulated clients.
+	 * @param iGameSize
+	 *            number of players of each game.
+	 * @param iNbActions
+	 *            number of actions played by each client.
+	 * @param lTimeout
+	 *            time allowed to each phase of the test, in seconds.
+	 * @param bDistinctAddresses
+	 *            whether each client has its own loopback address, see
+	 *            {@link #canBindLoopbackAddresses()}.
+	 * @throws UnknownHostException
+	 *             if the local addresses of the clients can't be created.
+	 */
+	public LoadGenerator(final INetworkConfiguration networkConfiguration,
+			final INetworkServerConfiguration networkServerConfiguration,
+			final INetworkClientConfigurationList networkClientConfigurationList,
+			final INetworkTuningConfiguration networkTuningConfiguration,
+			final int iNbClients, final int iGameSize, final int iNbActions,
+			final long lTimeout, final boolean bDistinctAddresses)
+			throws UnknownHostException
+	{
+		_networkConfiguration = networkConfiguration;
+		_networkServerConfiguration = networkServerConfiguration;
+		_networkClientConfigurationList = networkClientConfigurationList;
+		_networkTuningConfiguration = networkTuningConfiguration;
+		_iGameSize = iGameSize;
+		_iNbActions = iNbActions;
+		_lTimeout = lTimeout;
+		_bDistinctAddresses = bDistinctAddresses;
+		_authenticatedLatch = new CountDownLatch(iNbClients);
+		_finishedLatch = new CountDownLatch(iNbClients);
+		_clients = new LoadClient[iNbClients];
+		for (int i = 0; i < iNbClients; i++)
+		{
+			_clients[i] = new LoadClient(this, "Load client " + i,
+					createLocalAddress(i), _iNbActions);
+		}
+	}
+
+	/**
+	 * Run the test: start the server, connect the clients, play the games,
+	 * then stop the clients and the server.
+	 * 
+	 * @throws IOException
+	 *             if the server can't be started.
+	 * @throws InterruptedException
+	 *             if the test is interrupted.
+	 */
+	public void run() throws IOException, InterruptedException
+	{
+		startServer();
+		try
+		{
+			startConnector();
+			connectClients();
+			playGames();
+		}
+		finally
+		{
+			stop();
+		}
+	}
+
+	/**
+	 * Get the report of the test.
+	 * 
+	 * @return the report of the test.
+	 */
+	public String getReport()
+	{
+		return _report.toString();
+	}
+
+	/**
+	 * Called when a client is authenticated.
+	 */
+	void clientAuthenticated()
+	{
+		_pendingConnections.release();
+		_authenticatedLatch.countDown();
+	}
+
+	/**
+	 * Called when a client is done playing.
+	 */
+	void clientFinished()
+	{
+		_finishedLatch.countDown();
+	}
+
+	/**
+	 * Called when a client failed.
+	 * 
+	 * @param client
+	 *            the client.
+	 * @param bConnecting
+	 *            whether the client failed while connecting.
+	 * @param strReason
+	 *            the reason of the failure.
+	 */
+	void clientFailed(final LoadClient client, final boolean bConnecting,
+			final String strReason)
+	{
+		LOGGER.warn("Client '" + client + "' failed: " + strReason);
+		_iNbFailures.incrementAndGet();
+		if (bConnecting)
+		{
+			_pendingConnections.release();
+			_authenticatedLatch.countDown();
+		}
+		_finishedLatch.countDown();
+	}
+
+	/**
+	 * Start the server on the configured port, with the same filters and
+	 * handler as a real server.
+	 * 
+	 * @throws IOException
+	 *             if the port can't be bound.
+	 */
+	private void startServer() throws IOException
+	{
+		_locGameServer = new LocalGameServer(new HashSet<IGameDescription>());
+		final LocalGameClient locGameClient = new LocalGameClient(
+				"Load generator");
+		_locGameServer.registerGameClient(locGameClient);
+		locGameClient.registerGameServer(_locGameServer);
+		final ConnectionList connectionList = new ConnectionList(
+				_networkConfiguration, _networkServerConfiguration,
+				_networkClientConfigurationList, _networkTuningConfiguration,
+				_locGameServer, locGameClient);
+		final ClientAuthenticator authenticator = new ClientAuthenticator(
+				_networkConfiguration.getRegistrationType(), connectionList);
+		_serverConnection = new ServerConnection(_networkConfiguration,
+				connectionList, _networkServerConfiguration, _locGameServer,
+				authenticator);
+		_serverConnection.activateServer();
+	}
+
+	/**
+	 * Creates the connector shared by the simulated clients.
+	 */
+	private void startConnector()
+	{
+		_connector = new NioSocketConnector();
+		SocketTuning.configure(_connector, _networkTuningConfiguration);
+		_connector.getFilterChain().addLast("codec",
+				new ProtocolCodecFilter(new BinaryCodecFactory()));
+		final KeepAliveFilter keepAliveFilter = new KeepAliveFilter(
+				new ActiveKeepAliveMessageFactory(), IdleStatus.READER_IDLE);
+		keepAliveFilter.setRequestInterval(_networkConfiguration
+				.getKeepAliveRequestInterval());
+		keepAliveFilter.setRequestTimeout(_networkConfiguration
+				.getKeepAliveRequestTimeout());
+		_connector.getFilterChain().addLast("keepalive", keepAliveFilter);
+		_connector.setHandler(new IoHandlerAdapter()
+		{
+			@Override
+			public void messageReceived(final IoSession session,
+					final Object message)
+			{
+				LoadClient.get(session).messageReceived(
+						(AbstractMessage) message);
+			}
+
+			@Override
+			public void sessionClosed(final IoSession session)
+			{
+				LoadClient.get(session).sessionClosed();
+			}
+
+			@Override
+			public void exceptionCaught(final IoSession session,
+					final Throwable cause)
+			{
+				LOGGER.error(cause.getLocalizedMessage(), cause);
+			}
+		});
+	}
+
+	/**
+	 * Connect and authenticate all the clients.
+	 * 
+	 * @throws InterruptedException
+	 *             if the test is interrupted.
+	 */
+	private void connectClients() throws InterruptedException
+	{
+		final InetSocketAddress remoteAddress = new InetSocketAddress(
+				InetAddress.getLoopbackAddress(),
+				_networkServerConfiguration.getListenPort());
+		final long lStart = System.nanoTime();
+		for (final LoadClient client : _clients)
+		{
+			_pendingConnections.acquire();
+			client.connect(_connector, remoteAddress);
+		}
+		await(_authenticatedLatch, "authentication");
+		final long lDuration = System.nanoTime() - lStart;
+
+		final long[] latencies = new long[_clients.length];
+		int iNbAuthenticated = 0;
+		for (final LoadClient client : _clients)
+		{
+			if (client.getConnectionLatency() >= 0)
+			{
+				latencies[iNbAuthenticated++] = client.getConnectionLatency();
+			}
+		}
+		final LatencyStatistics statistics = new LatencyStatistics(
+				Arrays.copyOf(latencies, iNbAuthenticated));
+		_report.append("Connections: ").append(iNbAuthenticated)
+				.append(" authenticated in ")
+				.append(TimeUnit.NANOSECONDS.toMillis(lDuration))
+				.append(" ms, ").append(perSecond(iNbAuthenticated, lDuration))
+				.append(" connections/s, ")
+				.append(_clients.length - iNbAuthenticated)
+				.append(" failed\n");
+		_report.append("Connection latency: ").append(statistics)
+				.append('\n');
+	}
+
+	/**
+	 * Create the games, let the clients join and play them.
+	 * 
+	 * @throws InterruptedException
+	 *             if the test is interrupted.
+	 */
+	private void playGames() throws InterruptedException
+	{
+		final int iNbGames = (_clients.length + _iGameSize - 1) / _iGameSize;
+		final LoadGame[] games = new LoadGame[iNbGames];
+		for (int i = 0; i < iNbGames; i++)
+		{
+			final int iFirst = i * _iGameSize;
+			final LoadClient[] players = Arrays.copyOfRange(
+					_clients, iFirst,
+					Math.min(iFirst + _iGameSize, _clients.length));
+			games[i] = new LoadGame(players);
+			for (int j = 0; j < players.length; j++)
+			{
+				players[j].setGame(games[i], j == 0);
+			}
+		}
+		final long lStart = System.nanoTime();
+		for (final LoadGame game : games)
+		{
+			game.create();
+		}
+		await(_finishedLatch, "games");
+		final long lDuration = System.nanoTime() - lStart;
+
+		final long[] latencies = new long[_clients.length * _iNbActions];
+		int iNbActions = 0;
+		for (final LoadClient client : _clients)
+		{
+			final long[] clientLatencies = client.getActionLatencies();
+			System.arraycopy(clientLatencies, 0, latencies, iNbActions,
+					clientLatencies.length);
+			iNbActions += clientLatencies.length;
+		}
+		final LatencyStatistics statistics = new LatencyStatistics(
+				Arrays.copyOf(latencies, iNbActions));
+		_report.append("Games: ").append(iNbGames).append(" of ")
+				.append(_iGameSize).append(" players, ")
+				.append(_iNbFailures.get()).append(" clients failed\n");
+		_report.append("Actions: ").append(iNbActions).append(" in ")
+				.append(TimeUnit.NANOSECONDS.toMillis(lDuration))
+				.append(" ms, ").append(perSecond(iNbActions, lDuration))
+				.append(" actions/s\n");
+		_report.append("Action latency: ").append(statistics).append('\n');
+	}
+
+	/**
+	 * Close the sessions of the clients and stop the server.
+	 */
+	private void stop()
+	{
+		if (_connector != null)
+		{
+			for (final LoadClient client : _clients)
+			{
+				client.close();
+			}
+			_connector.dispose();
+		}
+		_serverConnection.deactivateServer();
+		_locGameServer.shutdown();
+	}
+
+	/**
+	 * Wait for a phase of the test to end.
+	 * 
+	 * @param latch
+	 *            the latch released at the end of the phase.
+	 * @param strPhase
+	 *            name of the phase.
+	 * @throws InterruptedException
+	 *             if the test is interrupted.
+	 */
+	private void await(final CountDownLatch latch, final String strPhase)
+			throws InterruptedException
+	{
+		if (!latch.await(_lTimeout, TimeUnit.SECONDS))
+		{
+			LOGGER.error("The " + strPhase + " phase timed out, "
+					+ latch.getCount() + " clients aren't done.");
+		}
+	}
+
+	/**
+	 * Compute a rate per second.
+	 * 
+	 * @param lCount
+	 *            number of operations.
+	 * @param lNanos
+	 *            duration of the operations in nanoseconds.
+	 * @return the number of operations per second.
+	 */
+	private static long perSecond(final long lCount, final long lNanos)
+	{
+		return lNanos == 0 ? 0 : lCount * TimeUnit.SECONDS.toNanos(1)
+				/ lNanos;
+	}
+
+	/**
+	 * Check whether the sockets can be bound to any address of the
+	 * 127.0.0.0/8 network. It is the case on Linux, which routes the whole
+	 * network to the loopback interface, but not on most other systems,
+	 * where only 127.0.0.1 is configured.
+	 * 
+	 * @return true if the sockets can be bound to any loopback address.
+	 */
+	public static boolean canBindLoopbackAddresses()
+	{
+		final Socket socket = new Socket();
+		try
+		{
+			socket.bind(createDistinctAddress(0));
+			return true;
+		}
+		catch (final IOException e)
+		{
+			return false;
+		}
+		finally
+		{
+			try
+			{
+				socket.close();
+			}
+			catch (final IOException e)
+			{
+				// nothing to do
+			}
+		}
+	}
+
+	/**
+	 * Creates the local address of a client. Giving each client its own
+	 * address keeps the connection throttle of the server from refusing the
+	 * clients connecting after the first ones. When the system doesn't allow
+	 * it, all the clients connect from 127.0.0.1 and the server must let
+	 * them connect in a burst.
+	 * 
+	 * @param iIndex
+	 *            index of the client.
+	 * @return the local address of the client, with an ephemeral port.
+	 * @throws UnknownHostException
+	 *             if the address can't be created.
+	 */
+	private InetSocketAddress createLocalAddress(final int iIndex)
+			throws UnknownHostException
+	{
+		if (_bDistinctAddresses)
+		{
+			return createDistinctAddress(iIndex);
+		}
+		return new InetSocketAddress(InetAddress.getByAddress(new byte[] {
+				127, 0, 0, 1 }), 0);
+	}
+
+	/**
+	 * Creates the own loopback address of a client, in the 127.0.0.0/8
+	 * network.
+	 * 
+	 * @param iIndex
+	 *            index of the client.
+	 * @return the address of the client, with an ephemeral port.
+	 * @throws UnknownHostException
+	 *             if the address can't be created.
+	 */
+	private static InetSocketAddress createDistinctAddress(final int iIndex)
+			throws UnknownHostException
+	{
+		final int iHost = iIndex % CLIENTS_PER_SUBNET;
+		final byte[] address = { 127,
+				(byte) (1 + iIndex / CLIENTS_PER_SUBNET),
+				(byte) (iHost / 254), (byte) (1 + iHost % 254) };
+		return new InetSocketAddress(InetAddress.getByAddress(address), 0);
+	}
+
+	/**
+	 * Creates the options read on the command line.
+	 * 
+	 * @return the options read on the command line.
+	 */
+	private static Options createOptions()
+	{
+		final Options optionsList = new Options();
+		optionsList.addOption(new Option(OPTION_CLIENTS, true,
+				"Number of simulated clients, 1000 by default."));
+		optionsList.addOption(new Option(OPTION_GAME_SIZE, true,
+				"Number of players of each game, 4 by default."));
+		optionsList.addOption(new Option(OPTION_ACTIONS, true,
+				"Number of actions played by each client, 100 by default."));
+		optionsList.addOption(new Option(OPTION_PORT, true,
+				"Port of the server, 1664 by default."));
+		optionsList.addOption(new Option(OPTION_TIMEOUT, true,
+				"Time allowed to each phase in seconds, 300 by default."));
+		optionsList.addOption(new Option(OPTION_HELP, false,
+				"Display this help message."));
+		return optionsList;
+	}
+
+	/**
+	 * Read a positive integer option.
+	 * 
+	 * @param commandLine
+	 *            the parsed command line.
+	 * @param strOption
+	 *            the option.
+	 * @param iDefaultValue
+	 *            the value used if the option isn't specified.
+	 * @return the value of the option.
+	 * @throws ParseException
+	 *             if the value of the option isn't a positive integer.
+	 */
+	private static int getIntOption(final CommandLine commandLine,
+			final String strOption, final int iDefaultValue)
+			throws ParseException
+	{
+		if (!commandLine.hasOption(strOption))
+		{
+			return iDefaultValue;
+		}
+		final String strValue = commandLine.getOptionValue(strOption);
+		try
+		{
+			final int iValue = Integer.parseInt(strValue);
+			if (iValue > 0)
+			{
+				return iValue;
+			}
+		}
+		catch (final NumberFormatException e)
+		{
+			// reported below
+		}
+		throw new ParseException("Invalid value for option " + strOption
+				+ ": " + strValue);
+	}
+
+	/**
+	 * Configure the logging, only the warnings are displayed.
+	 */
+	private static void configureLogging()
+	{
+		final ConsoleAppender app = new ConsoleAppender(new PatternLayout(
+				"%d{ISO8601} [%t] %-5p %C:%L %x - %m%n"));
+		BasicConfigurator.configure(app);
+		org.apache.log4j.Logger.getRootLogger().setLevel(Level.WARN);
+	}
+
+	/**
+	 * @param args
+	 *            the arguments given to the program.
+	 * @throws IOException
+	 *             if the server can't be started.
+	 * @throws InterruptedException
+	 *             if the test is interrupted.
+	 * @throws InvalidConfigurationException
+	 *             if the port of the server is invalid.
+	 */
+	public static void main(final String[] args) throws IOException,
+			InterruptedException, InvalidConfigurationException
+	{
+		final Options optionsList = createOptions();
+		final int iNbClients;
+		final int iGameSize;
+		final int iNbActions;
+		final int iPort;
+		final int iTimeout;
+		try
+		{
+			final CommandLine commandLine = new PosixParser().parse(
+					optionsList, args);
+			if (commandLine.hasOption(OPTION_HELP))
+			{
+				throw new ParseException("Help message asked for.");
+			}
+			iNbClients = getIntOption(commandLine, OPTION_CLIENTS, 1000);
+			iGameSize = getIntOption(commandLine, OPTION_GAME_SIZE, 4);
+			iNbActions = getIntOption(commandLine, OPTION_ACTIONS, 100);
+			iPort = getIntOption(commandLine, OPTION_PORT, 1664);
+			iTimeout = getIntOption(commandLine, OPTION_TIMEOUT, 300);
+		}
+		catch (final ParseException e)
+		{
+			new HelpFormatter().printHelp("loadgenerator", optionsList);
+			return;
+		}
+		configureLogging();
+		final MBeanServer mBeanServer = ManagementFactory
+				.getPlatformMBeanServer();
+		final boolean bDistinctAddresses = canBindLoopbackAddresses();
+		Long lAllowedInterval = null;
+		Integer iConnectionBurst = null;
+		if (!bDistinctAddresses)
+		{
+			LOGGER.warn("Can't bind to the loopback addresses other than "
+					+ "127.0.0.1, all the clients connect from it. Only "
+					+ SHARED_ADDRESS_CONNECTION_BURST + " clients can "
+					+ "connect in a burst, then one every "
+					+ SHARED_ADDRESS_ALLOWED_INTERVAL + " ms.");
+			lAllowedInterval = Long.valueOf(SHARED_ADDRESS_ALLOWED_INTERVAL);
+			iConnectionBurst = Integer
+					.valueOf(SHARED_ADDRESS_CONNECTION_BURST);
+		}
+		final LoadGenerator generator = new LoadGenerator(
+				new NetworkConfigurationImpl(null, mBeanServer, null, null,
+						RegistrationType.NONE, CodecType.BINARY, null, null,
+						null, null, null),
+				new NetworkServerConfigurationImpl(null, mBeanServer,
+						Integer.valueOf(iPort), Integer.valueOf(0), null,
+						lAllowedInterval, null, null, iConnectionBurst),
+				new NetworkClientConfigurationListImpl(null, mBeanServer),
+				new NetworkTuningConfigurationImpl(null, mBeanServer),
+				iNbClients, iGameSize, iNbActions, iTimeout,
+				bDistinctAddresses);
+		generator.run();
+		System.out.print(generator.getReport());
+		// the server can't be shut down, its threads would keep running
+		System.exit(0);
+	}
+}
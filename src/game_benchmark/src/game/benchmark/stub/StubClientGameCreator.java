@@ -0,0 +1,101 @@
+package game.benchmark.stub;
+
+import game.config.EmptyPlayerConfiguration;
+import game.gameclient.AbstractClientGameCreator;
+import game.gameclient.IClientSidePlayerChangeListener;
+import game.gameclient.LocalGameClient;
+
+import java.io.Serializable;
+
+/**
+ * Client side creator of the stub game. It is serializable so that the server
+ * can send it to distant clients, only the number of players is sent.
+ * 
+ * @author benobiwan
+ * 
+ */
+public final class StubClientGameCreator
+		extends
+		AbstractClientGameCreator<StubGameConfiguration, StubGameEvent, StubClientSideGame, EmptyPlayerConfiguration, StubClientSidePlayer, IClientSidePlayerChangeListener>
+		implements Serializable
+{
+	/**
+	 * serialVersionUID for Serialization.
+	 */
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * Maximum number of players of the game.
+	 */
+	private final int _iMaxNumberOfPlayers;
+
+	/**
+	 * The player created by this creator, null if it isn't created yet.
+	 */
+	private transient volatile StubClientSidePlayer _player;
+
+	/**
+	 * Creates a new StubClientGameCreator.
+	 * 
+	 * @param iMaxNumberOfPlayers
+	 *            maximum number of players of the game.
+	 */
+	public StubClientGameCreator(final int iMaxNumberOfPlayers)
+	{
+		_iMaxNumberOfPlayers = iMaxNumberOfPlayers;
+		_conf = createGameConfiguration();
+	}
+
+	/**
+	 * Creates a new creator in place of the deserialized one, as the fields of
+	 * the base class aren't serialized.
+	 * 
+	 * @return a new creator for the same number of players.
+	 */
+	private Object readResolve()
+	{
+		return new StubClientGameCreator(_iMaxNumberOfPlayers);
+	}
+
+	@Override
+	public StubClientSideGame createGame()
+	{
+		synchronized (_lock)
+		{
+			return new StubClientSideGame(_gameClient, _gameServer, _iGameId,
+					_conf);
+		}
+	}
+
+	@Override
+	public StubGameConfiguration createGameConfiguration()
+	{
+		return new StubGameConfiguration(_iMaxNumberOfPlayers);
+	}
+
+	@Override
+	public EmptyPlayerConfiguration createPlayerConfiguration()
+	{
+		return new EmptyPlayerConfiguration(null, null);
+	}
+
+	@Override
+	public StubClientSidePlayer createPlayer(
+			final LocalGameClient locGameClient, final int iPlayerId)
+	{
+		_player = new StubClientSidePlayer(iPlayerId, "Player " + iPlayerId,
+				getGameServer(), locGameClient, this);
+		return _player;
+	}
+
+	/**
+	 * Get the player created by this creator.
+	 * 
+	 * @return the player created by this creator, null if it isn't created
+	 *         yet.
+	 */
+	public StubClientSidePlayer getPlayer()
+	{
+		return _player;
+	}
+}
@@ -0,0 +1,90 @@
+package game.benchmark.stub;
+
+import game.common.IGameClient;
+import game.common.IGameServer;
+import game.communication.event.IUniCastGameEvent;
+import game.communication.event.game.CantActCmnEvent;
+import game.communication.event.game.TurnTimeoutCmnEvent;
+import game.communication.event.game.UnauthorizedActionCmnEvent;
+import game.communication.event.game.UnsupportedActionCmnEvent;
+import game.communication.event.game.YourTurnCmnEvent;
+import game.config.EmptyPlayerConfiguration;
+import game.gameclient.AbstractClientSideGame;
+
+/**
+ * Client side game of the stub game, ignoring every event.
+ * 
+ * @author benobiwan
+ * 
+ */
+public final class StubClientSideGame
+		extends
+		AbstractClientSideGame<StubGameEvent, EmptyPlayerConfiguration, StubGameConfiguration>
+{
+	/**
+	 * Configuration of the game.
+	 */
+	private final StubGameConfiguration _conf;
+
+	/**
+	 * Creates a new StubClientSideGame.
+	 * 
+	 * @param locGameClient
+	 *            the local game client.
+	 * @param gameServer
+	 *            the server hosting the game.
+	 * @param iGameId
+	 *            the id of the game.
+	 * @param conf
+	 *            configuration of the game.
+	 */
+	public StubClientSideGame(final IGameClient locGameClient,
+			final IGameServer gameServer, final int iGameId,
+			final StubGameConfiguration conf)
+	{
+		super(locGameClient, gameServer, iGameId);
+		_conf = conf;
+	}
+
+	@Override
+	public StubGameConfiguration getGameConfiguration()
+	{
+		return _conf;
+	}
+
+	@Override
+	public void handleEvent(final IUniCastGameEvent evt)
+	{
+		// nothing to do
+	}
+
+	@Override
+	public void handleEvent(final YourTurnCmnEvent evt)
+	{
+		// nothing to do
+	}
+
+	@Override
+	public void handleEvent(final TurnTimeoutCmnEvent evt)
+	{
+		// nothing to do
+	}
+
+	@Override
+	public void handleEvent(final UnauthorizedActionCmnEvent evt)
+	{
+		// nothing to do
+	}
+
+	@Override
+	public void handleEvent(final CantActCmnEvent evt)
+	{
+		// nothing to do
+	}
+
+	@Override
+	public void handleEvent(final UnsupportedActionCmnEvent evt)
+	{
+		// nothing to do
+	}
+}
@@ -0,0 +1,106 @@
+package game.benchmark.stub;
+
+import game.common.IGameServer;
+import game.communication.event.IMultiCastGameEvent;
+import game.communication.event.IUniCastGameEvent;
+import game.communication.event.game.CantActCmnEvent;
+import game.communication.event.game.TurnTimeoutCmnEvent;
+import game.communication.event.game.UnauthorizedActionCmnEvent;
+import game.communication.event.game.UnsupportedActionCmnEvent;
+import game.communication.event.game.YourTurnCmnEvent;
+import game.config.EmptyPlayerConfiguration;
+import game.gameclient.AbstractClientSidePlayer;
+import game.gameclient.IClientSidePlayerChangeListener;
+import game.gameclient.LocalGameClient;
+
+/**
+ * Client side player of the stub game, counting the game events it receives.
+ * 
+ * @author benobiwan
+ * 
+ */
+public final class StubClientSidePlayer
+		extends
+		AbstractClientSidePlayer<StubGameConfiguration, StubGameEvent, StubClientSideGame, StubClientSidePlayer, EmptyPlayerConfiguration, IClientSidePlayerChangeListener>
+{
+	/**
+	 * Number of game events received by this player. Not synchronized, it is
+	 * only read to keep the dispatch of the events from being optimized away.
+	 */
+	private long _lNbReceivedEvents;
+
+	/**
+	 * Creates a new StubClientSidePlayer.
+	 * 
+	 * @param iPlayerId
+	 *            id of the player.
+	 * @param strName
+	 *            name of the player.
+	 * @param server
+	 *            the server hosting the game.
+	 * @param localGameClient
+	 *            the local game client.
+	 * @param gameCreator
+	 *            the creator of the game.
+	 */
+	public StubClientSidePlayer(final int iPlayerId, final String strName,
+			final IGameServer server, final LocalGameClient localGameClient,
+			final StubClientGameCreator gameCreator)
+	{
+		super(iPlayerId, strName, server, localGameClient, gameCreator);
+	}
+
+	/**
+	 * Get the number of game events received by this player.
+	 * 
+	 * @return the number of game events received by this player.
+	 */
+	public long getNbReceivedEvents()
+	{
+		return _lNbReceivedEvents;
+	}
+
+	@Override
+	public void handleGameEvent(final IUniCastGameEvent evt)
+	{
+		_lNbReceivedEvents++;
+	}
+
+	@Override
+	public void handleMultiCastGameEvent(final IMultiCastGameEvent evt)
+	{
+		_lNbReceivedEvents++;
+	}
+
+	@Override
+	public void handleYourTurnCmnEvent(final YourTurnCmnEvent evt)
+	{
+		// nothing to do
+	}
+
+	@Override
+	public void handleTurnTimeoutCmnEvent(final TurnTimeoutCmnEvent evt)
+	{
+		// nothing to do
+	}
+
+	@Override
+	public void handleUnauthorizedActionCmnEvent(
+			final UnauthorizedActionCmnEvent evt)
+	{
+		// nothing to do
+	}
+
+	@Override
+	public void handleCanActCmnEvent(final CantActCmnEvent evt)
+	{
+		// nothing to do
+	}
+
+	@Override
+	public void handleUnsupportedActionCmnEvent(
+			final UnsupportedActionCmnEvent evt)
+	{
+		// nothing to do
+	}
+}
@@ -0,0 +1,31 @@
+package game.benchmark.stub;
+
+import game.communication.action.AbstractGameAction;
+
+/**
+ * Action of the stub game. The server side game answers it with a
+ * {@link StubGameEvent} sent to the player.
+ * 
+ * @author benobiwan
+ * 
+ */
+public final class StubGameAction extends AbstractGameAction
+{
+	/**
+	 * serialVersionUID for Serialization.
+	 */
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * Creates a new StubGameAction.
+	 * 
+	 * @param iGameId
+	 *            id of the game concerned by the action.
+	 * @param iPlayerId
+	 *            id of the player doing the action.
+	 */
+	public StubGameAction(final int iGameId, final int iPlayerId)
+	{
+		super(iGameId, iPlayerId);
+	}
+}
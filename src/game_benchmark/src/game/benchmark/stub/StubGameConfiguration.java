@@ -0,0 +1,56 @@
+package game.benchmark.stub;
+
+import game.config.AbstractGameConfiguration;
+import game.config.EmptyPlayerConfiguration;
+
+/**
+ * Configuration of the stub game, only holding the number of players. It
+ * isn't attached to any configuration tree nor registered in any
+ * MBeanServer.
+ * 
+ * @author benobiwan
+ * 
+ */
+public final class StubGameConfiguration extends
+		AbstractGameConfiguration<EmptyPlayerConfiguration>
+{
+	/**
+	 * serialVersionUID for Serialization.
+	 */
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * Maximum number of players of the game.
+	 */
+	private final int _iMaxNumberOfPlayers;
+
+	/**
+	 * Creates a new StubGameConfiguration.
+	 * 
+	 * @param iMaxNumberOfPlayers
+	 *            maximum number of players of the game.
+	 */
+	public StubGameConfiguration(final int iMaxNumberOfPlayers)
+	{
+		super(null, "Stub Game Configuration", null);
+		_iMaxNumberOfPlayers = iMaxNumberOfPlayers;
+	}
+
+	@Override
+	public int getMaxNumberOfPlayers()
+	{
+		return _iMaxNumberOfPlayers;
+	}
+
+	@Override
+	public int getMinNumberOfPlayers()
+	{
+		return 1;
+	}
+
+	@Override
+	public String getDescription()
+	{
+		return "Stub Game Configuration";
+	}
+}
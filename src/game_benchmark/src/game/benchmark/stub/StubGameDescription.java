@@ -0,0 +1,51 @@
+package game.benchmark.stub;
+
+import game.common.AbstractGameInstanceDescription;
+
+/**
+ * Description of a stub game.
+ * 
+ * @author benobiwan
+ * 
+ */
+public final class StubGameDescription extends AbstractGameInstanceDescription
+{
+	/**
+	 * serialVersionUID for Serialization.
+	 */
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * Maximum number of players of the game.
+	 */
+	private final int _iMaxNumberOfPlayers;
+
+	/**
+	 * Creates a new StubGameDescription.
+	 * 
+	 * @param iGameId
+	 *            id of the game.
+	 * @param strCreatorName
+	 *            name of the creator of the game.
+	 * @param iMaxNumberOfPlayers
+	 *            maximum number of players of the game.
+	 */
+	public StubGameDescription(final int iGameId, final String strCreatorName,
+			final int iMaxNumberOfPlayers)
+	{
+		super(iGameId, strCreatorName, 1);
+		_iMaxNumberOfPlayers = iMaxNumberOfPlayers;
+	}
+
+	@Override
+	public String getGameType()
+	{
+		return "Stub";
+	}
+
+	@Override
+	public int getMaximumNumberOfPlayer()
+	{
+		return _iMaxNumberOfPlayers;
+	}
+}
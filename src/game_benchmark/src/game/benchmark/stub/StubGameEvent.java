@@ -0,0 +1,30 @@
+package game.benchmark.stub;
+
+import game.communication.event.AbstractUniCastGameEvent;
+
+/**
+ * Event of the stub game sent to a single player.
+ * 
+ * @author benobiwan
+ * 
+ */
+public final class StubGameEvent extends AbstractUniCastGameEvent
+{
+	/**
+	 * serialVersionUID for Serialization.
+	 */
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * Creates a new StubGameEvent.
+	 * 
+	 * @param iGameId
+	 *            id of the game concerned by the event.
+	 * @param iPlayerId
+	 *            id of the player concerned by the event.
+	 */
+	public StubGameEvent(final int iGameId, final int iPlayerId)
+	{
+		super(iGameId, iPlayerId);
+	}
+}
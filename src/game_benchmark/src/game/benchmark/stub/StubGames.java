@@ -0,0 +1,71 @@
+package game.benchmark.stub;
+
+import game.communication.action.InconsistentActionTypeException;
+import game.communication.action.gamecreation.StartGameCrAction;
+import game.communication.action.gamecreation.UpdateStatusCrAction;
+import game.gameclient.LocalGameClient;
+import game.gameserver.LocalGameServer;
+
+/**
+ * Drive the lobby of a {@link LocalGameServer} to start stub games, the same
+ * way a client does: creating the game, joining it, setting the players
+ * ready and starting it.
+ * 
+ * @author benobiwan
+ * 
+ */
+public final class StubGames
+{
+	/**
+	 * Private constructor to prevent instantiation.
+	 */
+	private StubGames()
+	{
+		// nothing to do
+	}
+
+	/**
+	 * Start a stub game whose players are all hosted by the same client.
+	 * 
+	 * @param server
+	 *            the server hosting the game.
+	 * @param client
+	 *            the client hosting the players.
+	 * @param iNbPlayers
+	 *            number of players of the game, the creator included.
+	 * @return the creator of the game, from which the started game can be
+	 *         retrieved.
+	 * @throws InconsistentActionTypeException
+	 *             if an action is inconsistent.
+	 */
+	public static StubServerGameCreator startGame(
+			final LocalGameServer server, final LocalGameClient client,
+			final int iNbPlayers) throws InconsistentActionTypeException
+	{
+		final StubServerGameCreator creator = new StubServerGameCreator(
+				iNbPlayers);
+		client.sendCreateGame(creator, server);
+		final int iGameId = creator.getGameId();
+		for (int i = 1; i < iNbPlayers; i++)
+		{
+			client.sendJoinGame(server, iGameId);
+		}
+		final int iCreatorId = creator.getCreatorPlayer().getId();
+		for (final StubServerSidePlayer player : creator.getPlayers())
+		{
+			if (player.getId() != iCreatorId)
+			{
+				server.handleAction(client, new UpdateStatusCrAction(iGameId,
+						player.getId(), true));
+			}
+		}
+		server.handleAction(client, new StartGameCrAction(iGameId,
+				iCreatorId));
+		if (creator.getGame() == null)
+		{
+			throw new IllegalStateException("The stub game " + iGameId
+					+ " didn't start.");
+		}
+		return creator;
+	}
+}
@@ -0,0 +1,28 @@
+package game.benchmark.stub;
+
+import game.communication.event.AbstractMultiCastGameEvent;
+
+/**
+ * Event of the stub game sent to all the players of the game.
+ * 
+ * @author benobiwan
+ * 
+ */
+public final class StubMultiCastGameEvent extends AbstractMultiCastGameEvent
+{
+	/**
+	 * serialVersionUID for Serialization.
+	 */
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * Creates a new StubMultiCastGameEvent.
+	 * 
+	 * @param iGameId
+	 *            id of the game concerned by the event.
+	 */
+	public StubMultiCastGameEvent(final int iGameId)
+	{
+		super(iGameId);
+	}
+}
@@ -0,0 +1,108 @@
+package game.benchmark.stub;
+
+import game.common.IGameClient;
+import game.common.IGameInstanceDescription;
+import game.config.EmptyPlayerConfiguration;
+import game.gameclient.IClientGameCreator;
+import game.gameserver.AbstractServerGameCreator;
+
+import java.io.Serializable;
+import java.util.Collection;
+import java.util.Collections;
+
+/**
+ * Server side creator of the stub game. It is serializable so that distant
+ * clients can send it to create a game.
+ * 
+ * @author benobiwan
+ * 
+ */
+public final class StubServerGameCreator
+		extends
+		AbstractServerGameCreator<EmptyPlayerConfiguration, StubGameAction, StubGameConfiguration, StubServerSidePlayer, StubServerSideGame>
+		implements Serializable
+{
+	/**
+	 * serialVersionUID for Serialization.
+	 */
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * Maximum number of players of the game.
+	 */
+	private final int _iMaxNumberOfPlayers;
+
+	/**
+	 * The game created by this creator, null if it isn't started.
+	 */
+	private transient volatile StubServerSideGame _game;
+
+	/**
+	 * Creates a new StubServerGameCreator.
+	 * 
+	 * @param iMaxNumberOfPlayers
+	 *            maximum number of players of the game.
+	 */
+	public StubServerGameCreator(final int iMaxNumberOfPlayers)
+	{
+		_iMaxNumberOfPlayers = iMaxNumberOfPlayers;
+	}
+
+	@Override
+	public StubServerSideGame createGame()
+	{
+		_game = new StubServerSideGame(_gameServer, _iGameId, _conf,
+				_gameDescription, _playerList);
+		return _game;
+	}
+
+	/**
+	 * Get the game created by this creator.
+	 * 
+	 * @return the game created by this creator, null if it isn't started.
+	 */
+	public StubServerSideGame getGame()
+	{
+		return _game;
+	}
+
+	/**
+	 * Get the players of the game.
+	 * 
+	 * @return the players of the game.
+	 */
+	public Collection<StubServerSidePlayer> getPlayers()
+	{
+		return Collections.unmodifiableCollection(_playerList);
+	}
+
+	@Override
+	public IClientGameCreator<?, ?, ?, ?, ?, ?> getClientGameCreator()
+	{
+		return new StubClientGameCreator(_iMaxNumberOfPlayers);
+	}
+
+	@Override
+	public IGameInstanceDescription createGameDescription()
+	{
+		return new StubGameDescription(_iGameId, _creatorPlayer.getName(),
+				_iMaxNumberOfPlayers);
+	}
+
+	@Override
+	public StubServerSidePlayer createPlayer(final IGameClient hostingClient,
+			final int iPlayerId)
+	{
+		// the player ids are only unique within a client
+		return new StubServerSidePlayer(iPlayerId, hostingClient,
+				hostingClient.getName() + " - Player " + iPlayerId, false, this);
+	}
+
+	@Override
+	public StubServerSidePlayer createAI(final IGameClient hostingClient,
+			final int iPlayerId, final String strName)
+	{
+		return new StubServerSidePlayer(iPlayerId, hostingClient, strName,
+				true, this);
+	}
+}
@@ -0,0 +1,151 @@
+package game.benchmark.stub;
+
+import game.common.IGameClient;
+import game.common.IGameInstanceDescription;
+import game.common.IGameServer;
+import game.communication.action.IGameAction;
+import game.communication.action.game.EndTurnCmnAction;
+import game.communication.action.gamectrl.AddAICrAction;
+import game.communication.action.gamectrl.JoinGameCrAction;
+import game.communication.action.gamectrl.KickPlayerCrAction;
+import game.communication.action.gamectrl.LeaveGameCrAction;
+import game.communication.event.InconsistentEventTypeException;
+import game.config.EmptyPlayerConfiguration;
+import game.gameserver.AbstractServerSideGame;
+import game.gameserver.IServerSidePlayer;
+
+import java.util.Collection;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Server side game of the stub game. Each {@link StubGameAction} is answered
+ * with a {@link StubGameEvent} sent to the player, the other actions are
+ * ignored.
+ * 
+ * @author benobiwan
+ * 
+ */
+public final class StubServerSideGame
+		extends
+		AbstractServerSideGame<StubGameAction, StubGameConfiguration, EmptyPlayerConfiguration, StubServerSidePlayer>
+{
+	/**
+	 * Logger object.
+	 */
+	private static final Logger LOGGER = LoggerFactory
+			.getLogger(StubServerSideGame.class);
+
+	/**
+	 * Configuration of the game.
+	 */
+	private final StubGameConfiguration _conf;
+
+	/**
+	 * Description of the game.
+	 */
+	private final IGameInstanceDescription _description;
+
+	/**
+	 * Creates a new StubServerSideGame.
+	 * 
+	 * @param locGameServer
+	 *            the local game server.
+	 * @param iGameId
+	 *            the id of the game.
+	 * @param conf
+	 *            configuration of the game.
+	 * @param description
+	 *            description of the game.
+	 * @param playerList
+	 *            the players of the game.
+	 */
+	public StubServerSideGame(final IGameServer locGameServer,
+			final int iGameId, final StubGameConfiguration conf,
+			final IGameInstanceDescription description,
+			final Collection<StubServerSidePlayer> playerList)
+	{
+		super(locGameServer, iGameId);
+		_conf = conf;
+		_description = description;
+		_playerList.addAll(playerList);
+	}
+
+	@Override
+	public void handleGameAction(final IServerSidePlayer<?> player,
+			final IGameAction act)
+	{
+		if (act instanceof StubGameAction)
+		{
+			try
+			{
+				player.getClient().handleEvent(_locGameServer,
+						new StubGameEvent(_iGameId, player.getId()));
+			}
+			catch (final InconsistentEventTypeException e)
+			{
+				LOGGER.error(e.getLocalizedMessage(), e);
+			}
+		}
+	}
+
+	@Override
+	public IGameInstanceDescription getDescription()
+	{
+		return _description;
+	}
+
+	@Override
+	public boolean isJoinable()
+	{
+		return false;
+	}
+
+	@Override
+	public void timeoutReached()
+	{
+		// nothing to do
+	}
+
+	@Override
+	public StubGameConfiguration getGameConfiguration()
+	{
+		return _conf;
+	}
+
+	@Override
+	public void handleEndTurnCmnAction(final IServerSidePlayer<?> player,
+			final EndTurnCmnAction act)
+	{
+		// nothing to do
+	}
+
+	@Override
+	public void handleJoinGameCrAction(final IGameClient client,
+			final JoinGameCrAction act)
+	{
+		// a running stub game can't be joined
+	}
+
+	@Override
+	public void handleLeaveGameCrAction(final IServerSidePlayer<?> player,
+			final LeaveGameCrAction act)
+	{
+		// nothing to do
+	}
+
+	@Override
+	public void handleKickPlayerGameCrAction(final IServerSidePlayer<?> player,
+			final KickPlayerCrAction act)
+	{
+		// nothing to do
+	}
+
+	@Override
+	public void handleAddAIGameCrAction(final IServerSidePlayer<?> player,
+			final AddAICrAction act)
+	{
+		// nothing to do
+	}
+}
@@ -0,0 +1,38 @@
+package game.benchmark.stub;
+
+import game.common.IGameClient;
+import game.config.EmptyPlayerConfiguration;
+import game.gameserver.AbstractServerSidePlayer;
+import game.gameserver.IServerGameCreator;
+
+/**
+ * Server side player of the stub game.
+ * 
+ * @author benobiwan
+ * 
+ */
+public final class StubServerSidePlayer extends
+		AbstractServerSidePlayer<EmptyPlayerConfiguration>
+{
+	/**
+	 * Creates a new StubServerSidePlayer.
+	 * 
+	 * @param iPlayerId
+	 *            id of the player.
+	 * @param hostingClient
+	 *            client hosting the player.
+	 * @param strName
+	 *            name of the player.
+	 * @param bIsAI
+	 *            whether the player is an AI.
+	 * @param serverGameCreator
+	 *            creator of the game joined by the player.
+	 */
+	public StubServerSidePlayer(final int iPlayerId,
+			final IGameClient hostingClient, final String strName,
+			final boolean bIsAI,
+			final IServerGameCreator<?, ?, ?, ?, ?> serverGameCreator)
+	{
+		super(iPlayerId, hostingClient, strName, bIsAI, serverGameCreator);
+	}
+}
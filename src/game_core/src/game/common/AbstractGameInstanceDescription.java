@@ -1,5 +1,8 @@
 package game.common;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
+
 /**
  * Abstract implementation of the @{link IGameInstanceDescription} interface.
  * 
@@ -7,7 +10,7 @@ package game.common;
  * 
  */
 public abstract class AbstractGameInstanceDescription implements
-		IGameInstanceDescription
+		IGameInstanceDescription, Cloneable
 {
 	/**
 	 * serialVersionUID for Serialization.
@@ -30,9 +33,10 @@ public abstract class AbstractGameInstanceDescription implements
 	private int _iNumberOfPlayer;
 
 	/**
-	 * Lock for the number of players.
+	 * Lock for the number of players. It isn't serializable, so it isn't
+	 * serialized and a new one is created when the description is read.
 	 */
-	private final Object _lockNumberOfPlayer = new Object();
+	private transient Object _lockNumberOfPlayer = new Object();
 
 	/**
 	 * Creates a new AbstractGameDescription.
@@ -55,6 +59,23 @@ public abstract class AbstractGameInstanceDescription implements
 		}
 	}
 
+	/**
+	 * Read the description and create its lock.
+	 * 
+	 * @param in
+	 *            the stream to read from.
+	 * @throws IOException
+	 *             if the description can't be read.
+	 * @throws ClassNotFoundException
+	 *             if the class of a field can't be found.
+	 */
+	private void readObject(final ObjectInputStream in) throws IOException,
+			ClassNotFoundException
+	{
+		in.defaultReadObject();
+		_lockNumberOfPlayer = new Object();
+	}
+
 	@Override
 	public final int compareTo(final IGameInstanceDescription o)
 	{
@@ -90,4 +111,22 @@ public abstract class AbstractGameInstanceDescription implements
 			_iNumberOfPlayer = iNumberOfPlayer;
 		}
 	}
+
+	@Override
+	public IGameInstanceDescription copy()
+	{
+		final AbstractGameInstanceDescription copy;
+		try
+		{
+			copy = (AbstractGameInstanceDescription) clone();
+		}
+		catch (final CloneNotSupportedException e)
+		{
+			throw new IllegalStateException(e);
+		}
+		// the copy shares the lock, the number of players must be read
+		// holding it.
+		copy.setNumberOfPlayer(getCurrentNumberOfPlayer());
+		return copy;
+	}
 }
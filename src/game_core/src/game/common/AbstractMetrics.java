@@ -0,0 +1,98 @@
+package game.common;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.MalformedObjectNameException;
+import javax.management.ObjectName;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Base class of the objects publishing runtime metrics as an MBean. A failure
+ * to register the MBean is logged and doesn't prevent the application from
+ * running.
+ * 
+ * @author benobiwan
+ * 
+ */
+public abstract class AbstractMetrics
+{
+	/**
+	 * Logger object.
+	 */
+	private static final Logger LOGGER = LoggerFactory
+			.getLogger(AbstractMetrics.class);
+
+	/**
+	 * Name of the MBean.
+	 */
+	private final ObjectName _objectName;
+
+	/**
+	 * The {@link MBeanServer} the MBean is registered with, null if it isn't
+	 * registered.
+	 */
+	private MBeanServer _mBeanServer;
+
+	/**
+	 * Creates a new AbstractMetrics.
+	 * 
+	 * @param strType
+	 *            the type of the metrics, used to name the MBean.
+	 */
+	protected AbstractMetrics(final String strType)
+	{
+		try
+		{
+			_objectName = new ObjectName("game:type=" + strType);
+		}
+		catch (final MalformedObjectNameException e)
+		{
+			throw new IllegalArgumentException(e);
+		}
+	}
+
+	/**
+	 * Register the MBean.
+	 * 
+	 * @param mBeanServer
+	 *            the {@link MBeanServer} to use.
+	 */
+	public synchronized void register(final MBeanServer mBeanServer)
+	{
+		if (_mBeanServer != null)
+		{
+			return;
+		}
+		try
+		{
+			mBeanServer.registerMBean(this, _objectName);
+			_mBeanServer = mBeanServer;
+		}
+		catch (final JMException e)
+		{
+			LOGGER.error("Can't register the MBean " + _objectName, e);
+		}
+	}
+
+	/**
+	 * Unregister the MBean.
+	 */
+	public synchronized void unregister()
+	{
+		if (_mBeanServer == null)
+		{
+			return;
+		}
+		try
+		{
+			_mBeanServer.unregisterMBean(_objectName);
+		}
+		catch (final JMException e)
+		{
+			LOGGER.error("Can't unregister the MBean " + _objectName, e);
+		}
+		_mBeanServer = null;
+	}
+}
@@ -0,0 +1,159 @@
+package game.common;
+
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+
+/**
+ * A task scheduled on a {@link HashedWheelTimer}. A timeout can be scheduled
+ * only once, and is either cancelled or expired.
+ * 
+ * @author benobiwan
+ * 
+ */
+public abstract class AbstractTimeout
+{
+	/**
+	 * State of a timeout not yet scheduled.
+	 */
+	static final int STATE_INIT = 0;
+
+	/**
+	 * State of a scheduled timeout.
+	 */
+	static final int STATE_SCHEDULED = 1;
+
+	/**
+	 * State of a cancelled timeout.
+	 */
+	static final int STATE_CANCELLED = 2;
+
+	/**
+	 * State of an expired timeout.
+	 */
+	static final int STATE_EXPIRED = 3;
+
+	/**
+	 * Updater of the state of the timeouts.
+	 */
+	private static final AtomicIntegerFieldUpdater<AbstractTimeout> STATE_UPDATER = AtomicIntegerFieldUpdater
+			.newUpdater(AbstractTimeout.class, "_iState");
+
+	/**
+	 * State of the timeout.
+	 */
+	private volatile int _iState = STATE_INIT;
+
+	/**
+	 * The timer on which the timeout is scheduled.
+	 */
+	private volatile HashedWheelTimer _timer;
+
+	/**
+	 * Time in nanoseconds, relative to the start of the timer, at which the
+	 * timeout expires. Only used by the timer thread.
+	 */
+	long _lDeadline;
+
+	/**
+	 * Number of turns of the wheel before the timeout expires. Only used by
+	 * the timer thread.
+	 */
+	long _lRemainingRounds;
+
+	/**
+	 * The bucket holding the timeout, null if it isn't in the wheel. Only used
+	 * by the timer thread.
+	 */
+	HashedWheelTimer.Bucket _bucket;
+
+	/**
+	 * Previous timeout in the bucket. Only used by the timer thread.
+	 */
+	AbstractTimeout _previous;
+
+	/**
+	 * Next timeout in the bucket. Only used by the timer thread.
+	 */
+	AbstractTimeout _next;
+
+	/**
+	 * Cancel the timeout. The cancelled timeout is removed from the wheel on
+	 * the next tick of the timer.
+	 * 
+	 * @return true if the timeout was cancelled, false if it already expired
+	 *         or was already cancelled.
+	 */
+	public final boolean cancel()
+	{
+		if (STATE_UPDATER.compareAndSet(this, STATE_INIT, STATE_CANCELLED))
+		{
+			return true;
+		}
+		if (!STATE_UPDATER.compareAndSet(this, STATE_SCHEDULED,
+				STATE_CANCELLED))
+		{
+			return false;
+		}
+		_timer.cancelled(this);
+		return true;
+	}
+
+	/**
+	 * Check whether the timeout has been cancelled.
+	 * 
+	 * @return true if the timeout has been cancelled.
+	 */
+	public final boolean isCancelled()
+	{
+		return _iState == STATE_CANCELLED;
+	}
+
+	/**
+	 * Check whether the timeout has expired.
+	 * 
+	 * @return true if the timeout has expired.
+	 */
+	public final boolean isExpired()
+	{
+		return _iState == STATE_EXPIRED;
+	}
+
+	/**
+	 * Called by the executor of the timer when the timeout expires.
+	 */
+	protected abstract void expire();
+
+	/**
+	 * Mark the timeout as scheduled on a timer.
+	 * 
+	 * @param timer
+	 *            the timer.
+	 * @return false if the timeout was cancelled before being scheduled.
+	 * @throws IllegalStateException
+	 *             if the timeout was already scheduled.
+	 */
+	final boolean schedule(final HashedWheelTimer timer)
+	{
+		_timer = timer;
+		if (STATE_UPDATER.compareAndSet(this, STATE_INIT, STATE_SCHEDULED))
+		{
+			return true;
+		}
+		if (_iState == STATE_CANCELLED)
+		{
+			return false;
+		}
+		throw new IllegalStateException("Timeout already scheduled.");
+	}
+
+	/**
+	 * Mark the timeout as expired.
+	 * 
+	 * @return true if the timeout must be executed, false if it was cancelled
+	 *         in the meantime.
+	 */
+	final boolean markExpired()
+	{
+		return STATE_UPDATER.compareAndSet(this, STATE_SCHEDULED,
+				STATE_EXPIRED);
+	}
+}
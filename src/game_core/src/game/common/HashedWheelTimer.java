@@ -0,0 +1,400 @@
+package game.common;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Timer scheduling a large number of {@link AbstractTimeout} with an
+ * approximate precision. The timeouts are stored in a wheel of buckets, each
+ * bucket covering one tick. Scheduling and cancelling a timeout are O(1): the
+ * timeout is only handed over to the timer thread, which moves it to or out
+ * of the wheel on its next tick. The expired timeouts are executed on the
+ * specified executor, never on the timer thread.
+ * 
+ * @author benobiwan
+ * 
+ */
+public final class HashedWheelTimer
+{
+	/**
+	 * Logger object.
+	 */
+	private static final Logger LOGGER = LoggerFactory
+			.getLogger(HashedWheelTimer.class);
+
+	/**
+	 * The wheel.
+	 */
+	private final Bucket[] _wheel;
+
+	/**
+	 * Mask applied to a tick to get the index of its bucket.
+	 */
+	private final int _iMask;
+
+	/**
+	 * Duration of a tick in nanoseconds.
+	 */
+	private final long _lTickDuration;
+
+	/**
+	 * Executor running the expired timeouts.
+	 */
+	private final Executor _executor;
+
+	/**
+	 * Timeouts scheduled since the last tick.
+	 */
+	private final Queue<AbstractTimeout> _newTimeoutQueue = new ConcurrentLinkedQueue<>();
+
+	/**
+	 * Timeouts cancelled since the last tick.
+	 */
+	private final Queue<AbstractTimeout> _cancelledTimeoutQueue = new ConcurrentLinkedQueue<>();
+
+	/**
+	 * Number of timeouts scheduled and neither expired nor cancelled.
+	 */
+	private final AtomicLong _pendingCount = new AtomicLong();
+
+	/**
+	 * Number of expired timeouts.
+	 */
+	private final AtomicLong _firedCount = new AtomicLong();
+
+	/**
+	 * Time in nanoseconds at which the timer was started.
+	 */
+	private final long _lStartTime;
+
+	/**
+	 * The thread moving the wheel.
+	 */
+	private final Thread _workerThread;
+
+	/**
+	 * Whether the timer has been stopped.
+	 */
+	private volatile boolean _bStopped = false;
+
+	/**
+	 * Creates and starts a new HashedWheelTimer.
+	 * 
+	 * @param strName
+	 *            name of the timer thread.
+	 * @param lTickDuration
+	 *            the duration of a tick, which is the precision of the timer.
+	 * @param unit
+	 *            the unit of the duration of a tick.
+	 * @param iWheelSize
+	 *            the minimum number of buckets of the wheel, rounded up to a
+	 *            power of two.
+	 * @param executor
+	 *            executor running the expired timeouts.
+	 */
+	public HashedWheelTimer(final String strName, final long lTickDuration,
+			final TimeUnit unit, final int iWheelSize, final Executor executor)
+	{
+		final int iSize = iWheelSize <= 1 ? 1 : Integer
+				.highestOneBit(iWheelSize - 1) << 1;
+		_wheel = new Bucket[iSize];
+		for (int i = 0; i < iSize; i++)
+		{
+			_wheel[i] = new Bucket();
+		}
+		_iMask = iSize - 1;
+		_lTickDuration = Math.max(1, unit.toNanos(lTickDuration));
+		_executor = executor;
+		_lStartTime = System.nanoTime();
+		_workerThread = new Thread(new Worker(), strName);
+		_workerThread.setDaemon(true);
+		_workerThread.start();
+	}
+
+	/**
+	 * Schedule a timeout.
+	 * 
+	 * @param <TIMEOUT>
+	 *            the type of timeout.
+	 * @param timeout
+	 *            the timeout to schedule.
+	 * @param lDelay
+	 *            the delay before the expiration of the timeout.
+	 * @param unit
+	 *            the unit of the delay.
+	 * @return the scheduled timeout.
+	 * @throws IllegalStateException
+	 *             if the timeout was already scheduled or the timer is
+	 *             stopped.
+	 */
+	public <TIMEOUT extends AbstractTimeout> TIMEOUT schedule(
+			final TIMEOUT timeout, final long lDelay, final TimeUnit unit)
+	{
+		if (_bStopped)
+		{
+			throw new IllegalStateException("Timer stopped.");
+		}
+		timeout._lDeadline = System.nanoTime() + unit.toNanos(lDelay)
+				- _lStartTime;
+		if (timeout.schedule(this))
+		{
+			_pendingCount.incrementAndGet();
+			_newTimeoutQueue.add(timeout);
+		}
+		return timeout;
+	}
+
+	/**
+	 * Stop the timer. The pending timeouts never expire.
+	 */
+	public void stop()
+	{
+		_bStopped = true;
+		_workerThread.interrupt();
+	}
+
+	/**
+	 * Get the number of timeouts waiting to expire.
+	 * 
+	 * @return the number of timeouts waiting to expire.
+	 */
+	public long getPendingCount()
+	{
+		return _pendingCount.get();
+	}
+
+	/**
+	 * Get the number of timeouts which expired since the timer was started.
+	 * 
+	 * @return the number of expired timeouts.
+	 */
+	public long getFiredCount()
+	{
+		return _firedCount.get();
+	}
+
+	/**
+	 * Notify the timer that a scheduled timeout has been cancelled.
+	 * 
+	 * @param timeout
+	 *            the cancelled timeout.
+	 */
+	void cancelled(final AbstractTimeout timeout)
+	{
+		_pendingCount.decrementAndGet();
+		_cancelledTimeoutQueue.add(timeout);
+	}
+
+	/**
+	 * A bucket of the wheel: a doubly linked list of timeouts. Only used by
+	 * the timer thread.
+	 */
+	static final class Bucket
+	{
+		/**
+		 * First timeout of the bucket.
+		 */
+		private AbstractTimeout _head;
+
+		/**
+		 * Add a timeout to the bucket.
+		 * 
+		 * @param timeout
+		 *            the timeout.
+		 */
+		void add(final AbstractTimeout timeout)
+		{
+			timeout._bucket = this;
+			timeout._previous = null;
+			timeout._next = _head;
+			if (_head != null)
+			{
+				_head._previous = timeout;
+			}
+			_head = timeout;
+		}
+
+		/**
+		 * Remove a timeout from the bucket.
+		 * 
+		 * @param timeout
+		 *            the timeout.
+		 */
+		void remove(final AbstractTimeout timeout)
+		{
+			if (timeout._previous == null)
+			{
+				_head = timeout._next;
+			}
+			else
+			{
+				timeout._previous._next = timeout._next;
+			}
+			if (timeout._next != null)
+			{
+				timeout._next._previous = timeout._previous;
+			}
+			timeout._bucket = null;
+			timeout._previous = null;
+			timeout._next = null;
+		}
+	}
+
+	/**
+	 * Body of the timer thread.
+	 */
+	private final class Worker implements Runnable
+	{
+		/**
+		 * Current tick.
+		 */
+		private long _lTick = 0;
+
+		/**
+		 * Creates a new Worker.
+		 */
+		Worker()
+		{
+			// nothing to do.
+		}
+
+		@Override
+		public void run()
+		{
+			while (!_bStopped)
+			{
+				if (!waitForNextTick())
+				{
+					return;
+				}
+				removeCancelledTimeouts();
+				addNewTimeouts();
+				expireTimeouts(_wheel[(int) (_lTick & _iMask)]);
+				_lTick++;
+			}
+		}
+
+		/**
+		 * Sleep until the end of the current tick.
+		 * 
+		 * @return false if the timer was stopped while sleeping.
+		 */
+		private boolean waitForNextTick()
+		{
+			final long lDeadline = (_lTick + 1) * _lTickDuration;
+			long lSleep = lDeadline - (System.nanoTime() - _lStartTime);
+			while (lSleep > 0)
+			{
+				try
+				{
+					TimeUnit.NANOSECONDS.sleep(lSleep);
+				}
+				catch (final InterruptedException e)
+				{
+					if (_bStopped)
+					{
+						return false;
+					}
+				}
+				lSleep = lDeadline - (System.nanoTime() - _lStartTime);
+			}
+			return true;
+		}
+
+		/**
+		 * Remove from the wheel the timeouts cancelled since the last tick.
+		 */
+		private void removeCancelledTimeouts()
+		{
+			AbstractTimeout timeout;
+			while ((timeout = _cancelledTimeoutQueue.poll()) != null)
+			{
+				if (timeout._bucket != null)
+				{
+					timeout._bucket.remove(timeout);
+				}
+			}
+		}
+
+		/**
+		 * Add to the wheel the timeouts scheduled since the last tick.
+		 */
+		private void addNewTimeouts()
+		{
+			AbstractTimeout timeout;
+			while ((timeout = _newTimeoutQueue.poll()) != null)
+			{
+				if (timeout.isCancelled())
+				{
+					continue;
+				}
+				final long lExpirationTick = Math.max(timeout._lDeadline
+						/ _lTickDuration, _lTick);
+				timeout._lRemainingRounds = (lExpirationTick - _lTick)
+						/ _wheel.length;
+				_wheel[(int) (lExpirationTick & _iMask)].add(timeout);
+			}
+		}
+
+		/**
+		 * Expire the timeouts of a bucket which reached their last round.
+		 * 
+		 * @param bucket
+		 *            the bucket of the current tick.
+		 */
+		private void expireTimeouts(final Bucket bucket)
+		{
+			AbstractTimeout timeout = bucket._head;
+			while (timeout != null)
+			{
+				final AbstractTimeout next = timeout._next;
+				if (timeout._lRemainingRounds <= 0)
+				{
+					bucket.remove(timeout);
+					if (timeout.markExpired())
+					{
+						_pendingCount.decrementAndGet();
+						_firedCount.incrementAndGet();
+						execute(timeout);
+					}
+				}
+				else
+				{
+					timeout._lRemainingRounds--;
+				}
+				timeout = next;
+			}
+		}
+
+		/**
+		 * Execute an expired timeout on the executor.
+		 * 
+		 * @param timeout
+		 *            the expired timeout.
+		 */
+		private void execute(final AbstractTimeout timeout)
+		{
+			try
+			{
+				_executor.execute(new Runnable()
+				{
+					@Override
+					public void run()
+					{
+						timeout.expire();
+					}
+				});
+			}
+			catch (final RuntimeException e)
+			{
+				LOGGER.error("Unable to execute an expired timeout.", e);
+			}
+		}
+	}
+}
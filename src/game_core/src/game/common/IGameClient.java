@@ -1,6 +1,7 @@
 package game.common;
 
 import game.communication.event.IEvent;
+import game.communication.event.IRetargetableEvent;
 import game.communication.event.InconsistentEventTypeException;
 import game.gameserver.IServerGameCreator;
 import game.gameserver.IServerSidePlayer;
@@ -35,6 +36,24 @@ public interface IGameClient extends Comparable<IGameClient>
 	void handleEvent(IGameServer server, IEvent evt)
 			throws InconsistentEventTypeException;
 
+	/**
+	 * Asks this GameClient to handle an event sent with the same content to
+	 * several of its players.
+	 * 
+	 * @param server
+	 *            the GameServer at the origin of this Event.
+	 * @param evt
+	 *            the event to handle, the player it is addressed to is
+	 *            ignored.
+	 * @param playerIds
+	 *            the ids of the players of this client receiving the event.
+	 * @throws InconsistentEventTypeException
+	 *             if the event type field and the class of the event object are
+	 *             inconsistent.
+	 */
+	void handleFanOutEvent(IGameServer server, IRetargetableEvent evt,
+			int[] playerIds) throws InconsistentEventTypeException;
+
 	/**
 	 * Register a new GameServer to this client. Used to be able to send Action
 	 * to the Server.
@@ -54,4 +54,12 @@ public interface IGameInstanceDescription extends
 	 *            the new number of player.
 	 */
 	void setNumberOfPlayer(final int iNumberOfPlayer);
+
+	/**
+	 * Create a copy of this description, which isn't affected by the later
+	 * changes of this one.
+	 * 
+	 * @return a copy of this description.
+	 */
+	IGameInstanceDescription copy();
 }
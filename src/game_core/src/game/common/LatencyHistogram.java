@@ -0,0 +1,171 @@
+package game.common;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Histogram of durations updated by many threads. Each power of two is split
+ * in four buckets, so a percentile is known within 25%. As in the
+ * {@link StripedCounter}, the buckets are duplicated for several stripes of
+ * threads, so recording a duration only touches the stripe of the current
+ * thread.
+ * 
+ * @author benobiwan
+ * 
+ */
+public final class LatencyHistogram
+{
+	/**
+	 * Number of bits of a duration, after its highest one bit, used to choose
+	 * its bucket.
+	 */
+	private static final int SUB_BUCKET_BITS = 2;
+
+	/**
+	 * Number of buckets for each power of two.
+	 */
+	private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+	/**
+	 * Number of buckets needed for all the positive longs.
+	 */
+	private static final int BUCKETS = (Long.SIZE - SUB_BUCKET_BITS)
+			* SUB_BUCKETS;
+
+	/**
+	 * The buckets of all the stripes, the buckets of a stripe being
+	 * contiguous.
+	 */
+	private final AtomicLongArray _buckets = new AtomicLongArray(
+			StripedCounter.STRIPES * BUCKETS);
+
+	/**
+	 * Sum of the recorded durations.
+	 */
+	private final StripedCounter _total = new StripedCounter();
+
+	/**
+	 * Record a duration.
+	 * 
+	 * @param lDuration
+	 *            the duration, negative durations are counted as 0.
+	 */
+	public void record(final long lDuration)
+	{
+		final long lValue = lDuration < 0 ? 0 : lDuration;
+		_buckets.getAndIncrement(StripedCounter.stripe() * BUCKETS
+				+ bucket(lValue));
+		_total.add(lValue);
+	}
+
+	/**
+	 * Get the number of recorded durations.
+	 * 
+	 * @return the number of recorded durations.
+	 */
+	public long getCount()
+	{
+		long lCount = 0;
+		for (final long lBucketCount : snapshot())
+		{
+			lCount += lBucketCount;
+		}
+		return lCount;
+	}
+
+	/**
+	 * Get the mean of the recorded durations.
+	 * 
+	 * @return the mean of the recorded durations, 0 if there is none.
+	 */
+	public long getMean()
+	{
+		final long lCount = getCount();
+		return lCount == 0 ? 0 : _total.sum() / lCount;
+	}
+
+	/**
+	 * Get a percentile of the recorded durations.
+	 * 
+	 * @param dPercentile
+	 *            the percentile, between 0 and 100.
+	 * @return the upper bound of the bucket holding the percentile, 0 if no
+	 *         duration was recorded.
+	 */
+	public long getPercentile(final double dPercentile)
+	{
+		final long[] counts = snapshot();
+		long lCount = 0;
+		for (final long lBucketCount : counts)
+		{
+			lCount += lBucketCount;
+		}
+		if (lCount == 0)
+		{
+			return 0;
+		}
+		final long lRank = Math.max(1,
+				(long) Math.ceil(dPercentile / 100 * lCount));
+		long lSeen = 0;
+		for (int i = 0; i < BUCKETS; i++)
+		{
+			lSeen += counts[i];
+			if (lSeen >= lRank)
+			{
+				return upperBound(i);
+			}
+		}
+		return Long.MAX_VALUE;
+	}
+
+	/**
+	 * Sum the buckets of all the stripes.
+	 * 
+	 * @return the number of durations recorded in each bucket.
+	 */
+	private long[] snapshot()
+	{
+		final long[] counts = new long[BUCKETS];
+		for (int i = 0; i < _buckets.length(); i++)
+		{
+			counts[i % BUCKETS] += _buckets.get(i);
+		}
+		return counts;
+	}
+
+	/**
+	 * Get the bucket of a duration.
+	 * 
+	 * @param lValue
+	 *            the duration, positive.
+	 * @return the index of the bucket.
+	 */
+	private static int bucket(final long lValue)
+	{
+		if (lValue < SUB_BUCKETS)
+		{
+			return (int) lValue;
+		}
+		final int iShift = Long.SIZE - 1 - Long.numberOfLeadingZeros(lValue)
+				- SUB_BUCKET_BITS;
+		return ((iShift + 1) << SUB_BUCKET_BITS)
+				+ (int) ((lValue >>> iShift) & (SUB_BUCKETS - 1));
+	}
+
+	/**
+	 * Get the largest duration of a bucket.
+	 * 
+	 * @param iBucket
+	 *            the index of the bucket.
+	 * @return the largest duration of the bucket.
+	 */
+	private static long upperBound(final int iBucket)
+	{
+		if (iBucket < SUB_BUCKETS)
+		{
+			return iBucket;
+		}
+		final int iShift = (iBucket >>> SUB_BUCKET_BITS) - 1;
+		final long lNext = SUB_BUCKETS + (iBucket & (SUB_BUCKETS - 1)) + 1;
+		return (lNext << iShift) - 1;
+	}
+}
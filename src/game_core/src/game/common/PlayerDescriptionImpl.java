@@ -1,5 +1,8 @@
 package game.common;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
+
 /**
  * Object used to describe a player in a game.
  * 
@@ -24,9 +27,10 @@ public final class PlayerDescriptionImpl implements IPlayerDescription
 	private final boolean _bIsAI;
 
 	/**
-	 * Lock protecting the isReady boolean.
+	 * Lock protecting the isReady boolean. It isn't serializable, so it isn't
+	 * serialized and a new one is created when the description is read.
 	 */
-	private final Object _lock = new Object();
+	private transient Object _lock = new Object();
 
 	/**
 	 * Boolean telling whether this player is ready or not.
@@ -47,6 +51,23 @@ public final class PlayerDescriptionImpl implements IPlayerDescription
 		_bIsAI = bIsAI;
 	}
 
+	/**
+	 * Read the description and create its lock.
+	 * 
+	 * @param in
+	 *            the stream to read from.
+	 * @throws IOException
+	 *             if the description can't be read.
+	 * @throws ClassNotFoundException
+	 *             if the class of a field can't be found.
+	 */
+	private void readObject(final ObjectInputStream in) throws IOException,
+			ClassNotFoundException
+	{
+		in.defaultReadObject();
+		_lock = new Object();
+	}
+
 	@Override
 	public boolean isReady()
 	{
@@ -0,0 +1,278 @@
+package game.common;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Concurrent map indexed by a primitive player id. The entries are stored in
+ * an open-addressed table with linear probing, so that a lookup neither boxes
+ * the id nor takes a lock. The writes are serialized by the lock of the index
+ * and are expected to be much rarer than the lookups: they only happen when a
+ * player joins or leaves a game.
+ * 
+ * @author benobiwan
+ * 
+ * @param <VALUE>
+ *            the type of the values.
+ */
+public final class PlayerIndex<VALUE>
+{
+	/**
+	 * Initial number of slots of the table.
+	 */
+	private static final int INITIAL_CAPACITY = 16;
+
+	/**
+	 * Entry left in the table in place of a removed one, so that the probing
+	 * of the entries after it isn't stopped.
+	 */
+	private static final Entry<Object> REMOVED = new Entry<>(0, null);
+
+	/**
+	 * The slots. The table is replaced as a whole when growing or when too
+	 * many slots hold a removed entry.
+	 */
+	private volatile AtomicReferenceArray<Entry<VALUE>> _table = new AtomicReferenceArray<>(
+			INITIAL_CAPACITY);
+
+	/**
+	 * Number of values in the index.
+	 */
+	private volatile int _iSize;
+
+	/**
+	 * Number of slots holding a removed entry.
+	 */
+	private int _iRemoved;
+
+	/**
+	 * Get the value associated with a player.
+	 * 
+	 * @param iPlayerId
+	 *            the id of the player.
+	 * @return the value, null if the player isn't in the index.
+	 */
+	public VALUE get(final int iPlayerId)
+	{
+		final AtomicReferenceArray<Entry<VALUE>> table = _table;
+		final int iMask = table.length() - 1;
+		int iIndex = hash(iPlayerId) & iMask;
+		Entry<VALUE> entry = table.get(iIndex);
+		while (entry != null)
+		{
+			if (entry._iPlayerId == iPlayerId && entry != REMOVED)
+			{
+				return entry._value;
+			}
+			iIndex = (iIndex + 1) & iMask;
+			entry = table.get(iIndex);
+		}
+		return null;
+	}
+
+	/**
+	 * Check whether a player is in the index.
+	 * 
+	 * @param iPlayerId
+	 *            the id of the player.
+	 * @return true if the player is in the index.
+	 */
+	public boolean containsKey(final int iPlayerId)
+	{
+		return get(iPlayerId) != null;
+	}
+
+	/**
+	 * Associate a value with a player.
+	 * 
+	 * @param iPlayerId
+	 *            the id of the player.
+	 * @param value
+	 *            the value, mustn't be null.
+	 * @return the value previously associated with the player, null if there
+	 *         was none.
+	 */
+	public synchronized VALUE put(final int iPlayerId, final VALUE value)
+	{
+		if (value == null)
+		{
+			throw new NullPointerException();
+		}
+		final AtomicReferenceArray<Entry<VALUE>> table = _table;
+		final int iIndex = find(table, iPlayerId);
+		final Entry<VALUE> previous = table.get(iIndex);
+		if (previous != null)
+		{
+			table.set(iIndex, new Entry<>(iPlayerId, value));
+			return previous._value;
+		}
+		if ((_iSize + _iRemoved + 1) * 4 > table.length() * 3)
+		{
+			rehash();
+			final AtomicReferenceArray<Entry<VALUE>> newTable = _table;
+			newTable.set(find(newTable, iPlayerId), new Entry<>(iPlayerId,
+					value));
+		}
+		else
+		{
+			table.set(iIndex, new Entry<>(iPlayerId, value));
+		}
+		_iSize++;
+		return null;
+	}
+
+	/**
+	 * Remove a player from the index.
+	 * 
+	 * @param iPlayerId
+	 *            the id of the player.
+	 * @return the value associated with the player, null if there was none.
+	 */
+	@SuppressWarnings("unchecked")
+	public synchronized VALUE remove(final int iPlayerId)
+	{
+		final AtomicReferenceArray<Entry<VALUE>> table = _table;
+		final int iIndex = find(table, iPlayerId);
+		final Entry<VALUE> previous = table.get(iIndex);
+		if (previous == null)
+		{
+			return null;
+		}
+		table.set(iIndex, (Entry<VALUE>) REMOVED);
+		_iSize--;
+		_iRemoved++;
+		return previous._value;
+	}
+
+	/**
+	 * Get the number of players in the index.
+	 * 
+	 * @return the number of players in the index.
+	 */
+	public int size()
+	{
+		return _iSize;
+	}
+
+	/**
+	 * Get a snapshot of the values of the index. Values added or removed while
+	 * taking the snapshot may or may not be included.
+	 * 
+	 * @return the values of the index.
+	 */
+	public List<VALUE> values()
+	{
+		final AtomicReferenceArray<Entry<VALUE>> table = _table;
+		final List<VALUE> valueList = new ArrayList<>(_iSize);
+		for (int i = 0; i < table.length(); i++)
+		{
+			final Entry<VALUE> entry = table.get(i);
+			if (entry != null && entry != REMOVED)
+			{
+				valueList.add(entry._value);
+			}
+		}
+		return valueList;
+	}
+
+	/**
+	 * Find the slot of a player: the slot holding its entry if it is in the
+	 * index, otherwise the empty slot ending its probing sequence. Must be
+	 * called holding the lock.
+	 * 
+	 * @param table
+	 *            the slots.
+	 * @param iPlayerId
+	 *            the id of the player.
+	 * @return the index of the slot.
+	 */
+	private static int find(
+			final AtomicReferenceArray<? extends Entry<?>> table,
+			final int iPlayerId)
+	{
+		final int iMask = table.length() - 1;
+		int iIndex = hash(iPlayerId) & iMask;
+		Entry<?> entry = table.get(iIndex);
+		while (entry != null
+				&& (entry._iPlayerId != iPlayerId || entry == REMOVED))
+		{
+			iIndex = (iIndex + 1) & iMask;
+			entry = table.get(iIndex);
+		}
+		return iIndex;
+	}
+
+	/**
+	 * Copy the entries to a new table, dropping the removed ones and doubling
+	 * the number of slots if needed. The entries are immutable so the readers
+	 * of the old table are not disturbed. Must be called holding the lock.
+	 */
+	private void rehash()
+	{
+		final AtomicReferenceArray<Entry<VALUE>> oldTable = _table;
+		int iCapacity = oldTable.length();
+		while ((_iSize + 1) * 2 > iCapacity)
+		{
+			iCapacity *= 2;
+		}
+		final AtomicReferenceArray<Entry<VALUE>> newTable = new AtomicReferenceArray<>(
+				iCapacity);
+		for (int i = 0; i < oldTable.length(); i++)
+		{
+			final Entry<VALUE> entry = oldTable.get(i);
+			if (entry != null && entry != REMOVED)
+			{
+				newTable.set(find(newTable, entry._iPlayerId), entry);
+			}
+		}
+		_iRemoved = 0;
+		_table = newTable;
+	}
+
+	/**
+	 * Spread the bits of a player id, as the ids are usually consecutive.
+	 * 
+	 * @param iPlayerId
+	 *            the id of the player.
+	 * @return the hash of the id.
+	 */
+	private static int hash(final int iPlayerId)
+	{
+		final int iHash = iPlayerId * 0x9E3779B9;
+		return iHash ^ (iHash >>> 16);
+	}
+
+	/**
+	 * Entry of the table, immutable.
+	 * 
+	 * @param <VALUE>
+	 *            the type of the value.
+	 */
+	private static final class Entry<VALUE>
+	{
+		/**
+		 * Id of the player.
+		 */
+		final int _iPlayerId;
+
+		/**
+		 * The value.
+		 */
+		final VALUE _value;
+
+		/**
+		 * Creates a new Entry.
+		 * 
+		 * @param iPlayerId
+		 *            id of the player.
+		 * @param value
+		 *            the value.
+		 */
+		Entry(final int iPlayerId, final VALUE value)
+		{
+			_iPlayerId = iPlayerId;
+			_value = value;
+		}
+	}
+}
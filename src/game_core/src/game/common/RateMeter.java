@@ -0,0 +1,101 @@
+package game.common;
+
+/**
+ * Meter of the rate of an event. Marking an event only updates a
+ * {@link StripedCounter}, the rate is computed from samples of the counter
+ * taken by {@link #sample()}, which must be called at a regular interval,
+ * typically every second. The rate is averaged over the samples of the last
+ * minute.
+ * 
+ * @author benobiwan
+ * 
+ */
+public final class RateMeter
+{
+	/**
+	 * Number of samples kept, one more than the number of seconds averaged
+	 * when sampling every second.
+	 */
+	private static final int SAMPLES = 61;
+
+	/**
+	 * Number of events marked.
+	 */
+	private final StripedCounter _counter = new StripedCounter();
+
+	/**
+	 * Time of the samples, in nanoseconds.
+	 */
+	private final long[] _sampleTimes = new long[SAMPLES];
+
+	/**
+	 * Number of events marked at the time of the samples.
+	 */
+	private final long[] _sampleCounts = new long[SAMPLES];
+
+	/**
+	 * Index of the next sample.
+	 */
+	private int _iNextSample;
+
+	/**
+	 * Number of samples taken, at most the number of samples kept.
+	 */
+	private int _iSampleCount;
+
+	/**
+	 * Mark an event.
+	 */
+	public void mark()
+	{
+		_counter.increment();
+	}
+
+	/**
+	 * Get the number of events marked.
+	 * 
+	 * @return the number of events marked.
+	 */
+	public long getCount()
+	{
+		return _counter.sum();
+	}
+
+	/**
+	 * Take a sample of the number of events marked.
+	 */
+	public synchronized void sample()
+	{
+		_sampleTimes[_iNextSample] = System.nanoTime();
+		_sampleCounts[_iNextSample] = _counter.sum();
+		_iNextSample = (_iNextSample + 1) % SAMPLES;
+		if (_iSampleCount < SAMPLES)
+		{
+			_iSampleCount++;
+		}
+	}
+
+	/**
+	 * Get the rate of the events between the oldest and the newest sample.
+	 * 
+	 * @return the number of events per second, 0 if less than two samples
+	 *         were taken.
+	 */
+	public synchronized double getRate()
+	{
+		if (_iSampleCount < 2)
+		{
+			return 0;
+		}
+		final int iNewest = (_iNextSample + SAMPLES - 1) % SAMPLES;
+		final int iOldest = (_iNextSample + SAMPLES - _iSampleCount)
+				% SAMPLES;
+		final long lElapsed = _sampleTimes[iNewest] - _sampleTimes[iOldest];
+		if (lElapsed <= 0)
+		{
+			return 0;
+		}
+		return (_sampleCounts[iNewest] - _sampleCounts[iOldest]) * 1e9
+				/ lElapsed;
+	}
+}
@@ -0,0 +1,82 @@
+package game.common;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Counter updated by many threads. The count is split over several cells,
+ * each thread updating the cell chosen by its id, so that the threads don't
+ * contend on the same cache line. Reading the counter sums the cells and is
+ * much slower than updating it: it is meant for counters updated on the hot
+ * path and read from time to time.
+ * 
+ * @author benobiwan
+ * 
+ */
+public final class StripedCounter
+{
+	/**
+	 * Number of longs between two cells, so that each cell is on its own
+	 * cache line.
+	 */
+	private static final int PADDING = 8;
+
+	/**
+	 * Number of cells, the number of available processors rounded up to a
+	 * power of two.
+	 */
+	static final int STRIPES = Integer.highestOneBit(Runtime.getRuntime()
+			.availableProcessors() * 2 - 1);
+
+	/**
+	 * The cells.
+	 */
+	private final AtomicLongArray _cells = new AtomicLongArray(STRIPES
+			* PADDING);
+
+	/**
+	 * Add one to the counter.
+	 */
+	public void increment()
+	{
+		_cells.getAndIncrement(stripe() * PADDING);
+	}
+
+	/**
+	 * Add a value to the counter.
+	 * 
+	 * @param lValue
+	 *            the value to add, may be negative.
+	 */
+	public void add(final long lValue)
+	{
+		_cells.getAndAdd(stripe() * PADDING, lValue);
+	}
+
+	/**
+	 * Get the value of the counter. The updates done while summing the cells
+	 * may or may not be included.
+	 * 
+	 * @return the value of the counter.
+	 */
+	public long sum()
+	{
+		long lSum = 0;
+		for (int i = 0; i < STRIPES; i++)
+		{
+			lSum += _cells.get(i * PADDING);
+		}
+		return lSum;
+	}
+
+	/**
+	 * Get the stripe used by the current thread.
+	 * 
+	 * @return the index of the stripe used by the current thread.
+	 */
+	static int stripe()
+	{
+		// the thread ids are consecutive, spread them over the stripes.
+		final long lHash = Thread.currentThread().getId() * 0x9E3779B97F4A7C15L;
+		return (int) (lHash >>> 32) & (STRIPES - 1);
+	}
+}
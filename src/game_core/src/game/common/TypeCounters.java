@@ -0,0 +1,64 @@
+package game.common;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * {@link StripedCounter}s indexed by the class of the counted objects. The
+ * counter of a class is found through a {@link ClassValue}, so counting an
+ * object neither hashes nor allocates once its class has been seen.
+ * 
+ * @author benobiwan
+ * 
+ */
+public final class TypeCounters
+{
+	/**
+	 * The counters by class name, used to read them.
+	 */
+	private final ConcurrentMap<String, StripedCounter> _counterMap = new ConcurrentHashMap<>();
+
+	/**
+	 * The counters by class, used to update them.
+	 */
+	private final ClassValue<StripedCounter> _counters = new ClassValue<StripedCounter>()
+	{
+		@Override
+		protected StripedCounter computeValue(final Class<?> type)
+		{
+			final StripedCounter counter = new StripedCounter();
+			final StripedCounter previous = _counterMap.putIfAbsent(
+					type.getName(), counter);
+			return previous == null ? counter : previous;
+		}
+	};
+
+	/**
+	 * Count an object.
+	 * 
+	 * @param object
+	 *            the object to count.
+	 */
+	public void increment(final Object object)
+	{
+		_counters.get(object.getClass()).increment();
+	}
+
+	/**
+	 * Get the count of each class.
+	 * 
+	 * @return the count of each class seen so far, by class name.
+	 */
+	public Map<String, Long> getCounts()
+	{
+		final Map<String, Long> countMap = new TreeMap<>();
+		for (final Map.Entry<String, StripedCounter> entry : _counterMap
+				.entrySet())
+		{
+			countMap.put(entry.getKey(), Long.valueOf(entry.getValue().sum()));
+		}
+		return countMap;
+	}
+}
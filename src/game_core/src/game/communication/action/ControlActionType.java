@@ -16,5 +16,10 @@ public enum ControlActionType
 	/**
 	 * Ask server state action.
 	 */
-	ASK_SERVER_STATE;
+	ASK_SERVER_STATE,
+
+	/**
+	 * Subscribe to the server state action.
+	 */
+	SUBSCRIBE_SERVER_STATE;
 }
@@ -46,4 +46,15 @@ public interface IControlActionHandler
 	 */
 	void handleAskServerStateCtrlActionAction(final IGameClient client,
 			final AskServerStateCtrlAction act);
+
+	/**
+	 * Handle a {@link SubscribeServerStateCtrlAction}.
+	 * 
+	 * @param client
+	 *            the client from which the control action is coming.
+	 * @param act
+	 *            the action to handle.
+	 */
+	void handleSubscribeServerStateCtrlAction(final IGameClient client,
+			final SubscribeServerStateCtrlAction act);
 }
@@ -0,0 +1,50 @@
+package game.communication.action.control;
+
+import game.communication.action.AbstractControlAction;
+import game.communication.action.ControlActionType;
+
+/**
+ * Action subscribing to or unsubscribing from the changes of the server
+ * state. A subscribed client first receives the full list of games, then a
+ * {@link game.communication.event.control.GameListDeltaCtrlEvent} for each
+ * change of the list.
+ * 
+ * @author benobiwan
+ * 
+ */
+public final class SubscribeServerStateCtrlAction extends
+		AbstractControlAction
+{
+	/**
+	 * serialVersionUID for Serialization.
+	 */
+	private static final long serialVersionUID = -2411803521709367245L;
+
+	/**
+	 * boolean telling whether we want to subscribe or unsubscribe.
+	 */
+	private final boolean _bSubscribe;
+
+	/**
+	 * Creates a new SubscribeServerStateCtrlAction.
+	 * 
+	 * @param bSubscribe
+	 *            boolean telling whether we want to subscribe or
+	 *            unsubscribe.
+	 */
+	public SubscribeServerStateCtrlAction(final boolean bSubscribe)
+	{
+		super(ControlActionType.SUBSCRIBE_SERVER_STATE);
+		_bSubscribe = bSubscribe;
+	}
+
+	/**
+	 * Check whether we want to subscribe or unsubscribe.
+	 * 
+	 * @return true if we want to subscribe.
+	 */
+	public boolean isSubscribe()
+	{
+		return _bSubscribe;
+	}
+}
@@ -13,6 +13,12 @@ public abstract class AbstractEvent implements IEvent
 	 */
 	private static final long serialVersionUID = -9048729109530336271L;
 
+	/**
+	 * Form of this event encoded by the network codec, cached for the events
+	 * sent unchanged to many clients.
+	 */
+	private transient volatile byte[] _encodedForm;
+
 	/**
 	 * Creates a new AbstractEvent.
 	 */
@@ -20,4 +26,26 @@ public abstract class AbstractEvent implements IEvent
 	{
 		// nothing to do
 	}
+
+	/**
+	 * Get the cached form of this event encoded by the network codec.
+	 * 
+	 * @return the encoded form of this event, null if it wasn't cached yet.
+	 */
+	public final byte[] getEncodedForm()
+	{
+		return _encodedForm;
+	}
+
+	/**
+	 * Cache the form of this event encoded by the network codec. The event
+	 * mustn't be modified once its encoded form is cached.
+	 * 
+	 * @param encodedForm
+	 *            the encoded form of this event.
+	 */
+	public final void setEncodedForm(final byte[] encodedForm)
+	{
+		_encodedForm = encodedForm;
+	}
 }
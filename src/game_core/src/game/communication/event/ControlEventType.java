@@ -21,5 +21,10 @@ public enum ControlEventType
 	/**
 	 * Server state event.
 	 */
-	SERVER_STATE;
+	SERVER_STATE,
+
+	/**
+	 * Game list delta event.
+	 */
+	GAME_LIST_DELTA;
 }
@@ -0,0 +1,22 @@
+package game.communication.event;
+
+/**
+ * Interface describing an event sent with the same content to several players
+ * of a game. The server builds and encodes the event once for all the players
+ * of a client, the client builds back the event of each player with
+ * {@link #forPlayer(int)}.
+ * 
+ * @author benobiwan
+ * 
+ */
+public interface IRetargetableEvent extends IEvent
+{
+	/**
+	 * Get the event with the same content addressed to the specified player.
+	 * 
+	 * @param iPlayerId
+	 *            the id of the player.
+	 * @return the event addressed to the player.
+	 */
+	IEvent forPlayer(final int iPlayerId);
+}
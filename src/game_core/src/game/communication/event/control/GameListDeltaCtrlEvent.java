@@ -0,0 +1,126 @@
+package game.communication.event.control;
+
+import game.common.IGameInstanceDescription;
+import game.communication.event.AbstractControlEvent;
+import game.communication.event.ControlEventType;
+import game.gameserver.IServerState;
+
+/**
+ * The event describing a change of the list of games to the clients
+ * subscribed to the server state. The events are numbered, a client missing
+ * one of them must subscribe again to get the full list.
+ * 
+ * @author benobiwan
+ * 
+ */
+public final class GameListDeltaCtrlEvent extends AbstractControlEvent
+{
+	/**
+	 * serialVersionUID for Serialization.
+	 */
+	private static final long serialVersionUID = 4719346043154180823L;
+
+	/**
+	 * Sequence number of the change.
+	 */
+	private final long _lSequence;
+
+	/**
+	 * Type of change.
+	 */
+	private final GameListDeltaType _deltaType;
+
+	/**
+	 * Id of the changed game.
+	 */
+	private final int _iGameId;
+
+	/**
+	 * Description of the changed game, null if the game was removed.
+	 */
+	private final IGameInstanceDescription _description;
+
+	/**
+	 * State of the server after the change.
+	 */
+	private final IServerState _serverState;
+
+	/**
+	 * Creates a new GameListDeltaCtrlEvent.
+	 * 
+	 * @param lSequence
+	 *            sequence number of the change.
+	 * @param deltaType
+	 *            type of change.
+	 * @param iGameId
+	 *            id of the changed game.
+	 * @param description
+	 *            description of the changed game, null if the game was
+	 *            removed.
+	 * @param serverState
+	 *            state of the server after the change.
+	 */
+	public GameListDeltaCtrlEvent(final long lSequence,
+			final GameListDeltaType deltaType, final int iGameId,
+			final IGameInstanceDescription description,
+			final IServerState serverState)
+	{
+		super(ControlEventType.GAME_LIST_DELTA);
+		_lSequence = lSequence;
+		_deltaType = deltaType;
+		_iGameId = iGameId;
+		_description = description;
+		_serverState = serverState;
+	}
+
+	/**
+	 * Get the sequence number of the change.
+	 * 
+	 * @return the sequence number of the change.
+	 */
+	public long getSequence()
+	{
+		return _lSequence;
+	}
+
+	/**
+	 * Get the type of change.
+	 * 
+	 * @return the type of change.
+	 */
+	public GameListDeltaType getDeltaType()
+	{
+		return _deltaType;
+	}
+
+	/**
+	 * Get the id of the changed game.
+	 * 
+	 * @return the id of the changed game.
+	 */
+	public int getGameId()
+	{
+		return _iGameId;
+	}
+
+	/**
+	 * Get the description of the changed game.
+	 * 
+	 * @return the description of the changed game, null if the game was
+	 *         removed.
+	 */
+	public IGameInstanceDescription getDescription()
+	{
+		return _description;
+	}
+
+	/**
+	 * Get the state of the server after the change.
+	 * 
+	 * @return the state of the server after the change.
+	 */
+	public IServerState getServerState()
+	{
+		return _serverState;
+	}
+}
@@ -0,0 +1,26 @@
+package game.communication.event.control;
+
+/**
+ * Enum describing the different changes of the list of games carried by a
+ * {@link GameListDeltaCtrlEvent}.
+ * 
+ * @author benobiwan
+ * 
+ */
+public enum GameListDeltaType
+{
+	/**
+	 * A game has been created.
+	 */
+	ADDED,
+
+	/**
+	 * The description of a game changed.
+	 */
+	UPDATED,
+
+	/**
+	 * A game has been removed.
+	 */
+	REMOVED;
+}
@@ -58,4 +58,15 @@ public interface IControlEventHandler
 	 */
 	void handleControlEvent(final IGameServer server,
 			final ServerStateCtrlEvent evt);
+
+	/**
+	 * Handle a {@link GameListDeltaCtrlEvent}.
+	 * 
+	 * @param server
+	 *            the game server from which the control event is coming.
+	 * @param evt
+	 *            the event to handle.
+	 */
+	void handleControlEvent(final IGameServer server,
+			final GameListDeltaCtrlEvent evt);
 }
@@ -31,6 +31,17 @@ public class ServerStateCtrlEvent extends AbstractControlEvent
 	 */
 	private final TreeSet<IGameInstanceDescription> _setDescription;
 
+	/**
+	 * boolean telling whether only the joinable games are listed.
+	 */
+	private final boolean _bOnlyJoinableGames;
+
+	/**
+	 * Sequence number of the last change of the list of games included in
+	 * this event.
+	 */
+	private final long _lSequence;
+
 	// TODO add the list of connected players
 
 	// TODO add the rights of the player
@@ -44,13 +55,21 @@ public class ServerStateCtrlEvent extends AbstractControlEvent
 	 * @param setDescription
 	 *            set holding the list of {@link IGameInstanceDescription} to
 	 *            send to the client.
+	 * @param bOnlyJoinableGames
+	 *            boolean telling whether only the joinable games are listed.
+	 * @param lSequence
+	 *            sequence number of the last change of the list of games
+	 *            included in this event.
 	 */
 	public ServerStateCtrlEvent(final IServerState serverState,
-			final TreeSet<IGameInstanceDescription> setDescription)
+			final TreeSet<IGameInstanceDescription> setDescription,
+			final boolean bOnlyJoinableGames, final long lSequence)
 	{
 		super(ControlEventType.SERVER_STATE);
 		_serverState = serverState;
 		_setDescription = setDescription;
+		_bOnlyJoinableGames = bOnlyJoinableGames;
+		_lSequence = lSequence;
 	}
 
 	/**
@@ -75,4 +94,25 @@ public class ServerStateCtrlEvent extends AbstractControlEvent
 		return _serverState;
 	}
 
+	/**
+	 * Check whether only the joinable games are listed.
+	 * 
+	 * @return true if only the joinable games are listed.
+	 */
+	public boolean isOnlyJoinableGames()
+	{
+		return _bOnlyJoinableGames;
+	}
+
+	/**
+	 * Get the sequence number of the last change of the list of games
+	 * included in this event. The {@link GameListDeltaCtrlEvent} following
+	 * this one have the next sequence numbers.
+	 * 
+	 * @return the sequence number.
+	 */
+	public long getSequence()
+	{
+		return _lSequence;
+	}
 }
@@ -2,6 +2,7 @@ package game.communication.event.gamecreation;
 
 import game.communication.event.AbstractGameCreationEvent;
 import game.communication.event.GameCreationEventType;
+import game.communication.event.IRetargetableEvent;
 import game.config.IGameConfiguration;
 
 /**
@@ -11,6 +12,7 @@ import game.config.IGameConfiguration;
  * 
  */
 public final class ConfigurationUpdateCrEvent extends AbstractGameCreationEvent
+		implements IRetargetableEvent
 {
 	/**
 	 * serialVersionUID for Serialization.
@@ -48,4 +50,11 @@ public final class ConfigurationUpdateCrEvent extends AbstractGameCreationEvent
 	{
 		return _gameConfiguration;
 	}
+
+	@Override
+	public ConfigurationUpdateCrEvent forPlayer(final int iPlayerId)
+	{
+		return new ConfigurationUpdateCrEvent(getGameId(), iPlayerId,
+				_gameConfiguration);
+	}
 }
@@ -3,6 +3,7 @@ package game.communication.event.gamectrl;
 import game.common.IPlayerDescription;
 import game.communication.event.AbstractGameCtrlEvent;
 import game.communication.event.GameCtrlEventType;
+import game.communication.event.IRetargetableEvent;
 
 import java.util.SortedSet;
 
@@ -13,6 +14,7 @@ import java.util.SortedSet;
  * 
  */
 public final class PlayerListUpdateCrEvent extends AbstractGameCtrlEvent
+		implements IRetargetableEvent
 {
 	/**
 	 * serialVersionUID for Serialization.
@@ -50,4 +52,10 @@ public final class PlayerListUpdateCrEvent extends AbstractGameCtrlEvent
 	{
 		return _playerList;
 	}
+
+	@Override
+	public PlayerListUpdateCrEvent forPlayer(final int iPlayerId)
+	{
+		return new PlayerListUpdateCrEvent(getGameId(), iPlayerId, _playerList);
+	}
 }
@@ -12,6 +12,8 @@ import java.io.IOException;
 import java.lang.management.ManagementFactory;
 import java.util.Set;
 
+import javax.management.MBeanServer;
+
 /**
  * The application core.
  * 
@@ -49,10 +51,14 @@ public final class ApplicationCore
 		_locGameClient = new LocalGameClient("loc");
 		_locGameServer.registerGameClient(_locGameClient);
 		_locGameClient.registerGameServer(_locGameServer);
+		final MBeanServer mBeanServer = ManagementFactory
+				.getPlatformMBeanServer();
 		final INetworkConfigurationLoader netConfLoader = new NetworkXMLFileConfigurationLoader(
-				ManagementFactory.getPlatformMBeanServer());
+				mBeanServer);
 		_netMain = new NetworkMain(_locGameClient, _locGameServer,
 				netConfLoader);
+		_locGameServer.getMetrics().register(mBeanServer);
+		_netMain.getConnectionList().getMetrics().register(mBeanServer);
 	}
 
 	/**
@@ -83,6 +89,9 @@ public final class ApplicationCore
 		{
 			_netMain.deactivateServer();
 		}
+		_locGameServer.getMetrics().unregister();
+		_netMain.getConnectionList().getMetrics().unregister();
+		_locGameServer.shutdown();
 		// TODO stop the application.
 	}
 
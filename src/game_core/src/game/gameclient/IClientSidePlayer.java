@@ -2,6 +2,7 @@ package game.gameclient;
 
 import game.common.IGameServer;
 import game.common.IPlayer;
+import game.communication.event.IMultiCastGameEvent;
 import game.communication.event.IUniCastGameEvent;
 import game.communication.event.InconsistentEventTypeException;
 import game.communication.event.game.IGameEventHandler;
@@ -61,6 +62,19 @@ public interface IClientSidePlayer<CONF_TYPE extends IGameConfiguration<PLAYER_C
 	void handleGameEvent(final IUniCastGameEvent evt)
 			throws InconsistentEventTypeException;
 
+	/**
+	 * Handle an {@link IMultiCastGameEvent} sent to all the players of the
+	 * game.
+	 * 
+	 * @param evt
+	 *            the event to handle.
+	 * @throws InconsistentEventTypeException
+	 *             the type field of the {@link IMultiCastGameEvent} and it's
+	 *             class are inconsistent.
+	 */
+	void handleMultiCastGameEvent(final IMultiCastGameEvent evt)
+			throws InconsistentEventTypeException;
+
 	/**
 	 * Check whether the game is in creation.
 	 * 
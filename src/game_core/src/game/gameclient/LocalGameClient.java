@@ -2,8 +2,10 @@ package game.gameclient;
 
 import game.common.IGameClient;
 import game.common.IGameServer;
+import game.common.PlayerIndex;
 import game.communication.action.InconsistentActionTypeException;
 import game.communication.action.control.CreateGameCtrlAction;
+import game.communication.action.control.SubscribeServerStateCtrlAction;
 import game.communication.action.gamecreation.SendGameConfigurationGameCrAction;
 import game.communication.action.gamecreation.SendPlayerConfigurationGameCrAction;
 import game.communication.action.gamectrl.AddAICrAction;
@@ -13,10 +15,13 @@ import game.communication.event.IControlEvent;
 import game.communication.event.IEvent;
 import game.communication.event.IGameCreationEvent;
 import game.communication.event.IGameCtrlEvent;
+import game.communication.event.IMultiCastGameEvent;
+import game.communication.event.IRetargetableEvent;
 import game.communication.event.IUniCastGameEvent;
 import game.communication.event.InconsistentEventTypeException;
 import game.communication.event.control.GameCreationStartedCtrlEvent;
 import game.communication.event.control.GameJoinedCtrlEvent;
+import game.communication.event.control.GameListDeltaCtrlEvent;
 import game.communication.event.control.IControlEventHandler;
 import game.communication.event.control.ServerStateCtrlEvent;
 import game.config.IGameConfiguration;
@@ -24,8 +29,11 @@ import game.config.IPlayerConfiguration;
 import game.gameserver.IServerGameCreator;
 import game.gameserver.IServerSidePlayer;
 
+import java.util.List;
 import java.util.Observable;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -74,17 +82,33 @@ public final class LocalGameClient extends Observable implements IGameClient,
 	/**
 	 * List of server side player on this client.
 	 */
-	private final ConcurrentSkipListMap<Integer, IServerSidePlayer<?>> _serverSidePlayerList = new ConcurrentSkipListMap<>();
+	private final PlayerIndex<IServerSidePlayer<?>> _serverSidePlayerList = new PlayerIndex<>();
 
 	/**
 	 * List of client side player on this client.
 	 */
-	private final ConcurrentSkipListMap<Integer, IClientSidePlayer<?, ?, ?, ?, ?>> _clientSidePlayerList = new ConcurrentSkipListMap<>();
+	private final PlayerIndex<IClientSidePlayer<?, ?, ?, ?, ?>> _clientSidePlayerList = new PlayerIndex<>();
+
+	/**
+	 * Client side players on this client of each game of each server, the
+	 * receivers of the multicast events.
+	 */
+	private final ConcurrentSkipListMap<IGameServer, ConcurrentHashMap<Integer, CopyOnWriteArrayList<IClientSidePlayer<?, ?, ?, ?, ?>>>> _gamePlayerList = new ConcurrentSkipListMap<>();
+
+	/**
+	 * Lock to protect the changes of _gamePlayerList.
+	 */
+	private final Object _lockGamePlayer = new Object();
 
 	/**
 	 * List of AI on this client.
 	 */
-	private final ConcurrentSkipListMap<Integer, String> _aiPlayerList = new ConcurrentSkipListMap<>();
+	private final PlayerIndex<String> _aiPlayerList = new PlayerIndex<>();
+
+	/**
+	 * List of games of each server to which this client is subscribed.
+	 */
+	private final ConcurrentSkipListMap<IGameServer, ServerGameList> _serverGameList = new ConcurrentSkipListMap<>();
 
 	/**
 	 * Creates a new LocalGameClient.
@@ -103,6 +127,17 @@ public final class LocalGameClient extends Observable implements IGameClient,
 		return _strLocalName;
 	}
 
+	@Override
+	public void handleFanOutEvent(final IGameServer server,
+			final IRetargetableEvent evt, final int[] playerIds)
+			throws InconsistentEventTypeException
+	{
+		for (final int iPlayerId : playerIds)
+		{
+			handleEvent(server, evt.forPlayer(iPlayerId));
+		}
+	}
+
 	@Override
 	public void handleEvent(final IGameServer server, final IEvent evt)
 			throws InconsistentEventTypeException
@@ -119,7 +154,7 @@ public final class LocalGameClient extends Observable implements IGameClient,
 		{
 			final IGameCreationEvent event = (IGameCreationEvent) evt;
 			final IClientSidePlayer<?, ?, ?, ?, ?> player = _clientSidePlayerList
-					.get(Integer.valueOf(event.getPlayerId()));
+					.get(event.getPlayerId());
 			if (player == null)
 			{
 				LOGGER.error("Received an IGameCreationEvent type '"
@@ -165,7 +200,7 @@ public final class LocalGameClient extends Observable implements IGameClient,
 		{
 			final IGameCtrlEvent event = (IGameCtrlEvent) evt;
 			final IClientSidePlayer<?, ?, ?, ?, ?> player = _clientSidePlayerList
-					.get(Integer.valueOf(event.getPlayerId()));
+					.get(event.getPlayerId());
 			if (player == null)
 			{
 				LOGGER.error("Received an IGameCtrlEvent type '"
@@ -203,7 +238,7 @@ public final class LocalGameClient extends Observable implements IGameClient,
 		{
 			final IUniCastGameEvent event = (IUniCastGameEvent) evt;
 			final IClientSidePlayer<?, ?, ?, ?, ?> player = _clientSidePlayerList
-					.get(Integer.valueOf(event.getPlayerId()));
+					.get(event.getPlayerId());
 			if (player == null)
 			{
 				LOGGER.error("Received an IGameEvent class '"
@@ -245,12 +280,55 @@ public final class LocalGameClient extends Observable implements IGameClient,
 				player.handleGameEvent(event);
 			}
 		}
+		else if (evt instanceof IMultiCastGameEvent)
+		{
+			handleMultiCastGameEvent(server, (IMultiCastGameEvent) evt);
+		}
 		else
 		{
 			LOGGER.error("Unknown event type.");
 		}
 	}
 
+	/**
+	 * Dispatch an {@link IMultiCastGameEvent} to all the local players of the
+	 * game.
+	 * 
+	 * @param server
+	 *            the GameServer at the origin of this Event.
+	 * @param event
+	 *            the event to handle.
+	 * @throws InconsistentEventTypeException
+	 *             if the event type field and the class of the event object are
+	 *             inconsistent.
+	 */
+	private void handleMultiCastGameEvent(final IGameServer server,
+			final IMultiCastGameEvent event)
+			throws InconsistentEventTypeException
+	{
+		boolean bHandled = false;
+		final List<IClientSidePlayer<?, ?, ?, ?, ?>> playerList = getGamePlayers(
+				server, event.getGameId());
+		if (playerList != null)
+		{
+			for (final IClientSidePlayer<?, ?, ?, ?, ?> player : playerList)
+			{
+				if (!player.isGameInCreation())
+				{
+					player.handleMultiCastGameEvent(event);
+					bHandled = true;
+				}
+			}
+		}
+		if (!bHandled)
+		{
+			LOGGER.error("Received an IGameEvent class '" + event.getClass()
+					+ "' from Server '" + server.getName()
+					+ "' concerning game id '" + event.getGameId()
+					+ "' but no local player is in this game.");
+		}
+	}
+
 	@Override
 	public void registerGameServer(final IGameServer server)
 	{
@@ -342,6 +420,17 @@ public final class LocalGameClient extends Observable implements IGameClient,
 						ControlEventType.SERVER_STATE, evt.getClass());
 			}
 			break;
+		case GAME_LIST_DELTA:
+			if (evt instanceof GameListDeltaCtrlEvent)
+			{
+				handleControlEvent(server, (GameListDeltaCtrlEvent) evt);
+			}
+			else
+			{
+				throw new InconsistentEventTypeException(
+						ControlEventType.GAME_LIST_DELTA, evt.getClass());
+			}
+			break;
 		}
 	}
 
@@ -383,10 +472,96 @@ public final class LocalGameClient extends Observable implements IGameClient,
 	public void handleControlEvent(final IGameServer server,
 			final ServerStateCtrlEvent evt)
 	{
+		server.updateServerState(evt.getServerState());
+		final ServerGameList gameList = _serverGameList.get(server);
+		if (gameList != null && !evt.isOnlyJoinableGames())
+		{
+			gameList.reset(evt);
+		}
+		setChanged();
+		notifyObservers();
+	}
+
+	@Override
+	public void handleControlEvent(final IGameServer server,
+			final GameListDeltaCtrlEvent evt)
+	{
+		final ServerGameList gameList = _serverGameList.get(server);
+		if (gameList == null)
+		{
+			return;
+		}
+		if (!gameList.apply(evt))
+		{
+			if (LOGGER.isDebugEnabled())
+			{
+				LOGGER.debug("Missed a change of the game list of server '"
+						+ server.getName() + "', subscribing again.");
+			}
+			sendSubscribeServerState(server, true);
+			return;
+		}
 		server.updateServerState(evt.getServerState());
 		setChanged();
 		notifyObservers();
-		// TODO update game list
+	}
+
+	/**
+	 * Subscribe to or unsubscribe from the changes of the list of games of
+	 * the specified {@link IGameServer}.
+	 * 
+	 * @param server
+	 *            the {@link IGameServer}.
+	 * @param bSubscribe
+	 *            boolean telling whether we want to subscribe or unsubscribe.
+	 */
+	public void subscribeServerState(final IGameServer server,
+			final boolean bSubscribe)
+	{
+		if (bSubscribe)
+		{
+			_serverGameList.putIfAbsent(server, new ServerGameList());
+		}
+		else
+		{
+			_serverGameList.remove(server);
+		}
+		sendSubscribeServerState(server, bSubscribe);
+	}
+
+	/**
+	 * Get the list of games of a server to which this client is subscribed.
+	 * 
+	 * @param server
+	 *            the {@link IGameServer}.
+	 * @return the list of games of the server, null if this client isn't
+	 *         subscribed to the server.
+	 */
+	public ServerGameList getServerGameList(final IGameServer server)
+	{
+		return _serverGameList.get(server);
+	}
+
+	/**
+	 * Send a {@link SubscribeServerStateCtrlAction} to a server.
+	 * 
+	 * @param server
+	 *            the {@link IGameServer}.
+	 * @param bSubscribe
+	 *            boolean telling whether we want to subscribe or unsubscribe.
+	 */
+	private void sendSubscribeServerState(final IGameServer server,
+			final boolean bSubscribe)
+	{
+		try
+		{
+			server.handleAction(this, new SubscribeServerStateCtrlAction(
+					bSubscribe));
+		}
+		catch (final InconsistentActionTypeException e)
+		{
+			LOGGER.error(e.getLocalizedMessage(), e);
+		}
 	}
 
 	/**
@@ -452,7 +627,7 @@ public final class LocalGameClient extends Observable implements IGameClient,
 			final int iPlayerId, final String strAIName)
 	{
 		final int iAIID = getNextPlayerId();
-		_aiPlayerList.put(Integer.valueOf(iAIID), strAIName);
+		_aiPlayerList.put(iAIID, strAIName);
 		if (LOGGER.isDebugEnabled())
 		{
 			LOGGER.debug("Added AI : " + iAIID);
@@ -545,26 +720,25 @@ public final class LocalGameClient extends Observable implements IGameClient,
 	@Override
 	public IServerSidePlayer<?> getServerSidePlayer(final int iPlayerId)
 	{
-		return _serverSidePlayerList.get(Integer.valueOf(iPlayerId));
+		return _serverSidePlayerList.get(iPlayerId);
 	}
 
 	@Override
 	public void addServerSidePlayer(final IServerSidePlayer<?> player)
 	{
-		_serverSidePlayerList.put(Integer.valueOf(player.getId()), player);
+		_serverSidePlayerList.put(player.getId(), player);
 	}
 
 	@Override
 	public void removeServerSidePlayer(final IServerSidePlayer<?> player)
 	{
-		_serverSidePlayerList.remove(Integer.valueOf(player.getId()));
+		_serverSidePlayerList.remove(player.getId());
 	}
 
 	@Override
 	public boolean containServerSidePlayer(final IServerSidePlayer<?> player)
 	{
-		return _serverSidePlayerList
-				.containsKey(Integer.valueOf(player.getId()));
+		return _serverSidePlayerList.containsKey(player.getId());
 	}
 
 	/**
@@ -576,11 +750,104 @@ public final class LocalGameClient extends Observable implements IGameClient,
 	public void removeClientSidePlayer(
 			final IClientSidePlayer<?, ?, ?, ?, ?> player)
 	{
-		_clientSidePlayerList.remove(Integer.valueOf(player.getId()));
+		_clientSidePlayerList.remove(player.getId());
+		removeGamePlayer(player.getServer(), player.getGameId(), player);
 		setChanged();
 		notifyObservers();
 	}
 
+	/**
+	 * Get the client side players on this client of a game.
+	 * 
+	 * @param server
+	 *            the {@link IGameServer} of the game.
+	 * @param iGameId
+	 *            the id of the game.
+	 * @return the players of the game, null if there is none.
+	 */
+	private List<IClientSidePlayer<?, ?, ?, ?, ?>> getGamePlayers(
+			final IGameServer server, final int iGameId)
+	{
+		final ConcurrentHashMap<Integer, CopyOnWriteArrayList<IClientSidePlayer<?, ?, ?, ?, ?>>> gameMap = _gamePlayerList
+				.get(server);
+		return gameMap == null ? null : gameMap.get(Integer.valueOf(iGameId));
+	}
+
+	/**
+	 * Add a client side player to the players of its game.
+	 * 
+	 * @param server
+	 *            the {@link IGameServer} of the game.
+	 * @param iGameId
+	 *            the id of the game.
+	 * @param player
+	 *            the player.
+	 */
+	private void addGamePlayer(final IGameServer server, final int iGameId,
+			final IClientSidePlayer<?, ?, ?, ?, ?> player)
+	{
+		synchronized (_lockGamePlayer)
+		{
+			ConcurrentHashMap<Integer, CopyOnWriteArrayList<IClientSidePlayer<?, ?, ?, ?, ?>>> gameMap = _gamePlayerList
+					.get(server);
+			if (gameMap == null)
+			{
+				gameMap = new ConcurrentHashMap<>();
+				_gamePlayerList.put(server, gameMap);
+			}
+			final Integer gameId = Integer.valueOf(iGameId);
+			CopyOnWriteArrayList<IClientSidePlayer<?, ?, ?, ?, ?>> playerList = gameMap
+					.get(gameId);
+			if (playerList == null)
+			{
+				playerList = new CopyOnWriteArrayList<>();
+				gameMap.put(gameId, playerList);
+			}
+			playerList.add(player);
+		}
+	}
+
+	/**
+	 * Remove a client side player from the players of its game. The game is
+	 * forgotten when its last player is removed.
+	 * 
+	 * @param server
+	 *            the {@link IGameServer} of the game.
+	 * @param iGameId
+	 *            the id of the game.
+	 * @param player
+	 *            the player.
+	 */
+	private void removeGamePlayer(final IGameServer server,
+			final int iGameId, final IClientSidePlayer<?, ?, ?, ?, ?> player)
+	{
+		synchronized (_lockGamePlayer)
+		{
+			final ConcurrentHashMap<Integer, CopyOnWriteArrayList<IClientSidePlayer<?, ?, ?, ?, ?>>> gameMap = _gamePlayerList
+					.get(server);
+			if (gameMap == null)
+			{
+				return;
+			}
+			final Integer gameId = Integer.valueOf(iGameId);
+			final CopyOnWriteArrayList<IClientSidePlayer<?, ?, ?, ?, ?>> playerList = gameMap
+					.get(gameId);
+			if (playerList == null)
+			{
+				return;
+			}
+			playerList.remove(player);
+			if (playerList.isEmpty())
+			{
+				gameMap.remove(gameId);
+				if (gameMap.isEmpty())
+				{
+					_gamePlayerList.remove(server);
+				}
+			}
+		}
+	}
+
 	/**
 	 * Get the name of the AI corresponding to the given id. Returns null if
 	 * this client isn't an AI.
@@ -591,7 +858,7 @@ public final class LocalGameClient extends Observable implements IGameClient,
 	 */
 	public String getAIName(final int iAIId)
 	{
-		return _aiPlayerList.get(Integer.valueOf(iAIId));
+		return _aiPlayerList.get(iAIId);
 	}
 
 	/**
@@ -603,7 +870,7 @@ public final class LocalGameClient extends Observable implements IGameClient,
 	 */
 	private boolean isAI(final int iPlayerId)
 	{
-		return _aiPlayerList.containsKey(Integer.valueOf(iPlayerId));
+		return _aiPlayerList.containsKey(iPlayerId);
 	}
 
 	/**
@@ -640,10 +907,11 @@ public final class LocalGameClient extends Observable implements IGameClient,
 			final int iGameId, final int iPlayerId, final boolean bCreator)
 	{
 		gameCreator.initialize(bCreator, this, server, iGameId, iPlayerId,
-				_aiPlayerList.containsKey(Integer.valueOf(iPlayerId)));
+				_aiPlayerList.containsKey(iPlayerId));
 		final IClientSidePlayer<?, ?, ?, ?, ?> player = gameCreator
 				.createPlayer(this, iPlayerId);
-		_clientSidePlayerList.put(Integer.valueOf(iPlayerId), player);
+		_clientSidePlayerList.put(iPlayerId, player);
+		addGamePlayer(server, iGameId, player);
 		if (LOGGER.isDebugEnabled())
 		{
 			LOGGER.debug("Player joined, id : " + iPlayerId);
@@ -0,0 +1,180 @@
+package game.gameclient;
+
+import game.common.IGameInstanceDescription;
+import game.communication.event.control.GameListDeltaCtrlEvent;
+import game.communication.event.control.ServerStateCtrlEvent;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * List of the games of a server, kept up to date on the client with the
+ * {@link GameListDeltaCtrlEvent} sent by the server. The server delivers the
+ * changes outside of its lock, so they may arrive out of order: a change
+ * received ahead of its turn is kept until the changes before it arrive. The
+ * list is rebuilt from the full {@link ServerStateCtrlEvent} when too many
+ * changes are waiting, a change was then missed. Only one full list is asked
+ * for until it is received.
+ * 
+ * @author benobiwan
+ * 
+ */
+public final class ServerGameList
+{
+	/**
+	 * Maximum number of changes received ahead of their turn kept in the
+	 * list.
+	 */
+	public static final int MAX_EARLY_DELTAS = 64;
+
+	/**
+	 * The games, by id.
+	 */
+	private final ConcurrentSkipListMap<Integer, IGameInstanceDescription> _gameList = new ConcurrentSkipListMap<>();
+
+	/**
+	 * The changes received ahead of their turn, by sequence number.
+	 */
+	private final TreeMap<Long, GameListDeltaCtrlEvent> _earlyDeltaList = new TreeMap<>();
+
+	/**
+	 * Lock protecting the sequence number and the changes received ahead of
+	 * their turn.
+	 */
+	private final Object _lock = new Object();
+
+	/**
+	 * Sequence number of the last change applied to the list, -1 if the list
+	 * was never received.
+	 */
+	private long _lSequence = -1;
+
+	/**
+	 * Whether the full list was asked for and not received yet. The full
+	 * list is asked for when subscribing, before the list is created.
+	 */
+	private boolean _bResyncPending = true;
+
+	/**
+	 * Replace the list with the full list of games, then apply the changes
+	 * received ahead of it.
+	 * 
+	 * @param evt
+	 *            the event holding the full list of games.
+	 */
+	public void reset(final ServerStateCtrlEvent evt)
+	{
+		synchronized (_lock)
+		{
+			_gameList.clear();
+			for (final IGameInstanceDescription description : evt
+					.getGameDescriptionList())
+			{
+				_gameList.put(Integer.valueOf(description.getGameId()),
+						description);
+			}
+			_lSequence = evt.getSequence();
+			_bResyncPending = false;
+			applyEarlyDeltas();
+		}
+	}
+
+	/**
+	 * Apply a change to the list, or keep it until the changes before it
+	 * arrive.
+	 * 
+	 * @param evt
+	 *            the event describing the change.
+	 * @return false if a previous change was missed and the full list must
+	 *         be asked for. It is only returned once until the full list is
+	 *         received.
+	 */
+	public boolean apply(final GameListDeltaCtrlEvent evt)
+	{
+		synchronized (_lock)
+		{
+			final long lSequence = evt.getSequence();
+			if (lSequence <= _lSequence)
+			{
+				// already included in the list.
+				return true;
+			}
+			if (!_bResyncPending && lSequence == _lSequence + 1)
+			{
+				applyDelta(evt);
+				applyEarlyDeltas();
+				return true;
+			}
+			_earlyDeltaList.put(Long.valueOf(lSequence), evt);
+			if (_earlyDeltaList.size() <= MAX_EARLY_DELTAS)
+			{
+				return true;
+			}
+			// the oldest changes are the most likely to be in the full list.
+			_earlyDeltaList.pollFirstEntry();
+			if (_bResyncPending)
+			{
+				return true;
+			}
+			_bResyncPending = true;
+			return false;
+		}
+	}
+
+	/**
+	 * Get the games of the server.
+	 * 
+	 * @return the games of the server.
+	 */
+	public Collection<IGameInstanceDescription> getGames()
+	{
+		return Collections.unmodifiableCollection(_gameList.values());
+	}
+
+	/**
+	 * Drop the changes received ahead of their turn which are already
+	 * included in the list, then apply the ones following the list. Must be
+	 * called holding the lock.
+	 */
+	private void applyEarlyDeltas()
+	{
+		while (!_earlyDeltaList.isEmpty())
+		{
+			final long lSequence = _earlyDeltaList.firstKey().longValue();
+			if (lSequence > _lSequence + 1)
+			{
+				return;
+			}
+			final GameListDeltaCtrlEvent evt = _earlyDeltaList
+					.pollFirstEntry().getValue();
+			if (lSequence == _lSequence + 1)
+			{
+				applyDelta(evt);
+			}
+		}
+	}
+
+	/**
+	 * Apply the next change to the list. Must be called holding the lock.
+	 * 
+	 * @param evt
+	 *            the event describing the change.
+	 */
+	private void applyDelta(final GameListDeltaCtrlEvent evt)
+	{
+		final Integer gameId = Integer.valueOf(evt.getGameId());
+		switch (evt.getDeltaType())
+		{
+		case ADDED:
+		case UPDATED:
+			_gameList.put(gameId, evt.getDescription());
+			break;
+		case REMOVED:
+			_gameList.remove(gameId);
+			break;
+		}
+		_lSequence = evt.getSequence();
+	}
+}
@@ -19,6 +19,7 @@ import game.communication.action.gamectrl.JoinGameCrAction;
 import game.communication.action.gamectrl.KickPlayerCrAction;
 import game.communication.action.gamectrl.LeaveGameCrAction;
 import game.communication.event.IEvent;
+import game.communication.event.IRetargetableEvent;
 import game.communication.event.InconsistentEventTypeException;
 import game.communication.event.control.GameJoinedCtrlEvent;
 import game.communication.event.gamecreation.ConfigurationUpdateCrEvent;
@@ -29,6 +30,9 @@ import game.communication.event.gamectrl.PlayerListUpdateCrEvent;
 import game.config.IGameConfiguration;
 import game.config.IPlayerConfiguration;
 
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.SortedSet;
 import java.util.TreeSet;
 import java.util.concurrent.ConcurrentSkipListSet;
@@ -205,7 +209,17 @@ public abstract class AbstractServerGameCreator<PLAYER_CONF extends IPlayerConfi
 		{
 			_clientList.remove(client);
 		}
+		updateNumberOfPlayer();
+	}
+
+	/**
+	 * Update the number of players in the description of this game, and
+	 * signal the change to the lobby of the server.
+	 */
+	private void updateNumberOfPlayer()
+	{
 		_gameDescription.setNumberOfPlayer(_playerList.size());
+		_gameServer.gameDescriptionChanged(_gameDescription);
 	}
 
 	/**
@@ -250,19 +264,7 @@ public abstract class AbstractServerGameCreator<PLAYER_CONF extends IPlayerConfi
 	@Override
 	public void sendConfigurationUpdate()
 	{
-		for (final PLAYER_TYPE player : _playerList)
-		{
-			final ConfigurationUpdateCrEvent event = new ConfigurationUpdateCrEvent(
-					_iGameId, player.getId(), _conf);
-			try
-			{
-				player.getClient().handleEvent(_gameServer, event);
-			}
-			catch (final InconsistentEventTypeException e)
-			{
-				LOGGER.error(e.getLocalizedMessage(), e);
-			}
-		}
+		fanOut(new ConfigurationUpdateCrEvent(_iGameId, 0, _conf));
 	}
 
 	@Override
@@ -273,13 +275,43 @@ public abstract class AbstractServerGameCreator<PLAYER_CONF extends IPlayerConfi
 		{
 			playerList.add(player.getDescription());
 		}
+		fanOut(new PlayerListUpdateCrEvent(_iGameId, 0, playerList));
+	}
+
+	/**
+	 * Send an event to all the players of this game. The event is built once
+	 * and handed once to each client with the ids of its players, so that a
+	 * distant client receives and encodes it only once.
+	 * 
+	 * @param event
+	 *            the event to send, the player it is addressed to is ignored.
+	 */
+	private void fanOut(final IRetargetableEvent event)
+	{
+		final Map<IGameClient, int[]> playerIdsByClient = new HashMap<>();
 		for (final PLAYER_TYPE player : _playerList)
 		{
-			final PlayerListUpdateCrEvent event = new PlayerListUpdateCrEvent(
-					_iGameId, player.getId(), playerList);
+			final IGameClient client = player.getClient();
+			final int[] previousIds = playerIdsByClient.get(client);
+			final int[] playerIds;
+			if (previousIds == null)
+			{
+				playerIds = new int[1];
+			}
+			else
+			{
+				playerIds = Arrays.copyOf(previousIds, previousIds.length + 1);
+			}
+			playerIds[playerIds.length - 1] = player.getId();
+			playerIdsByClient.put(client, playerIds);
+		}
+		for (final Map.Entry<IGameClient, int[]> entry : playerIdsByClient
+				.entrySet())
+		{
 			try
 			{
-				player.getClient().handleEvent(_gameServer, event);
+				entry.getKey().handleFanOutEvent(_gameServer, event,
+						entry.getValue());
 			}
 			catch (final InconsistentEventTypeException e)
 			{
@@ -424,7 +456,7 @@ public abstract class AbstractServerGameCreator<PLAYER_CONF extends IPlayerConfi
 				final PLAYER_TYPE player = createPlayer(client,
 						act.getPlayerId());
 				addPlayer(player, client);
-				_gameDescription.setNumberOfPlayer(_playerList.size());
+				updateNumberOfPlayer();
 				evt = new GameJoinedCtrlEvent(_iGameId, act.getPlayerId(),
 						getClientGameCreator());
 			}
@@ -580,7 +612,7 @@ public abstract class AbstractServerGameCreator<PLAYER_CONF extends IPlayerConfi
 						act.getName());
 				aiPlayer.setReady(true);
 				addAIPlayer(aiPlayer, client);
-				_gameDescription.setNumberOfPlayer(_playerList.size());
+				updateNumberOfPlayer();
 				evt = new GameJoinedCtrlEvent(_iGameId, act.getAIId(),
 						getClientGameCreator());
 			}
@@ -16,6 +16,8 @@ import game.communication.action.gamectrl.LeaveGameCrAction;
 import game.config.IGameConfiguration;
 import game.config.IPlayerConfiguration;
 
+import java.util.Collection;
+import java.util.Collections;
 import java.util.concurrent.ConcurrentSkipListSet;
 
 /**
@@ -49,7 +51,8 @@ public abstract class AbstractServerSideGame<ACTION_TYPE extends IGameAction, CO
 
 	/**
 	 * Object used to ensure that only one action is resolved at a time. Must be
-	 * synchronized in children classes in every handle action methods.
+	 * synchronized in children classes in every handle action methods, unless
+	 * the game is an {@link ISingleThreadedGame}.
 	 */
 	protected final Object _lockAction = new Object();
 
@@ -159,6 +162,12 @@ public abstract class AbstractServerSideGame<ACTION_TYPE extends IGameAction, CO
 		return _playerList.contains(player);
 	}
 
+	@Override
+	public Collection<PLAYER_TYPE> getPlayers()
+	{
+		return Collections.unmodifiableSet(_playerList);
+	}
+
 	@Override
 	public void handleGameCtrlAction(final IGameClient client,
 			final IServerSidePlayer<?> player, final IGameCtrlAction act)
@@ -0,0 +1,124 @@
+package game.gameserver;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Mailbox of a game executed on a shared worker pool. The tasks submitted to
+ * the mailbox are executed in order and never concurrently, by at most one
+ * worker at a time. The threads submitting the tasks only enqueue them.
+ * 
+ * @author benobiwan
+ * 
+ */
+public final class GameMailbox implements Executor
+{
+	/**
+	 * Logger object.
+	 */
+	private static final Logger LOGGER = LoggerFactory
+			.getLogger(GameMailbox.class);
+
+	/**
+	 * Maximum number of tasks executed before giving back the worker to the
+	 * other mailboxes.
+	 */
+	private static final int MAX_TASKS_PER_DRAIN = 64;
+
+	/**
+	 * The shared worker pool.
+	 */
+	private final Executor _workerPool;
+
+	/**
+	 * The tasks waiting to be executed.
+	 */
+	private final Queue<Runnable> _taskQueue = new ConcurrentLinkedQueue<>();
+
+	/**
+	 * Whether the mailbox is scheduled on the worker pool.
+	 */
+	private final AtomicBoolean _scheduled = new AtomicBoolean(false);
+
+	/**
+	 * Task draining the mailbox.
+	 */
+	private final Runnable _drainTask = new Runnable()
+	{
+		@Override
+		public void run()
+		{
+			drain();
+		}
+	};
+
+	/**
+	 * Creates a new GameMailbox.
+	 * 
+	 * @param workerPool
+	 *            the shared worker pool.
+	 */
+	public GameMailbox(final Executor workerPool)
+	{
+		_workerPool = workerPool;
+	}
+
+	@Override
+	public void execute(final Runnable task)
+	{
+		_taskQueue.add(task);
+		schedule();
+	}
+
+	/**
+	 * Schedule the mailbox on the worker pool if it isn't already scheduled.
+	 */
+	private void schedule()
+	{
+		if (_scheduled.compareAndSet(false, true))
+		{
+			_workerPool.execute(_drainTask);
+		}
+	}
+
+	/**
+	 * Execute the waiting tasks. The mailbox is scheduled again if tasks are
+	 * left, even when a task throws an {@link Error}.
+	 */
+	void drain()
+	{
+		try
+		{
+			for (int i = 0; i < MAX_TASKS_PER_DRAIN; i++)
+			{
+				final Runnable task = _taskQueue.poll();
+				if (task == null)
+				{
+					break;
+				}
+				try
+				{
+					task.run();
+				}
+				catch (final RuntimeException e)
+				{
+					LOGGER.error(e.getLocalizedMessage(), e);
+				}
+			}
+		}
+		finally
+		{
+			_scheduled.set(false);
+			// a task may have been added after the last poll.
+			if (!_taskQueue.isEmpty())
+			{
+				schedule();
+			}
+		}
+	}
+}
@@ -0,0 +1,468 @@
+package game.gameserver;
+
+import game.common.IGameClient;
+import game.common.IGameServer;
+import game.communication.event.IMultiCastGameEvent;
+import game.communication.event.InconsistentEventTypeException;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Registry of the games hosted by the {@link LocalGameServer}, in creation or
+ * running. The games are indexed by their primitive id and spread over
+ * several shards, each shard being locked independently for writing. Reading
+ * the registry never takes a lock and needs a single probe in the table of
+ * one shard.
+ * 
+ * @author benobiwan
+ * 
+ */
+public final class GameRegistry
+{
+	/**
+	 * Logger object.
+	 */
+	private static final Logger LOGGER = LoggerFactory
+			.getLogger(GameRegistry.class);
+
+	/**
+	 * Initial number of buckets of each shard.
+	 */
+	private static final int INITIAL_CAPACITY = 16;
+
+	/**
+	 * The shards.
+	 */
+	private final Shard[] _shards;
+
+	/**
+	 * Mask applied to a game id to get the index of its shard.
+	 */
+	private final int _iShardMask;
+
+	/**
+	 * Creates a new GameRegistry with one shard per available processor.
+	 */
+	public GameRegistry()
+	{
+		this(Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * Creates a new GameRegistry.
+	 * 
+	 * @param iShardCount
+	 *            the minimum number of shards, rounded up to a power of two.
+	 */
+	public GameRegistry(final int iShardCount)
+	{
+		final int iCount = iShardCount <= 1 ? 1 : Integer
+				.highestOneBit(iShardCount - 1) << 1;
+		_shards = new Shard[iCount];
+		for (int i = 0; i < iCount; i++)
+		{
+			_shards[i] = new Shard(Integer.numberOfTrailingZeros(iCount));
+		}
+		_iShardMask = iCount - 1;
+	}
+
+	/**
+	 * Get the game with the specified id.
+	 * 
+	 * @param iGameId
+	 *            the id of the game.
+	 * @return the game, null if no game has this id.
+	 */
+	public RegisteredGame get(final int iGameId)
+	{
+		return shardFor(iGameId).get(iGameId);
+	}
+
+	/**
+	 * Register a game in creation.
+	 * 
+	 * @param gameCreator
+	 *            the creator of the game.
+	 * @return true if the game was registered, false if a game with the same
+	 *         id is already registered.
+	 */
+	public boolean registerInCreation(
+			final IServerGameCreator<?, ?, ?, ?, ?> gameCreator)
+	{
+		final int iGameId = gameCreator.getGameId();
+		return shardFor(iGameId).putIfAbsent(
+				new RegisteredGame(gameCreator));
+	}
+
+	/**
+	 * Mark a game in creation as running.
+	 * 
+	 * @param gameCreator
+	 *            the creator of the game, which must be the one registered.
+	 * @param game
+	 *            the started game.
+	 * @param mailbox
+	 *            the mailbox of the game, null if the game isn't an
+	 *            {@link ISingleThreadedGame}.
+	 * @return true if the game is now running, false if the game wasn't in
+	 *         creation with this creator.
+	 */
+	public boolean start(final IServerGameCreator<?, ?, ?, ?, ?> gameCreator,
+			final IServerSideGame<?, ?, ?, ?> game, final GameMailbox mailbox)
+	{
+		final int iGameId = game.getGameId();
+		return shardFor(iGameId).replace(gameCreator,
+				new RegisteredGame(game, mailbox));
+	}
+
+	/**
+	 * Remove a game, whatever its state.
+	 * 
+	 * @param iGameId
+	 *            the id of the game.
+	 * @return the removed game, null if no game has this id.
+	 */
+	public RegisteredGame remove(final int iGameId)
+	{
+		return shardFor(iGameId).remove(iGameId);
+	}
+
+	/**
+	 * Send an event to all the players of a running game. The event is handed
+	 * once to each client playing the game, whatever the number of its
+	 * players in the game, and is encoded once for all the distant clients.
+	 * 
+	 * @param server
+	 *            the server hosting the game.
+	 * @param iGameId
+	 *            the id of the game.
+	 * @param event
+	 *            the event to send.
+	 * @return true if the event was sent, false if the game isn't running.
+	 */
+	public boolean broadcast(final IGameServer server, final int iGameId,
+			final IMultiCastGameEvent event)
+	{
+		final RegisteredGame registeredGame = get(iGameId);
+		if (registeredGame == null
+				|| registeredGame.getState() != GameState.RUNNING)
+		{
+			return false;
+		}
+		final Set<IGameClient> clientSet = new HashSet<>();
+		for (final IServerSidePlayer<?> player : registeredGame.getGame()
+				.getPlayers())
+		{
+			final IGameClient client = player.getClient();
+			if (clientSet.add(client))
+			{
+				try
+				{
+					client.handleEvent(server, event);
+				}
+				catch (final InconsistentEventTypeException e)
+				{
+					LOGGER.error(e.getLocalizedMessage(), e);
+				}
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Get the number of registered games.
+	 * 
+	 * @return the number of registered games.
+	 */
+	public int size()
+	{
+		int iSize = 0;
+		for (final Shard shard : _shards)
+		{
+			iSize += shard._iSize;
+		}
+		return iSize;
+	}
+
+	/**
+	 * Get a snapshot of the registered games. Games registered or removed
+	 * while taking the snapshot may or may not be included.
+	 * 
+	 * @return the registered games.
+	 */
+	public List<RegisteredGame> getGames()
+	{
+		final List<RegisteredGame> gameList = new ArrayList<>(size());
+		for (final Shard shard : _shards)
+		{
+			shard.addAll(gameList);
+		}
+		return gameList;
+	}
+
+	/**
+	 * Get the shard holding the specified game.
+	 * 
+	 * @param iGameId
+	 *            the id of the game.
+	 * @return the shard holding the game.
+	 */
+	private Shard shardFor(final int iGameId)
+	{
+		return _shards[iGameId & _iShardMask];
+	}
+
+	/**
+	 * Node of a bucket. Only the game can change, a node is otherwise
+	 * immutable so that the buckets can be read without locking.
+	 */
+	private static final class Node
+	{
+		/**
+		 * Id of the game.
+		 */
+		final int _iGameId;
+
+		/**
+		 * The game.
+		 */
+		volatile RegisteredGame _game;
+
+		/**
+		 * Next node of the bucket.
+		 */
+		final Node _next;
+
+		/**
+		 * Creates a new Node.
+		 * 
+		 * @param game
+		 *            the game.
+		 * @param next
+		 *            next node of the bucket.
+		 */
+		Node(final RegisteredGame game, final Node next)
+		{
+			_iGameId = game.getGameId();
+			_game = game;
+			_next = next;
+		}
+	}
+
+	/**
+	 * A shard of the registry: a hash table of games, chained by bucket.
+	 */
+	private static final class Shard
+	{
+		/**
+		 * The buckets. The table is replaced as a whole when growing.
+		 */
+		private volatile AtomicReferenceArray<Node> _table = new AtomicReferenceArray<>(
+				INITIAL_CAPACITY);
+
+		/**
+		 * Number of low bits of the game ids used to select the shard, and
+		 * thus identical for all the games of this shard.
+		 */
+		private final int _iShift;
+
+		/**
+		 * Number of games in this shard.
+		 */
+		volatile int _iSize;
+
+		/**
+		 * Creates a new Shard.
+		 * 
+		 * @param iShift
+		 *            number of low bits of the game ids used to select the
+		 *            shard.
+		 */
+		Shard(final int iShift)
+		{
+			_iShift = iShift;
+		}
+
+		/**
+		 * Get a game.
+		 * 
+		 * @param iGameId
+		 *            the id of the game.
+		 * @return the game, null if it isn't in this shard.
+		 */
+		RegisteredGame get(final int iGameId)
+		{
+			final AtomicReferenceArray<Node> table = _table;
+			Node node = table.get(index(iGameId, table));
+			while (node != null)
+			{
+				if (node._iGameId == iGameId)
+				{
+					return node._game;
+				}
+				node = node._next;
+			}
+			return null;
+		}
+
+		/**
+		 * Add a game if no game with the same id is in this shard.
+		 * 
+		 * @param game
+		 *            the game to add.
+		 * @return true if the game was added.
+		 */
+		synchronized boolean putIfAbsent(final RegisteredGame game)
+		{
+			if (findNode(game.getGameId()) != null)
+			{
+				return false;
+			}
+			if (_iSize >= (_table.length() * 3) / 4)
+			{
+				grow();
+			}
+			final AtomicReferenceArray<Node> table = _table;
+			final int iIndex = index(game.getGameId(), table);
+			table.set(iIndex, new Node(game, table.get(iIndex)));
+			_iSize++;
+			return true;
+		}
+
+		/**
+		 * Replace a game in creation by the running game.
+		 * 
+		 * @param gameCreator
+		 *            the expected creator of the game.
+		 * @param game
+		 *            the running game.
+		 * @return true if the game was replaced.
+		 */
+		synchronized boolean replace(
+				final IServerGameCreator<?, ?, ?, ?, ?> gameCreator,
+				final RegisteredGame game)
+		{
+			final Node node = findNode(game.getGameId());
+			if (node == null || node._game.getState() != GameState.IN_CREATION
+					|| !gameCreator.equals(node._game.getGameCreator()))
+			{
+				return false;
+			}
+			node._game = game;
+			return true;
+		}
+
+		/**
+		 * Remove a game.
+		 * 
+		 * @param iGameId
+		 *            the id of the game.
+		 * @return the removed game, null if it wasn't in this shard.
+		 */
+		synchronized RegisteredGame remove(final int iGameId)
+		{
+			final AtomicReferenceArray<Node> table = _table;
+			final int iIndex = index(iGameId, table);
+			final Node first = table.get(iIndex);
+			Node removed = first;
+			while (removed != null && removed._iGameId != iGameId)
+			{
+				removed = removed._next;
+			}
+			if (removed == null)
+			{
+				return null;
+			}
+			// the nodes before the removed one are copied as they are
+			// immutable.
+			Node newFirst = removed._next;
+			for (Node node = first; node != removed; node = node._next)
+			{
+				newFirst = new Node(node._game, newFirst);
+			}
+			table.set(iIndex, newFirst);
+			_iSize--;
+			return removed._game;
+		}
+
+		/**
+		 * Add all the games of this shard to a list.
+		 * 
+		 * @param gameList
+		 *            the list to fill.
+		 */
+		void addAll(final List<RegisteredGame> gameList)
+		{
+			final AtomicReferenceArray<Node> table = _table;
+			for (int i = 0; i < table.length(); i++)
+			{
+				for (Node node = table.get(i); node != null; node = node._next)
+				{
+					gameList.add(node._game);
+				}
+			}
+		}
+
+		/**
+		 * Find the node of a game. Must be called holding the lock.
+		 * 
+		 * @param iGameId
+		 *            the id of the game.
+		 * @return the node of the game, null if it isn't in this shard.
+		 */
+		private Node findNode(final int iGameId)
+		{
+			final AtomicReferenceArray<Node> table = _table;
+			Node node = table.get(index(iGameId, table));
+			while (node != null && node._iGameId != iGameId)
+			{
+				node = node._next;
+			}
+			return node;
+		}
+
+		/**
+		 * Get the index of the bucket of a game.
+		 * 
+		 * @param iGameId
+		 *            the id of the game.
+		 * @param table
+		 *            the buckets.
+		 * @return the index of the bucket of the game.
+		 */
+		private int index(final int iGameId,
+				final AtomicReferenceArray<Node> table)
+		{
+			return (iGameId >>> _iShift) & (table.length() - 1);
+		}
+
+		/**
+		 * Double the number of buckets. The nodes are copied so that the
+		 * readers of the old table are not disturbed. Must be called holding
+		 * the lock.
+		 */
+		private void grow()
+		{
+			final AtomicReferenceArray<Node> oldTable = _table;
+			final AtomicReferenceArray<Node> newTable = new AtomicReferenceArray<>(
+					oldTable.length() * 2);
+			for (int i = 0; i < oldTable.length(); i++)
+			{
+				for (Node node = oldTable.get(i); node != null; node = node._next)
+				{
+					final int iIndex = index(node._iGameId, newTable);
+					newTable.set(iIndex, new Node(node._game,
+							newTable.get(iIndex)));
+				}
+			}
+			_table = newTable;
+		}
+	}
+}
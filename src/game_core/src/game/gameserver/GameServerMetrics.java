@@ -0,0 +1,142 @@
+package game.gameserver;
+
+import game.common.AbstractMetrics;
+import game.common.HashedWheelTimer;
+import game.common.LatencyHistogram;
+import game.common.TypeCounters;
+import game.communication.action.IAction;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Runtime metrics of the {@link LocalGameServer}, published as the
+ * "game:type=GameServer" MBean.
+ * 
+ * @author benobiwan
+ * 
+ */
+public final class GameServerMetrics extends AbstractMetrics implements
+		IGameServerMetricsMXBean
+{
+	/**
+	 * Number of actions handled by class of action.
+	 */
+	private final TypeCounters _actionCounters = new TypeCounters();
+
+	/**
+	 * Time spent dispatching the actions.
+	 */
+	private final LatencyHistogram _dispatchLatency = new LatencyHistogram();
+
+	/**
+	 * Server timer used to schedule timeout tasks.
+	 */
+	private final HashedWheelTimer _timeoutTimer;
+
+	/**
+	 * Registry of all the games.
+	 */
+	private final GameRegistry _gameRegistry;
+
+	/**
+	 * Creates a new GameServerMetrics.
+	 * 
+	 * @param timeoutTimer
+	 *            server timer used to schedule timeout tasks.
+	 * @param gameRegistry
+	 *            registry of all the games.
+	 */
+	GameServerMetrics(final HashedWheelTimer timeoutTimer,
+			final GameRegistry gameRegistry)
+	{
+		super("GameServer");
+		_timeoutTimer = timeoutTimer;
+		_gameRegistry = gameRegistry;
+	}
+
+	/**
+	 * Record the dispatch of an action.
+	 * 
+	 * @param act
+	 *            the action.
+	 * @param lDuration
+	 *            the time spent dispatching the action, in nanoseconds.
+	 */
+	void actionHandled(final IAction act, final long lDuration)
+	{
+		_actionCounters.increment(act);
+		_dispatchLatency.record(lDuration);
+	}
+
+	@Override
+	public Map<String, Long> getActionCounts()
+	{
+		return _actionCounters.getCounts();
+	}
+
+	@Override
+	public long getDispatchCount()
+	{
+		return _dispatchLatency.getCount();
+	}
+
+	@Override
+	public long getDispatchLatencyMean()
+	{
+		return _dispatchLatency.getMean();
+	}
+
+	@Override
+	public long getDispatchLatencyP50()
+	{
+		return _dispatchLatency.getPercentile(50);
+	}
+
+	@Override
+	public long getDispatchLatencyP90()
+	{
+		return _dispatchLatency.getPercentile(90);
+	}
+
+	@Override
+	public long getDispatchLatencyP99()
+	{
+		return _dispatchLatency.getPercentile(99);
+	}
+
+	@Override
+	public long getDispatchLatencyP999()
+	{
+		return _dispatchLatency.getPercentile(99.9);
+	}
+
+	@Override
+	public long getFiredTimeoutCount()
+	{
+		return _timeoutTimer.getFiredCount();
+	}
+
+	@Override
+	public long getPendingTimeoutCount()
+	{
+		return _timeoutTimer.getPendingCount();
+	}
+
+	@Override
+	public Map<String, Integer> getGameCounts()
+	{
+		final int[] counts = new int[GameState.values().length];
+		for (final RegisteredGame registeredGame : _gameRegistry.getGames())
+		{
+			counts[registeredGame.getState().ordinal()]++;
+		}
+		final Map<String, Integer> countMap = new LinkedHashMap<>();
+		for (final GameState state : GameState.values())
+		{
+			countMap.put(state.name(),
+					Integer.valueOf(counts[state.ordinal()]));
+		}
+		return countMap;
+	}
+}
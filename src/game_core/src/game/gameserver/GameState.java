@@ -0,0 +1,22 @@
+package game.gameserver;
+
+/**
+ * State of a game registered on the {@link LocalGameServer}.
+ * 
+ * @author benobiwan
+ * 
+ */
+public enum GameState
+{
+	/**
+	 * The game is being created, its actions are handled by its
+	 * {@link IServerGameCreator}.
+	 */
+	IN_CREATION,
+
+	/**
+	 * The game is running, its actions are handled by its
+	 * {@link IServerSideGame}.
+	 */
+	RUNNING;
+}
@@ -0,0 +1,83 @@
+package game.gameserver;
+
+import java.util.Map;
+
+/**
+ * Management interface of the runtime metrics of the {@link LocalGameServer}.
+ * The durations are in nanoseconds.
+ * 
+ * @author benobiwan
+ * 
+ */
+public interface IGameServerMetricsMXBean
+{
+	/**
+	 * Get the number of actions handled, by class of action.
+	 * 
+	 * @return the number of actions handled, by class name.
+	 */
+	Map<String, Long> getActionCounts();
+
+	/**
+	 * Get the number of actions dispatched by the server.
+	 * 
+	 * @return the number of actions dispatched.
+	 */
+	long getDispatchCount();
+
+	/**
+	 * Get the mean time spent dispatching an action.
+	 * 
+	 * @return the mean dispatch latency.
+	 */
+	long getDispatchLatencyMean();
+
+	/**
+	 * Get the median time spent dispatching an action.
+	 * 
+	 * @return the 50th percentile of the dispatch latency.
+	 */
+	long getDispatchLatencyP50();
+
+	/**
+	 * Get the 90th percentile of the time spent dispatching an action.
+	 * 
+	 * @return the 90th percentile of the dispatch latency.
+	 */
+	long getDispatchLatencyP90();
+
+	/**
+	 * Get the 99th percentile of the time spent dispatching an action.
+	 * 
+	 * @return the 99th percentile of the dispatch latency.
+	 */
+	long getDispatchLatencyP99();
+
+	/**
+	 * Get the 99.9th percentile of the time spent dispatching an action.
+	 * 
+	 * @return the 99.9th percentile of the dispatch latency.
+	 */
+	long getDispatchLatencyP999();
+
+	/**
+	 * Get the number of timeout tasks executed since the server was started.
+	 * 
+	 * @return the number of fired timeouts.
+	 */
+	long getFiredTimeoutCount();
+
+	/**
+	 * Get the number of timeout tasks waiting to be executed.
+	 * 
+	 * @return the number of pending timeouts.
+	 */
+	long getPendingTimeoutCount();
+
+	/**
+	 * Get the number of games registered on the server, by state.
+	 * 
+	 * @return the number of games, by {@link GameState} name.
+	 */
+	Map<String, Integer> getGameCounts();
+}
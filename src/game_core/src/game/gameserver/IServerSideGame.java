@@ -8,6 +8,8 @@ import game.communication.action.gamectrl.IGameCtrlActionHandler;
 import game.config.IGameConfiguration;
 import game.config.IPlayerConfiguration;
 
+import java.util.Collection;
+
 /**
  * An interface representing the game on the server side.
  * 
@@ -83,4 +85,11 @@ public interface IServerSideGame<ACTION_TYPE extends IGameAction, CONF_TYPE exte
 	 * @return true if the specified player is playing this game.
 	 */
 	boolean isInThisGame(final IServerSidePlayer<?> player);
+
+	/**
+	 * Get the players of this game.
+	 * 
+	 * @return the players of this game.
+	 */
+	Collection<? extends IServerSidePlayer<?>> getPlayers();
 }
@@ -0,0 +1,15 @@
+package game.gameserver;
+
+/**
+ * Marker interface of the {@link IServerSideGame} executed on their own
+ * {@link GameMailbox}. All the actions and timeouts of such a game are
+ * handled one at a time by a shared worker pool instead of the thread which
+ * received them, so the game doesn't need to lock its state.
+ * 
+ * @author benobiwan
+ * 
+ */
+public interface ISingleThreadedGame
+{
+	// marker interface.
+}
@@ -0,0 +1,256 @@
+package game.gameserver;
+
+import game.common.IGameClient;
+import game.common.IGameInstanceDescription;
+import game.communication.event.IEvent;
+import game.communication.event.InconsistentEventTypeException;
+import game.communication.event.control.GameListDeltaCtrlEvent;
+import game.communication.event.control.GameListDeltaType;
+import game.communication.event.control.ServerStateCtrlEvent;
+
+import java.util.TreeSet;
+import java.util.concurrent.CopyOnWriteArraySet;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Lobby of the {@link LocalGameServer}, caching the {@link LobbySnapshot}
+ * sent to the clients and pushing the changes of the list of games to the
+ * subscribed clients. Each change increments the version of the lobby, which
+ * is the sequence number of the {@link GameListDeltaCtrlEvent} describing
+ * it. The snapshot is only rebuilt when it is asked for after a change. The
+ * snapshot and the changes hold copies of the descriptions of the games, so
+ * that the local and the distant clients see the same values.
+ * 
+ * @author benobiwan
+ * 
+ */
+public final class Lobby
+{
+	/**
+	 * Logger object.
+	 */
+	private static final Logger LOGGER = LoggerFactory.getLogger(Lobby.class);
+
+	/**
+	 * Registry holding the games listed in the lobby.
+	 */
+	private final GameRegistry _gameRegistry;
+
+	/**
+	 * The server hosting the lobby, source of the events.
+	 */
+	private final LocalGameServer _gameServer;
+
+	/**
+	 * The clients subscribed to the changes of the lobby.
+	 */
+	private final CopyOnWriteArraySet<IGameClient> _subscriberList = new CopyOnWriteArraySet<>();
+
+	/**
+	 * Lock ordering the changes and their publication, and protecting the
+	 * rebuild of the snapshot.
+	 */
+	private final Object _lock = new Object();
+
+	/**
+	 * Current version of the lobby, incremented on each change.
+	 */
+	private volatile long _lVersion = 0;
+
+	/**
+	 * The last built snapshot.
+	 */
+	private volatile LobbySnapshot _snapshot;
+
+	/**
+	 * Creates a new Lobby.
+	 * 
+	 * @param gameServer
+	 *            the server hosting the lobby.
+	 * @param gameRegistry
+	 *            registry holding the games listed in the lobby.
+	 */
+	public Lobby(final LocalGameServer gameServer,
+			final GameRegistry gameRegistry)
+	{
+		_gameServer = gameServer;
+		_gameRegistry = gameRegistry;
+	}
+
+	/**
+	 * Signal that a game was created.
+	 * 
+	 * @param description
+	 *            the description of the game.
+	 */
+	public void gameAdded(final IGameInstanceDescription description)
+	{
+		publish(GameListDeltaType.ADDED, description.getGameId(), description);
+	}
+
+	/**
+	 * Signal that a game was started, joined or left.
+	 * 
+	 * @param description
+	 *            the description of the game.
+	 */
+	public void gameUpdated(final IGameInstanceDescription description)
+	{
+		publish(GameListDeltaType.UPDATED, description.getGameId(),
+				description);
+	}
+
+	/**
+	 * Signal that a game was removed.
+	 * 
+	 * @param iGameId
+	 *            the id of the game.
+	 */
+	public void gameRemoved(final int iGameId)
+	{
+		publish(GameListDeltaType.REMOVED, iGameId, null);
+	}
+
+	/**
+	 * Subscribe a client to the changes of the lobby. The full list of games
+	 * is sent to the client before any change.
+	 * 
+	 * @param client
+	 *            the client to subscribe.
+	 */
+	public void subscribe(final IGameClient client)
+	{
+		synchronized (_lock)
+		{
+			_subscriberList.add(client);
+			send(client, getSnapshot().getServerStateEvent(false));
+		}
+	}
+
+	/**
+	 * Unsubscribe a client from the changes of the lobby.
+	 * 
+	 * @param client
+	 *            the client to unsubscribe.
+	 */
+	public void unsubscribe(final IGameClient client)
+	{
+		_subscriberList.remove(client);
+	}
+
+	/**
+	 * Get a snapshot of the current state of the lobby.
+	 * 
+	 * @return a snapshot of the current state of the lobby.
+	 */
+	public LobbySnapshot getSnapshot()
+	{
+		final LobbySnapshot snapshot = _snapshot;
+		if (snapshot != null && snapshot.getVersion() == _lVersion)
+		{
+			return snapshot;
+		}
+		synchronized (_lock)
+		{
+			if (_snapshot == null || _snapshot.getVersion() != _lVersion)
+			{
+				_snapshot = build(_lVersion);
+			}
+			return _snapshot;
+		}
+	}
+
+	/**
+	 * Record a change of the lobby and send it to the subscribed clients. The
+	 * version is incremented and the change built under the lock, the change
+	 * is delivered outside of it: concurrent changes may reach a client out
+	 * of order, the {@link game.gameclient.ServerGameList} of the client
+	 * keeps the changes received ahead of their turn. The clients subscribing
+	 * after the change get it in their snapshot.
+	 * 
+	 * @param deltaType
+	 *            the type of change.
+	 * @param iGameId
+	 *            the id of the changed game.
+	 * @param description
+	 *            the description of the changed game, null if it was
+	 *            removed.
+	 */
+	private void publish(final GameListDeltaType deltaType,
+			final int iGameId, final IGameInstanceDescription description)
+	{
+		final GameListDeltaCtrlEvent event;
+		final IGameClient[] subscribers;
+		synchronized (_lock)
+		{
+			_lVersion++;
+			if (_subscriberList.isEmpty())
+			{
+				return;
+			}
+			event = new GameListDeltaCtrlEvent(_lVersion, deltaType, iGameId,
+					description == null ? null : description.copy(),
+					new ServerStateImpl(0, 0, _gameRegistry.size(), 0));
+			subscribers = _subscriberList.toArray(new IGameClient[0]);
+		}
+		for (final IGameClient client : subscribers)
+		{
+			send(client, event);
+		}
+	}
+
+	/**
+	 * Send an event to a client.
+	 * 
+	 * @param client
+	 *            the client.
+	 * @param event
+	 *            the event to send.
+	 */
+	private void send(final IGameClient client, final IEvent event)
+	{
+		try
+		{
+			client.handleEvent(_gameServer, event);
+		}
+		catch (final InconsistentEventTypeException e)
+		{
+			LOGGER.error(e.getLocalizedMessage(), e);
+		}
+	}
+
+	/**
+	 * Build a snapshot of the lobby.
+	 * 
+	 * @param lVersion
+	 *            the version of the lobby, read before listing the games.
+	 * @return the new snapshot.
+	 */
+	private LobbySnapshot build(final long lVersion)
+	{
+		final TreeSet<IGameInstanceDescription> setAll = new TreeSet<>();
+		final TreeSet<IGameInstanceDescription> setJoinable = new TreeSet<>();
+		int iNbGames = 0;
+		for (final RegisteredGame registeredGame : _gameRegistry.getGames())
+		{
+			final IGameInstanceDescription description = registeredGame
+					.getDescription().copy();
+			setAll.add(description);
+			iNbGames++;
+			// games in creation are always listed
+			if (registeredGame.getState() == GameState.IN_CREATION
+					|| registeredGame.getGame().isJoinable())
+			{
+				setJoinable.add(description);
+			}
+		}
+		final IServerState serverState = new ServerStateImpl(0, 0, iNbGames,
+				0);
+		return new LobbySnapshot(lVersion, new ServerStateCtrlEvent(
+				serverState, setAll, false, lVersion),
+				new ServerStateCtrlEvent(serverState, setJoinable, true,
+						lVersion));
+	}
+}
@@ -0,0 +1,72 @@
+package game.gameserver;
+
+import game.communication.event.control.ServerStateCtrlEvent;
+
+/**
+ * Immutable view of the games listed in the lobby of the
+ * {@link LocalGameServer}, holding the two {@link ServerStateCtrlEvent} sent
+ * to the clients asking for the state of the server.
+ * 
+ * @author benobiwan
+ * 
+ */
+public final class LobbySnapshot
+{
+	/**
+	 * Version of the lobby described by this snapshot.
+	 */
+	private final long _lVersion;
+
+	/**
+	 * Event listing all the games.
+	 */
+	private final ServerStateCtrlEvent _allGamesEvent;
+
+	/**
+	 * Event listing the joinable games and the games in creation.
+	 */
+	private final ServerStateCtrlEvent _joinableGamesEvent;
+
+	/**
+	 * Creates a new LobbySnapshot.
+	 * 
+	 * @param lVersion
+	 *            version of the lobby described by this snapshot.
+	 * @param allGamesEvent
+	 *            event listing all the games.
+	 * @param joinableGamesEvent
+	 *            event listing the joinable games and the games in creation.
+	 */
+	LobbySnapshot(final long lVersion,
+			final ServerStateCtrlEvent allGamesEvent,
+			final ServerStateCtrlEvent joinableGamesEvent)
+	{
+		_lVersion = lVersion;
+		_allGamesEvent = allGamesEvent;
+		_joinableGamesEvent = joinableGamesEvent;
+	}
+
+	/**
+	 * Get the version of the lobby described by this snapshot.
+	 * 
+	 * @return the version of the lobby.
+	 */
+	public long getVersion()
+	{
+		return _lVersion;
+	}
+
+	/**
+	 * Get the event describing the state of the server.
+	 * 
+	 * @param bOnlyJoinableGames
+	 *            whether only the joinable games and the games in creation
+	 *            must be listed.
+	 * @return the event describing the state of the server.
+	 */
+	public ServerStateCtrlEvent getServerStateEvent(
+			final boolean bOnlyJoinableGames)
+	{
+		return bOnlyJoinableGames ? _joinableGamesEvent : _allGamesEvent;
+	}
+}
@@ -1,5 +1,6 @@
 package game.gameserver;
 
+import game.common.HashedWheelTimer;
 import game.common.IGameClient;
 import game.common.IGameDescription;
 import game.common.IGameInstanceDescription;
@@ -14,18 +15,20 @@ import game.communication.action.InconsistentActionTypeException;
 import game.communication.action.control.AskServerStateCtrlAction;
 import game.communication.action.control.CreateGameCtrlAction;
 import game.communication.action.control.IControlActionHandler;
+import game.communication.action.control.SubscribeServerStateCtrlAction;
+import game.communication.event.IMultiCastGameEvent;
 import game.communication.event.InconsistentEventTypeException;
 import game.communication.event.control.GameCreationStartedCtrlEvent;
 import game.communication.event.control.ServerStateCtrlEvent;
 
 import java.net.InetSocketAddress;
 import java.util.Set;
-import java.util.Timer;
-import java.util.TimerTask;
-import java.util.TreeSet;
-import java.util.concurrent.ConcurrentSkipListMap;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -48,14 +51,14 @@ public final class LocalGameServer implements IGameServer,
 			.getLogger(LocalGameServer.class);
 
 	/**
-	 * Map off all current games.
+	 * Registry of all the games, running or in creation.
 	 */
-	private final ConcurrentSkipListMap<Integer, IServerSideGame<?, ?, ?, ?>> _gameList = new ConcurrentSkipListMap<>();
+	private final GameRegistry _gameRegistry = new GameRegistry();
 
 	/**
-	 * Map off all game currently in creation.
+	 * Lobby listing the games to the clients.
 	 */
-	private final ConcurrentSkipListMap<Integer, IServerGameCreator<?, ?, ?, ?, ?>> _gameInCreationList = new ConcurrentSkipListMap<>();
+	private final Lobby _lobby;
 
 	/**
 	 * Name of the local server, always equal to "local".
@@ -65,28 +68,60 @@ public final class LocalGameServer implements IGameServer,
 	/**
 	 * Id which will be used for the next game.
 	 */
-	private int _iNextGameId = 1;
+	private final AtomicInteger _nextGameId = new AtomicInteger(1);
 
 	/**
-	 * Lock to protect the use of _iNextGameId.
+	 * Duration in milliseconds of a tick of the timeout timer.
 	 */
-	private final Object _lockNextGame = new Object();
+	private static final long TIMEOUT_TICK_DURATION = 100;
 
 	/**
-	 * Server timer used to schedule timeout tasks.
+	 * Number of buckets of the wheel of the timeout timer.
+	 */
+	private static final int TIMEOUT_WHEEL_SIZE = 512;
+
+	/**
+	 * Number of threads of each pool of the server.
+	 */
+	private static final int POOL_THREADS = Runtime.getRuntime()
+			.availableProcessors();
+
+	/**
+	 * Time in seconds an idle thread of a pool is kept.
 	 */
-	private final Timer _timeoutTimer = new Timer("Timeout timer", true);
+	private static final long POOL_KEEP_ALIVE = 60;
 
 	/**
 	 * Executor service to execute the timeout tasks.
 	 */
 	private final ExecutorService _timeOutExecutor;
 
+	/**
+	 * Worker pool executing the {@link ISingleThreadedGame}, null until the
+	 * first of them is started.
+	 */
+	private ExecutorService _gameExecutor;
+
+	/**
+	 * Lock protecting the creation and the shutdown of the worker pool.
+	 */
+	private final Object _lockGameExecutor = new Object();
+
+	/**
+	 * Server timer used to schedule timeout tasks.
+	 */
+	private final HashedWheelTimer _timeoutTimer;
+
 	/**
 	 * List of {@link IGameDescription} available on the server.
 	 */
 	private final Set<IGameDescription> _gameListDescription;
 
+	/**
+	 * Runtime metrics of the server.
+	 */
+	private final GameServerMetrics _metrics;
+
 	/**
 	 * Creates a new LocalGameServer.
 	 * 
@@ -96,12 +131,41 @@ public final class LocalGameServer implements IGameServer,
 	public LocalGameServer(final Set<IGameDescription> gameListDescription)
 	{
 		_gameListDescription = gameListDescription;
-		_timeOutExecutor = Executors.newCachedThreadPool();
+		_lobby = new Lobby(this, _gameRegistry);
+		_timeOutExecutor = createPool("Timeout");
+		_timeoutTimer = new HashedWheelTimer("Timeout timer",
+				TIMEOUT_TICK_DURATION, TimeUnit.MILLISECONDS,
+				TIMEOUT_WHEEL_SIZE, _timeOutExecutor);
+		_metrics = new GameServerMetrics(_timeoutTimer, _gameRegistry);
 	}
 
 	@Override
 	public void handleAction(final IGameClient client, final IAction act)
 			throws InconsistentActionTypeException
+	{
+		final long lStart = System.nanoTime();
+		try
+		{
+			dispatchAction(client, act);
+		}
+		finally
+		{
+			_metrics.actionHandled(act, System.nanoTime() - lStart);
+		}
+	}
+
+	/**
+	 * Forward an action to the object handling it.
+	 * 
+	 * @param client
+	 *            the client which sent the action.
+	 * @param act
+	 *            the action.
+	 * @throws InconsistentActionTypeException
+	 *             if the type of a control action doesn't match its class.
+	 */
+	private void dispatchAction(final IGameClient client, final IAction act)
+			throws InconsistentActionTypeException
 	{
 		if (LOGGER.isDebugEnabled())
 		{
@@ -114,20 +178,19 @@ public final class LocalGameServer implements IGameServer,
 		else if (act instanceof IGameCtrlAction)
 		{
 			final IGameCtrlAction action = (IGameCtrlAction) act;
-			final IServerGameCreator<?, ?, ?, ?, ?> gameCreator = _gameInCreationList
-					.get(Integer.valueOf(action.getGameId()));
-			final IServerSideGame<?, ?, ?, ?> game = _gameList.get(Integer
-					.valueOf(action.getGameId()));
+			final RegisteredGame registeredGame = _gameRegistry.get(action
+					.getGameId());
 			// don't check for null player because of join game action
 			final IServerSidePlayer<?> player = client
 					.getServerSidePlayer(action.getPlayerId());
-			if (gameCreator == null && game == null)
+			if (registeredGame == null)
 			{
 				// TODO error in handleAction
 			}
-			else if (gameCreator != null)
+			else if (registeredGame.getState() == GameState.IN_CREATION)
 			{
-				gameCreator.handleGameCtrlAction(client, player, action);
+				registeredGame.getGameCreator().handleGameCtrlAction(client,
+						player, action);
 			}
 			else
 			{
@@ -137,8 +200,8 @@ public final class LocalGameServer implements IGameServer,
 		else if (act instanceof IGameCreationAction)
 		{
 			final IGameCreationAction action = (IGameCreationAction) act;
-			final IServerGameCreator<?, ?, ?, ?, ?> gameCreator = _gameInCreationList
-					.get(Integer.valueOf(action.getGameId()));
+			final IServerGameCreator<?, ?, ?, ?, ?> gameCreator = getGameCreator(action
+					.getGameId());
 			final IServerSidePlayer<?> player = client
 					.getServerSidePlayer(action.getPlayerId());
 			if (gameCreator == null)
@@ -165,8 +228,10 @@ public final class LocalGameServer implements IGameServer,
 		else if (act instanceof IGameAction)
 		{
 			final IGameAction action = (IGameAction) act;
-			final IServerSideGame<?, ?, ?, ?> game = _gameList.get(Integer
-					.valueOf(action.getGameId()));
+			final RegisteredGame registeredGame = _gameRegistry.get(action
+					.getGameId());
+			final IServerSideGame<?, ?, ?, ?> game = registeredGame == null ? null
+					: registeredGame.getGame();
 			final IServerSidePlayer<?> player = client
 					.getServerSidePlayer(action.getPlayerId());
 			if (game == null)
@@ -187,10 +252,28 @@ public final class LocalGameServer implements IGameServer,
 						+ client.getName() + "' concerning a game id '"
 						+ action.getGameId() + "' in which he isn't playing.");
 			}
-			else
+			else if (registeredGame.getMailbox() == null)
 			{
 				game.handleGameAction(player, action);
 			}
+			else
+			{
+				registeredGame.getMailbox().execute(new Runnable()
+				{
+					@Override
+					public void run()
+					{
+						try
+						{
+							game.handleGameAction(player, action);
+						}
+						catch (final InconsistentActionTypeException e)
+						{
+							LOGGER.error(e.getLocalizedMessage(), e);
+						}
+					}
+				});
+			}
 		}
 		else
 		{
@@ -205,6 +288,74 @@ public final class LocalGameServer implements IGameServer,
 
 	}
 
+	/**
+	 * Stop the server: the pending timeouts never expire and the threads of
+	 * the server are stopped once their current task is done.
+	 */
+	public void shutdown()
+	{
+		_timeoutTimer.stop();
+		_timeOutExecutor.shutdown();
+		synchronized (_lockGameExecutor)
+		{
+			if (_gameExecutor != null)
+			{
+				_gameExecutor.shutdown();
+			}
+		}
+	}
+
+	/**
+	 * Get the worker pool executing the {@link ISingleThreadedGame}, creating
+	 * it on first use.
+	 * 
+	 * @return the worker pool executing the {@link ISingleThreadedGame}.
+	 */
+	private ExecutorService getGameExecutor()
+	{
+		synchronized (_lockGameExecutor)
+		{
+			if (_gameExecutor == null)
+			{
+				_gameExecutor = createPool("Game");
+			}
+			return _gameExecutor;
+		}
+	}
+
+	/**
+	 * Creates a pool of daemon threads whose idle threads die, so that an
+	 * idle server doesn't hold threads and never prevents the program from
+	 * exiting.
+	 * 
+	 * @param strName
+	 *            the prefix of the name of the threads.
+	 * @return the pool.
+	 */
+	private static ExecutorService createPool(final String strName)
+	{
+		final ThreadPoolExecutor executor = new ThreadPoolExecutor(
+				POOL_THREADS, POOL_THREADS, POOL_KEEP_ALIVE, TimeUnit.SECONDS,
+				new LinkedBlockingQueue<Runnable>(), new ThreadFactory()
+				{
+					/**
+					 * Number of threads created.
+					 */
+					private final AtomicInteger _threadCount = new AtomicInteger();
+
+					@Override
+					public Thread newThread(final Runnable runnable)
+					{
+						final Thread thread = new Thread(runnable, strName
+								+ "-" + _threadCount.incrementAndGet());
+						thread.setDaemon(true);
+						return thread;
+					}
+				});
+		executor.allowCoreThreadTimeOut(true);
+		return executor;
+	}
+
 	/**
 	 * Unregister a Game.
 	 * 
@@ -214,7 +365,54 @@ public final class LocalGameServer implements IGameServer,
 	public void unregisterGame(final IServerSideGame<?, ?, ?, ?> g)
 	{
 		// TODO unregister game in creation?
-		_gameList.remove(Integer.valueOf(g.getGameId()));
+		final RegisteredGame registeredGame = _gameRegistry.get(g.getGameId());
+		if (registeredGame != null && g.equals(registeredGame.getGame()))
+		{
+			_gameRegistry.remove(g.getGameId());
+			_lobby.gameRemoved(g.getGameId());
+		}
+	}
+
+	/**
+	 * Send an event to all the players of a running game hosted by this
+	 * server.
+	 * 
+	 * @param iGameId
+	 *            the id of the game.
+	 * @param event
+	 *            the event to send.
+	 * @return true if the event was sent, false if the game isn't running.
+	 */
+	public boolean broadcast(final int iGameId, final IMultiCastGameEvent event)
+	{
+		return _gameRegistry.broadcast(this, iGameId, event);
+	}
+
+	/**
+	 * Signal that the description of a game changed, so that the lobby is
+	 * updated.
+	 * 
+	 * @param description
+	 *            the new description of the game.
+	 */
+	public void gameDescriptionChanged(
+			final IGameInstanceDescription description)
+	{
+		_lobby.gameUpdated(description);
+	}
+
+	/**
+	 * Get a game in creation.
+	 * 
+	 * @param iGameId
+	 *            the id of the game.
+	 * @return the creator of the game, null if there is no game in creation
+	 *         with this id.
+	 */
+	private IServerGameCreator<?, ?, ?, ?, ?> getGameCreator(final int iGameId)
+	{
+		final RegisteredGame registeredGame = _gameRegistry.get(iGameId);
+		return registeredGame == null ? null : registeredGame.getGameCreator();
 	}
 
 	/**
@@ -238,15 +436,18 @@ public final class LocalGameServer implements IGameServer,
 			{
 				if (gameCreator.getGameId() == game.getGameId())
 				{
-					final Integer id = Integer.valueOf(gameCreator.getGameId());
-					if (gameCreator.equals(_gameInCreationList.get(id)))
+					final GameMailbox mailbox = game instanceof ISingleThreadedGame ? new GameMailbox(
+							getGameExecutor()) : null;
+					if (_gameRegistry.start(gameCreator, game, mailbox))
+					{
+						_lobby.gameUpdated(game.getDescription());
+						return true;
+					}
+					final RegisteredGame registeredGame = _gameRegistry
+							.get(game.getGameId());
+					if (registeredGame != null
+							&& registeredGame.getState() == GameState.RUNNING)
 					{
-						if (_gameList.get(id) == null)
-						{
-							_gameInCreationList.remove(id);
-							_gameList.put(id, game);
-							return true;
-						}
 						LOGGER.error("the game has allready been started.");
 					}
 					else
@@ -382,6 +583,19 @@ public final class LocalGameServer implements IGameServer,
 						ControlActionType.ASK_SERVER_STATE, act.getClass());
 			}
 			break;
+		case SUBSCRIBE_SERVER_STATE:
+			if (act instanceof SubscribeServerStateCtrlAction)
+			{
+				handleSubscribeServerStateCtrlAction(client,
+						(SubscribeServerStateCtrlAction) act);
+			}
+			else
+			{
+				throw new InconsistentActionTypeException(
+						ControlActionType.SUBSCRIBE_SERVER_STATE,
+						act.getClass());
+			}
+			break;
 		}
 	}
 
@@ -391,26 +605,22 @@ public final class LocalGameServer implements IGameServer,
 	{
 		// TODO check whether the user has the right to create a game.
 		// TODO check if max game has been reached.
-		synchronized (_lockNextGame)
+		final IServerGameCreator<?, ?, ?, ?, ?> gameCreator = act
+				.getGameCreator();
+		gameCreator.initialize(this, _nextGameId.getAndIncrement(), client,
+				act.getCreatorPlayerId());
+		_gameRegistry.registerInCreation(gameCreator);
+		_lobby.gameAdded(gameCreator.getDescription());
+		final GameCreationStartedCtrlEvent event = new GameCreationStartedCtrlEvent(
+				gameCreator.getGameId(), act.getCreatorPlayerId(),
+				gameCreator.getClientGameCreator());
+		try
 		{
-			final IServerGameCreator<?, ?, ?, ?, ?> gameCreator = act
-					.getGameCreator();
-			gameCreator.initialize(this, _iNextGameId, client,
-					act.getCreatorPlayerId());
-			_gameInCreationList.put(Integer.valueOf(gameCreator.getGameId()),
-					gameCreator);
-			final GameCreationStartedCtrlEvent event = new GameCreationStartedCtrlEvent(
-					gameCreator.getGameId(), act.getCreatorPlayerId(),
-					gameCreator.getClientGameCreator());
-			_iNextGameId++;
-			try
-			{
-				client.handleEvent(this, event);
-			}
-			catch (final InconsistentEventTypeException e)
-			{
-				LOGGER.error(e.getLocalizedMessage(), e);
-			}
+			client.handleEvent(this, event);
+		}
+		catch (final InconsistentEventTypeException e)
+		{
+			LOGGER.error(e.getLocalizedMessage(), e);
 		}
 	}
 
@@ -418,41 +628,29 @@ public final class LocalGameServer implements IGameServer,
 	public void handleAskServerStateCtrlActionAction(final IGameClient client,
 			final AskServerStateCtrlAction act)
 	{
-		// listing the game as asked
-		final TreeSet<IGameInstanceDescription> setDescription = new TreeSet<>();
-		if (act.isOnlyJoinableGames())
-		{
-			for (final IServerSideGame<?, ?, ?, ?> game : _gameList.values())
-			{
-				if (game.isJoinable())
-				{
-					setDescription.add(game.getDescription());
-				}
-			}
-		}
-		else
+		final ServerStateCtrlEvent evt = _lobby.getSnapshot()
+				.getServerStateEvent(act.isOnlyJoinableGames());
+		try
 		{
-			for (final IServerSideGame<?, ?, ?, ?> game : _gameList.values())
-			{
-				setDescription.add(game.getDescription());
-			}
+			client.handleEvent(this, evt);
 		}
-		// adding games in creation
-		for (final IServerGameCreator<?, ?, ?, ?, ?> game : _gameInCreationList
-				.values())
+		catch (final InconsistentEventTypeException e)
 		{
-			setDescription.add(game.getDescription());
+			LOGGER.error(e.getLocalizedMessage(), e);
 		}
+	}
 
-		final ServerStateCtrlEvent evt = new ServerStateCtrlEvent(
-				getServerState(), setDescription);
-		try
+	@Override
+	public void handleSubscribeServerStateCtrlAction(
+			final IGameClient client, final SubscribeServerStateCtrlAction act)
+	{
+		if (act.isSubscribe())
 		{
-			client.handleEvent(this, evt);
+			_lobby.subscribe(client);
 		}
-		catch (final InconsistentEventTypeException e)
+		else
 		{
-			LOGGER.error(e.getLocalizedMessage(), e);
+			_lobby.unsubscribe(client);
 		}
 	}
 
@@ -460,21 +658,53 @@ public final class LocalGameServer implements IGameServer,
 	 * Schedule a {@link TimeoutTask} for execution.
 	 * 
 	 * @param iDelay
-	 *            the delay before the execution of the task.
+	 *            the delay in milliseconds before the execution of the task.
 	 * @param game
 	 *            the game concerned by the task.
 	 * @param player
 	 *            the player concerned by the task.
-	 * @return the newly created and scheduled task.
+	 * @return the newly created and scheduled task, which can be cancelled.
 	 */
-	public TimerTask scheduleTask(final int iDelay,
+	public TimeoutTask scheduleTask(final int iDelay,
 			final IServerSideGame<?, ?, ?, ?> game,
 			final IServerSidePlayer<?> player)
 	{
-		final TimerTask task = new TimeoutTask(_timeOutExecutor, iDelay, game,
-				player);
-		_timeoutTimer.schedule(task, iDelay);
-		return task;
+		final RegisteredGame registeredGame = _gameRegistry.get(game
+				.getGameId());
+		final GameMailbox mailbox = registeredGame == null ? null
+				: registeredGame.getMailbox();
+		return _timeoutTimer.schedule(new TimeoutTask(iDelay, game, player,
+				mailbox), iDelay, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Get the number of timeout tasks waiting to be executed.
+	 * 
+	 * @return the number of pending timeout tasks.
+	 */
+	public long getPendingTimeoutCount()
+	{
+		return _timeoutTimer.getPendingCount();
+	}
+
+	/**
+	 * Get the number of timeout tasks executed since the server was started.
+	 * 
+	 * @return the number of executed timeout tasks.
+	 */
+	public long getFiredTimeoutCount()
+	{
+		return _timeoutTimer.getFiredCount();
+	}
+
+	/**
+	 * Get the runtime metrics of the server.
+	 * 
+	 * @return the runtime metrics of the server.
+	 */
+	public GameServerMetrics getMetrics()
+	{
+		return _metrics;
 	}
 
 	@Override
@@ -501,11 +731,7 @@ public final class LocalGameServer implements IGameServer,
 	public IServerState getServerState()
 	{
 		// TODO a revoir
-		synchronized (_lockNextGame)
-		{
-			return new ServerStateImpl(0, 0, _gameList.size()
-					+ _gameInCreationList.size(), 0);
-		}
+		return new ServerStateImpl(0, 0, _gameRegistry.size(), 0);
 	}
 
 	@Override
@@ -0,0 +1,138 @@
+package game.gameserver;
+
+import game.common.IGameInstanceDescription;
+
+/**
+ * Immutable entry of the {@link GameRegistry} describing a game and its state.
+ * A new entry replaces the previous one when the game is started.
+ * 
+ * @author benobiwan
+ * 
+ */
+public final class RegisteredGame
+{
+	/**
+	 * Id of the game.
+	 */
+	private final int _iGameId;
+
+	/**
+	 * State of the game.
+	 */
+	private final GameState _state;
+
+	/**
+	 * The creator of the game, null if the game is running.
+	 */
+	private final IServerGameCreator<?, ?, ?, ?, ?> _gameCreator;
+
+	/**
+	 * The game, null if the game is in creation.
+	 */
+	private final IServerSideGame<?, ?, ?, ?> _game;
+
+	/**
+	 * The mailbox of the game, null if the game isn't an
+	 * {@link ISingleThreadedGame} or is in creation.
+	 */
+	private final GameMailbox _mailbox;
+
+	/**
+	 * Creates a new RegisteredGame describing a game in creation.
+	 * 
+	 * @param gameCreator
+	 *            the creator of the game.
+	 */
+	RegisteredGame(final IServerGameCreator<?, ?, ?, ?, ?> gameCreator)
+	{
+		_iGameId = gameCreator.getGameId();
+		_state = GameState.IN_CREATION;
+		_gameCreator = gameCreator;
+		_game = null;
+		_mailbox = null;
+	}
+
+	/**
+	 * Creates a new RegisteredGame describing a running game.
+	 * 
+	 * @param game
+	 *            the game.
+	 * @param mailbox
+	 *            the mailbox of the game, null if the game isn't an
+	 *            {@link ISingleThreadedGame}.
+	 */
+	RegisteredGame(final IServerSideGame<?, ?, ?, ?> game,
+			final GameMailbox mailbox)
+	{
+		_iGameId = game.getGameId();
+		_state = GameState.RUNNING;
+		_gameCreator = null;
+		_game = game;
+		_mailbox = mailbox;
+	}
+
+	/**
+	 * Get the id of the game.
+	 * 
+	 * @return the id of the game.
+	 */
+	public int getGameId()
+	{
+		return _iGameId;
+	}
+
+	/**
+	 * Get the state of the game.
+	 * 
+	 * @return the state of the game.
+	 */
+	public GameState getState()
+	{
+		return _state;
+	}
+
+	/**
+	 * Get the creator of the game.
+	 * 
+	 * @return the creator of the game, null if the game is running.
+	 */
+	public IServerGameCreator<?, ?, ?, ?, ?> getGameCreator()
+	{
+		return _gameCreator;
+	}
+
+	/**
+	 * Get the game.
+	 * 
+	 * @return the game, null if the game is in creation.
+	 */
+	public IServerSideGame<?, ?, ?, ?> getGame()
+	{
+		return _game;
+	}
+
+	/**
+	 * Get the mailbox of the game.
+	 * 
+	 * @return the mailbox of the game, null if the game isn't an
+	 *         {@link ISingleThreadedGame} or is in creation.
+	 */
+	public GameMailbox getMailbox()
+	{
+		return _mailbox;
+	}
+
+	/**
+	 * Get the description of the game.
+	 * 
+	 * @return the description of the game.
+	 */
+	public IGameInstanceDescription getDescription()
+	{
+		if (_state == GameState.RUNNING)
+		{
+			return _game.getDescription();
+		}
+		return _gameCreator.getDescription();
+	}
+}
@@ -1,22 +1,18 @@
 package game.gameserver;
 
-import java.util.TimerTask;
-import java.util.concurrent.ExecutorService;
+import game.common.AbstractTimeout;
+import game.common.HashedWheelTimer;
 
 /**
- * {@link TimerTask} used to control if the timeout on the turn of the current
- * player has been reached.
+ * {@link AbstractTimeout} used to control if the timeout on the turn of the
+ * current player has been reached. It is scheduled on the
+ * {@link HashedWheelTimer} of the {@link LocalGameServer}.
  * 
  * @author benobiwan
  * 
  */
-public final class TimeoutTask extends TimerTask
+public final class TimeoutTask extends AbstractTimeout
 {
-	/**
-	 * Executor service to execute the timeout tasks.
-	 */
-	private final ExecutorService _timeOutExecutor;
-
 	/**
 	 * Delay before executing this timeout task.
 	 */
@@ -33,24 +29,32 @@ public final class TimeoutTask extends TimerTask
 	protected final IServerSidePlayer<?> _player;
 
 	/**
+	 * Mailbox of the game, null if the game isn't an
+	 * {@link ISingleThreadedGame}.
+	 */
+	private final GameMailbox _mailbox;
+
+	/**
+	 * Creates a new TimeoutTask.
 	 * 
-	 * @param timeOutExecutor
-	 *            executor service to execute the timeout tasks.
 	 * @param iDelay
 	 *            delay before executing this timeout task.
 	 * @param game
 	 *            game to which this timeout task is related.
 	 * @param player
 	 *            the acting player.
+	 * @param mailbox
+	 *            mailbox of the game, null if the game isn't an
+	 *            {@link ISingleThreadedGame}.
 	 */
-	public TimeoutTask(final ExecutorService timeOutExecutor, final int iDelay,
+	public TimeoutTask(final int iDelay,
 			final IServerSideGame<?, ?, ?, ?> game,
-			final IServerSidePlayer<?> player)
+			final IServerSidePlayer<?> player, final GameMailbox mailbox)
 	{
 		_iDelay = iDelay;
 		_game = game;
-		_timeOutExecutor = timeOutExecutor;
 		_player = player;
+		_mailbox = mailbox;
 	}
 
 	/**
@@ -64,15 +68,22 @@ public final class TimeoutTask extends TimerTask
 	}
 
 	@Override
-	public void run()
+	protected void expire()
 	{
-		_timeOutExecutor.execute(new Runnable()
+		if (_mailbox == null)
+		{
+			_game.timeoutReached();
+		}
+		else
 		{
-			@Override
-			public void run()
+			_mailbox.execute(new Runnable()
 			{
-				_game.timeoutReached();
-			}
-		});
+				@Override
+				public void run()
+				{
+					_game.timeoutReached();
+				}
+			});
+		}
 	}
 }
@@ -1,10 +1,16 @@
 package game.network;
 
+import game.network.codec.BinaryCodecFactory;
+import game.network.config.CodecType;
 import game.network.config.INetworkConfiguration;
 
+import java.util.concurrent.Executor;
+
 import org.apache.mina.core.session.IdleStatus;
+import org.apache.mina.filter.codec.ProtocolCodecFactory;
 import org.apache.mina.filter.codec.ProtocolCodecFilter;
 import org.apache.mina.filter.codec.serialization.ObjectSerializationCodecFactory;
+import org.apache.mina.filter.executor.ExecutorFilter;
 import org.apache.mina.filter.keepalive.KeepAliveFilter;
 
 /**
@@ -38,6 +44,13 @@ public abstract class AbstractConnection
 	 */
 	protected final KeepAliveFilter _keepAliveFilter;
 
+	/**
+	 * An IoFilter handing the events of the sessions to the worker threads,
+	 * so that the message handlers don't hold the I/O processors. null if the
+	 * handlers run on the I/O processors.
+	 */
+	protected final ExecutorFilter _executorFilter;
+
 	/**
 	 * Creates a new AbstractConnection.
 	 * 
@@ -54,12 +67,37 @@ public abstract class AbstractConnection
 		_connectionList = connectionList;
 		// creating filter
 		_protocolCodecFilter = new ProtocolCodecFilter(
-				new ObjectSerializationCodecFactory());
+				createCodecFactory(_networkConfiguration.getCodecType()));
 		_keepAliveFilter = new KeepAliveFilter(
 				new ActiveKeepAliveMessageFactory(), IdleStatus.READER_IDLE);
 		_keepAliveFilter.setRequestInterval(_networkConfiguration
 				.getKeepAliveRequestInterval());
 		_keepAliveFilter.setRequestTimeout(_networkConfiguration
 				.getKeepAliveRequestTimeout());
+		final Executor workerExecutor = _connectionList.getWorkerExecutor();
+		_executorFilter = workerExecutor == null ? null : new ExecutorFilter(
+				workerExecutor);
+	}
+
+	/**
+	 * Creates the {@link ProtocolCodecFactory} used to encode and decode the
+	 * messages.
+	 * 
+	 * @param codecType
+	 *            the type of codec to use.
+	 * @return the {@link ProtocolCodecFactory} used to encode and decode the
+	 *         messages.
+	 */
+	private static ProtocolCodecFactory createCodecFactory(
+			final CodecType codecType)
+	{
+		switch (codecType)
+		{
+		case SERIALIZATION:
+			return new ObjectSerializationCodecFactory();
+		case BINARY:
+		default:
+			return new BinaryCodecFactory();
+		}
 	}
 }
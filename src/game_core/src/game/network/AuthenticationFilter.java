@@ -1,6 +1,5 @@
 package game.network;
 
-import game.network.config.INetworkConfiguration;
 import game.network.config.RegistrationType;
 import game.network.config.WrongAuthenticationException;
 import game.network.messages.AbstractMessage;
@@ -12,7 +11,18 @@ import game.network.messages.RegistrationErrorMessage;
 import game.network.messages.RequestAuthenticationMessage;
 import game.network.messages.WrongAuthenticationMessage;
 
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import org.apache.mina.core.filterchain.IoFilterAdapter;
+import org.apache.mina.core.session.AttributeKey;
 import org.apache.mina.core.session.IoSession;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -21,7 +31,10 @@ import org.slf4j.LoggerFactory;
  * An IoFilter which check, when a message is received, whether the connection
  * has been authenticated. If it hasn't ask for authentication and drop the
  * message. Authentication and registration message are delegated to a
- * ClientAuthenticator.
+ * ClientAuthenticator, on threads of its own so that a slow authentication
+ * doesn't hold the I/O processor of the session. The reads of the session are
+ * suspended until the authentication ends, the messages already decoded are
+ * kept and handled after it, in order.
  * 
  * @author benobiwan
  * 
@@ -34,6 +47,19 @@ public final class AuthenticationFilter extends IoFilterAdapter
 	private static final Logger LOGGER = LoggerFactory
 			.getLogger(AuthenticationFilter.class);
 
+	/**
+	 * Number of threads authenticating the clients.
+	 */
+	private static final int AUTHENTICATION_THREADS = Runtime.getRuntime()
+			.availableProcessors();
+
+	/**
+	 * Key of the attribute holding the {@link PendingAuthentication} of the
+	 * sessions being authenticated.
+	 */
+	private static final AttributeKey PENDING_AUTHENTICATION_KEY = new AttributeKey(
+			AuthenticationFilter.class, "pendingAuthentication");
+
 	/**
 	 * ClientAuthenticator object used to authenticate clients.
 	 */
@@ -48,6 +74,13 @@ public final class AuthenticationFilter extends IoFilterAdapter
 	 */
 	private final RequestAuthenticationMessage _requestMessage;
 
+	/**
+	 * Executor running the authentications. Each session has at most one
+	 * authentication pending, so its queue is bounded by the number of
+	 * sessions.
+	 */
+	private final Executor _authenticationExecutor;
+
 	/**
 	 * Create a new AuthenticationFilter.
 	 * 
@@ -63,6 +96,28 @@ public final class AuthenticationFilter extends IoFilterAdapter
 		_connectionList = distantPeerList;
 		_requestMessage = new RequestAuthenticationMessage(
 				_clientAuth.getRegistrationType());
+		final ThreadPoolExecutor executor = new ThreadPoolExecutor(
+				AUTHENTICATION_THREADS, AUTHENTICATION_THREADS, 60,
+				TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(),
+				new ThreadFactory()
+				{
+					/**
+					 * Number of threads created.
+					 */
+					private final AtomicInteger _threadCount = new AtomicInteger();
+
+					@Override
+					public Thread newThread(final Runnable runnable)
+					{
+						final Thread thread = new Thread(runnable,
+								"Authentication-"
+										+ _threadCount.incrementAndGet());
+						thread.setDaemon(true);
+						return thread;
+					}
+				});
+		executor.allowCoreThreadTimeOut(true);
+		_authenticationExecutor = executor;
 	}
 
 	/**
@@ -93,8 +148,7 @@ public final class AuthenticationFilter extends IoFilterAdapter
 	public void sessionClosed(final NextFilter nextFilter,
 			final IoSession session)
 	{
-		final DistantGameClient cli = ((DistantGameClient) session
-				.getAttribute(INetworkConfiguration.PEER_ATTRIBUTE));
+		final DistantGameClient cli = PeerAttribute.CLIENT.get(session);
 		if (cli != null)
 		{
 			_connectionList.markClientAsDisconnected(cli);
@@ -106,67 +160,56 @@ public final class AuthenticationFilter extends IoFilterAdapter
 	public void messageReceived(final NextFilter nextFilter,
 			final IoSession session, final Object message)
 	{
-		DistantGameClient cli = ((DistantGameClient) session
-				.getAttribute(INetworkConfiguration.PEER_ATTRIBUTE));
+		final PendingAuthentication pending = (PendingAuthentication) session
+				.getAttribute(PENDING_AUTHENTICATION_KEY);
+		if (pending != null && pending.offer(message))
+		{
+			return;
+		}
+		handleMessage(nextFilter, session, message, true);
+	}
+
+	/**
+	 * Handle a message received by a session.
+	 * 
+	 * @param nextFilter
+	 *            the next filter of the chain of the session.
+	 * @param session
+	 *            the session.
+	 * @param message
+	 *            the message.
+	 * @param bAsync
+	 *            true to run the authentication on the authentication
+	 *            threads, false if the caller is one of them.
+	 */
+	void handleMessage(final NextFilter nextFilter, final IoSession session,
+			final Object message, final boolean bAsync)
+	{
+		final DistantGameClient cli = PeerAttribute.CLIENT.get(session);
 		final MessageType type = ((AbstractMessage) message).getMessageType();
 
-		if (type == MessageType.AUTHENTICATE
+		if ((type == MessageType.AUTHENTICATE
 				&& message instanceof AuthenticateMessage)
+				|| (type == MessageType.REGISTER
+				&& message instanceof RegisterMessage))
 		{
 			if (LOGGER.isDebugEnabled())
 			{
-				LOGGER.debug(((AbstractMessage) message).getMessageType()
-						.toString());
+				LOGGER.debug(type.toString());
 			}
-			final AuthenticateMessage mess = (AuthenticateMessage) message;
-			if (cli == null)
-			{
-				try
-				{
-					cli = _clientAuth.authenticateClient(session, mess.getId(),
-							mess.getAuth(), mess.getConnectionId());
-					session.setAttribute(INetworkConfiguration.PEER_ATTRIBUTE,
-							cli);
-					session.write(new AuthenticationSuccessfulMessage(cli
-							.getConnectionId().longValue()));
-				}
-				catch (final WrongAuthenticationException e)
-				{
-					session.write(new WrongAuthenticationMessage(e.getMessage()));
-				}
-			}
-			else
-			{
-				// TODO received an AuthenticateMessage but already
-				// Authenticated
-			}
-		}
-		else if (type == MessageType.REGISTER
-				&& message instanceof RegisterMessage)
-		{
-			if (LOGGER.isDebugEnabled())
+			if (cli != null)
 			{
-				LOGGER.debug(((AbstractMessage) message).getMessageType()
-						.toString());
+				// TODO received an AuthenticateMessage or a RegisterMessage
+				// but already Authenticated
 			}
-			final RegisterMessage mess = (RegisterMessage) message;
-			if (cli == null)
+			else if (bAsync)
 			{
-				try
-				{
-					cli = _clientAuth.registerClient(session, mess.getId(),
-							mess.getAuth());
-					session.setAttribute(INetworkConfiguration.PEER_ATTRIBUTE,
-							cli);
-				}
-				catch (final WrongAuthenticationException e)
-				{
-					session.write(new RegistrationErrorMessage(e.getMessage()));
-				}
+				startAuthentication(nextFilter, session,
+						(AbstractMessage) message);
 			}
 			else
 			{
-				// TODO received an RegisterMessage but already Authenticated
+				authenticate(session, (AbstractMessage) message);
 			}
 		}
 		else
@@ -185,4 +228,185 @@ public final class AuthenticationFilter extends IoFilterAdapter
 			}
 		}
 	}
+
+	/**
+	 * Suspend the reads of a session and authenticate it on the
+	 * authentication threads. Once authenticated, the messages received in
+	 * the meantime are handled and the reads resumed.
+	 * 
+	 * @param nextFilter
+	 *            the next filter of the chain of the session.
+	 * @param session
+	 *            the session.
+	 * @param message
+	 *            the AuthenticateMessage or RegisterMessage.
+	 */
+	private void startAuthentication(final NextFilter nextFilter,
+			final IoSession session, final AbstractMessage message)
+	{
+		final PendingAuthentication pending = new PendingAuthentication();
+		session.setAttribute(PENDING_AUTHENTICATION_KEY, pending);
+		session.suspendRead();
+		try
+		{
+			_authenticationExecutor.execute(new Runnable()
+			{
+				@Override
+				public void run()
+				{
+					try
+					{
+						authenticate(session, message);
+						Object nextMessage;
+						while ((nextMessage = pending.poll()) != null)
+						{
+							handleMessage(nextFilter, session, nextMessage,
+									false);
+						}
+						// a message received once the pending authentication
+						// is done may start another one, which then resumes
+						// the reads.
+						if (session.removeAttribute(
+								PENDING_AUTHENTICATION_KEY, pending))
+						{
+							session.resumeRead();
+						}
+					}
+					catch (final RuntimeException e)
+					{
+						LOGGER.error("Authentication of session "
+								+ session.getId() + " failed.", e);
+						session.close(true);
+					}
+				}
+			});
+		}
+		catch (final RejectedExecutionException e)
+		{
+			LOGGER.error("Can't authenticate session " + session.getId()
+					+ ".", e);
+			session.close(true);
+		}
+	}
+
+	/**
+	 * Authenticate or register a session and answer the client.
+	 * 
+	 * @param session
+	 *            the session.
+	 * @param message
+	 *            the AuthenticateMessage or RegisterMessage.
+	 */
+	void authenticate(final IoSession session, final AbstractMessage message)
+	{
+		if (message instanceof AuthenticateMessage)
+		{
+			final AuthenticateMessage mess = (AuthenticateMessage) message;
+			try
+			{
+				final DistantGameClient cli = _clientAuth.authenticateClient(
+						session, mess.getId(), mess.getAuth(),
+						mess.getConnectionId());
+				setClient(session, cli);
+				session.write(new AuthenticationSuccessfulMessage(cli
+						.getConnectionId().longValue()));
+			}
+			catch (final WrongAuthenticationException e)
+			{
+				session.write(new WrongAuthenticationMessage(e.getMessage()));
+			}
+		}
+		else
+		{
+			final RegisterMessage mess = (RegisterMessage) message;
+			try
+			{
+				setClient(session, _clientAuth.registerClient(session,
+						mess.getId(), mess.getAuth()));
+			}
+			catch (final WrongAuthenticationException e)
+			{
+				session.write(new RegistrationErrorMessage(e.getMessage()));
+			}
+		}
+	}
+
+	/**
+	 * Attach an authenticated client to its session.
+	 * 
+	 * @param session
+	 *            the session.
+	 * @param cli
+	 *            the client.
+	 */
+	private void setClient(final IoSession session,
+			final DistantGameClient cli)
+	{
+		PeerAttribute.CLIENT.set(session, cli);
+		// the session may have been closed during the authentication, before
+		// the client could be marked as disconnected by sessionClosed.
+		if (session.isClosing())
+		{
+			_connectionList.markClientAsDisconnected(cli);
+		}
+	}
+
+	/**
+	 * The messages received by a session during its authentication.
+	 */
+	private static final class PendingAuthentication
+	{
+		/**
+		 * The messages, in order of reception.
+		 */
+		private final Queue<Object> _messageQueue = new ArrayDeque<>();
+
+		/**
+		 * Whether the authentication and the handling of the messages
+		 * received meanwhile ended.
+		 */
+		private boolean _bDone;
+
+		/**
+		 * Creates a new PendingAuthentication.
+		 */
+		PendingAuthentication()
+		{
+			// nothing to do
+		}
+
+		/**
+		 * Keep a message received during the authentication.
+		 * 
+		 * @param message
+		 *            the message.
+		 * @return false if the authentication ended, the message must be
+		 *         handled by the caller.
+		 */
+		synchronized boolean offer(final Object message)
+		{
+			if (_bDone)
+			{
+				return false;
+			}
+			_messageQueue.add(message);
+			return true;
+		}
+
+		/**
+		 * Get the next message received during the authentication.
+		 * 
+		 * @return the next message, null if there is none left, in which case
+		 *         the authentication is ended.
+		 */
+		synchronized Object poll()
+		{
+			final Object message = _messageQueue.poll();
+			if (message == null)
+			{
+				_bDone = true;
+			}
+			return message;
+		}
+	}
 }
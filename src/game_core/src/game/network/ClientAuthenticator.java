@@ -9,13 +9,21 @@ import org.apache.mina.core.session.IoSession;
 
 /**
  * A ClientAuthenticator is responsible for authenticating clients. It can work
- * in three different mode depending of its configuration.
+ * in three different mode depending of its configuration. The clients with
+ * the same name are authenticated one at a time, clients with different
+ * names are authenticated concurrently, so that a slow credential check only
+ * delays the clients sharing its lock.
  * 
  * @author benobiwan
  * 
  */
 public final class ClientAuthenticator
 {
+	/**
+	 * Number of locks the client names are spread over, a power of two.
+	 */
+	private static final int NAME_LOCKS = 64;
+
 	/**
 	 * DistantPeerList object containing the list of all connected clients.
 	 */
@@ -42,6 +50,11 @@ public final class ClientAuthenticator
 	 */
 	private final Object _lockNextId = new Object();
 
+	/**
+	 * Locks serializing the authentication of the clients with the same name.
+	 */
+	private final Object[] _nameLocks = new Object[NAME_LOCKS];
+
 	/**
 	 * Create a new ClientAuthenticator.
 	 * 
@@ -57,6 +70,10 @@ public final class ClientAuthenticator
 		_connectionList = distantPeerList;
 		_lNextId = System.currentTimeMillis();
 		_rand = new Random();
+		for (int i = 0; i < NAME_LOCKS; i++)
+		{
+			_nameLocks[i] = new Object();
+		}
 	}
 
 	/**
@@ -86,10 +103,37 @@ public final class ClientAuthenticator
 	 * @throws WrongAuthenticationException
 	 *             the Client object could not be created.
 	 */
-	public synchronized DistantGameClient authenticateClient(
-			final IoSession session, final String strName,
-			final String strAuth, final Long lConnectionId)
-			throws WrongAuthenticationException
+	public DistantGameClient authenticateClient(final IoSession session,
+			final String strName, final String strAuth,
+			final Long lConnectionId) throws WrongAuthenticationException
+	{
+		synchronized (getNameLock(strName))
+		{
+			return authenticate(session, strName, strAuth, lConnectionId);
+		}
+	}
+
+	/**
+	 * Authenticate a new client and return the created Client object, the
+	 * lock of its name being held.
+	 * 
+	 * @param session
+	 *            the IoSession describing the connection to the client.
+	 * @param strName
+	 *            the id of new client.
+	 * @param strAuth
+	 *            the authentication String of the new client if it tries to
+	 *            authenticate itself.
+	 * @param lConnectionId
+	 *            the anonymous connection id of the client if it tries to
+	 *            recover a severed anonymous connection.
+	 * @return the created Client object.
+	 * @throws WrongAuthenticationException
+	 *             the Client object could not be created.
+	 */
+	private DistantGameClient authenticate(final IoSession session,
+			final String strName, final String strAuth,
+			final Long lConnectionId) throws WrongAuthenticationException
 	{
 		DistantGameClient cli;
 		if (strAuth == null)
@@ -111,7 +155,9 @@ public final class ClientAuthenticator
 						throw new WrongAuthenticationException(
 								"Name not matching.");
 					}
+					checkLostEvents(cli);
 					cli.closeAndChangeSession(session);
+					_connectionList.unmarkClientAsDisconnected(cli);
 					return cli;
 				}
 				// if there is no connection with this id, continue as normal
@@ -121,7 +167,8 @@ public final class ClientAuthenticator
 				throw new WrongAuthenticationException("Name not available.");
 			}
 			final Long newId = generateNextConnectionId();
-			cli = new DistantGameClient(session, strName, newId);
+			cli = new DistantGameClient(session, strName, newId,
+					_connectionList.createOutboundEventQueue());
 		}
 		else
 		{
@@ -139,15 +186,38 @@ public final class ClientAuthenticator
 			cli = _connectionList.getUnregisteredClient(lConnectionId);
 			if (cli != null)
 			{
+				checkLostEvents(cli);
 				cli.closeAndChangeSession(session);
+				_connectionList.unmarkClientAsDisconnected(cli);
 				return cli;
 			}
-			cli = new DistantGameClient(session, strName);
+			cli = new DistantGameClient(session, strName,
+					_connectionList.createOutboundEventQueue());
 		}
 		_connectionList.addClient(cli);
 		return cli;
 	}
 
+	/**
+	 * Check whether a client can recover its connection: it can't if events
+	 * sent to it were lost, it is then removed.
+	 * 
+	 * @param cli
+	 *            the client recovering its connection.
+	 * @throws WrongAuthenticationException
+	 *             if events sent to the client were lost.
+	 */
+	private void checkLostEvents(final DistantGameClient cli)
+			throws WrongAuthenticationException
+	{
+		if (cli.hasLostEvents())
+		{
+			_connectionList.removeClient(cli);
+			throw new WrongAuthenticationException(
+					"Events were lost, the connection can't be recovered.");
+		}
+	}
+
 	/**
 	 * Function to call when an unregistered client want to authenticate itself
 	 * to check whether the name is available. Could also be used in the
@@ -223,12 +293,30 @@ public final class ClientAuthenticator
 	 *             an error occured during the registration of this client.
 	 */
 	@SuppressWarnings("unused")
-	public synchronized DistantGameClient registerClient(
-			final IoSession session, final String strName, final String strAuth)
+	public DistantGameClient registerClient(final IoSession session,
+			final String strName, final String strAuth)
 			throws WrongAuthenticationException
 	{
-		// TODO à completer quand on pourra s'enregistrer.
-		return new DistantGameClient(session, strName);
+		synchronized (getNameLock(strName))
+		{
+			// TODO à completer quand on pourra s'enregistrer.
+			return new DistantGameClient(session, strName,
+					_connectionList.createOutboundEventQueue());
+		}
+	}
+
+	/**
+	 * Get the lock serializing the authentication of the clients with the
+	 * given name.
+	 * 
+	 * @param strName
+	 *            the name of the client, may be null.
+	 * @return the lock of the name.
+	 */
+	private Object getNameLock(final String strName)
+	{
+		final int iHash = strName == null ? 0 : strName.hashCode();
+		return _nameLocks[(iHash ^ (iHash >>> 16)) & (NAME_LOCKS - 1)];
 	}
 
 	/**
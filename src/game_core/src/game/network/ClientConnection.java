@@ -4,14 +4,22 @@ import game.common.IGameClient;
 import game.network.config.INetworkClientConfigurationElement;
 import game.network.config.INetworkConfiguration;
 
+import java.util.concurrent.TimeUnit;
+
 import org.apache.mina.core.future.ConnectFuture;
+import org.apache.mina.core.future.IoFutureListener;
 import org.apache.mina.core.session.IoSession;
+import org.apache.mina.core.session.IoSessionInitializer;
 import org.apache.mina.transport.socket.nio.NioSocketConnector;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
- * Object describing a connection attempt to a distant server.
+ * Object holding the socket connector used to connect to the distant servers.
+ * A single ClientConnection is shared by all the {@link DistantGameServer} of
+ * a {@link ConnectionList}, so that the number of selectors and I/O threads
+ * doesn't grow with the number of servers. Each session is attached to its
+ * server when it is created.
  * 
  * @author benobiwan
  * 
@@ -29,82 +37,113 @@ public final class ClientConnection extends AbstractConnection
 	 */
 	private final ClientHandler _clientHandler;
 
-	/**
-	 * Configuration object used to connect to this server.
-	 */
-	private final INetworkClientConfigurationElement _networkClientConfiguration;
-
 	/**
 	 * the local game client, used to register the server.
 	 */
 	private final IGameClient _locGameClient;
 
 	/**
-	 * Socket for the connection to the distant server.
+	 * Connector used for the connections to the distant servers.
 	 */
 	private final NioSocketConnector _connection;
 
 	/**
+	 * Creates a new ClientConnection.
 	 * 
 	 * @param networkConfiguration
 	 *            the network configuration.
 	 * @param connectionList
 	 *            list of all the network connections of this host.
-	 * @param networkClientConfiguration
-	 *            the client configuration holding the information to connect to
-	 *            the server.
 	 * @param locGameClient
 	 *            the local game client.
 	 */
-	public ClientConnection(
-			final INetworkConfiguration networkConfiguration,
+	public ClientConnection(final INetworkConfiguration networkConfiguration,
 			final ConnectionList connectionList,
-			final INetworkClientConfigurationElement networkClientConfiguration,
 			final IGameClient locGameClient)
 	{
 		super(networkConfiguration, connectionList);
 		_locGameClient = locGameClient;
-		_networkClientConfiguration = networkClientConfiguration;
 		_clientHandler = new ClientHandler(_networkConfiguration,
 				_connectionList, _locGameClient);
-		_connection = new NioSocketConnector();
+		final int iIoProcessorCount = _networkConfiguration
+				.getIoProcessorCount();
+		_connection = iIoProcessorCount == 0 ? new NioSocketConnector()
+				: new NioSocketConnector(iIoProcessorCount);
 		// Basic configuration
-		// _connection.getSessionConfig().setReadBufferSize(
-		// _networkConfiguration.getBufferSize());
-		// _connection.getSessionConfig().setSendBufferSize(
-		// _networkConfiguration.getBufferSize());
+		SocketTuning.configure(_connection,
+				_connectionList.getNetworkTuningConfiguration());
 		// Add filters
 		_connection.getFilterChain().addLast("codec", _protocolCodecFilter);
 		_connection.getFilterChain().addLast("keepalive", _keepAliveFilter);
+		if (_executorFilter != null)
+		{
+			_connection.getFilterChain().addLast("executor", _executorFilter);
+		}
 		// Add Handler
 		_connection.setHandler(_clientHandler);
 	}
 
 	/**
-	 * Connect to the distant server.
+	 * Connect to the distant server. The server is attached to the session
+	 * before any message is received on it. A connection established after
+	 * the timeout is closed.
 	 * 
+	 * @param server
+	 *            the distant server, attached to the created session.
+	 * @param networkClientConfiguration
+	 *            the client configuration holding the information to connect
+	 *            to the server.
 	 * @param lTimeout
-	 *            the timeout to use for this connection attempt.
+	 *            the timeout in seconds to use for this connection attempt.
 	 * @return the IoSession describing the connection with the server. null if
 	 *         the connection wasn't established.
 	 * @throws InterruptedException
 	 *             if the connection attempt was interrupted.
 	 */
-	public IoSession connect(@SuppressWarnings("unused") final long lTimeout)
-			throws InterruptedException
+	public IoSession connect(final DistantGameServer server,
+			final INetworkClientConfigurationElement networkClientConfiguration,
+			final long lTimeout) throws InterruptedException
 	{
 		if (LOGGER.isDebugEnabled())
 		{
 			LOGGER.debug("connect");
 		}
-		final ConnectFuture connect = _connection
-				.connect(_networkClientConfiguration.getRemoteAddress());
-		connect.await();
-		// connect.await(lTimeout)
-		// if (!connect.isConnected())
-		// {
-		// connect.cancel();
-		// }
+		final ConnectFuture connect = _connection.connect(
+				networkClientConfiguration.getRemoteAddress(),
+				new IoSessionInitializer<ConnectFuture>()
+				{
+					@Override
+					public void initializeSession(final IoSession session,
+							final ConnectFuture future)
+					{
+						PeerAttribute.SERVER.set(session, server);
+					}
+				});
+		if (!connect.await(lTimeout, TimeUnit.SECONDS))
+		{
+			// the connection may be established before it is cancelled, its
+			// session would then be left open with the server attached.
+			connect.cancel();
+			connect.addListener(new IoFutureListener<ConnectFuture>()
+			{
+				@Override
+				public void operationComplete(final ConnectFuture future)
+				{
+					if (future.isConnected())
+					{
+						future.getSession().close(true);
+					}
+				}
+			});
+			LOGGER.warn("Connection to " + server.getName() + " timed out.");
+			return null;
+		}
+		if (!connect.isConnected())
+		{
+			LOGGER.warn("Connection to " + server.getName() + " failed.",
+					connect.getException());
+			return null;
+		}
 		return connect.getSession();
 	}
 }
@@ -1,17 +1,20 @@
 package game.network;
 
 import game.common.IGameClient;
+import game.communication.event.AbstractEvent;
+import game.communication.event.IRetargetableEvent;
 import game.communication.event.InconsistentEventTypeException;
 import game.network.config.INetworkConfiguration;
 import game.network.config.RegistrationType;
 import game.network.messages.AbstractMessage;
 import game.network.messages.AuthenticateMessage;
 import game.network.messages.AuthenticationSuccessfulMessage;
+import game.network.messages.GameEventBatchMessage;
+import game.network.messages.GameEventFanOutMessage;
 import game.network.messages.GameEventMessage;
 import game.network.messages.MessageType;
 import game.network.messages.RegistrationErrorMessage;
 import game.network.messages.RequestAuthenticationMessage;
-import game.network.messages.UnexpectedMessage;
 import game.network.messages.WrongAuthenticationMessage;
 
 import org.apache.mina.core.session.IoSession;
@@ -37,6 +40,11 @@ public final class ClientHandler extends NetworkHandler
 	 */
 	private final IGameClient _localClient;
 
+	/**
+	 * Table dispatching the received messages to their handler.
+	 */
+	private final MessageDispatcher<DistantGameServer> _dispatcher;
+
 	/**
 	 * Create a new ClientHandler.
 	 * 
@@ -52,6 +60,91 @@ public final class ClientHandler extends NetworkHandler
 	{
 		super(networkConfiguration, connectionList);
 		_localClient = localClient;
+		_dispatcher = new MessageDispatcher<>();
+		_dispatcher.register(MessageType.GAME_EVENT,
+				GameEventMessage.class,
+				new IMessageHandler<DistantGameServer, GameEventMessage>()
+				{
+					@Override
+					public void messageReceived(final IoSession session,
+							final DistantGameServer server,
+							final GameEventMessage message)
+					{
+						handleMessage(session, server, message);
+					}
+				});
+		_dispatcher.register(MessageType.GAME_EVENT_BATCH,
+				GameEventBatchMessage.class,
+				new IMessageHandler<DistantGameServer, GameEventBatchMessage>()
+				{
+					@Override
+					public void messageReceived(final IoSession session,
+							final DistantGameServer server,
+							final GameEventBatchMessage message)
+					{
+						handleMessage(session, server, message);
+					}
+				});
+		_dispatcher.register(MessageType.GAME_EVENT_FAN_OUT,
+				GameEventFanOutMessage.class,
+				new IMessageHandler<DistantGameServer, GameEventFanOutMessage>()
+				{
+					@Override
+					public void messageReceived(final IoSession session,
+							final DistantGameServer server,
+							final GameEventFanOutMessage message)
+					{
+						handleMessage(session, server, message);
+					}
+				});
+		_dispatcher.register(MessageType.AUTHENTICATION_SUCCESSFUL,
+				AuthenticationSuccessfulMessage.class,
+				new IMessageHandler<DistantGameServer, AuthenticationSuccessfulMessage>()
+				{
+					@Override
+					public void messageReceived(final IoSession session,
+							final DistantGameServer server,
+							final AuthenticationSuccessfulMessage message)
+					{
+						handleMessage(session, server, message);
+					}
+				});
+		_dispatcher.register(MessageType.REQUEST_AUTHENTICATION,
+				RequestAuthenticationMessage.class,
+				new IMessageHandler<DistantGameServer, RequestAuthenticationMessage>()
+				{
+					@Override
+					public void messageReceived(final IoSession session,
+							final DistantGameServer server,
+							final RequestAuthenticationMessage message)
+					{
+						handleMessage(session, server, message);
+					}
+				});
+		_dispatcher.register(MessageType.WRONG_AUTHENTICATION,
+				WrongAuthenticationMessage.class,
+				new IMessageHandler<DistantGameServer, WrongAuthenticationMessage>()
+				{
+					@Override
+					public void messageReceived(final IoSession session,
+							final DistantGameServer server,
+							final WrongAuthenticationMessage message)
+					{
+						handleMessage(session, server, message);
+					}
+				});
+		_dispatcher.register(MessageType.REGISTRATION_ERROR,
+				RegistrationErrorMessage.class,
+				new IMessageHandler<DistantGameServer, RegistrationErrorMessage>()
+				{
+					@Override
+					public void messageReceived(final IoSession session,
+							final DistantGameServer server,
+							final RegistrationErrorMessage message)
+					{
+						handleMessage(session, server, message);
+					}
+				});
 	}
 
 	@Override
@@ -59,99 +152,24 @@ public final class ClientHandler extends NetworkHandler
 	{
 		if (message instanceof AbstractMessage)
 		{
+			final AbstractMessage mess = (AbstractMessage) message;
 			if (LOGGER.isDebugEnabled())
 			{
-				LOGGER.debug(((AbstractMessage) message).getMessageType()
-						.toString());
+				LOGGER.debug("Received {}", mess.getMessageType());
 			}
-			// load the DistantGameServer attribute
-			final Object attribute = session
-					.getAttribute(INetworkConfiguration.PEER_ATTRIBUTE);
-			if (attribute != null && attribute instanceof DistantGameServer)
+			final DistantGameServer server = PeerAttribute.SERVER.get(session);
+			if (server == null)
 			{
-				final DistantGameServer server = (DistantGameServer) attribute;
-				try
-				{
-					// select action based on message type
-					switch (((AbstractMessage) message).getMessageType())
-					{
-					case GAME_EVENT:
-						if (message instanceof GameEventMessage)
-						{
-							handleMessage(session, server,
-									(GameEventMessage) message);
-						}
-						else
-						{
-							throw new InconsistentMessageTypeException(
-									MessageType.GAME_EVENT, message.getClass());
-						}
-						break;
-					case AUTHENTICATION_SUCCESSFUL:
-						if (message instanceof AuthenticationSuccessfulMessage)
-						{
-							handleMessage(session, server,
-									(AuthenticationSuccessfulMessage) message);
-						}
-						else
-						{
-							throw new InconsistentMessageTypeException(
-									MessageType.AUTHENTICATION_SUCCESSFUL,
-									message.getClass());
-						}
-						break;
-					case REQUEST_AUTHENTICATION:
-						if (message instanceof RequestAuthenticationMessage)
-						{
-							handleMessage(session, server,
-									(RequestAuthenticationMessage) message);
-						}
-						else
-						{
-							throw new InconsistentMessageTypeException(
-									MessageType.REQUEST_AUTHENTICATION,
-									message.getClass());
-						}
-						break;
-					case WRONG_AUTHENTICATION:
-						if (message instanceof WrongAuthenticationMessage)
-						{
-							handleMessage(session, server,
-									(WrongAuthenticationMessage) message);
-						}
-						else
-						{
-							throw new InconsistentMessageTypeException(
-									MessageType.WRONG_AUTHENTICATION,
-									message.getClass());
-						}
-						break;
-					case REGISTRATION_ERROR:
-						if (message instanceof RegistrationErrorMessage)
-						{
-							handleMessage(session, server,
-									(RegistrationErrorMessage) message);
-						}
-						else
-						{
-							throw new InconsistentMessageTypeException(
-									MessageType.REGISTRATION_ERROR,
-									message.getClass());
-						}
-						break;
-					default:
-						session.write(new UnexpectedMessage());
-						break;
-					}
-				}
-				catch (final InconsistentMessageTypeException e)
-				{
-					LOGGER.error(e.getMessage());
-				}
+				LOGGER.error("IoSession doesn't have an attached DistantGameServer, should never happen.");
+				return;
 			}
-			else
+			try
 			{
-				LOGGER.error("IoSession doesn't have an attached DistantGameServer, should never happen.");
+				_dispatcher.dispatch(session, server, mess);
+			}
+			catch (final InconsistentMessageTypeException e)
+			{
+				LOGGER.error(e.getMessage());
 			}
 		}
 	}
@@ -180,6 +198,68 @@ public final class ClientHandler extends NetworkHandler
 		}
 	}
 
+	/**
+	 * Handle a {@link GameEventBatchMessage}.
+	 * 
+	 * @param session
+	 *            the {@link IoSession} on which we received the message.
+	 * @param server
+	 *            the distant server which send the message.
+	 * @param message
+	 *            the received message.
+	 */
+	private void handleMessage(
+			@SuppressWarnings("unused") final IoSession session,
+			final DistantGameServer server, final GameEventBatchMessage message)
+	{
+		for (final AbstractEvent event : message.getEventList())
+		{
+			try
+			{
+				_localClient.handleEvent(server, event);
+			}
+			catch (final InconsistentEventTypeException e)
+			{
+				LOGGER.error(e.getLocalizedMessage(), e);
+			}
+		}
+	}
+
+	/**
+	 * Handle a {@link GameEventFanOutMessage}. The binary decoder only
+	 * accepts the events which can be sent to several players, the other
+	 * codecs don't check them: a message holding any other event is dropped.
+	 * 
+	 * @param session
+	 *            the {@link IoSession} on which we received the message.
+	 * @param server
+	 *            the distant server which send the message.
+	 * @param message
+	 *            the received message.
+	 */
+	private void handleMessage(
+			@SuppressWarnings("unused") final IoSession session,
+			final DistantGameServer server, final GameEventFanOutMessage message)
+	{
+		final AbstractEvent event = message.getEvent();
+		if (!(event instanceof IRetargetableEvent))
+		{
+			LOGGER.error("Dropping a message from server " + server.getName()
+					+ ", its event can't be sent to several players: "
+					+ event);
+			return;
+		}
+		try
+		{
+			_localClient.handleFanOutEvent(server,
+					(IRetargetableEvent) event, message.getPlayerIds());
+		}
+		catch (final InconsistentEventTypeException e)
+		{
+			LOGGER.error(e.getLocalizedMessage(), e);
+		}
+	}
+
 	/**
 	 * Handle a {@link AuthenticationSuccessfulMessage}.
 	 * 
@@ -1,20 +1,35 @@
 package game.network;
 
+import game.common.AbstractTimeout;
+import game.common.HashedWheelTimer;
 import game.common.IGameClient;
 import game.common.IGameServer;
 import game.network.config.INetworkClientConfigurationElement;
 import game.network.config.INetworkClientConfigurationList;
 import game.network.config.INetworkConfiguration;
 import game.network.config.INetworkServerConfiguration;
+import game.network.config.INetworkTuningConfiguration;
 
-import java.util.Observable;
-import java.util.Timer;
-import java.util.TimerTask;
-import java.util.Vector;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.ConcurrentSkipListMap;
 import java.util.concurrent.ConcurrentSkipListSet;
-
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.mina.core.session.IoEvent;
 import org.apache.mina.core.session.IoSession;
+import org.apache.mina.filter.executor.IoEventQueueHandler;
+import org.apache.mina.filter.executor.OrderedThreadPoolExecutor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -25,7 +40,7 @@ import org.slf4j.LoggerFactory;
  * @author benobiwan
  * 
  */
-public final class ConnectionList extends Observable
+public final class ConnectionList
 {
 	/**
 	 * Logger object.
@@ -34,14 +49,35 @@ public final class ConnectionList extends Observable
 			.getLogger(ConnectionList.class);
 
 	/**
-	 * Map containing all session ordered by there id.
+	 * Interval in milliseconds between two notifications of the listeners.
+	 */
+	private static final long NOTIFICATION_INTERVAL = 200;
+
+	/**
+	 * Duration in seconds of a tick of the disconnection timer.
+	 */
+	private static final long DISCONNECTION_TICK_DURATION = 1;
+
+	/**
+	 * Number of buckets of the wheel of the disconnection timer.
+	 */
+	private static final int DISCONNECTION_WHEEL_SIZE = 512;
+
+	/**
+	 * Time in seconds an idle worker thread is kept.
+	 */
+	private static final long WORKER_KEEP_ALIVE = 60;
+
+	/**
+	 * Number of threads writing the events queued for the distant clients.
 	 */
-	private final ConcurrentSkipListMap<Long, IoSession> _ioSessionListById = new ConcurrentSkipListMap<>();
+	private static final int FLUSH_THREADS = Runtime.getRuntime()
+			.availableProcessors();
 
 	/**
-	 * List of all {@link IoSession} in the order they where added to this list.
+	 * Registry of all the sessions.
 	 */
-	private final Vector<IoSession> _ioSessionListByIndex = new Vector<>();
+	private final SessionRegistry _sessionRegistry = new SessionRegistry();
 
 	/**
 	 * A map containing all current servers.
@@ -52,7 +88,7 @@ public final class ConnectionList extends Observable
 	 * List of all {@link IGameServer} in the order they where added to this
 	 * list.
 	 */
-	private final Vector<IGameServer> _gameServerListByIndex = new Vector<>();
+	private final CopyOnWriteArrayList<IGameServer> _gameServerListByIndex = new CopyOnWriteArrayList<>();
 
 	/**
 	 * A map containing all current clients.
@@ -78,15 +114,39 @@ public final class ConnectionList extends Observable
 	protected final ConcurrentSkipListSet<DistantGameClient> _disconnectedClientList = new ConcurrentSkipListSet<>();
 
 	/**
-	 * A TimerTask used to check whether a disconnected client has reached is
-	 * timeout, and if it his the case, remove all it's information.
+	 * The timer removing the information of the disconnected clients when
+	 * they reach their timeout.
 	 */
-	private final DisconnectionChecker _disconnectionChecker;
+	private final HashedWheelTimer _disconnectionTimer;
 
 	/**
-	 * The timer used to scan the disconnected client list.
+	 * Scheduler flushing the events queued for the distant clients,
+	 * notifying the listeners and removing the expired clients.
 	 */
-	private final Timer _disconnectionTimer;
+	private final ScheduledExecutorService _scheduler;
+
+	/**
+	 * Executor writing the events queued for the distant clients, so that
+	 * they are encoded in parallel rather than on the scheduler thread.
+	 */
+	private final ThreadPoolExecutor _flushExecutor;
+
+	/**
+	 * Executor running the message handlers of all the connections, in order
+	 * for each session. null if the handlers run on the I/O processors.
+	 */
+	private final ThreadPoolExecutor _workerExecutor;
+
+	/**
+	 * Connector shared by the connections to the distant servers, null until
+	 * the first connection.
+	 */
+	private ClientConnection _clientConnection;
+
+	/**
+	 * Lock protecting the creation of the shared connector.
+	 */
+	private final Object _lockClientConnection = new Object();
 
 	/**
 	 * The server configuration.
@@ -103,11 +163,63 @@ public final class ConnectionList extends Observable
 	 */
 	private final INetworkConfiguration _networkConfiguration;
 
+	/**
+	 * Socket options of the connections.
+	 */
+	private final INetworkTuningConfiguration _networkTuningConfiguration;
+
+	/**
+	 * Local game server.
+	 */
+	private final IGameServer _locGameServer;
+
 	/**
 	 * Local game client.
 	 */
 	private final IGameClient _locGameClient;
 
+	/**
+	 * Runtime metrics of the network.
+	 */
+	private final NetworkMetrics _metrics;
+
+	/**
+	 * Listeners notified of the changes of the list.
+	 */
+	private final CopyOnWriteArrayList<IConnectionListListener> _listenerList = new CopyOnWriteArrayList<>();
+
+	/**
+	 * Lock protecting the changes waiting to be notified.
+	 */
+	private final Object _notificationLock = new Object();
+
+	/**
+	 * Sessions added since the last notification, by id.
+	 */
+	private final Map<Long, IoSession> _addedSessionMap = new LinkedHashMap<>();
+
+	/**
+	 * Sessions removed since the last notification, by id.
+	 */
+	private final Map<Long, IoSession> _removedSessionMap = new LinkedHashMap<>();
+
+	/**
+	 * Whether a notification of the listeners is already scheduled.
+	 */
+	private boolean _bNotificationScheduled = false;
+
+	/**
+	 * Task notifying the listeners.
+	 */
+	private final Runnable _notificationTask = new Runnable()
+	{
+		@Override
+		public void run()
+		{
+			notifyListeners();
+		}
+	};
+
 	/**
 	 * Creates a new ConnectionList.
 	 * 
@@ -117,6 +229,8 @@ public final class ConnectionList extends Observable
 	 * @param networkServerConfiguration
 	 *            the NetworkServerConfiguration to use.
 	 * @param networkClientConfigurationList
+	 * @param networkTuningConfiguration
+	 *            the socket options of the connections.
 	 * @param locGameServer
 	 *            the local game server.
 	 * @param locGameClient
@@ -126,27 +240,49 @@ public final class ConnectionList extends Observable
 			final INetworkConfiguration networkConfiguration,
 			final INetworkServerConfiguration networkServerConfiguration,
 			final INetworkClientConfigurationList networkClientConfigurationList,
+			final INetworkTuningConfiguration networkTuningConfiguration,
 			final IGameServer locGameServer, final IGameClient locGameClient)
 	{
 		_networkServerConfiguration = networkServerConfiguration;
 		_networkClientConfigurationList = networkClientConfigurationList;
 		_networkConfiguration = networkConfiguration;
+		_networkTuningConfiguration = networkTuningConfiguration;
+		_locGameServer = locGameServer;
 		_locGameClient = locGameClient;
+		_metrics = new NetworkMetrics(this);
 
-		_disconnectionChecker = new DisconnectionChecker(
-				_networkServerConfiguration.getClientConnectionTimeout());
-		_disconnectionTimer = new Timer("Disconnection Timer", true);
-		// makes checks four time more frequent than the allowed timeout
-		final int iCheckPeriod = _networkServerConfiguration
-				.getClientConnectionTimeout() * 250;
-		_disconnectionTimer.scheduleAtFixedRate(_disconnectionChecker,
-				iCheckPeriod, iCheckPeriod);
+		_scheduler = Executors
+				.newSingleThreadScheduledExecutor(new ThreadFactory()
+				{
+					@Override
+					public Thread newThread(final Runnable runnable)
+					{
+						final Thread thread = new Thread(runnable,
+								"Connection List Scheduler");
+						thread.setDaemon(true);
+						return thread;
+					}
+				});
+		_disconnectionTimer = new HashedWheelTimer("Disconnection Timer",
+				DISCONNECTION_TICK_DURATION, TimeUnit.SECONDS,
+				DISCONNECTION_WHEEL_SIZE, _scheduler);
+		_flushExecutor = createFlushExecutor();
+		_workerExecutor = createWorkerExecutor(_networkConfiguration
+				.getWorkerThreadCount());
+		_scheduler.scheduleAtFixedRate(new Runnable()
+		{
+			@Override
+			public void run()
+			{
+				_metrics.sample();
+			}
+		}, 1, 1, TimeUnit.SECONDS);
 		_gameServerListByIndex.add(locGameServer);
 		for (final INetworkClientConfigurationElement confElement : _networkClientConfigurationList
 				.getElements())
 		{
 			final DistantGameServer server = new DistantGameServer(
-					_networkConfiguration, this, confElement, locGameClient);
+					_networkConfiguration, this, confElement);
 			_gameServerListByIndex.add(server);
 			_distantServerList.put(server.getName(), server);
 		}
@@ -174,6 +310,18 @@ public final class ConnectionList extends Observable
 		return _distantServerList.get(strServerName);
 	}
 
+	/**
+	 * Create the queue holding the events to send to a new distant client.
+	 * 
+	 * @return the queue holding the events to send to a new distant client.
+	 */
+	public OutboundEventQueue createOutboundEventQueue()
+	{
+		return new OutboundEventQueue(_scheduler, _flushExecutor,
+				_networkServerConfiguration.getEventFlushInterval(),
+				_metrics);
+	}
+
 	/**
 	 * Add a new DistantGameClient to the list.
 	 * 
@@ -198,7 +346,8 @@ public final class ConnectionList extends Observable
 	}
 
 	/**
-	 * Remove a Client from the Client list.
+	 * Remove a Client from the Client list. The client is lost: it stops
+	 * receiving events and is unsubscribed from the lobby of the local server.
 	 * 
 	 * @param client
 	 *            the Client to remove.
@@ -215,6 +364,7 @@ public final class ConnectionList extends Observable
 			_notRegisteredClientIdList.remove(client.getConnectionId());
 			_disconnectedClientList.remove(client);
 		}
+		client.clientLost(_locGameServer);
 	}
 
 	/**
@@ -254,7 +404,8 @@ public final class ConnectionList extends Observable
 	}
 
 	/**
-	 * Mark a client as disconnected.
+	 * Mark a client as disconnected. Its information is removed if it doesn't
+	 * reconnect before the client connection timeout.
 	 * 
 	 * @param client
 	 *            the disconnected client.
@@ -266,6 +417,11 @@ public final class ConnectionList extends Observable
 			LOGGER.debug("Client marked as disconnected : " + client.getName());
 		}
 		_disconnectedClientList.add(client);
+		final DisconnectionTimeout timeout = new DisconnectionTimeout(client);
+		client.setDisconnectionTimeout(timeout);
+		_disconnectionTimer.schedule(timeout,
+				_networkServerConfiguration.getClientConnectionTimeout(),
+				TimeUnit.SECONDS);
 	}
 
 	/**
@@ -280,6 +436,7 @@ public final class ConnectionList extends Observable
 		{
 			LOGGER.debug("Client marked as reconnected : " + client.getName());
 		}
+		client.cancelDisconnectionTimeout();
 		_disconnectedClientList.remove(client);
 	}
 
@@ -301,45 +458,130 @@ public final class ConnectionList extends Observable
 	 */
 	public void addIoSession(final IoSession session)
 	{
-		synchronized (_ioSessionListByIndex)
+		if (LOGGER.isDebugEnabled())
 		{
-			if (LOGGER.isDebugEnabled())
+			LOGGER.debug("Adding IoSession id : " + session.getId());
+		}
+		if (_sessionRegistry.add(session))
+		{
+			sessionChanged(session, true);
+		}
+		else
+		{
+			LOGGER.error("Session " + session.getId() + " duplicated???");
+		}
+	}
+
+	/**
+	 * Remove an IOSession from the list.
+	 * 
+	 * @param session
+	 *            the session to remove.
+	 */
+	public void removeIoSession(final IoSession session)
+	{
+		if (LOGGER.isDebugEnabled())
+		{
+			LOGGER.debug("Removing IoSession id : " + session.getId());
+		}
+		if (_sessionRegistry.remove(session))
+		{
+			_metrics.sessionClosed(session);
+			sessionChanged(session, false);
+		}
+	}
+
+	/**
+	 * Add a listener notified of the changes of the list.
+	 * 
+	 * @param listener
+	 *            the listener to add.
+	 */
+	public void addListener(final IConnectionListListener listener)
+	{
+		_listenerList.addIfAbsent(listener);
+	}
+
+	/**
+	 * Remove a listener notified of the changes of the list.
+	 * 
+	 * @param listener
+	 *            the listener to remove.
+	 */
+	public void removeListener(final IConnectionListListener listener)
+	{
+		_listenerList.remove(listener);
+	}
+
+	/**
+	 * Record a change of the list to notify it to the listeners with the
+	 * next batch. A session removed before its addition was notified
+	 * disappears from the batch.
+	 * 
+	 * @param session
+	 *            the session added or removed.
+	 * @param bAdded
+	 *            true if the session was added, false if it was removed.
+	 */
+	private void sessionChanged(final IoSession session, final boolean bAdded)
+	{
+		if (_listenerList.isEmpty())
+		{
+			return;
+		}
+		final Long sessionId = Long.valueOf(session.getId());
+		synchronized (_notificationLock)
+		{
+			if (bAdded)
 			{
-				LOGGER.debug("Adding IoSession id : " + session.getId());
+				_addedSessionMap.put(sessionId, session);
 			}
-			if (_ioSessionListById.containsKey(Long.valueOf(session.getId())))
+			else if (_addedSessionMap.remove(sessionId) == null)
 			{
-				LOGGER.error("Session " + session.getId() + " duplicated???");
+				_removedSessionMap.put(sessionId, session);
 			}
-			else
+			if (!_bNotificationScheduled)
 			{
-				_ioSessionListById.put(Long.valueOf(session.getId()), session);
-				_ioSessionListByIndex.add(session);
+				_bNotificationScheduled = true;
+				_scheduler.schedule(_notificationTask, NOTIFICATION_INTERVAL,
+						TimeUnit.MILLISECONDS);
 			}
 		}
-		setChanged();
-		notifyObservers();
 	}
 
 	/**
-	 * Remove an IOSession from the list.
-	 * 
-	 * @param session
-	 *            the session to remove.
+	 * Notify the listeners of the changes recorded since the previous
+	 * notification.
 	 */
-	public void removeIoSession(final IoSession session)
+	private void notifyListeners()
 	{
-		synchronized (_ioSessionListByIndex)
+		final List<IoSession> addedSessionList;
+		final List<IoSession> removedSessionList;
+		synchronized (_notificationLock)
 		{
-			if (LOGGER.isDebugEnabled())
+			_bNotificationScheduled = false;
+			addedSessionList = new ArrayList<>(_addedSessionMap.values());
+			removedSessionList = new ArrayList<>(_removedSessionMap.values());
+			_addedSessionMap.clear();
+			_removedSessionMap.clear();
+		}
+		if (addedSessionList.isEmpty() && removedSessionList.isEmpty())
+		{
+			return;
+		}
+		for (final IConnectionListListener listener : _listenerList)
+		{
+			try
 			{
-				LOGGER.debug("Removing IoSession id : " + session.getId());
+				listener.sessionsChanged(
+						Collections.unmodifiableList(addedSessionList),
+						Collections.unmodifiableList(removedSessionList));
+			}
+			catch (final RuntimeException e)
+			{
+				LOGGER.error(e.getLocalizedMessage(), e);
 			}
-			_ioSessionListById.remove(Long.valueOf(session.getId()));
-			_ioSessionListByIndex.remove(session);
 		}
-		setChanged();
-		notifyObservers();
 	}
 
 	/**
@@ -349,19 +591,174 @@ public final class ConnectionList extends Observable
 	 */
 	public int getNumberOfSessions()
 	{
-		return _ioSessionListByIndex.size();
+		return _sessionRegistry.size();
 	}
 
 	/**
-	 * Get the IoSession at the specified index.
+	 * Get a snapshot of all the IoSession, in the order of their id. The
+	 * snapshot is shared until a session is added or removed, it mustn't be
+	 * modified.
 	 * 
-	 * @param iIndex
-	 *            the index of the desired IoSession.
-	 * @return the IoSession at the specified index.
+	 * @return the IoSession.
+	 */
+	public List<IoSession> getIoSessions()
+	{
+		return _sessionRegistry.getSnapshot();
+	}
+
+	/**
+	 * Get an estimation of the memory used to register the IoSession.
+	 * 
+	 * @return the estimated number of bytes used to register the IoSession.
+	 */
+	public long getSessionRegistryMemory()
+	{
+		return _sessionRegistry.getEstimatedMemory();
+	}
+
+	/**
+	 * Get the executor running the message handlers of the connections.
+	 * 
+	 * @return the executor running the message handlers, null if they run on
+	 *         the I/O processors.
+	 */
+	public ThreadPoolExecutor getWorkerExecutor()
+	{
+		return _workerExecutor;
+	}
+
+	/**
+	 * Get the connector shared by the connections to the distant servers,
+	 * creating it on the first call.
+	 * 
+	 * @return the connector shared by the connections to the distant servers.
 	 */
-	public IoSession getIoSessionAtIndex(final int iIndex)
+	public ClientConnection getClientConnection()
 	{
-		return _ioSessionListByIndex.get(iIndex);
+		synchronized (_lockClientConnection)
+		{
+			if (_clientConnection == null)
+			{
+				_clientConnection = new ClientConnection(_networkConfiguration,
+						this, _locGameClient);
+			}
+			return _clientConnection;
+		}
+	}
+
+	/**
+	 * Creates the executor writing the events queued for the distant clients.
+	 * 
+	 * @return the executor.
+	 */
+	private static ThreadPoolExecutor createFlushExecutor()
+	{
+		final ThreadPoolExecutor executor = new ThreadPoolExecutor(
+				FLUSH_THREADS, FLUSH_THREADS, WORKER_KEEP_ALIVE,
+				TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(),
+				new ThreadFactory()
+				{
+					/**
+					 * Number of threads created.
+					 */
+					private final AtomicInteger _threadCount = new AtomicInteger();
+
+					@Override
+					public Thread newThread(final Runnable runnable)
+					{
+						final Thread thread = new Thread(runnable, "Flusher-"
+								+ _threadCount.incrementAndGet());
+						thread.setDaemon(true);
+						return thread;
+					}
+				});
+		executor.allowCoreThreadTimeOut(true);
+		return executor;
+	}
+
+	/**
+	 * Creates the executor running the message handlers of the connections.
+	 * The events waiting in its queues are counted by the metrics.
+	 * 
+	 * @param iThreadCount
+	 *            the maximum number of threads of the executor.
+	 * @return the executor, null if the thread count is 0.
+	 */
+	private ThreadPoolExecutor createWorkerExecutor(final int iThreadCount)
+	{
+		if (iThreadCount == 0)
+		{
+			return null;
+		}
+		return new OrderedThreadPoolExecutor(0, iThreadCount,
+				WORKER_KEEP_ALIVE, TimeUnit.SECONDS, new ThreadFactory()
+				{
+					/**
+					 * Number of threads created.
+					 */
+					private final AtomicInteger _threadCount = new AtomicInteger();
+
+					@Override
+					public Thread newThread(final Runnable runnable)
+					{
+						final Thread thread = new Thread(runnable, "Worker-"
+								+ _threadCount.incrementAndGet());
+						thread.setDaemon(true);
+						return thread;
+					}
+				}, new IoEventQueueHandler()
+				{
+					@Override
+					public boolean accept(final Object source,
+							final IoEvent event)
+					{
+						return true;
+					}
+
+					@Override
+					public void offered(final Object source,
+							final IoEvent event)
+					{
+						_metrics.workerEventQueued();
+					}
+
+					@Override
+					public void polled(final Object source, final IoEvent event)
+					{
+						_metrics.workerEventDequeued();
+					}
+				});
+	}
+
+	/**
+	 * Get the socket options of the connections.
+	 * 
+	 * @return the socket options of the connections.
+	 */
+	public INetworkTuningConfiguration getNetworkTuningConfiguration()
+	{
+		return _networkTuningConfiguration;
+	}
+
+	/**
+	 * Get the runtime metrics of the network.
+	 * 
+	 * @return the runtime metrics of the network.
+	 */
+	public NetworkMetrics getMetrics()
+	{
+		return _metrics;
+	}
+
+	/**
+	 * Get a snapshot of all the {@link IGameServer}, in the order they where
+	 * added to the list.
+	 * 
+	 * @return the {@link IGameServer}.
+	 */
+	public List<IGameServer> getServers()
+	{
+		return new ArrayList<>(_gameServerListByIndex);
 	}
 
 	/**
@@ -377,70 +774,47 @@ public final class ConnectionList extends Observable
 	}
 
 	/**
-	 * An internal class used to check whether a disconnected client has reached
-	 * is timeout, and if it his the case, remove all it's information.
+	 * Timeout removing the information of a disconnected client which didn't
+	 * reconnect in time.
 	 * 
 	 * @author benobiwan
 	 * 
 	 */
-	private final class DisconnectionChecker extends TimerTask
+	private final class DisconnectionTimeout extends AbstractTimeout
 	{
 		/**
-		 * The time in milliseconds a client informations are kept after his
-		 * connection as been marked as lost. (transformed in milliseconds in
-		 * the constructor)
+		 * The disconnected client.
 		 */
-		private final long _lClientMaxConnectionTimeout;
+		private final DistantGameClient _client;
 
 		/**
-		 * Create a new DiconnectionChecker.
+		 * Creates a new DisconnectionTimeout.
 		 * 
-		 * @param lClientMaxConnectionTimeout
-		 *            the time in seconds a client informations are kept after
-		 *            his connection as been marked as lost. (transformed in
-		 *            milliseconds in the constructor)
+		 * @param client
+		 *            the disconnected client.
 		 */
-		public DisconnectionChecker(final long lClientMaxConnectionTimeout)
+		public DisconnectionTimeout(final DistantGameClient client)
 		{
 			super();
-			_lClientMaxConnectionTimeout = lClientMaxConnectionTimeout * 1000;
+			_client = client;
 		}
 
 		@Override
-		public void run()
+		protected void expire()
 		{
-			if (LOGGER.isDebugEnabled())
+			// the client may have reconnected, and even disconnected again,
+			// since the timeout was scheduled.
+			if (!_client.clearDisconnectionTimeout(this)
+					|| _client.isConnected())
 			{
-				LOGGER.debug("DiconnectionChecker launched.");
+				return;
 			}
-			final long lAllowedDisconnectionTime = System.currentTimeMillis()
-					- _lClientMaxConnectionTimeout;
-			for (final DistantGameClient client : _disconnectedClientList)
+			if (LOGGER.isDebugEnabled())
 			{
-				if (client.isConnected())
-				{
-					if (LOGGER.isDebugEnabled())
-					{
-						LOGGER.debug(client.getName()
-								+ " removed from disconnected list.");
-					}
-					_disconnectedClientList.remove(client);
-				}
-				else
-				{
-					if (client.getDisconnectionTime() < lAllowedDisconnectionTime)
-					{
-						if (LOGGER.isDebugEnabled())
-						{
-							LOGGER.debug(client.getName()
-									+ " has reached is timeout, removing.");
-						}
-						client.clientLost();
-						removeClient(client);
-					}
-				}
+				LOGGER.debug(_client.getName()
+						+ " has reached is timeout, removing.");
 			}
-
+			removeClient(_client);
 		}
 	}
 }
@@ -0,0 +1,217 @@
+package game.network;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.mina.core.filterchain.IoFilterAdapter;
+import org.apache.mina.core.session.AttributeKey;
+import org.apache.mina.core.session.IoSession;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A IoFilter limiting the rate of the connections from each address with a
+ * token bucket. An address can open a burst of connections, then regains one
+ * connection every allowed interval. The buckets are kept in a bounded number
+ * of striped LRU maps: the addresses not seen for a long time are forgotten,
+ * which only gives them a full bucket back, and connections from different
+ * addresses rarely contend on the same lock.
+ * 
+ * @author benobiwan
+ * 
+ */
+public final class ConnectionRateFilter extends IoFilterAdapter
+{
+	/**
+	 * Logger object.
+	 */
+	private static final Logger LOGGER = LoggerFactory
+			.getLogger(ConnectionRateFilter.class);
+
+	/**
+	 * Number of stripes, a power of two.
+	 */
+	private static final int STRIPES = 16;
+
+	/**
+	 * Maximum number of addresses remembered by each stripe.
+	 */
+	private static final int ADDRESSES_PER_STRIPE = 1024;
+
+	/**
+	 * Key of the attribute marking the throttled sessions.
+	 */
+	private static final AttributeKey THROTTLED_KEY = new AttributeKey(
+			ConnectionRateFilter.class, "throttled");
+
+	/**
+	 * The stripes, each one mapping addresses to the time at which their
+	 * bucket is full again, in nanoseconds.
+	 */
+	private final Stripe[] _stripes = new Stripe[STRIPES];
+
+	/**
+	 * Time in nanoseconds needed to regain a connection.
+	 */
+	private final long _lRefillInterval;
+
+	/**
+	 * Time in nanoseconds needed to fill an empty bucket minus the time
+	 * needed to regain a connection: the bucket holds at least one connection
+	 * while it is less than this far from being full.
+	 */
+	private final long _lBurstWindow;
+
+	/**
+	 * Runtime metrics of the network part of the server.
+	 */
+	private final NetworkMetrics _metrics;
+
+	/**
+	 * Creates a new ConnectionRateFilter.
+	 * 
+	 * @param lAllowedInterval
+	 *            the interval in milliseconds needed by an address to regain
+	 *            a connection.
+	 * @param iBurst
+	 *            the number of connections an address can open in a burst.
+	 * @param metrics
+	 *            runtime metrics of the network part of the server.
+	 */
+	public ConnectionRateFilter(final long lAllowedInterval,
+			final int iBurst, final NetworkMetrics metrics)
+	{
+		if (iBurst < 1)
+		{
+			throw new IllegalArgumentException("Invalid burst: " + iBurst);
+		}
+		_lRefillInterval = TimeUnit.MILLISECONDS.toNanos(lAllowedInterval);
+		_lBurstWindow = _lRefillInterval * (iBurst - 1);
+		_metrics = metrics;
+		for (int i = 0; i < STRIPES; i++)
+		{
+			_stripes[i] = new Stripe();
+		}
+	}
+
+	/**
+	 * Take a connection from the bucket of an address.
+	 * 
+	 * @param address
+	 *            the address.
+	 * @return false if the bucket of the address is empty.
+	 */
+	boolean tryAcquire(final InetAddress address)
+	{
+		final int iHash = address.hashCode();
+		final Stripe stripe = _stripes[(iHash ^ (iHash >>> 16))
+				& (STRIPES - 1)];
+		final long lNow = System.nanoTime();
+		synchronized (stripe)
+		{
+			final Long fullTime = stripe.get(address);
+			long lFullTime = fullTime == null ? lNow : fullTime.longValue();
+			if (lFullTime - lNow > _lBurstWindow)
+			{
+				return false;
+			}
+			if (lFullTime - lNow < 0)
+			{
+				lFullTime = lNow;
+			}
+			stripe.put(address, Long.valueOf(lFullTime + _lRefillInterval));
+			return true;
+		}
+	}
+
+	/**
+	 * Get the number of addresses remembered.
+	 * 
+	 * @return the number of addresses remembered.
+	 */
+	public int getAddressCount()
+	{
+		int iCount = 0;
+		for (final Stripe stripe : _stripes)
+		{
+			synchronized (stripe)
+			{
+				iCount += stripe.size();
+			}
+		}
+		return iCount;
+	}
+
+	@Override
+	public void sessionCreated(final NextFilter nextFilter,
+			final IoSession session)
+	{
+		final SocketAddress remoteAddress = session.getRemoteAddress();
+		if (!(remoteAddress instanceof InetSocketAddress)
+				|| tryAcquire(((InetSocketAddress) remoteAddress)
+						.getAddress()))
+		{
+			nextFilter.sessionCreated(session);
+			return;
+		}
+		if (LOGGER.isDebugEnabled())
+		{
+			LOGGER.debug("Connections from " + remoteAddress
+					+ " are too frequent, closing session " + session.getId()
+					+ ".");
+		}
+		_metrics.connectionThrottled();
+		session.setAttribute(THROTTLED_KEY, Boolean.TRUE);
+		session.close(true);
+	}
+
+	@Override
+	public void sessionOpened(final NextFilter nextFilter,
+			final IoSession session)
+	{
+		if (!session.containsAttribute(THROTTLED_KEY))
+		{
+			nextFilter.sessionOpened(session);
+		}
+	}
+
+	@Override
+	public void messageReceived(final NextFilter nextFilter,
+			final IoSession session, final Object message)
+	{
+		if (!session.containsAttribute(THROTTLED_KEY))
+		{
+			nextFilter.messageReceived(session, message);
+		}
+	}
+
+	/**
+	 * LRU map of the buckets of a stripe.
+	 */
+	private static final class Stripe extends LinkedHashMap<InetAddress, Long>
+	{
+		/**
+		 * serialVersionUID for Serialization.
+		 */
+		private static final long serialVersionUID = 1L;
+
+		/**
+		 * Creates a new Stripe.
+		 */
+		Stripe()
+		{
+			super(16, 0.75f, true);
+		}
+
+		@Override
+		protected boolean removeEldestEntry(
+				final Map.Entry<InetAddress, Long> eldest)
+		{
+			return size() > ADDRESSES_PER_STRIPE;
+		}
+	}
+}
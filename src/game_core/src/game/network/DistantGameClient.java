@@ -1,14 +1,21 @@
 package game.network;
 
+import game.common.AbstractTimeout;
 import game.common.IGameClient;
 import game.common.IGameServer;
+import game.common.PlayerIndex;
+import game.communication.action.InconsistentActionTypeException;
+import game.communication.action.control.SubscribeServerStateCtrlAction;
+import game.communication.event.AbstractEvent;
 import game.communication.event.IEvent;
+import game.communication.event.IRetargetableEvent;
 import game.gameserver.IServerSidePlayer;
-import game.network.config.INetworkConfiguration;
 
-import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicReference;
 
 import org.apache.mina.core.session.IoSession;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * An object describing a distant client to which the server is connected.
@@ -18,6 +25,12 @@ import org.apache.mina.core.session.IoSession;
  */
 public final class DistantGameClient extends DistantPeer implements IGameClient
 {
+	/**
+	 * Logger object.
+	 */
+	private static final Logger LOGGER = LoggerFactory
+			.getLogger(DistantGameClient.class);
+
 	/**
 	 * The connection id associated with this client. Used only if it is
 	 * unregistered, equal to 0 otherwise.
@@ -39,7 +52,24 @@ public final class DistantGameClient extends DistantPeer implements IGameClient
 	/**
 	 * List of server side player on this client.
 	 */
-	private final ConcurrentSkipListMap<Integer, IServerSidePlayer<?>> _serverSidePlayerList = new ConcurrentSkipListMap<>();
+	private final PlayerIndex<IServerSidePlayer<?>> _serverSidePlayerList = new PlayerIndex<>();
+
+	/**
+	 * Queue holding the events to send to this client.
+	 */
+	private final OutboundEventQueue _eventQueue;
+
+	/**
+	 * The timeout removing this client if it doesn't reconnect in time, null
+	 * if the client is connected.
+	 */
+	private final AtomicReference<AbstractTimeout> _disconnectionTimeout = new AtomicReference<>();
+
+	/**
+	 * A boolean indicating whether this client is lost, the events sent to a
+	 * lost client are dropped.
+	 */
+	private volatile boolean _bLost;
 
 	/**
 	 * Create a new unregistered client.
@@ -50,13 +80,17 @@ public final class DistantGameClient extends DistantPeer implements IGameClient
 	 *            the id (name) of this client.
 	 * @param lConnectionId
 	 *            the connection id of this unregistered client.
+	 * @param eventQueue
+	 *            the queue holding the events to send to this client.
 	 */
 	public DistantGameClient(final IoSession ioSession, final String strId,
-			final Long lConnectionId)
+			final Long lConnectionId, final OutboundEventQueue eventQueue)
 	{
 		super(ioSession, strId);
 		_lConnectionId = lConnectionId;
 		_bRegistered = false;
+		_eventQueue = eventQueue;
+		_eventQueue.setSession(ioSession);
 	}
 
 	/**
@@ -66,19 +100,54 @@ public final class DistantGameClient extends DistantPeer implements IGameClient
 	 *            the IoSession associated with this client connection.
 	 * @param strId
 	 *            the id (name) of this client.
+	 * @param eventQueue
+	 *            the queue holding the events to send to this client.
 	 */
-	public DistantGameClient(final IoSession ioSession, final String strId)
+	public DistantGameClient(final IoSession ioSession, final String strId,
+			final OutboundEventQueue eventQueue)
 	{
 		super(ioSession, strId);
 		_lConnectionId = Long.valueOf(0);
 		_bRegistered = true;
+		_eventQueue = eventQueue;
+		_eventQueue.setSession(ioSession);
 	}
 
 	@Override
 	public void handleEvent(final IGameServer server, final IEvent evt)
 	{
-		// TODO send the event to the distant client
+		if (_bLost)
+		{
+			return;
+		}
+		if (evt instanceof AbstractEvent)
+		{
+			_eventQueue.enqueue((AbstractEvent) evt);
+		}
+		else
+		{
+			LOGGER.error("Can't send event of class " + evt.getClass()
+					+ " to " + _strName);
+		}
+	}
 
+	@Override
+	public void handleFanOutEvent(final IGameServer server,
+			final IRetargetableEvent evt, final int[] playerIds)
+	{
+		if (_bLost)
+		{
+			return;
+		}
+		if (evt instanceof AbstractEvent)
+		{
+			_eventQueue.enqueue((AbstractEvent) evt, playerIds);
+		}
+		else
+		{
+			LOGGER.error("Can't send event of class " + evt.getClass()
+					+ " to " + _strName);
+		}
 	}
 
 	@Override
@@ -135,10 +204,38 @@ public final class DistantGameClient extends DistantPeer implements IGameClient
 	 * Method called when the connection to the client is severed, and there is
 	 * no hope of him reconnecting (the timeout value has been reached, the
 	 * client has disconnected properly, the client was kicked from this server.
+	 * The client is unsubscribed from the lobby of the local server and the
+	 * events still delivered to it are dropped.
+	 * 
+	 * @param locGameServer
+	 *            the local game server.
 	 */
-	public void clientLost()
+	public void clientLost(final IGameServer locGameServer)
 	{
-		// TODO Auto-generated method stub
+		_bLost = true;
+		_eventQueue.clear();
+		try
+		{
+			locGameServer.handleAction(this,
+					new SubscribeServerStateCtrlAction(false));
+		}
+		catch (final InconsistentActionTypeException e)
+		{
+			LOGGER.error("Can't unsubscribe " + _strName + " from the lobby.",
+					e);
+		}
+	}
+
+	/**
+	 * Check whether events sent to this client were lost, because it was
+	 * disconnected for too long or too slow to read them. Such a client can't
+	 * recover its connection.
+	 * 
+	 * @return true if events sent to this client were lost.
+	 */
+	public boolean hasLostEvents()
+	{
+		return _eventQueue.hasLostEvents();
 	}
 
 	/**
@@ -152,6 +249,45 @@ public final class DistantGameClient extends DistantPeer implements IGameClient
 		return _lDisconnectionTime;
 	}
 
+	/**
+	 * Set the timeout removing this client if it doesn't reconnect in time.
+	 * The previous timeout, if any, is cancelled.
+	 * 
+	 * @param timeout
+	 *            the new timeout.
+	 */
+	void setDisconnectionTimeout(final AbstractTimeout timeout)
+	{
+		final AbstractTimeout previous = _disconnectionTimeout
+				.getAndSet(timeout);
+		if (previous != null)
+		{
+			previous.cancel();
+		}
+	}
+
+	/**
+	 * Cancel the timeout removing this client, if any. Called when the client
+	 * reconnects.
+	 */
+	void cancelDisconnectionTimeout()
+	{
+		setDisconnectionTimeout(null);
+	}
+
+	/**
+	 * Forget the timeout removing this client when it expires.
+	 * 
+	 * @param timeout
+	 *            the expired timeout.
+	 * @return false if the timeout was replaced in the meantime, in which case
+	 *         it must be ignored.
+	 */
+	boolean clearDisconnectionTimeout(final AbstractTimeout timeout)
+	{
+		return _disconnectionTimeout.compareAndSet(timeout, null);
+	}
+
 	/**
 	 * Get the connection id associated with this client. Equal to 0 if the
 	 * client is registered.
@@ -195,37 +331,38 @@ public final class DistantGameClient extends DistantPeer implements IGameClient
 	public void closeAndChangeSession(final IoSession newSession)
 	{
 		_lDisconnectionTime = Long.MAX_VALUE;
+		cancelDisconnectionTimeout();
 		if (_ioSession != null)
 		{
-			_ioSession.removeAttribute(INetworkConfiguration.PEER_ATTRIBUTE);
+			PeerAttribute.CLIENT.remove(_ioSession);
 			_ioSession.close(true);
 		}
 		_ioSession = newSession;
+		_eventQueue.setSession(newSession);
 	}
 
 	@Override
 	public IServerSidePlayer<?> getServerSidePlayer(final int iPlayerId)
 	{
-		return _serverSidePlayerList.get(Integer.valueOf(iPlayerId));
+		return _serverSidePlayerList.get(iPlayerId);
 	}
 
 	@Override
 	public void addServerSidePlayer(final IServerSidePlayer<?> player)
 	{
-		_serverSidePlayerList.put(Integer.valueOf(player.getId()), player);
+		_serverSidePlayerList.put(player.getId(), player);
 	}
 
 	@Override
 	public void removeServerSidePlayer(final IServerSidePlayer<?> player)
 	{
-		_serverSidePlayerList.remove(Integer.valueOf(player.getId()));
+		_serverSidePlayerList.remove(player.getId());
 	}
 
 	@Override
 	public boolean containServerSidePlayer(final IServerSidePlayer<?> player)
 	{
-		return _serverSidePlayerList
-				.containsKey(Integer.valueOf(player.getId()));
+		return _serverSidePlayerList.containsKey(player.getId());
 	}
 
 	/*
@@ -3,15 +3,25 @@ package game.network;
 import game.common.IGameClient;
 import game.common.IGameDescription;
 import game.common.IGameServer;
+import game.communication.action.AbstractAction;
 import game.communication.action.IAction;
 import game.gameserver.IServerState;
 import game.network.config.INetworkClientConfigurationElement;
 import game.network.config.INetworkConfiguration;
+import game.network.messages.GameActionMessage;
 
 import java.net.InetSocketAddress;
 import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import org.apache.mina.core.future.DefaultWriteFuture;
+import org.apache.mina.core.future.IoFutureListener;
+import org.apache.mina.core.future.WriteFuture;
 import org.apache.mina.core.session.IoSession;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * An object describing a distant server to which the Client is connected.
@@ -21,6 +31,12 @@ import org.apache.mina.core.session.IoSession;
  */
 public final class DistantGameServer extends DistantPeer implements IGameServer
 {
+	/**
+	 * Logger object.
+	 */
+	private static final Logger LOGGER = LoggerFactory
+			.getLogger(DistantGameServer.class);
+
 	/**
 	 * The configuration describing the configuration to the server.
 	 */
@@ -39,10 +55,16 @@ public final class DistantGameServer extends DistantPeer implements IGameServer
 	private final boolean _bKeepConnection = true;
 
 	/**
-	 * Connection to the server.
+	 * Connector used to connect to the server, shared with the other servers.
+	 * null if no connection was established.
 	 */
 	private ClientConnection _connec;
 
+	/**
+	 * Lock serializing the connection attempts, protecting _connec.
+	 */
+	private final Object _lockConnection = new Object();
+
 	/**
 	 * Global network configuration.
 	 */
@@ -53,11 +75,6 @@ public final class DistantGameServer extends DistantPeer implements IGameServer
 	 */
 	private final ConnectionList _connectionList;
 
-	/**
-	 * Local game client.
-	 */
-	private final IGameClient _locGameClient;
-
 	/**
 	 * Lock for access to the {@link IServerState} object.
 	 */
@@ -68,6 +85,43 @@ public final class DistantGameServer extends DistantPeer implements IGameServer
 	 */
 	private IServerState _serverState;
 
+	/**
+	 * Permits bounding the number of actions waiting to be written.
+	 */
+	private final Semaphore _inFlightActions;
+
+	/**
+	 * Actions waiting for a permit, in the order they were submitted.
+	 */
+	private final ConcurrentLinkedQueue<WaitingAction> _waitingActions = new ConcurrentLinkedQueue<>();
+
+	/**
+	 * Number of actions waiting for a permit, bounded by
+	 * {@link INetworkConfiguration#getMaxActionsQueued()}.
+	 */
+	private final AtomicInteger _iWaitingCount = new AtomicInteger();
+
+	/**
+	 * Number of requests to write the waiting actions received since the
+	 * thread writing them started, 0 if no thread is writing them.
+	 */
+	private final AtomicInteger _iDrainRequests = new AtomicInteger();
+
+	/**
+	 * Listener giving back a permit when an action has been written, and
+	 * writing the next waiting action. When the write completes on the stack
+	 * of the thread writing the actions, that thread writes the next one.
+	 */
+	private final IoFutureListener<WriteFuture> _releaseListener = new IoFutureListener<WriteFuture>()
+	{
+		@Override
+		public void operationComplete(final WriteFuture future)
+		{
+			_inFlightActions.release();
+			writeWaitingActions();
+		}
+	};
+
 	/**
 	 * Create a new DistantGameServer.
 	 * 
@@ -77,26 +131,107 @@ public final class DistantGameServer extends DistantPeer implements IGameServer
 	 *            the list of all connections.
 	 * @param networkClientConfiguration
 	 *            the configuration describing the configuration to the server.
-	 * @param locGameClient
-	 *            the local game client.
 	 */
 	public DistantGameServer(
 			final INetworkConfiguration networkConfiguration,
 			final ConnectionList connectionList,
-			final INetworkClientConfigurationElement networkClientConfiguration,
-			final IGameClient locGameClient)
+			final INetworkClientConfigurationElement networkClientConfiguration)
 	{
 		super(networkClientConfiguration.getServerName());
 		_netClientConf = networkClientConfiguration;
 		_networkConfiguration = networkConfiguration;
 		_connectionList = connectionList;
-		_locGameClient = locGameClient;
+		_inFlightActions = new Semaphore(
+				_networkConfiguration.getMaxActionsInFlight());
 	}
 
 	@Override
 	public void handleAction(final IGameClient client, final IAction act)
 	{
-		// TODO Auto-generated method stub
+		if (act instanceof AbstractAction)
+		{
+			submitAction((AbstractAction) act);
+		}
+		else
+		{
+			LOGGER.error("Can't send action of class " + act.getClass()
+					+ " to " + _strName);
+		}
+	}
+
+	/**
+	 * Send an action to the server without waiting for the previous actions
+	 * to be written. At most {@link INetworkConfiguration#getMaxActionsInFlight()}
+	 * actions are in flight, handed to the session and not yet written to the
+	 * socket, at the same time. The answers of the server aren't waited for:
+	 * the window bounds the actions held by the session, not the round trips.
+	 * The next actions wait in a queue and are written, in order, as the
+	 * previous ones complete. When
+	 * {@link INetworkConfiguration#getMaxActionsQueued()} actions are already
+	 * waiting, the action is rejected: the returned future fails at once.
+	 * This method never blocks: it can be called from the I/O thread which
+	 * completes the writes.
+	 * 
+	 * @param act
+	 *            the action to send.
+	 * @return the future notified when the action has been written, or failed
+	 *         to be written.
+	 */
+	public WriteFuture submitAction(final AbstractAction act)
+	{
+		final IoSession session = _ioSession;
+		if (session == null || !session.isConnected())
+		{
+			return DefaultWriteFuture.newNotWrittenFuture(session,
+					new IllegalStateException("Not connected to " + _strName));
+		}
+		if (_iWaitingCount.incrementAndGet() > _networkConfiguration
+				.getMaxActionsQueued())
+		{
+			_iWaitingCount.decrementAndGet();
+			return DefaultWriteFuture.newNotWrittenFuture(session,
+					new IllegalStateException("Too many actions waiting for "
+							+ _strName));
+		}
+		final WaitingAction action = new WaitingAction(session, act);
+		_waitingActions.offer(action);
+		writeWaitingActions();
+		return action._future;
+	}
+
+	/**
+	 * Write the waiting actions while permits are available. A single thread
+	 * writes the actions at a time, so that they reach the session in the
+	 * order they were submitted: a thread asking for the actions to be
+	 * written while another one is writing them makes the latter loop once
+	 * more. A write completing on the stack of the writing thread thus
+	 * doesn't write the next action recursively.
+	 */
+	private void writeWaitingActions()
+	{
+		if (_iDrainRequests.getAndIncrement() != 0)
+		{
+			return;
+		}
+		int iRequests = 1;
+		do
+		{
+			while (!_waitingActions.isEmpty() && _inFlightActions.tryAcquire())
+			{
+				final WaitingAction action = _waitingActions.poll();
+				if (action == null)
+				{
+					_inFlightActions.release();
+				}
+				else
+				{
+					_iWaitingCount.decrementAndGet();
+					action.write();
+				}
+			}
+			iRequests = _iDrainRequests.addAndGet(-iRequests);
+		}
+		while (iRequests != 0);
 	}
 
 	@Override
@@ -196,26 +331,41 @@ public final class DistantGameServer extends DistantPeer implements IGameServer
 	}
 
 	/**
-	 * TODO Javadoc
+	 * Connect to the server if we aren't already connected. The connection
+	 * attempts are serialized: a thread calling this method during an attempt
+	 * waits for its end, at most
+	 * {@link INetworkConfiguration#getConnectTimeout()} seconds.
 	 * 
 	 * @throws InterruptedException
+	 *             if the connection attempt was interrupted.
 	 */
 	public void connect() throws InterruptedException
 	{
-		if (isConnected())
+		synchronized (_lockConnection)
 		{
-			return;
-		}
-		else if (_connec != null)
-		{
-			// TODO
-		}
-		else
-		{
-			_connec = new ClientConnection(_networkConfiguration,
-					_connectionList, _netClientConf, _locGameClient);
-			final IoSession session = _connec.connect(30);
-			session.setAttribute(INetworkConfiguration.PEER_ATTRIBUTE, this);
+			if (isConnected())
+			{
+				return;
+			}
+			else if (_connec != null)
+			{
+				// TODO
+			}
+			else
+			{
+				_connec = _connectionList.getClientConnection();
+				final IoSession session = _connec.connect(this,
+						_netClientConf,
+						_networkConfiguration.getConnectTimeout());
+				if (session == null)
+				{
+					_connec = null;
+				}
+				else
+				{
+					_ioSession = session;
+				}
+			}
 		}
 	}
 
@@ -257,4 +407,71 @@ public final class DistantGameServer extends DistantPeer implements IGameServer
 	 * handleEvent du LocalGameClient en filant le DistantGameServer concerné en
 	 * paramètre.
 	 */
+
+	/**
+	 * An action waiting for a permit, and the future returned to the caller
+	 * who submitted it.
+	 */
+	private final class WaitingAction implements IoFutureListener<WriteFuture>
+	{
+		/**
+		 * The session the action was submitted on.
+		 */
+		private final IoSession _session;
+
+		/**
+		 * The action.
+		 */
+		private final AbstractAction _action;
+
+		/**
+		 * The future returned to the caller.
+		 */
+		private final DefaultWriteFuture _future;
+
+		/**
+		 * Creates a new WaitingAction.
+		 * 
+		 * @param session
+		 *            the session the action was submitted on.
+		 * @param action
+		 *            the action.
+		 */
+		WaitingAction(final IoSession session, final AbstractAction action)
+		{
+			_session = session;
+			_action = action;
+			_future = new DefaultWriteFuture(session);
+		}
+
+		/**
+		 * Write the action to its session. Must be called holding a permit,
+		 * given back when the write completes.
+		 */
+		void write()
+		{
+			final WriteFuture future = _session.write(new GameActionMessage(
+					_action));
+			future.addListener(this);
+			future.addListener(_releaseListener);
+		}
+
+		@Override
+		public void operationComplete(final WriteFuture future)
+		{
+			if (future.isWritten())
+			{
+				_future.setWritten();
+			}
+			else if (future.getException() != null)
+			{
+				_future.setException(future.getException());
+			}
+			else
+			{
+				_future.setException(new IllegalStateException(
+						"Action not written to " + _strName));
+			}
+		}
+	}
 }
@@ -14,9 +14,9 @@ import org.apache.mina.core.session.IoSession;
 public abstract class DistantPeer extends Observable
 {
 	/**
-	 * The IoSession connecting to this DistantPeer.
+	 * The IoSession connecting to this DistantPeer, read by any thread.
 	 */
-	protected IoSession _ioSession;
+	protected volatile IoSession _ioSession;
 
 	/**
 	 * Name of this DistantPeer.
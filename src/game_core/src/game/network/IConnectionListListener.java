@@ -0,0 +1,33 @@
+package game.network;
+
+import java.util.List;
+
+import org.apache.mina.core.session.IoSession;
+
+/**
+ * Interface describing an object notified of the changes of the
+ * {@link ConnectionList}. The changes are notified in batches, at most once
+ * per notification interval, by a thread of the {@link ConnectionList}: the
+ * listeners must return quickly and hand any long work, such as updating a
+ * user interface, to their own thread.
+ * 
+ * @author benobiwan
+ * 
+ */
+public interface IConnectionListListener
+{
+	/**
+	 * Notify the sessions added to and removed from the list since the
+	 * previous notification. A session added then removed between two
+	 * notifications isn't notified at all.
+	 * 
+	 * @param addedSessionList
+	 *            the sessions added to the list, in the order they were
+	 *            added.
+	 * @param removedSessionList
+	 *            the sessions removed from the list, in the order they were
+	 *            removed.
+	 */
+	void sessionsChanged(List<IoSession> addedSessionList,
+			List<IoSession> removedSessionList);
+}
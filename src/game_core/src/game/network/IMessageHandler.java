@@ -0,0 +1,31 @@
+package game.network;
+
+import game.network.messages.AbstractMessage;
+
+import org.apache.mina.core.session.IoSession;
+
+/**
+ * Interface describing an object handling one type of {@link AbstractMessage}
+ * received from a {@link DistantPeer}.
+ * 
+ * @author benobiwan
+ * 
+ * @param <PEER>
+ *            the type of peer sending the message.
+ * @param <MESSAGE>
+ *            the type of message handled.
+ */
+public interface IMessageHandler<PEER extends DistantPeer, MESSAGE extends AbstractMessage>
+{
+	/**
+	 * Handle a received message.
+	 * 
+	 * @param session
+	 *            the {@link IoSession} on which we received the message.
+	 * @param peer
+	 *            the distant peer which send the message.
+	 * @param message
+	 *            the received message.
+	 */
+	void messageReceived(IoSession session, PEER peer, MESSAGE message);
+}
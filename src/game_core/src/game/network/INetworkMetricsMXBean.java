@@ -0,0 +1,161 @@
+package game.network;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Management interface of the runtime metrics of the network part of the
+ * server.
+ * 
+ * @author benobiwan
+ * 
+ */
+public interface INetworkMetricsMXBean
+{
+	/**
+	 * Get the number of events queued for the distant clients, by class of
+	 * event.
+	 * 
+	 * @return the number of events queued, by class name.
+	 */
+	Map<String, Long> getEventCounts();
+
+	/**
+	 * Get the number of events waiting in the {@link OutboundEventQueue} of
+	 * the distant clients.
+	 * 
+	 * @return the number of events waiting to be flushed.
+	 */
+	long getQueuedEventCount();
+
+	/**
+	 * Get the number of messages written to the sessions but not yet sent.
+	 * 
+	 * @return the number of messages waiting to be sent.
+	 */
+	long getScheduledWriteMessages();
+
+	/**
+	 * Get the number of open sessions.
+	 * 
+	 * @return the number of open sessions.
+	 */
+	int getSessionCount();
+
+	/**
+	 * Get an estimation of the memory used to register the open sessions.
+	 * 
+	 * @return the estimated number of bytes used by the session registry.
+	 */
+	long getSessionRegistryMemory();
+
+	/**
+	 * Get the number of events waiting to be handled by the worker threads.
+	 * 
+	 * @return the number of events waiting for a worker thread.
+	 */
+	long getWorkerQueuedEventCount();
+
+	/**
+	 * Get the number of worker threads running the message handlers.
+	 * 
+	 * @return the number of worker threads, 0 if the handlers run on the I/O
+	 *         processors.
+	 */
+	int getWorkerThreadCount();
+
+	/**
+	 * Get the number of worker threads handling an event.
+	 * 
+	 * @return the number of busy worker threads.
+	 */
+	int getActiveWorkerThreadCount();
+
+	/**
+	 * Get the number of connections admitted by the
+	 * {@link MaxConnectionFilter}.
+	 * 
+	 * @return the number of connections admitted.
+	 */
+	long getAdmittedConnectionCount();
+
+	/**
+	 * Get the rate of the connections admitted over the last minute.
+	 * 
+	 * @return the number of connections admitted per second.
+	 */
+	double getAdmittedConnectionRate();
+
+	/**
+	 * Get the number of connections refused by the
+	 * {@link MaxConnectionFilter}.
+	 * 
+	 * @return the number of connections refused.
+	 */
+	long getRejectedConnectionCount();
+
+	/**
+	 * Get the rate of the connections refused over the last minute.
+	 * 
+	 * @return the number of connections refused per second.
+	 */
+	double getRejectedConnectionRate();
+
+	/**
+	 * Get the number of connections waiting for a free slot in the
+	 * {@link MaxConnectionFilter}.
+	 * 
+	 * @return the number of connections waiting.
+	 */
+	int getQueuedConnectionCount();
+
+	/**
+	 * Get the number of connections refused by the
+	 * {@link ConnectionRateFilter} because their address connected too often.
+	 * 
+	 * @return the number of connections throttled.
+	 */
+	long getThrottledConnectionCount();
+
+	/**
+	 * Get the rate of the connections throttled over the last minute.
+	 * 
+	 * @return the number of connections throttled per second.
+	 */
+	double getThrottledConnectionRate();
+
+	/**
+	 * Get the number of bytes read by all the sessions, closed or not.
+	 * 
+	 * @return the number of bytes read.
+	 */
+	long getReadBytes();
+
+	/**
+	 * Get the number of bytes written by all the sessions, closed or not.
+	 * 
+	 * @return the number of bytes written.
+	 */
+	long getWrittenBytes();
+
+	/**
+	 * Get the number of messages read by all the sessions, closed or not.
+	 * 
+	 * @return the number of messages read.
+	 */
+	long getReadMessages();
+
+	/**
+	 * Get the number of messages written by all the sessions, closed or not.
+	 * 
+	 * @return the number of messages written.
+	 */
+	long getWrittenMessages();
+
+	/**
+	 * Get the traffic of each open session.
+	 * 
+	 * @return the traffic of each open session.
+	 */
+	List<SessionStatistics> getSessions();
+}
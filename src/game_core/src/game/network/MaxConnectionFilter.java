@@ -1,12 +1,30 @@
 package game.network;
 
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import org.apache.mina.core.filterchain.IoFilterAdapter;
+import org.apache.mina.core.session.AttributeKey;
+import org.apache.mina.core.session.IdleStatus;
 import org.apache.mina.core.session.IoSession;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
- * A IoFilter limiting the number of concurrent connection.
+ * A IoFilter limiting the number of concurrent connection. A slot is
+ * reserved atomically before a session is let through the rest of the chain
+ * and released exactly once, when an admitted session is closed. Once every
+ * slot is taken, new sessions are either refused or, if a queue size is
+ * configured, kept with their reads suspended until a slot is released.
+ * 
+ * The filter only passes on the events of the admitted sessions: the rest of
+ * the chain sees a session from its creation when it is admitted, until it is
+ * closed. In particular the idle events of the waiting sessions are held
+ * back, so the keep-alive filter, placed after this one, neither sends them
+ * requests they couldn't answer, their reads being suspended, nor closes
+ * them: a session waits for a slot until one is released or the client
+ * closes the connection.
  * 
  * @author benobiwan
  * 
@@ -19,15 +37,49 @@ public final class MaxConnectionFilter extends IoFilterAdapter
 	private static final Logger LOGGER = LoggerFactory
 			.getLogger(MaxConnectionFilter.class);
 
+	/**
+	 * Key of the attribute marking the sessions holding a slot.
+	 */
+	private static final AttributeKey ADMITTED_KEY = new AttributeKey(
+			MaxConnectionFilter.class, "admitted");
+
+	/**
+	 * Key of the attribute holding the {@link PendingSession} of the sessions
+	 * waiting for a slot.
+	 */
+	private static final AttributeKey PENDING_KEY = new AttributeKey(
+			MaxConnectionFilter.class, "pending");
+
 	/**
 	 * The maximum number of connections.
 	 */
 	private final int _iMaxConnection;
 
 	/**
-	 * The current number of connection.
+	 * The maximum number of connections waiting for a slot.
+	 */
+	private final int _iMaxQueuedConnection;
+
+	/**
+	 * The number of slots taken.
 	 */
-	private volatile int _iCurrentConnection;
+	private final AtomicInteger _currentConnection = new AtomicInteger();
+
+	/**
+	 * The number of connections waiting for a slot, including the ones not
+	 * yet in the queue.
+	 */
+	private final AtomicInteger _queuedConnection = new AtomicInteger();
+
+	/**
+	 * The connections waiting for a slot, in order of arrival.
+	 */
+	private final Queue<PendingSession> _pendingQueue = new ConcurrentLinkedQueue<>();
+
+	/**
+	 * Runtime metrics of the network part of the server.
+	 */
+	private final NetworkMetrics _metrics;
 
 	/**
 	 * Message used to log when a connection was refused.
@@ -39,36 +91,251 @@ public final class MaxConnectionFilter extends IoFilterAdapter
 	 * 
 	 * @param iMaxConnection
 	 *            the maximum number of allowed connection.
+	 * @param iMaxQueuedConnection
+	 *            the maximum number of connections waiting for a slot, 0 to
+	 *            refuse the connections as soon as every slot is taken.
+	 * @param metrics
+	 *            runtime metrics of the network part of the server.
 	 */
-	public MaxConnectionFilter(final int iMaxConnection)
+	public MaxConnectionFilter(final int iMaxConnection,
+			final int iMaxQueuedConnection, final NetworkMetrics metrics)
 	{
 		_iMaxConnection = iMaxConnection;
-		_iCurrentConnection = 0;
+		_iMaxQueuedConnection = iMaxQueuedConnection;
+		_metrics = metrics;
 		_strWarnMessage = "Maximum number of connection reached :"
 				+ _iMaxConnection + ". Refusing new connection.";
 	}
 
+	/**
+	 * Get the number of slots taken.
+	 * 
+	 * @return the number of slots taken.
+	 */
+	public int getCurrentConnection()
+	{
+		return _currentConnection.get();
+	}
+
 	@Override
 	public void sessionCreated(final NextFilter nextFilter,
 			final IoSession session)
 	{
-		if (_iCurrentConnection < _iMaxConnection)
+		if (tryAcquire(_currentConnection, _iMaxConnection))
 		{
-			_iCurrentConnection++;
+			session.setAttribute(ADMITTED_KEY, Boolean.TRUE);
+			_metrics.connectionAdmitted();
 			nextFilter.sessionCreated(session);
 		}
+		else if (tryAcquire(_queuedConnection, _iMaxQueuedConnection))
+		{
+			// the session is only queued once opened, so that it can't be
+			// admitted before the end of this call.
+			session.setAttribute(PENDING_KEY, new PendingSession(nextFilter,
+					session));
+			session.suspendRead();
+			_metrics.connectionsQueued(1);
+			if (LOGGER.isDebugEnabled())
+			{
+				LOGGER.debug("Maximum number of connection reached, session "
+						+ session.getId() + " is waiting for a slot.");
+			}
+		}
 		else
 		{
 			LOGGER.warn(_strWarnMessage);
+			_metrics.connectionRejected();
 			session.close(true);
 		}
 	}
 
+	@Override
+	public void sessionOpened(final NextFilter nextFilter,
+			final IoSession session)
+	{
+		final PendingSession pending = (PendingSession) session
+				.getAttribute(PENDING_KEY);
+		if (pending != null)
+		{
+			_pendingQueue.offer(pending);
+			admitPendingSessions();
+		}
+		else if (session.containsAttribute(ADMITTED_KEY))
+		{
+			nextFilter.sessionOpened(session);
+		}
+	}
+
+	@Override
+	public void messageReceived(final NextFilter nextFilter,
+			final IoSession session, final Object message)
+	{
+		if (session.containsAttribute(ADMITTED_KEY))
+		{
+			nextFilter.messageReceived(session, message);
+		}
+	}
+
+	@Override
+	public void sessionIdle(final NextFilter nextFilter,
+			final IoSession session, final IdleStatus status)
+	{
+		if (session.containsAttribute(ADMITTED_KEY))
+		{
+			nextFilter.sessionIdle(session, status);
+		}
+	}
+
 	@Override
 	public void sessionClosed(final NextFilter nextFilter,
 			final IoSession session)
 	{
-		_iCurrentConnection--;
-		nextFilter.sessionClosed(session);
+		final PendingSession pending = (PendingSession) session
+				.removeAttribute(PENDING_KEY);
+		if (pending != null && pending.close())
+		{
+			_pendingQueue.remove(pending);
+			leaveQueue();
+		}
+		// the attribute is set under the lock of the pending session, it is
+		// visible here once close returned.
+		if (session.removeAttribute(ADMITTED_KEY) != null)
+		{
+			_currentConnection.decrementAndGet();
+			admitPendingSessions();
+			nextFilter.sessionClosed(session);
+		}
+	}
+
+	/**
+	 * Give the free slots to the sessions waiting for one, in order of
+	 * arrival. A slot is reserved before a session is taken from the queue,
+	 * and given back if no session could use it.
+	 */
+	private void admitPendingSessions()
+	{
+		while (!_pendingQueue.isEmpty()
+				&& tryAcquire(_currentConnection, _iMaxConnection))
+		{
+			final PendingSession pending = _pendingQueue.poll();
+			if (pending == null || !pending.admit())
+			{
+				// the queue is checked again after releasing the slot, so
+				// that a session queued meanwhile isn't left waiting.
+				_currentConnection.decrementAndGet();
+			}
+		}
+	}
+
+	/**
+	 * Record a session leaving the queue.
+	 */
+	private void leaveQueue()
+	{
+		_queuedConnection.decrementAndGet();
+		_metrics.connectionsQueued(-1);
+	}
+
+	/**
+	 * Take a unit of a counter if it is below its limit.
+	 * 
+	 * @param counter
+	 *            the counter.
+	 * @param iLimit
+	 *            the limit of the counter.
+	 * @return true if a unit was taken.
+	 */
+	private static boolean tryAcquire(final AtomicInteger counter,
+			final int iLimit)
+	{
+		int iCurrent = counter.get();
+		while (iCurrent < iLimit)
+		{
+			if (counter.compareAndSet(iCurrent, iCurrent + 1))
+			{
+				return true;
+			}
+			iCurrent = counter.get();
+		}
+		return false;
+	}
+
+	/**
+	 * A session waiting for a slot. A pending session is either admitted or
+	 * closed, whichever comes first, the other one has no effect.
+	 */
+	private final class PendingSession
+	{
+		/**
+		 * The next filter of the chain of the session.
+		 */
+		private final NextFilter _nextFilter;
+
+		/**
+		 * The session.
+		 */
+		private final IoSession _session;
+
+		/**
+		 * Whether the session was admitted or closed.
+		 */
+		private boolean _bDone;
+
+		/**
+		 * Creates a new PendingSession.
+		 * 
+		 * @param nextFilter
+		 *            the next filter of the chain of the session.
+		 * @param session
+		 *            the session.
+		 */
+		PendingSession(final NextFilter nextFilter, final IoSession session)
+		{
+			_nextFilter = nextFilter;
+			_session = session;
+		}
+
+		/**
+		 * Admit the session, using a slot already reserved. The session
+		 * events held back are forwarded and its reads resumed.
+		 * 
+		 * @return false if the session was closed, the slot isn't used.
+		 */
+		synchronized boolean admit()
+		{
+			if (_bDone)
+			{
+				return false;
+			}
+			_bDone = true;
+			leaveQueue();
+			_session.setAttribute(ADMITTED_KEY, Boolean.TRUE);
+			_metrics.connectionAdmitted();
+			if (LOGGER.isDebugEnabled())
+			{
+				LOGGER.debug("Session " + _session.getId()
+						+ " was given a slot.");
+			}
+			_nextFilter.sessionCreated(_session);
+			_nextFilter.sessionOpened(_session);
+			_session.resumeRead();
+			return true;
+		}
+
+		/**
+		 * Mark the session as closed, waiting for its admission to end if it
+		 * is being admitted.
+		 * 
+		 * @return false if the session was already admitted.
+		 */
+		synchronized boolean close()
+		{
+			if (_bDone)
+			{
+				return false;
+			}
+			_bDone = true;
+			return true;
+		}
 	}
 }
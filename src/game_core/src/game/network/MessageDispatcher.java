@@ -0,0 +1,104 @@
+package game.network;
+
+import game.network.messages.AbstractMessage;
+import game.network.messages.MessageType;
+import game.network.messages.UnexpectedMessage;
+
+import org.apache.mina.core.session.IoSession;
+
+/**
+ * Table associating each {@link MessageType} with the
+ * {@link IMessageHandler} responsible for it. The handlers are registered once
+ * when the network handler is created, dispatching a message is then only an
+ * array lookup.
+ * 
+ * @author benobiwan
+ * 
+ * @param <PEER>
+ *            the type of peer sending the messages.
+ */
+public final class MessageDispatcher<PEER extends DistantPeer>
+{
+	/**
+	 * Message sent back when receiving a message no handler is registered
+	 * for.
+	 */
+	private static final UnexpectedMessage UNEXPECTED_MESSAGE = new UnexpectedMessage();
+
+	/**
+	 * The handlers, indexed by the ordinal of their {@link MessageType}.
+	 */
+	private final IMessageHandler<PEER, AbstractMessage>[] _handlers;
+
+	/**
+	 * The class of the messages expected by the handlers, indexed by the
+	 * ordinal of their {@link MessageType}.
+	 */
+	private final Class<?>[] _messageClasses;
+
+	/**
+	 * Creates a new empty MessageDispatcher.
+	 */
+	@SuppressWarnings("unchecked")
+	public MessageDispatcher()
+	{
+		final int iNbTypes = MessageType.values().length;
+		_handlers = (IMessageHandler<PEER, AbstractMessage>[]) new IMessageHandler<?, ?>[iNbTypes];
+		_messageClasses = new Class<?>[iNbTypes];
+	}
+
+	/**
+	 * Register the handler of a {@link MessageType}. This method must only be
+	 * called while building the network handler.
+	 * 
+	 * @param <MESSAGE>
+	 *            the type of message handled.
+	 * @param type
+	 *            the type of message handled.
+	 * @param messageClass
+	 *            the class of the message handled.
+	 * @param handler
+	 *            the handler.
+	 */
+	@SuppressWarnings("unchecked")
+	public <MESSAGE extends AbstractMessage> void register(
+			final MessageType type, final Class<MESSAGE> messageClass,
+			final IMessageHandler<PEER, ? super MESSAGE> handler)
+	{
+		_messageClasses[type.ordinal()] = messageClass;
+		_handlers[type.ordinal()] = (IMessageHandler<PEER, AbstractMessage>) handler;
+	}
+
+	/**
+	 * Dispatch a message to the handler registered for its type. An
+	 * {@link UnexpectedMessage} is sent back if no handler is registered for
+	 * this type.
+	 * 
+	 * @param session
+	 *            the {@link IoSession} on which we received the message.
+	 * @param peer
+	 *            the distant peer which send the message.
+	 * @param message
+	 *            the received message.
+	 * @throws InconsistentMessageTypeException
+	 *             if the type of the message is inconsistent with its class.
+	 */
+	public void dispatch(final IoSession session, final PEER peer,
+			final AbstractMessage message)
+			throws InconsistentMessageTypeException
+	{
+		final int iIndex = message.getMessageType().ordinal();
+		final IMessageHandler<PEER, AbstractMessage> handler = _handlers[iIndex];
+		if (handler == null)
+		{
+			session.write(UNEXPECTED_MESSAGE);
+			return;
+		}
+		if (!_messageClasses[iIndex].isInstance(message))
+		{
+			throw new InconsistentMessageTypeException(
+					message.getMessageType(), message.getClass());
+		}
+		handler.messageReceived(session, peer, message);
+	}
+}
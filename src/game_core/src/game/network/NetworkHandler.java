@@ -61,11 +61,9 @@ public abstract class NetworkHandler extends IoHandlerAdapter
 	@Override
 	public void sessionClosed(final IoSession session)
 	{
-		final Object attribute = session
-				.getAttribute(INetworkConfiguration.PEER_ATTRIBUTE);
-		if (attribute != null && attribute instanceof DistantPeer)
+		final DistantPeer peer = PeerAttribute.PEER.get(session);
+		if (peer != null)
 		{
-			final DistantPeer peer = (DistantPeer) attribute;
 			peer.connectionLost();
 		}
 		_connectionList.removeIoSession(session);
@@ -82,6 +82,7 @@ public final class NetworkMain
 
 		_connectionList = new ConnectionList(_networkConfiguration,
 				_networkServerConfiguration, _networkClientConfigurationList,
+				networkConfigurationLoader.getNetworkTuningConfiguration(),
 				locGameServer, locGameClient);
 
 		_authenticator = new ClientAuthenticator(
@@ -106,7 +107,7 @@ public final class NetworkMain
 	// else
 	// {
 	// dist = new DistantGameServer(_networkConfiguration,
-	// _connectionList, newConf, _locGameClient);
+	// _connectionList, newConf);
 	// _connectionList.addServer(dist);
 	// dist.connect();
 	// }
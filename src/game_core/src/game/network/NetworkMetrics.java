@@ -0,0 +1,357 @@
+package game.network;
+
+import game.common.AbstractMetrics;
+import game.common.RateMeter;
+import game.common.StripedCounter;
+import game.common.TypeCounters;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.mina.core.session.IoSession;
+
+/**
+ * Runtime metrics of the network part of the server, published as the
+ * "game:type=Network" MBean. The traffic of the open sessions is read from
+ * the sessions themselves, the traffic of the closed ones is kept when they
+ * are removed from the {@link ConnectionList}.
+ * 
+ * @author benobiwan
+ * 
+ */
+public final class NetworkMetrics extends AbstractMetrics implements
+		INetworkMetricsMXBean
+{
+	/**
+	 * Number of events queued by class of event.
+	 */
+	private final TypeCounters _eventCounters = new TypeCounters();
+
+	/**
+	 * Number of events waiting in the outbound queues.
+	 */
+	private final StripedCounter _queuedEvents = new StripedCounter();
+
+	/**
+	 * Number of events waiting in the queues of the worker threads.
+	 */
+	private final StripedCounter _queuedWorkerEvents = new StripedCounter();
+
+	/**
+	 * Connections admitted by the {@link MaxConnectionFilter}.
+	 */
+	private final RateMeter _admittedConnections = new RateMeter();
+
+	/**
+	 * Connections refused by the {@link MaxConnectionFilter}.
+	 */
+	private final RateMeter _rejectedConnections = new RateMeter();
+
+	/**
+	 * Connections refused by the {@link ConnectionRateFilter}.
+	 */
+	private final RateMeter _throttledConnections = new RateMeter();
+
+	/**
+	 * Number of connections waiting for a free slot.
+	 */
+	private final AtomicInteger _queuedConnections = new AtomicInteger();
+
+	/**
+	 * Number of bytes read by the closed sessions.
+	 */
+	private final AtomicLong _closedReadBytes = new AtomicLong();
+
+	/**
+	 * Number of bytes written by the closed sessions.
+	 */
+	private final AtomicLong _closedWrittenBytes = new AtomicLong();
+
+	/**
+	 * Number of messages read by the closed sessions.
+	 */
+	private final AtomicLong _closedReadMessages = new AtomicLong();
+
+	/**
+	 * Number of messages written by the closed sessions.
+	 */
+	private final AtomicLong _closedWrittenMessages = new AtomicLong();
+
+	/**
+	 * List of all the network connections of this host.
+	 */
+	private final ConnectionList _connectionList;
+
+	/**
+	 * Creates a new NetworkMetrics.
+	 * 
+	 * @param connectionList
+	 *            list of all the network connections of this host.
+	 */
+	NetworkMetrics(final ConnectionList connectionList)
+	{
+		super("Network");
+		_connectionList = connectionList;
+	}
+
+	/**
+	 * Record an event added to an outbound queue.
+	 * 
+	 * @param event
+	 *            the event.
+	 */
+	void eventQueued(final Object event)
+	{
+		_eventCounters.increment(event);
+		_queuedEvents.increment();
+	}
+
+	/**
+	 * Record events leaving an outbound queue, sent or dropped.
+	 * 
+	 * @param iCount
+	 *            the number of events.
+	 */
+	void eventsDequeued(final int iCount)
+	{
+		_queuedEvents.add(-iCount);
+	}
+
+	/**
+	 * Record an event added to the queues of the worker threads.
+	 */
+	void workerEventQueued()
+	{
+		_queuedWorkerEvents.increment();
+	}
+
+	/**
+	 * Record an event taken from the queues of the worker threads.
+	 */
+	void workerEventDequeued()
+	{
+		_queuedWorkerEvents.add(-1);
+	}
+
+	/**
+	 * Record a connection admitted by the {@link MaxConnectionFilter}.
+	 */
+	void connectionAdmitted()
+	{
+		_admittedConnections.mark();
+	}
+
+	/**
+	 * Record a connection refused by the {@link MaxConnectionFilter}.
+	 */
+	void connectionRejected()
+	{
+		_rejectedConnections.mark();
+	}
+
+	/**
+	 * Record a connection refused by the {@link ConnectionRateFilter}.
+	 */
+	void connectionThrottled()
+	{
+		_throttledConnections.mark();
+	}
+
+	/**
+	 * Record a change of the number of connections waiting for a free slot.
+	 * 
+	 * @param iDelta
+	 *            the change of the number of connections waiting.
+	 */
+	void connectionsQueued(final int iDelta)
+	{
+		_queuedConnections.addAndGet(iDelta);
+	}
+
+	/**
+	 * Take a sample of the rates, must be called every second.
+	 */
+	void sample()
+	{
+		_admittedConnections.sample();
+		_rejectedConnections.sample();
+		_throttledConnections.sample();
+	}
+
+	/**
+	 * Keep the traffic of a session being removed from the
+	 * {@link ConnectionList}.
+	 * 
+	 * @param session
+	 *            the session.
+	 */
+	void sessionClosed(final IoSession session)
+	{
+		_closedReadBytes.addAndGet(session.getReadBytes());
+		_closedWrittenBytes.addAndGet(session.getWrittenBytes());
+		_closedReadMessages.addAndGet(session.getReadMessages());
+		_closedWrittenMessages.addAndGet(session.getWrittenMessages());
+	}
+
+	@Override
+	public Map<String, Long> getEventCounts()
+	{
+		return _eventCounters.getCounts();
+	}
+
+	@Override
+	public long getQueuedEventCount()
+	{
+		return _queuedEvents.sum();
+	}
+
+	@Override
+	public long getScheduledWriteMessages()
+	{
+		long lCount = 0;
+		for (final IoSession session : _connectionList.getIoSessions())
+		{
+			lCount += session.getScheduledWriteMessages();
+		}
+		return lCount;
+	}
+
+	@Override
+	public int getSessionCount()
+	{
+		return _connectionList.getNumberOfSessions();
+	}
+
+	@Override
+	public long getSessionRegistryMemory()
+	{
+		return _connectionList.getSessionRegistryMemory();
+	}
+
+	@Override
+	public long getWorkerQueuedEventCount()
+	{
+		return _queuedWorkerEvents.sum();
+	}
+
+	@Override
+	public int getWorkerThreadCount()
+	{
+		final ThreadPoolExecutor executor = _connectionList
+				.getWorkerExecutor();
+		return executor == null ? 0 : executor.getPoolSize();
+	}
+
+	@Override
+	public int getActiveWorkerThreadCount()
+	{
+		final ThreadPoolExecutor executor = _connectionList
+				.getWorkerExecutor();
+		return executor == null ? 0 : executor.getActiveCount();
+	}
+
+	@Override
+	public long getAdmittedConnectionCount()
+	{
+		return _admittedConnections.getCount();
+	}
+
+	@Override
+	public double getAdmittedConnectionRate()
+	{
+		return _admittedConnections.getRate();
+	}
+
+	@Override
+	public long getRejectedConnectionCount()
+	{
+		return _rejectedConnections.getCount();
+	}
+
+	@Override
+	public double getRejectedConnectionRate()
+	{
+		return _rejectedConnections.getRate();
+	}
+
+	@Override
+	public int getQueuedConnectionCount()
+	{
+		return _queuedConnections.get();
+	}
+
+	@Override
+	public long getThrottledConnectionCount()
+	{
+		return _throttledConnections.getCount();
+	}
+
+	@Override
+	public double getThrottledConnectionRate()
+	{
+		return _throttledConnections.getRate();
+	}
+
+	@Override
+	public long getReadBytes()
+	{
+		long lCount = _closedReadBytes.get();
+		for (final IoSession session : _connectionList.getIoSessions())
+		{
+			lCount += session.getReadBytes();
+		}
+		return lCount;
+	}
+
+	@Override
+	public long getWrittenBytes()
+	{
+		long lCount = _closedWrittenBytes.get();
+		for (final IoSession session : _connectionList.getIoSessions())
+		{
+			lCount += session.getWrittenBytes();
+		}
+		return lCount;
+	}
+
+	@Override
+	public long getReadMessages()
+	{
+		long lCount = _closedReadMessages.get();
+		for (final IoSession session : _connectionList.getIoSessions())
+		{
+			lCount += session.getReadMessages();
+		}
+		return lCount;
+	}
+
+	@Override
+	public long getWrittenMessages()
+	{
+		long lCount = _closedWrittenMessages.get();
+		for (final IoSession session : _connectionList.getIoSessions())
+		{
+			lCount += session.getWrittenMessages();
+		}
+		return lCount;
+	}
+
+	@Override
+	public List<SessionStatistics> getSessions()
+	{
+		final List<SessionStatistics> sessionList = new ArrayList<>();
+		for (final IoSession session : _connectionList.getIoSessions())
+		{
+			sessionList.add(new SessionStatistics(session.getId(), String
+					.valueOf(session.getRemoteAddress()), session
+					.getReadBytes(), session.getWrittenBytes(), session
+					.getReadMessages(), session.getWrittenMessages(), session
+					.getScheduledWriteMessages()));
+		}
+		return sessionList;
+	}
+}
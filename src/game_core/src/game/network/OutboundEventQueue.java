@@ -0,0 +1,525 @@
+package game.network;
+
+import game.communication.event.AbstractEvent;
+import game.communication.event.gamecreation.ConfigurationUpdateCrEvent;
+import game.communication.event.gamectrl.PlayerListUpdateCrEvent;
+import game.network.messages.AbstractMessage;
+import game.network.messages.GameEventBatchMessage;
+import game.network.messages.GameEventFanOutMessage;
+import game.network.messages.GameEventMessage;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.mina.core.session.IoSession;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Queue holding the events to send to a distant client. The events are
+ * written to the {@link IoSession} in batches, at most one write per flush
+ * interval. A {@link PlayerListUpdateCrEvent} or a
+ * {@link ConfigurationUpdateCrEvent} still waiting in the queue is replaced
+ * by a newer one for the same game and player, or for the same game and
+ * players when it is sent to several players at once.
+ * 
+ * The flushes are timed by a scheduler but run on a pool of threads, so that
+ * the events sent to different clients are encoded in parallel. While the
+ * client is disconnected at most {@link #MAX_DISCONNECTED_EVENTS} events are
+ * kept. A connected client too slow to read its events, with more than
+ * {@link #MAX_CONNECTED_EVENTS} events waiting in the queue and in the write
+ * queue of its session, is disconnected. In both cases the events are lost
+ * and can't be sent again: the queue drops all the events from then on and
+ * the client can't recover its connection, see {@link #hasLostEvents()}.
+ * 
+ * @author benobiwan
+ * 
+ */
+public final class OutboundEventQueue
+{
+	/**
+	 * Logger object.
+	 */
+	private static final Logger LOGGER = LoggerFactory
+			.getLogger(OutboundEventQueue.class);
+
+	/**
+	 * Maximum number of events kept while the client is disconnected.
+	 */
+	public static final int MAX_DISCONNECTED_EVENTS = 1024;
+
+	/**
+	 * Maximum number of events and messages waiting to be sent to a connected
+	 * client.
+	 */
+	public static final int MAX_CONNECTED_EVENTS = 16384;
+
+	/**
+	 * Scheduler used to time the flushes.
+	 */
+	private final ScheduledExecutorService _scheduler;
+
+	/**
+	 * Executor running the flushes.
+	 */
+	private final Executor _flushExecutor;
+
+	/**
+	 * Interval in milliseconds between the first event added to an empty
+	 * queue and the flush of the queue.
+	 */
+	private final long _lFlushInterval;
+
+	/**
+	 * Lock protecting the pending events.
+	 */
+	private final Object _lock = new Object();
+
+	/**
+	 * Lock making sure the batches are written in order.
+	 */
+	private final Object _flushLock = new Object();
+
+	/**
+	 * The messages waiting to be sent, a {@link GameEventMessage} for each
+	 * event sent to a single player and a {@link GameEventFanOutMessage} for
+	 * each event sent to several players. A coalesced event leaves a null in
+	 * the list.
+	 */
+	private ArrayList<AbstractMessage> _pendingList = new ArrayList<>();
+
+	/**
+	 * Index in the pending list of the last {@link PlayerListUpdateCrEvent}
+	 * for each game and player.
+	 */
+	private final Map<Long, Integer> _playerListIndex = new HashMap<>();
+
+	/**
+	 * Index in the pending list of the last {@link ConfigurationUpdateCrEvent}
+	 * for each game and player.
+	 */
+	private final Map<Long, Integer> _configurationIndex = new HashMap<>();
+
+	/**
+	 * Index in the pending list of the last {@link PlayerListUpdateCrEvent}
+	 * sent to several players for each game.
+	 */
+	private final Map<Integer, Integer> _playerListFanOutIndex = new HashMap<>();
+
+	/**
+	 * Index in the pending list of the last {@link ConfigurationUpdateCrEvent}
+	 * sent to several players for each game.
+	 */
+	private final Map<Integer, Integer> _configurationFanOutIndex = new HashMap<>();
+
+	/**
+	 * Whether a flush is already scheduled.
+	 */
+	private boolean _bFlushScheduled = false;
+
+	/**
+	 * Number of events waiting in the pending list, not counting the
+	 * coalesced ones.
+	 */
+	private int _iPendingCount = 0;
+
+	/**
+	 * Whether events were dropped, the queue then drops all the events.
+	 */
+	private volatile boolean _bEventsLost = false;
+
+	/**
+	 * Runtime metrics of the network, tracking the events in the queue.
+	 */
+	private final NetworkMetrics _metrics;
+
+	/**
+	 * The session used to send the events, null if the client isn't
+	 * connected.
+	 */
+	private volatile IoSession _session;
+
+	/**
+	 * Task flushing the queue.
+	 */
+	private final Runnable _flushTask = new Runnable()
+	{
+		@Override
+		public void run()
+		{
+			flush();
+		}
+	};
+
+	/**
+	 * Task handing the flush of the queue to the flush executor once its
+	 * delay is elapsed.
+	 */
+	private final Runnable _dispatchTask = new Runnable()
+	{
+		@Override
+		public void run()
+		{
+			_flushExecutor.execute(_flushTask);
+		}
+	};
+
+	/**
+	 * Creates a new OutboundEventQueue.
+	 * 
+	 * @param scheduler
+	 *            scheduler used to time the flushes.
+	 * @param flushExecutor
+	 *            executor running the flushes.
+	 * @param lFlushInterval
+	 *            interval in milliseconds between the first event added to an
+	 *            empty queue and the flush of the queue.
+	 * @param metrics
+	 *            runtime metrics of the network.
+	 */
+	public OutboundEventQueue(final ScheduledExecutorService scheduler,
+			final Executor flushExecutor, final long lFlushInterval,
+			final NetworkMetrics metrics)
+	{
+		_scheduler = scheduler;
+		_flushExecutor = flushExecutor;
+		_lFlushInterval = lFlushInterval;
+		_metrics = metrics;
+	}
+
+	/**
+	 * Change the session used to send the events. The events queued while the
+	 * client was disconnected are sent on the new session.
+	 * 
+	 * @param session
+	 *            the new session.
+	 */
+	public void setSession(final IoSession session)
+	{
+		_session = session;
+		synchronized (_lock)
+		{
+			if (!_pendingList.isEmpty())
+			{
+				scheduleFlush(0);
+			}
+		}
+	}
+
+	/**
+	 * Add an event to the queue.
+	 * 
+	 * @param event
+	 *            the event to send.
+	 */
+	public void enqueue(final AbstractEvent event)
+	{
+		synchronized (_lock)
+		{
+			if (_bEventsLost)
+			{
+				return;
+			}
+			_metrics.eventQueued(event);
+			if (event instanceof PlayerListUpdateCrEvent)
+			{
+				final PlayerListUpdateCrEvent listEvent = (PlayerListUpdateCrEvent) event;
+				coalesce(_playerListIndex,
+						key(listEvent.getGameId(), listEvent.getPlayerId()));
+			}
+			else if (event instanceof ConfigurationUpdateCrEvent)
+			{
+				final ConfigurationUpdateCrEvent confEvent = (ConfigurationUpdateCrEvent) event;
+				coalesce(_configurationIndex,
+						key(confEvent.getGameId(), confEvent.getPlayerId()));
+			}
+			add(new GameEventMessage(event));
+		}
+	}
+
+	/**
+	 * Add to the queue an event sent with the same content to several
+	 * players. The event is encoded once whatever the number of players.
+	 * 
+	 * @param event
+	 *            the event to send, the player it is addressed to is ignored.
+	 * @param playerIds
+	 *            the ids of the players receiving the event.
+	 */
+	public void enqueue(final AbstractEvent event, final int[] playerIds)
+	{
+		synchronized (_lock)
+		{
+			if (_bEventsLost)
+			{
+				return;
+			}
+			_metrics.eventQueued(event);
+			if (event instanceof PlayerListUpdateCrEvent)
+			{
+				coalesceFanOut(_playerListFanOutIndex,
+						((PlayerListUpdateCrEvent) event).getGameId(), playerIds);
+			}
+			else if (event instanceof ConfigurationUpdateCrEvent)
+			{
+				coalesceFanOut(_configurationFanOutIndex,
+						((ConfigurationUpdateCrEvent) event).getGameId(),
+						playerIds);
+			}
+			add(new GameEventFanOutMessage(playerIds, event));
+		}
+	}
+
+	/**
+	 * Drop every event waiting in the queue.
+	 */
+	public void clear()
+	{
+		synchronized (_lock)
+		{
+			clearPending();
+		}
+	}
+
+	/**
+	 * Check whether events were dropped because the client was disconnected
+	 * for too long or too slow to read them. Such a client can't recover its
+	 * connection, it must be removed.
+	 * 
+	 * @return true if events were dropped.
+	 */
+	public boolean hasLostEvents()
+	{
+		return _bEventsLost;
+	}
+
+	/**
+	 * Write all the events waiting in the queue to the session. Nothing is
+	 * done if the client isn't connected, the events are kept until it
+	 * reconnects or until there are too many of them.
+	 */
+	public void flush()
+	{
+		synchronized (_flushLock)
+		{
+			final IoSession session = _session;
+			final ArrayList<AbstractMessage> batch;
+			synchronized (_lock)
+			{
+				_bFlushScheduled = false;
+				if (_pendingList.isEmpty() || session == null
+						|| !session.isConnected())
+				{
+					return;
+				}
+				batch = _pendingList;
+				clearPending();
+			}
+			write(session, batch);
+		}
+	}
+
+	/**
+	 * Add a message to the pending list and schedule a flush if needed. Must
+	 * be called holding the lock.
+	 * 
+	 * @param message
+	 *            the message to add.
+	 */
+	private void add(final AbstractMessage message)
+	{
+		_pendingList.add(message);
+		_iPendingCount++;
+		final IoSession session = _session;
+		if (session == null || !session.isConnected())
+		{
+			if (_iPendingCount > MAX_DISCONNECTED_EVENTS)
+			{
+				LOGGER.warn("Dropping " + _iPendingCount
+						+ " events queued for a disconnected client.");
+				dropEvents();
+				return;
+			}
+		}
+		else if (_iPendingCount + session.getScheduledWriteMessages()
+				> MAX_CONNECTED_EVENTS)
+		{
+			LOGGER.warn("Dropping " + _iPendingCount
+					+ " events queued for a slow client, closing " + session
+					+ ".");
+			dropEvents();
+			session.close(true);
+			return;
+		}
+		if (!_bFlushScheduled)
+		{
+			scheduleFlush(_lFlushInterval);
+		}
+	}
+
+	/**
+	 * Drop the pending list and all the events added from now on. Must be
+	 * called holding the lock.
+	 */
+	private void dropEvents()
+	{
+		_bEventsLost = true;
+		clearPending();
+	}
+
+	/**
+	 * Drop the pending list. Must be called holding the lock.
+	 */
+	private void clearPending()
+	{
+		_pendingList = new ArrayList<>();
+		_playerListIndex.clear();
+		_configurationIndex.clear();
+		_playerListFanOutIndex.clear();
+		_configurationFanOutIndex.clear();
+		_metrics.eventsDequeued(_iPendingCount);
+		_iPendingCount = 0;
+	}
+
+	/**
+	 * Write a batch of messages to the session. The consecutive events sent
+	 * to a single player are grouped in a {@link GameEventBatchMessage}, the
+	 * events sent to several players are written on their own, in order.
+	 * 
+	 * @param session
+	 *            the session.
+	 * @param batch
+	 *            the messages, coalesced events are null.
+	 */
+	private static void write(final IoSession session,
+			final ArrayList<AbstractMessage> batch)
+	{
+		final List<AbstractEvent> eventList = new ArrayList<>(batch.size());
+		for (final AbstractMessage message : batch)
+		{
+			if (message instanceof GameEventMessage)
+			{
+				eventList.add(((GameEventMessage) message).getEvent());
+			}
+			else if (message != null)
+			{
+				writeEvents(session, eventList);
+				eventList.clear();
+				session.write(message);
+			}
+		}
+		writeEvents(session, eventList);
+	}
+
+	/**
+	 * Write events sent to a single player to the session.
+	 * 
+	 * @param session
+	 *            the session.
+	 * @param eventList
+	 *            the events.
+	 */
+	private static void writeEvents(final IoSession session,
+			final List<AbstractEvent> eventList)
+	{
+		if (eventList.size() == 1)
+		{
+			session.write(new GameEventMessage(eventList.get(0)));
+		}
+		else if (!eventList.isEmpty())
+		{
+			session.write(new GameEventBatchMessage(new ArrayList<>(eventList)));
+		}
+	}
+
+	/**
+	 * Remove from the pending list the event superseded by the one about to
+	 * be added. Must be called holding the lock.
+	 * 
+	 * @param indexMap
+	 *            the map holding the index of the last event of this type.
+	 * @param key
+	 *            the key of the game and player of the event.
+	 */
+	private void coalesce(final Map<Long, Integer> indexMap, final Long key)
+	{
+		final Integer previousIndex = indexMap.put(key,
+				Integer.valueOf(_pendingList.size()));
+		if (previousIndex != null)
+		{
+			_pendingList.set(previousIndex.intValue(), null);
+			_iPendingCount--;
+			_metrics.eventsDequeued(1);
+		}
+	}
+
+	/**
+	 * Remove from the pending list the event sent to several players
+	 * superseded by the one about to be added, if it is sent to the same
+	 * players. Must be called holding the lock.
+	 * 
+	 * @param indexMap
+	 *            the map holding the index of the last event of this type.
+	 * @param iGameId
+	 *            the id of the game of the event.
+	 * @param playerIds
+	 *            the ids of the players receiving the event.
+	 */
+	private void coalesceFanOut(final Map<Integer, Integer> indexMap,
+			final int iGameId, final int[] playerIds)
+	{
+		final Integer previousIndex = indexMap.put(Integer.valueOf(iGameId),
+				Integer.valueOf(_pendingList.size()));
+		if (previousIndex != null)
+		{
+			final GameEventFanOutMessage previous = (GameEventFanOutMessage) _pendingList
+					.get(previousIndex.intValue());
+			if (previous != null
+					&& Arrays.equals(previous.getPlayerIds(), playerIds))
+			{
+				_pendingList.set(previousIndex.intValue(), null);
+				_iPendingCount--;
+				_metrics.eventsDequeued(1);
+			}
+		}
+	}
+
+	/**
+	 * Schedule a flush of the queue. Must be called holding the lock.
+	 * 
+	 * @param lDelay
+	 *            the delay in milliseconds before the flush.
+	 */
+	private void scheduleFlush(final long lDelay)
+	{
+		_bFlushScheduled = true;
+		if (lDelay == 0)
+		{
+			_flushExecutor.execute(_flushTask);
+		}
+		else
+		{
+			_scheduler.schedule(_dispatchTask, lDelay, TimeUnit.MILLISECONDS);
+		}
+	}
+
+	/**
+	 * Build the key identifying a game and a player.
+	 * 
+	 * @param iGameId
+	 *            the id of the game.
+	 * @param iPlayerId
+	 *            the id of the player.
+	 * @return the key identifying the game and the player.
+	 */
+	private static Long key(final int iGameId, final int iPlayerId)
+	{
+		return Long.valueOf(((long) iGameId << 32) | (iPlayerId & 0xFFFFFFFFL));
+	}
+}
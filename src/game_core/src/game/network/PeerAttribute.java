@@ -0,0 +1,102 @@
+package game.network;
+
+import org.apache.mina.core.session.AttributeKey;
+import org.apache.mina.core.session.IoSession;
+
+/**
+ * Typed access to the {@link DistantPeer} attached to an {@link IoSession}.
+ * All the instances share the same {@link AttributeKey}, they only differ by
+ * the type of peer they return.
+ * 
+ * @author benobiwan
+ * 
+ * @param <PEER>
+ *            the type of peer attached to the session.
+ */
+public final class PeerAttribute<PEER extends DistantPeer>
+{
+	/**
+	 * Key used to attach to the IoSession the information about the distant
+	 * peer.
+	 */
+	private static final AttributeKey PEER_KEY = new AttributeKey(
+			DistantPeer.class, "Peer");
+
+	/**
+	 * Access to the peer attached to a session, whatever its type.
+	 */
+	public static final PeerAttribute<DistantPeer> PEER = new PeerAttribute<>(
+			DistantPeer.class);
+
+	/**
+	 * Access to the {@link DistantGameClient} attached to a session on the
+	 * server side.
+	 */
+	public static final PeerAttribute<DistantGameClient> CLIENT = new PeerAttribute<>(
+			DistantGameClient.class);
+
+	/**
+	 * Access to the {@link DistantGameServer} attached to a session on the
+	 * client side.
+	 */
+	public static final PeerAttribute<DistantGameServer> SERVER = new PeerAttribute<>(
+			DistantGameServer.class);
+
+	/**
+	 * The type of peer.
+	 */
+	private final Class<PEER> _peerClass;
+
+	/**
+	 * Creates a new PeerAttribute.
+	 * 
+	 * @param peerClass
+	 *            the type of peer.
+	 */
+	private PeerAttribute(final Class<PEER> peerClass)
+	{
+		_peerClass = peerClass;
+	}
+
+	/**
+	 * Get the peer attached to the specified session.
+	 * 
+	 * @param session
+	 *            the session.
+	 * @return the peer attached to the session, null if there is no peer of
+	 *         this type attached to the session.
+	 */
+	public PEER get(final IoSession session)
+	{
+		final Object peer = session.getAttribute(PEER_KEY);
+		if (_peerClass.isInstance(peer))
+		{
+			return _peerClass.cast(peer);
+		}
+		return null;
+	}
+
+	/**
+	 * Attach a peer to the specified session.
+	 * 
+	 * @param session
+	 *            the session.
+	 * @param peer
+	 *            the peer to attach.
+	 */
+	public void set(final IoSession session, final PEER peer)
+	{
+		session.setAttribute(PEER_KEY, peer);
+	}
+
+	/**
+	 * Remove the peer attached to the specified session.
+	 * 
+	 * @param session
+	 *            the session.
+	 */
+	public void remove(final IoSession session)
+	{
+		session.removeAttribute(PEER_KEY);
+	}
+}
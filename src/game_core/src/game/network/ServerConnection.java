@@ -7,7 +7,6 @@ import game.network.config.INetworkServerConfiguration;
 import java.io.IOException;
 import java.net.InetSocketAddress;
 
-import org.apache.mina.filter.firewall.ConnectionThrottleFilter;
 import org.apache.mina.transport.socket.nio.NioSocketAcceptor;
 
 /**
@@ -29,10 +28,10 @@ public final class ServerConnection extends AbstractConnection
 	private final ClientAuthenticator _authenticator;
 
 	/**
-	 * An IoFilter which blocks connections from connecting at a rate faster
-	 * than the specified interval.
+	 * An IoFilter which blocks connections from an address connecting at a
+	 * rate faster than the specified interval once its burst is used.
 	 */
-	private final ConnectionThrottleFilter _connectionThrottleFilter;
+	private final ConnectionRateFilter _connectionRateFilter;
 
 	/**
 	 * An IoFilter which limits the maximum number of connection to this server.
@@ -88,28 +87,36 @@ public final class ServerConnection extends AbstractConnection
 		_serverHandler = new ServerHandler(_networkConfiguration,
 				_connectionList, _locGameServer, _networkServerConfiguration);
 		// creating filter
-		_connectionThrottleFilter = new ConnectionThrottleFilter(
-				_networkServerConfiguration.getAllowedInterval());
+		_connectionRateFilter = new ConnectionRateFilter(
+				_networkServerConfiguration.getAllowedInterval(),
+				_networkServerConfiguration.getConnectionBurst(),
+				_connectionList.getMetrics());
 		_authenticationFilter = new AuthenticationFilter(_authenticator,
 				_connectionList);
-		_acceptor = new NioSocketAcceptor();
+		final int iIoProcessorCount = _networkConfiguration
+				.getIoProcessorCount();
+		_acceptor = iIoProcessorCount == 0 ? new NioSocketAcceptor()
+				: new NioSocketAcceptor(iIoProcessorCount);
 		// Basic configuration
-		// _acceptor.getSessionConfig().setReadBufferSize(
-		// _networkConfiguration.getBufferSize());
-		// _acceptor.getSessionConfig().setSendBufferSize(
-		// _networkConfiguration.getBufferSize());
-		// Add filters
+		SocketTuning.configure(_acceptor,
+				_connectionList.getNetworkTuningConfiguration());
+		// Add filters, the throttled connections don't take a slot
+		_acceptor.getFilterChain().addLast("throttle", _connectionRateFilter);
 		if (_networkServerConfiguration.getNumberOfClient() != 0)
 		{
 			_maxConnectionFilter = new MaxConnectionFilter(
-					_networkServerConfiguration.getNumberOfClient());
+					_networkServerConfiguration.getNumberOfClient(),
+					_networkServerConfiguration.getConnectionQueueSize(),
+					_connectionList.getMetrics());
 			_acceptor.getFilterChain().addLast("MaxConnection",
 					_maxConnectionFilter);
 		}
-		_acceptor.getFilterChain().addLast("throttle",
-				_connectionThrottleFilter);
 		_acceptor.getFilterChain().addLast("codec", _protocolCodecFilter);
 		_acceptor.getFilterChain().addLast("keepalive", _keepAliveFilter);
+		if (_executorFilter != null)
+		{
+			_acceptor.getFilterChain().addLast("executor", _executorFilter);
+		}
 		_acceptor.getFilterChain().addLast("authentication",
 				_authenticationFilter);
 		// Add Handler
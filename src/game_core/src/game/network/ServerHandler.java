@@ -8,7 +8,6 @@ import game.network.config.INetworkServerConfiguration;
 import game.network.messages.AbstractMessage;
 import game.network.messages.GameActionMessage;
 import game.network.messages.MessageType;
-import game.network.messages.UnexpectedMessage;
 
 import org.apache.mina.core.session.IoSession;
 import org.slf4j.Logger;
@@ -39,6 +38,11 @@ public final class ServerHandler extends NetworkHandler
 	 */
 	private final IGameServer _localServer;
 
+	/**
+	 * Table dispatching the received messages to their handler.
+	 */
+	private final MessageDispatcher<DistantGameClient> _dispatcher;
+
 	/**
 	 * Create a new ServerHandler.
 	 * 
@@ -58,6 +62,18 @@ public final class ServerHandler extends NetworkHandler
 		super(networkConfiguration, connectionList);
 		_localServer = localServer;
 		_networkServerConfiguration = networkServerConfiguration;
+		_dispatcher = new MessageDispatcher<>();
+		_dispatcher.register(MessageType.GAME_ACTION, GameActionMessage.class,
+				new IMessageHandler<DistantGameClient, GameActionMessage>()
+				{
+					@Override
+					public void messageReceived(final IoSession session,
+							final DistantGameClient client,
+							final GameActionMessage message)
+					{
+						handleMessage(session, client, message);
+					}
+				});
 	}
 
 	@Override
@@ -65,47 +81,24 @@ public final class ServerHandler extends NetworkHandler
 	{
 		if (message instanceof AbstractMessage)
 		{
+			final AbstractMessage mess = (AbstractMessage) message;
 			if (LOGGER.isDebugEnabled())
 			{
-				LOGGER.debug(((AbstractMessage) message).getMessageType()
-						.toString());
+				LOGGER.debug("Received {}", mess.getMessageType());
 			}
-			// load the DistantGameClient attribute
-			final Object attribute = session
-					.getAttribute(INetworkConfiguration.PEER_ATTRIBUTE);
-			if (attribute != null && attribute instanceof DistantGameClient)
+			final DistantGameClient client = PeerAttribute.CLIENT.get(session);
+			if (client == null)
 			{
-				final DistantGameClient client = (DistantGameClient) attribute;
-				try
-				{
-					// select action based on message type
-					switch (((AbstractMessage) message).getMessageType())
-					{
-					case GAME_ACTION:
-						if (message instanceof GameActionMessage)
-						{
-							handleMessage(session, client,
-									(GameActionMessage) message);
-						}
-						else
-						{
-							throw new InconsistentMessageTypeException(
-									MessageType.GAME_ACTION, message.getClass());
-						}
-						break;
-					default:
-						session.write(new UnexpectedMessage());
-						break;
-					}
-				}
-				catch (final InconsistentMessageTypeException e)
-				{
-					LOGGER.error(e.getMessage());
-				}
+				LOGGER.error("IoSession doesn't have an attached DistantGameClient, should never happen.");
+				return;
 			}
-			else
+			try
 			{
-				LOGGER.error("IoSession doesn't have an attached DistantGameClient, should never happen.");
+				_dispatcher.dispatch(session, client, mess);
+			}
+			catch (final InconsistentMessageTypeException e)
+			{
+				LOGGER.error(e.getMessage());
 			}
 		}
 	}
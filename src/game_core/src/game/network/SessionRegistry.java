@@ -0,0 +1,174 @@
+package game.network;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.mina.core.session.IoSession;
+
+/**
+ * Registry of the open {@link IoSession}, indexed by their id. Adding and
+ * removing a session take constant time and only lock a bin of the
+ * underlying map, reading the registry never takes a lock. A snapshot of the
+ * sessions, ordered by id, is built on demand and shared by all the readers
+ * until the registry changes, so that the user interface and the broadcasts
+ * iterate over a stable list without copying it each time.
+ * 
+ * @author benobiwan
+ * 
+ */
+final class SessionRegistry
+{
+	/**
+	 * Estimation of the memory used by the registry for each session, in
+	 * bytes: a node of the map, the boxed id, the slots of the map table at
+	 * its maximum load factor and the slot of the snapshot. The session
+	 * itself isn't included, it is owned by MINA.
+	 */
+	static final int BYTES_PER_SESSION = 32 + 16 + 8 + 8;
+
+	/**
+	 * Order of the sessions in the snapshots.
+	 */
+	private static final Comparator<IoSession> ID_COMPARATOR = new Comparator<IoSession>()
+	{
+		@Override
+		public int compare(final IoSession session1, final IoSession session2)
+		{
+			return Long.compare(session1.getId(), session2.getId());
+		}
+	};
+
+	/**
+	 * The sessions by id.
+	 */
+	private final ConcurrentMap<Long, IoSession> _sessionMap = new ConcurrentHashMap<>();
+
+	/**
+	 * Number of changes of the registry, incremented after each change.
+	 */
+	private final AtomicLong _version = new AtomicLong();
+
+	/**
+	 * The last snapshot built, null if none was built yet.
+	 */
+	private volatile Snapshot _snapshot;
+
+	/**
+	 * Add a session.
+	 * 
+	 * @param session
+	 *            the session to add.
+	 * @return false if a session with the same id was already registered.
+	 */
+	boolean add(final IoSession session)
+	{
+		final Long sessionId = Long.valueOf(session.getId());
+		if (_sessionMap.putIfAbsent(sessionId, session) != null)
+		{
+			return false;
+		}
+		_version.incrementAndGet();
+		return true;
+	}
+
+	/**
+	 * Remove a session.
+	 * 
+	 * @param session
+	 *            the session to remove.
+	 * @return false if the session wasn't registered.
+	 */
+	boolean remove(final IoSession session)
+	{
+		if (!_sessionMap.remove(Long.valueOf(session.getId()), session))
+		{
+			return false;
+		}
+		_version.incrementAndGet();
+		return true;
+	}
+
+	/**
+	 * Get the number of sessions.
+	 * 
+	 * @return the number of sessions.
+	 */
+	int size()
+	{
+		return _sessionMap.size();
+	}
+
+	/**
+	 * Get the sessions, ordered by id. The returned list doesn't change, the
+	 * sessions added or removed afterwards are only included in the next
+	 * snapshots.
+	 * 
+	 * @return a snapshot of the sessions.
+	 */
+	List<IoSession> getSnapshot()
+	{
+		final long lVersion = _version.get();
+		final Snapshot snapshot = _snapshot;
+		if (snapshot != null && snapshot._lVersion == lVersion)
+		{
+			return snapshot._sessionList;
+		}
+		final IoSession[] sessions = _sessionMap.values().toArray(
+				new IoSession[0]);
+		Arrays.sort(sessions, ID_COMPARATOR);
+		final List<IoSession> sessionList = Collections.unmodifiableList(Arrays
+				.asList(sessions));
+		// a change during the copy may or may not be included, the snapshot
+		// is only kept if it can't miss any.
+		if (_version.get() == lVersion)
+		{
+			_snapshot = new Snapshot(lVersion, sessionList);
+		}
+		return sessionList;
+	}
+
+	/**
+	 * Get an estimation of the memory used by the registry.
+	 * 
+	 * @return the estimated number of bytes used by the registry.
+	 */
+	long getEstimatedMemory()
+	{
+		return (long) _sessionMap.size() * BYTES_PER_SESSION;
+	}
+
+	/**
+	 * Snapshot of the sessions, immutable.
+	 */
+	private static final class Snapshot
+	{
+		/**
+		 * Version of the registry the snapshot was built from.
+		 */
+		final long _lVersion;
+
+		/**
+		 * The sessions, ordered by id.
+		 */
+		final List<IoSession> _sessionList;
+
+		/**
+		 * Creates a new Snapshot.
+		 * 
+		 * @param lVersion
+		 *            version of the registry the snapshot was built from.
+		 * @param sessionList
+		 *            the sessions, ordered by id.
+		 */
+		Snapshot(final long lVersion, final List<IoSession> sessionList)
+		{
+			_lVersion = lVersion;
+			_sessionList = sessionList;
+		}
+	}
+}
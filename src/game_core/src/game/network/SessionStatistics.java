@@ -0,0 +1,153 @@
+package game.network;
+
+import java.beans.ConstructorProperties;
+
+/**
+ * Snapshot of the traffic of a network session, published by the
+ * {@link NetworkMetrics}.
+ * 
+ * @author benobiwan
+ * 
+ */
+public final class SessionStatistics
+{
+	/**
+	 * Id of the session.
+	 */
+	private final long _lId;
+
+	/**
+	 * Address of the distant peer.
+	 */
+	private final String _strRemoteAddress;
+
+	/**
+	 * Number of bytes read.
+	 */
+	private final long _lReadBytes;
+
+	/**
+	 * Number of bytes written.
+	 */
+	private final long _lWrittenBytes;
+
+	/**
+	 * Number of messages read.
+	 */
+	private final long _lReadMessages;
+
+	/**
+	 * Number of messages written.
+	 */
+	private final long _lWrittenMessages;
+
+	/**
+	 * Number of messages waiting to be written.
+	 */
+	private final int _iScheduledWriteMessages;
+
+	/**
+	 * Creates a new SessionStatistics.
+	 * 
+	 * @param lId
+	 *            id of the session.
+	 * @param strRemoteAddress
+	 *            address of the distant peer.
+	 * @param lReadBytes
+	 *            number of bytes read.
+	 * @param lWrittenBytes
+	 *            number of bytes written.
+	 * @param lReadMessages
+	 *            number of messages read.
+	 * @param lWrittenMessages
+	 *            number of messages written.
+	 * @param iScheduledWriteMessages
+	 *            number of messages waiting to be written.
+	 */
+	@ConstructorProperties({ "id", "remoteAddress", "readBytes",
+			"writtenBytes", "readMessages", "writtenMessages",
+			"scheduledWriteMessages" })
+	public SessionStatistics(final long lId, final String strRemoteAddress,
+			final long lReadBytes, final long lWrittenBytes,
+			final long lReadMessages, final long lWrittenMessages,
+			final int iScheduledWriteMessages)
+	{
+		_lId = lId;
+		_strRemoteAddress = strRemoteAddress;
+		_lReadBytes = lReadBytes;
+		_lWrittenBytes = lWrittenBytes;
+		_lReadMessages = lReadMessages;
+		_lWrittenMessages = lWrittenMessages;
+		_iScheduledWriteMessages = iScheduledWriteMessages;
+	}
+
+	/**
+	 * Get the id of the session.
+	 * 
+	 * @return the id of the session.
+	 */
+	public long getId()
+	{
+		return _lId;
+	}
+
+	/**
+	 * Get the address of the distant peer.
+	 * 
+	 * @return the address of the distant peer.
+	 */
+	public String getRemoteAddress()
+	{
+		return _strRemoteAddress;
+	}
+
+	/**
+	 * Get the number of bytes read.
+	 * 
+	 * @return the number of bytes read.
+	 */
+	public long getReadBytes()
+	{
+		return _lReadBytes;
+	}
+
+	/**
+	 * Get the number of bytes written.
+	 * 
+	 * @return the number of bytes written.
+	 */
+	public long getWrittenBytes()
+	{
+		return _lWrittenBytes;
+	}
+
+	/**
+	 * Get the number of messages read.
+	 * 
+	 * @return the number of messages read.
+	 */
+	public long getReadMessages()
+	{
+		return _lReadMessages;
+	}
+
+	/**
+	 * Get the number of messages written.
+	 * 
+	 * @return the number of messages written.
+	 */
+	public long getWrittenMessages()
+	{
+		return _lWrittenMessages;
+	}
+
+	/**
+	 * Get the number of messages waiting to be written.
+	 * 
+	 * @return the number of messages waiting to be written.
+	 */
+	public int getScheduledWriteMessages()
+	{
+		return _iScheduledWriteMessages;
+	}
+}
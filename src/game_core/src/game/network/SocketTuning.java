@@ -0,0 +1,113 @@
+package game.network;
+
+import game.network.config.INetworkTuningConfiguration;
+
+import org.apache.mina.transport.socket.SocketAcceptor;
+import org.apache.mina.transport.socket.SocketConnector;
+import org.apache.mina.transport.socket.SocketSessionConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Apply the socket options of an {@link INetworkTuningConfiguration} to the
+ * socket acceptor and connectors. The options must be applied before binding
+ * the acceptor or connecting, they only affect the sessions created after.
+ * 
+ * @author benobiwan
+ * 
+ */
+public final class SocketTuning
+{
+	/**
+	 * Logger object.
+	 */
+	private static final Logger LOGGER = LoggerFactory
+			.getLogger(SocketTuning.class);
+
+	/**
+	 * Private constructor, this class only holds static methods.
+	 */
+	private SocketTuning()
+	{
+		// nothing to do
+	}
+
+	/**
+	 * Apply the socket options to a socket acceptor and to the sessions it
+	 * accepts.
+	 * 
+	 * @param acceptor
+	 *            the socket acceptor, not yet bound.
+	 * @param tuning
+	 *            the socket options.
+	 */
+	public static void configure(final SocketAcceptor acceptor,
+			final INetworkTuningConfiguration tuning)
+	{
+		acceptor.setBacklog(tuning.getBacklog());
+		acceptor.setReuseAddress(tuning.isReuseAddress());
+		configure(acceptor.getSessionConfig(), tuning);
+	}
+
+	/**
+	 * Apply the socket options to the sessions created by a socket connector.
+	 * 
+	 * @param connector
+	 *            the socket connector.
+	 * @param tuning
+	 *            the socket options.
+	 */
+	public static void configure(final SocketConnector connector,
+			final INetworkTuningConfiguration tuning)
+	{
+		configure(connector.getSessionConfig(), tuning);
+	}
+
+	/**
+	 * Apply the socket options to a session configuration. The buffer sizes
+	 * set to 0 are left to the system default.
+	 * 
+	 * @param sessionConfig
+	 *            the session configuration.
+	 * @param tuning
+	 *            the socket options.
+	 */
+	private static void configure(final SocketSessionConfig sessionConfig,
+			final INetworkTuningConfiguration tuning)
+	{
+		sessionConfig.setTcpNoDelay(tuning.isTcpNoDelay());
+		if (tuning.getSendBufferSize() > 0)
+		{
+			sessionConfig.setSendBufferSize(tuning.getSendBufferSize());
+		}
+		if (tuning.getReceiveBufferSize() > 0)
+		{
+			sessionConfig.setReceiveBufferSize(tuning.getReceiveBufferSize());
+		}
+		final int iMinReadBufferSize = tuning.getMinReadBufferSize();
+		int iMaxReadBufferSize = tuning.getMaxReadBufferSize();
+		if (iMaxReadBufferSize < iMinReadBufferSize)
+		{
+			LOGGER.warn("Maximum read buffer size " + iMaxReadBufferSize
+					+ " lower than the minimum " + iMinReadBufferSize
+					+ ", using the minimum.");
+			iMaxReadBufferSize = iMinReadBufferSize;
+		}
+		// The session configuration rejects a minimum above its current
+		// maximum and a maximum below its current minimum.
+		if (iMinReadBufferSize > sessionConfig.getMaxReadBufferSize())
+		{
+			sessionConfig.setMaxReadBufferSize(iMaxReadBufferSize);
+			sessionConfig.setMinReadBufferSize(iMinReadBufferSize);
+		}
+		else
+		{
+			sessionConfig.setMinReadBufferSize(iMinReadBufferSize);
+			sessionConfig.setMaxReadBufferSize(iMaxReadBufferSize);
+		}
+		// The read buffer starts at its default size then adapts to the
+		// reads, keep its first size within the bounds.
+		sessionConfig.setReadBufferSize(Math.max(iMinReadBufferSize, Math.min(
+				iMaxReadBufferSize, sessionConfig.getReadBufferSize())));
+	}
+}
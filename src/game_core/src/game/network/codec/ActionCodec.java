@@ -0,0 +1,356 @@
+package game.network.codec;
+
+import game.communication.action.AbstractAction;
+import game.communication.action.IGameAction;
+import game.communication.action.IGameCreationAction;
+import game.communication.action.IGameCtrlAction;
+import game.communication.action.control.AskServerStateCtrlAction;
+import game.communication.action.control.CreateGameCtrlAction;
+import game.communication.action.control.SubscribeServerStateCtrlAction;
+import game.communication.action.game.EndTurnCmnAction;
+import game.communication.action.gamecreation.SendGameConfigurationGameCrAction;
+import game.communication.action.gamecreation.SendPlayerConfigurationGameCrAction;
+import game.communication.action.gamecreation.StartGameCrAction;
+import game.communication.action.gamecreation.UpdateStatusCrAction;
+import game.communication.action.gamectrl.AddAICrAction;
+import game.communication.action.gamectrl.JoinGameCrAction;
+import game.communication.action.gamectrl.KickPlayerCrAction;
+import game.communication.action.gamectrl.LeaveGameCrAction;
+import game.config.IGameConfiguration;
+import game.config.IPlayerConfiguration;
+import game.gameserver.IServerGameCreator;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+import org.apache.mina.core.buffer.IoBuffer;
+import org.apache.mina.filter.codec.ProtocolDecoderException;
+
+/**
+ * Object writing and reading the actions in the binary protocol. Each action
+ * known by the codec is written as a one byte tag followed by its fields.
+ * Actions unknown by the codec (game specific actions) are written using the
+ * java serialization.
+ * 
+ * @author benobiwan
+ * 
+ */
+final class ActionCodec
+{
+	/**
+	 * Tags identifying the actions on the wire. The ordinal of the tag is
+	 * written, new tags must be added at the end.
+	 * 
+	 * @author benobiwan
+	 * 
+	 */
+	private enum ActionTag
+	{
+		/**
+		 * Action written using the java serialization.
+		 */
+		OPAQUE,
+
+		/**
+		 * {@link AskServerStateCtrlAction}.
+		 */
+		ASK_SERVER_STATE,
+
+		/**
+		 * {@link CreateGameCtrlAction}.
+		 */
+		CREATE_GAME,
+
+		/**
+		 * {@link EndTurnCmnAction}.
+		 */
+		END_TURN,
+
+		/**
+		 * {@link SendGameConfigurationGameCrAction}.
+		 */
+		SEND_GAME_CONFIGURATION,
+
+		/**
+		 * {@link SendPlayerConfigurationGameCrAction}.
+		 */
+		SEND_PLAYER_CONFIGURATION,
+
+		/**
+		 * {@link StartGameCrAction}.
+		 */
+		START_GAME,
+
+		/**
+		 * {@link UpdateStatusCrAction}.
+		 */
+		UPDATE_STATUS,
+
+		/**
+		 * {@link AddAICrAction}.
+		 */
+		ADD_AI,
+
+		/**
+		 * {@link JoinGameCrAction}.
+		 */
+		JOIN_GAME,
+
+		/**
+		 * {@link KickPlayerCrAction}.
+		 */
+		KICK_PLAYER,
+
+		/**
+		 * {@link LeaveGameCrAction}.
+		 */
+		LEAVE_GAME,
+
+		/**
+		 * {@link SubscribeServerStateCtrlAction}.
+		 */
+		SUBSCRIBE_SERVER_STATE;
+	}
+
+	/**
+	 * All the tags, indexed by their ordinal.
+	 */
+	private static final ActionTag[] TAGS = ActionTag.values();
+
+	/**
+	 * Map associating the class of an action with its tag.
+	 */
+	private static final Map<Class<?>, ActionTag> TAG_BY_CLASS = new IdentityHashMap<>();
+
+	static
+	{
+		TAG_BY_CLASS.put(AskServerStateCtrlAction.class,
+				ActionTag.ASK_SERVER_STATE);
+		TAG_BY_CLASS.put(CreateGameCtrlAction.class, ActionTag.CREATE_GAME);
+		TAG_BY_CLASS.put(SubscribeServerStateCtrlAction.class,
+				ActionTag.SUBSCRIBE_SERVER_STATE);
+		TAG_BY_CLASS.put(EndTurnCmnAction.class, ActionTag.END_TURN);
+		TAG_BY_CLASS.put(SendGameConfigurationGameCrAction.class,
+				ActionTag.SEND_GAME_CONFIGURATION);
+		TAG_BY_CLASS.put(SendPlayerConfigurationGameCrAction.class,
+				ActionTag.SEND_PLAYER_CONFIGURATION);
+		TAG_BY_CLASS.put(StartGameCrAction.class, ActionTag.START_GAME);
+		TAG_BY_CLASS.put(UpdateStatusCrAction.class, ActionTag.UPDATE_STATUS);
+		TAG_BY_CLASS.put(AddAICrAction.class, ActionTag.ADD_AI);
+		TAG_BY_CLASS.put(JoinGameCrAction.class, ActionTag.JOIN_GAME);
+		TAG_BY_CLASS.put(KickPlayerCrAction.class, ActionTag.KICK_PLAYER);
+		TAG_BY_CLASS.put(LeaveGameCrAction.class, ActionTag.LEAVE_GAME);
+	}
+
+	/**
+	 * Private constructor, this class only holds static methods.
+	 */
+	private ActionCodec()
+	{
+		// nothing to do
+	}
+
+	/**
+	 * Write an action.
+	 * 
+	 * @param buf
+	 *            the buffer to write to.
+	 * @param action
+	 *            the action to write.
+	 */
+	static void write(final IoBuffer buf, final AbstractAction action)
+	{
+		ActionTag tag = TAG_BY_CLASS.get(action.getClass());
+		if (tag == null)
+		{
+			tag = ActionTag.OPAQUE;
+		}
+		buf.put((byte) tag.ordinal());
+		switch (tag)
+		{
+		case ASK_SERVER_STATE:
+			FieldCodec.putBoolean(buf,
+					((AskServerStateCtrlAction) action).isOnlyJoinableGames());
+			break;
+		case SUBSCRIBE_SERVER_STATE:
+			FieldCodec.putBoolean(buf,
+					((SubscribeServerStateCtrlAction) action).isSubscribe());
+			break;
+		case CREATE_GAME:
+			final CreateGameCtrlAction createAction = (CreateGameCtrlAction) action;
+			buf.putInt(createAction.getCreatorPlayerId());
+			FieldCodec.putOpaque(buf, createAction.getGameCreator());
+			break;
+		case SEND_GAME_CONFIGURATION:
+			final SendGameConfigurationGameCrAction gameConfAction = (SendGameConfigurationGameCrAction) action;
+			writeIds(buf, gameConfAction.getGameId(),
+					gameConfAction.getPlayerId());
+			FieldCodec.putOpaque(buf, gameConfAction.getGameConfiguration());
+			break;
+		case SEND_PLAYER_CONFIGURATION:
+			final SendPlayerConfigurationGameCrAction playerConfAction = (SendPlayerConfigurationGameCrAction) action;
+			writeIds(buf, playerConfAction.getGameId(),
+					playerConfAction.getPlayerId());
+			FieldCodec.putOpaque(buf, playerConfAction.getPlayerConfiguration());
+			break;
+		case UPDATE_STATUS:
+			final UpdateStatusCrAction statusAction = (UpdateStatusCrAction) action;
+			writeIds(buf, statusAction.getGameId(), statusAction.getPlayerId());
+			FieldCodec.putBoolean(buf, statusAction.isReady());
+			break;
+		case ADD_AI:
+			final AddAICrAction addAIAction = (AddAICrAction) action;
+			writeIds(buf, addAIAction.getGameId(), addAIAction.getPlayerId());
+			buf.putInt(addAIAction.getAIId());
+			FieldCodec.putString(buf, addAIAction.getName());
+			break;
+		case KICK_PLAYER:
+			final KickPlayerCrAction kickAction = (KickPlayerCrAction) action;
+			writeIds(buf, kickAction.getGameId(), kickAction.getPlayerId());
+			buf.putInt(kickAction.getKickedPlayerId());
+			break;
+		case END_TURN:
+		{
+			final IGameAction gameAction = (IGameAction) action;
+			writeIds(buf, gameAction.getGameId(), gameAction.getPlayerId());
+			break;
+		}
+		case START_GAME:
+		{
+			final IGameCreationAction creationAction = (IGameCreationAction) action;
+			writeIds(buf, creationAction.getGameId(),
+					creationAction.getPlayerId());
+			break;
+		}
+		case JOIN_GAME:
+		case LEAVE_GAME:
+		{
+			final IGameCtrlAction ctrlAction = (IGameCtrlAction) action;
+			writeIds(buf, ctrlAction.getGameId(), ctrlAction.getPlayerId());
+			break;
+		}
+		case OPAQUE:
+		default:
+			FieldCodec.putOpaque(buf, action);
+			break;
+		}
+	}
+
+	/**
+	 * Read an action.
+	 * 
+	 * @param buf
+	 *            the buffer to read from.
+	 * @param classLoader
+	 *            the class loader used to resolve the classes of the objects
+	 *            written using the java serialization.
+	 * @return the read action.
+	 * @throws ProtocolDecoderException
+	 *             if the tag of the action is unknown.
+	 * @throws ClassNotFoundException
+	 *             if the class of an object written using the java
+	 *             serialization can't be found.
+	 */
+	static AbstractAction read(final IoBuffer buf,
+			final ClassLoader classLoader) throws ProtocolDecoderException,
+			ClassNotFoundException
+	{
+		final int iTag = buf.get();
+		if (iTag < 0 || iTag >= TAGS.length)
+		{
+			throw new ProtocolDecoderException("Unknown action tag " + iTag);
+		}
+		switch (TAGS[iTag])
+		{
+		case ASK_SERVER_STATE:
+			return new AskServerStateCtrlAction(FieldCodec.getBoolean(buf));
+		case SUBSCRIBE_SERVER_STATE:
+			return new SubscribeServerStateCtrlAction(
+					FieldCodec.getBoolean(buf));
+		case CREATE_GAME:
+		{
+			final int iPlayerId = buf.getInt();
+			return new CreateGameCtrlAction(
+					(IServerGameCreator<?, ?, ?, ?, ?>) FieldCodec.getOpaque(
+							buf, classLoader), iPlayerId);
+		}
+		case SEND_GAME_CONFIGURATION:
+		{
+			final int iGameId = buf.getInt();
+			final int iPlayerId = buf.getInt();
+			return new SendGameConfigurationGameCrAction(iGameId, iPlayerId,
+					(IGameConfiguration<?>) FieldCodec.getOpaque(buf,
+							classLoader));
+		}
+		case SEND_PLAYER_CONFIGURATION:
+		{
+			final int iGameId = buf.getInt();
+			final int iPlayerId = buf.getInt();
+			return new SendPlayerConfigurationGameCrAction(iGameId, iPlayerId,
+					(IPlayerConfiguration) FieldCodec.getOpaque(buf,
+							classLoader));
+		}
+		case UPDATE_STATUS:
+		{
+			final int iGameId = buf.getInt();
+			final int iPlayerId = buf.getInt();
+			return new UpdateStatusCrAction(iGameId, iPlayerId,
+					FieldCodec.getBoolean(buf));
+		}
+		case ADD_AI:
+		{
+			final int iGameId = buf.getInt();
+			final int iPlayerId = buf.getInt();
+			final int iAIId = buf.getInt();
+			return new AddAICrAction(iGameId, iPlayerId, iAIId,
+					FieldCodec.getString(buf));
+		}
+		case KICK_PLAYER:
+		{
+			final int iGameId = buf.getInt();
+			final int iPlayerId = buf.getInt();
+			return new KickPlayerCrAction(iGameId, iPlayerId, buf.getInt());
+		}
+		case END_TURN:
+		{
+			final int iGameId = buf.getInt();
+			return new EndTurnCmnAction(iGameId, buf.getInt());
+		}
+		case START_GAME:
+		{
+			final int iGameId = buf.getInt();
+			return new StartGameCrAction(iGameId, buf.getInt());
+		}
+		case JOIN_GAME:
+		{
+			final int iGameId = buf.getInt();
+			return new JoinGameCrAction(iGameId, buf.getInt());
+		}
+		case LEAVE_GAME:
+		{
+			final int iGameId = buf.getInt();
+			return new LeaveGameCrAction(iGameId, buf.getInt());
+		}
+		case OPAQUE:
+		default:
+			return (AbstractAction) FieldCodec.getOpaque(buf, classLoader);
+		}
+	}
+
+	/**
+	 * Write the game id and the player id of a game related action.
+	 * 
+	 * @param buf
+	 *            the buffer to write to.
+	 * @param iGameId
+	 *            the id of the game.
+	 * @param iPlayerId
+	 *            the id of the player.
+	 */
+	private static void writeIds(final IoBuffer buf, final int iGameId,
+			final int iPlayerId)
+	{
+		buf.putInt(iGameId);
+		buf.putInt(iPlayerId);
+	}
+}
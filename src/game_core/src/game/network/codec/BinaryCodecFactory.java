@@ -0,0 +1,62 @@
+package game.network.codec;
+
+import org.apache.mina.core.session.IoSession;
+import org.apache.mina.filter.codec.ProtocolCodecFactory;
+import org.apache.mina.filter.codec.ProtocolDecoder;
+import org.apache.mina.filter.codec.ProtocolEncoder;
+
+/**
+ * A {@link ProtocolCodecFactory} using the compact binary protocol to encode
+ * and decode the messages. Actions and events known by the protocol are
+ * written field by field, game specific objects are written using the java
+ * serialization.
+ * 
+ * @author benobiwan
+ * 
+ */
+public final class BinaryCodecFactory implements ProtocolCodecFactory
+{
+	/**
+	 * The encoder, shared by all the sessions.
+	 */
+	private final BinaryMessageEncoder _encoder;
+
+	/**
+	 * The decoder, shared by all the sessions. The accumulated data is stored
+	 * in the session.
+	 */
+	private final BinaryMessageDecoder _decoder;
+
+	/**
+	 * Creates a new BinaryCodecFactory using the context class loader.
+	 */
+	public BinaryCodecFactory()
+	{
+		this(Thread.currentThread().getContextClassLoader());
+	}
+
+	/**
+	 * Creates a new BinaryCodecFactory.
+	 * 
+	 * @param classLoader
+	 *            the class loader used to resolve the classes of the objects
+	 *            written using the java serialization.
+	 */
+	public BinaryCodecFactory(final ClassLoader classLoader)
+	{
+		_encoder = new BinaryMessageEncoder();
+		_decoder = new BinaryMessageDecoder(classLoader);
+	}
+
+	@Override
+	public ProtocolEncoder getEncoder(final IoSession session)
+	{
+		return _encoder;
+	}
+
+	@Override
+	public ProtocolDecoder getDecoder(final IoSession session)
+	{
+		return _decoder;
+	}
+}
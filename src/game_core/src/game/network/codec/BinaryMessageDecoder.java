@@ -0,0 +1,205 @@
+package game.network.codec;
+
+import game.communication.event.AbstractEvent;
+import game.communication.event.IRetargetableEvent;
+import game.network.config.RegistrationType;
+import game.network.messages.AbstractMessage;
+import game.network.messages.AuthenticateMessage;
+import game.network.messages.AuthenticationSuccessfulMessage;
+import game.network.messages.GameActionMessage;
+import game.network.messages.GameEventBatchMessage;
+import game.network.messages.GameEventFanOutMessage;
+import game.network.messages.GameEventMessage;
+import game.network.messages.KeepAliveRequestMessage;
+import game.network.messages.KeepAliveResponseMessage;
+import game.network.messages.MessageType;
+import game.network.messages.RegisterMessage;
+import game.network.messages.RegistrationErrorMessage;
+import game.network.messages.RequestAuthenticationMessage;
+import game.network.messages.UnexpectedMessage;
+import game.network.messages.WrongAuthenticationMessage;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.mina.core.buffer.IoBuffer;
+import org.apache.mina.core.session.IoSession;
+import org.apache.mina.filter.codec.CumulativeProtocolDecoder;
+import org.apache.mina.filter.codec.ProtocolDecoderException;
+import org.apache.mina.filter.codec.ProtocolDecoderOutput;
+
+/**
+ * Decoder reading the messages written by the {@link BinaryMessageEncoder}.
+ * 
+ * @author benobiwan
+ * 
+ */
+public final class BinaryMessageDecoder extends CumulativeProtocolDecoder
+{
+	/**
+	 * Maximum length of a frame.
+	 */
+	private static final int MAX_FRAME_LENGTH = 1024 * 1024;
+
+	/**
+	 * All the message types, indexed by their ordinal.
+	 */
+	private static final MessageType[] MESSAGE_TYPES = MessageType.values();
+
+	/**
+	 * All the registration types, indexed by their ordinal.
+	 */
+	private static final RegistrationType[] REGISTRATION_TYPES = RegistrationType
+			.values();
+
+	/**
+	 * The class loader used to resolve the classes of the objects written
+	 * using the java serialization.
+	 */
+	private final ClassLoader _classLoader;
+
+	/**
+	 * Creates a new BinaryMessageDecoder.
+	 * 
+	 * @param classLoader
+	 *            the class loader used to resolve the classes of the objects
+	 *            written using the java serialization.
+	 */
+	public BinaryMessageDecoder(final ClassLoader classLoader)
+	{
+		_classLoader = classLoader;
+	}
+
+	@Override
+	protected boolean doDecode(final IoSession session, final IoBuffer in,
+			final ProtocolDecoderOutput out) throws Exception
+	{
+		if (!in.prefixedDataAvailable(4, MAX_FRAME_LENGTH))
+		{
+			return false;
+		}
+		final int iLength = in.getInt();
+		final int iEnd = in.position() + iLength;
+		final int iLimit = in.limit();
+		in.limit(iEnd);
+		try
+		{
+			out.write(decodeMessage(in));
+		}
+		finally
+		{
+			in.limit(iLimit);
+			in.position(iEnd);
+		}
+		return true;
+	}
+
+	/**
+	 * Decode a message from a buffer holding exactly one frame, without its
+	 * length.
+	 * 
+	 * @param in
+	 *            the buffer to read from.
+	 * @return the decoded message.
+	 * @throws ProtocolDecoderException
+	 *             if the frame is corrupted.
+	 * @throws ClassNotFoundException
+	 *             if the class of an object written using the java
+	 *             serialization can't be found.
+	 */
+	private AbstractMessage decodeMessage(final IoBuffer in)
+			throws ProtocolDecoderException, ClassNotFoundException
+	{
+		final int iType = in.get();
+		if (iType < 0 || iType >= MESSAGE_TYPES.length)
+		{
+			throw new ProtocolDecoderException("Unknown message type " + iType);
+		}
+		switch (MESSAGE_TYPES[iType])
+		{
+		case KEEP_ALIVE_REQUEST:
+			return new KeepAliveRequestMessage();
+		case KEEP_ALIVE_RESPONSE:
+			return new KeepAliveResponseMessage();
+		case AUTHENTICATE:
+		{
+			final String strId = FieldCodec.getString(in);
+			final String strAuth = FieldCodec.getString(in);
+			final long lConnectionId = in.getLong();
+			if (strAuth != null)
+			{
+				return new AuthenticateMessage(strId, strAuth);
+			}
+			return new AuthenticateMessage(strId, Long.valueOf(lConnectionId));
+		}
+		case REQUEST_AUTHENTICATION:
+		{
+			final int iRegistrationType = in.get();
+			if (iRegistrationType < 0
+					|| iRegistrationType >= REGISTRATION_TYPES.length)
+			{
+				throw new ProtocolDecoderException("Unknown registration type "
+						+ iRegistrationType);
+			}
+			return new RequestAuthenticationMessage(
+					REGISTRATION_TYPES[iRegistrationType]);
+		}
+		case WRONG_AUTHENTICATION:
+			return new WrongAuthenticationMessage(FieldCodec.getString(in));
+		case REGISTER:
+		{
+			final String strId = FieldCodec.getString(in);
+			return new RegisterMessage(strId, FieldCodec.getString(in));
+		}
+		case REGISTRATION_ERROR:
+			return new RegistrationErrorMessage(FieldCodec.getString(in));
+		case AUTHENTICATION_SUCCESSFUL:
+			return new AuthenticationSuccessfulMessage(in.getLong());
+		case UNEXPECTED_MESSAGE:
+			return new UnexpectedMessage();
+		case GAME_EVENT:
+			return new GameEventMessage(EventCodec.read(in, _classLoader));
+		case GAME_ACTION:
+			return new GameActionMessage(ActionCodec.read(in, _classLoader));
+		case GAME_EVENT_BATCH:
+		{
+			final int iSize = in.getInt();
+			if (iSize < 0 || iSize > in.remaining())
+			{
+				throw new ProtocolDecoderException("Invalid batch size " + iSize);
+			}
+			final List<AbstractEvent> eventList = new ArrayList<>(iSize);
+			for (int i = 0; i < iSize; i++)
+			{
+				eventList.add(EventCodec.read(in, _classLoader));
+			}
+			return new GameEventBatchMessage(eventList);
+		}
+		case GAME_EVENT_FAN_OUT:
+		{
+			final int iNbPlayers = in.getInt();
+			if (iNbPlayers < 0 || iNbPlayers > in.remaining() / 4)
+			{
+				throw new ProtocolDecoderException("Invalid number of players "
+						+ iNbPlayers);
+			}
+			final int[] playerIds = new int[iNbPlayers];
+			for (int i = 0; i < iNbPlayers; i++)
+			{
+				playerIds[i] = in.getInt();
+			}
+			final AbstractEvent event = EventCodec.read(in, _classLoader);
+			if (!(event instanceof IRetargetableEvent))
+			{
+				throw new ProtocolDecoderException("Event "
+						+ event.getClass().getName()
+						+ " can't be sent to several players");
+			}
+			return new GameEventFanOutMessage(playerIds, event);
+		}
+		default:
+			throw new ProtocolDecoderException("Unhandled message type "
+					+ MESSAGE_TYPES[iType]);
+		}
+	}
+}
@@ -0,0 +1,132 @@
+package game.network.codec;
+
+import game.communication.event.AbstractEvent;
+import game.network.messages.AbstractMessage;
+import game.network.messages.AuthenticateMessage;
+import game.network.messages.AuthenticationSuccessfulMessage;
+import game.network.messages.GameActionMessage;
+import game.network.messages.GameEventBatchMessage;
+import game.network.messages.GameEventFanOutMessage;
+import game.network.messages.GameEventMessage;
+import game.network.messages.RegisterMessage;
+import game.network.messages.RegistrationErrorMessage;
+import game.network.messages.RequestAuthenticationMessage;
+import game.network.messages.WrongAuthenticationMessage;
+
+import java.util.List;
+
+import org.apache.mina.core.buffer.IoBuffer;
+import org.apache.mina.core.session.IoSession;
+import org.apache.mina.filter.codec.ProtocolEncoderAdapter;
+import org.apache.mina.filter.codec.ProtocolEncoderOutput;
+
+/**
+ * Encoder writing the messages using the binary protocol. Each message is
+ * written as an int holding the length of the frame, a byte holding the
+ * {@link game.network.messages.MessageType} of the message and the fields of
+ * the message.
+ * 
+ * @author benobiwan
+ * 
+ */
+public final class BinaryMessageEncoder extends ProtocolEncoderAdapter
+{
+	/**
+	 * Initial capacity of the buffer allocated for a message.
+	 */
+	private static final int INITIAL_CAPACITY = 64;
+
+	@Override
+	public void encode(final IoSession session, final Object message,
+			final ProtocolEncoderOutput out) throws Exception
+	{
+		if (!(message instanceof AbstractMessage))
+		{
+			throw new IllegalArgumentException("Can't encode "
+					+ message.getClass().getName());
+		}
+		final IoBuffer buf = encodeMessage((AbstractMessage) message);
+		out.write(buf);
+	}
+
+	/**
+	 * Encode a message in a new buffer, ready to be written.
+	 * 
+	 * @param message
+	 *            the message to encode.
+	 * @return the buffer holding the encoded message.
+	 */
+	public static IoBuffer encodeMessage(final AbstractMessage message)
+	{
+		final IoBuffer buf = IoBuffer.allocate(INITIAL_CAPACITY, false);
+		buf.setAutoExpand(true);
+		// placeholder for the length of the frame
+		buf.putInt(0);
+		buf.put((byte) message.getMessageType().ordinal());
+		switch (message.getMessageType())
+		{
+		case AUTHENTICATE:
+			final AuthenticateMessage authMessage = (AuthenticateMessage) message;
+			FieldCodec.putString(buf, authMessage.getId());
+			FieldCodec.putString(buf, authMessage.getAuth());
+			final Long lConnectionId = authMessage.getConnectionId();
+			buf.putLong(lConnectionId == null ? 0 : lConnectionId.longValue());
+			break;
+		case REQUEST_AUTHENTICATION:
+			buf.put((byte) ((RequestAuthenticationMessage) message)
+					.getRegistrationType().ordinal());
+			break;
+		case WRONG_AUTHENTICATION:
+			FieldCodec.putString(buf,
+					((WrongAuthenticationMessage) message).getReason());
+			break;
+		case REGISTER:
+			final RegisterMessage registerMessage = (RegisterMessage) message;
+			FieldCodec.putString(buf, registerMessage.getId());
+			FieldCodec.putString(buf, registerMessage.getAuth());
+			break;
+		case REGISTRATION_ERROR:
+			FieldCodec.putString(buf,
+					((RegistrationErrorMessage) message).getReason());
+			break;
+		case AUTHENTICATION_SUCCESSFUL:
+			buf.putLong(((AuthenticationSuccessfulMessage) message)
+					.getConnectionId());
+			break;
+		case GAME_EVENT:
+			EventCodec.write(buf, ((GameEventMessage) message).getEvent());
+			break;
+		case GAME_ACTION:
+			ActionCodec.write(buf, ((GameActionMessage) message).getAction());
+			break;
+		case GAME_EVENT_BATCH:
+			final List<AbstractEvent> eventList = ((GameEventBatchMessage) message)
+					.getEventList();
+			buf.putInt(eventList.size());
+			for (final AbstractEvent event : eventList)
+			{
+				EventCodec.write(buf, event);
+			}
+			break;
+		case GAME_EVENT_FAN_OUT:
+			final GameEventFanOutMessage fanOutMessage = (GameEventFanOutMessage) message;
+			final int[] playerIds = fanOutMessage.getPlayerIds();
+			buf.putInt(playerIds.length);
+			for (final int iPlayerId : playerIds)
+			{
+				buf.putInt(iPlayerId);
+			}
+			EventCodec.writeShared(buf, fanOutMessage.getEvent());
+			break;
+		case KEEP_ALIVE_REQUEST:
+		case KEEP_ALIVE_RESPONSE:
+		case UNEXPECTED_MESSAGE:
+		default:
+			// no field
+			break;
+		}
+		buf.putInt(0, buf.position() - 4);
+		buf.flip();
+		return buf;
+	}
+}
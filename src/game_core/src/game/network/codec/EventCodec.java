@@ -0,0 +1,638 @@
+package game.network.codec;
+
+import game.common.IGameInstanceDescription;
+import game.common.IPlayerDescription;
+import game.common.PlayerDescriptionImpl;
+import game.communication.event.AbstractEvent;
+import game.communication.event.IGameCreationEvent;
+import game.communication.event.IGameCtrlEvent;
+import game.communication.event.IMultiCastGameEvent;
+import game.communication.event.IUniCastGameEvent;
+import game.communication.event.control.GameCreationStartedCtrlEvent;
+import game.communication.event.control.GameJoinedCtrlEvent;
+import game.communication.event.control.GameListDeltaCtrlEvent;
+import game.communication.event.control.GameListDeltaType;
+import game.communication.event.control.ServerStateCtrlEvent;
+import game.communication.event.game.CantActCmnEvent;
+import game.communication.event.game.TurnTimeoutCmnEvent;
+import game.communication.event.game.UnauthorizedActionCmnEvent;
+import game.communication.event.game.YourTurnCmnEvent;
+import game.communication.event.gamecreation.ConfigurationUpdateCrEvent;
+import game.communication.event.gamecreation.GameCreatedCrEvent;
+import game.communication.event.gamectrl.GameDestroyedCrEvent;
+import game.communication.event.gamectrl.GameFullCrEvent;
+import game.communication.event.gamectrl.GameLeftCrEvent;
+import game.communication.event.gamectrl.KickedFromGameCrEvent;
+import game.communication.event.gamectrl.PlayerListUpdateCrEvent;
+import game.config.IGameConfiguration;
+import game.gameclient.IClientGameCreator;
+import game.gameserver.IServerState;
+import game.gameserver.ServerStateImpl;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+import org.apache.mina.core.buffer.IoBuffer;
+import org.apache.mina.filter.codec.ProtocolDecoderException;
+
+/**
+ * Object writing and reading the events in the binary protocol. Each event
+ * known by the codec is written as a one byte tag followed by its fields.
+ * Events unknown by the codec (game specific events) are written using the
+ * java serialization.
+ * 
+ * @author benobiwan
+ * 
+ */
+final class EventCodec
+{
+	/**
+	 * Tags identifying the events on the wire. The ordinal of the tag is
+	 * written, new tags must be added at the end.
+	 * 
+	 * @author benobiwan
+	 * 
+	 */
+	private enum EventTag
+	{
+		/**
+		 * Event written using the java serialization.
+		 */
+		OPAQUE,
+
+		/**
+		 * {@link GameCreationStartedCtrlEvent}.
+		 */
+		GAME_CREATION_STARTED,
+
+		/**
+		 * {@link GameJoinedCtrlEvent}.
+		 */
+		GAME_JOINED,
+
+		/**
+		 * {@link ServerStateCtrlEvent}.
+		 */
+		SERVER_STATE,
+
+		/**
+		 * {@link CantActCmnEvent}.
+		 */
+		CANT_ACT,
+
+		/**
+		 * {@link TurnTimeoutCmnEvent}.
+		 */
+		TURN_TIMEOUT,
+
+		/**
+		 * {@link UnauthorizedActionCmnEvent}.
+		 */
+		UNAUTHORIZED_ACTION,
+
+		/**
+		 * {@link YourTurnCmnEvent}.
+		 */
+		YOUR_TURN,
+
+		/**
+		 * {@link ConfigurationUpdateCrEvent}.
+		 */
+		CONFIGURATION_UPDATE,
+
+		/**
+		 * {@link GameCreatedCrEvent}.
+		 */
+		GAME_CREATED,
+
+		/**
+		 * {@link GameDestroyedCrEvent}.
+		 */
+		GAME_DESTROYED,
+
+		/**
+		 * {@link GameFullCrEvent}.
+		 */
+		GAME_FULL,
+
+		/**
+		 * {@link GameLeftCrEvent}.
+		 */
+		GAME_LEFT,
+
+		/**
+		 * {@link KickedFromGameCrEvent}.
+		 */
+		KICKED_FROM_GAME,
+
+		/**
+		 * {@link PlayerListUpdateCrEvent}.
+		 */
+		PLAYER_LIST_UPDATE,
+
+		/**
+		 * {@link GameListDeltaCtrlEvent}.
+		 */
+		GAME_LIST_DELTA;
+	}
+
+	/**
+	 * All the tags, indexed by their ordinal.
+	 */
+	private static final EventTag[] TAGS = EventTag.values();
+
+	/**
+	 * All the types of change of the list of games, indexed by their ordinal.
+	 */
+	private static final GameListDeltaType[] DELTA_TYPES = GameListDeltaType
+			.values();
+
+	/**
+	 * Map associating the class of an event with its tag.
+	 */
+	private static final Map<Class<?>, EventTag> TAG_BY_CLASS = new IdentityHashMap<>();
+
+	/**
+	 * Marker written before a field whose value is written field by field.
+	 */
+	private static final byte STRUCTURED = 0;
+
+	/**
+	 * Marker written before a field whose value is written using the java
+	 * serialization.
+	 */
+	private static final byte SERIALIZED = 1;
+
+	static
+	{
+		TAG_BY_CLASS.put(GameCreationStartedCtrlEvent.class,
+				EventTag.GAME_CREATION_STARTED);
+		TAG_BY_CLASS.put(GameJoinedCtrlEvent.class, EventTag.GAME_JOINED);
+		TAG_BY_CLASS.put(ServerStateCtrlEvent.class, EventTag.SERVER_STATE);
+		TAG_BY_CLASS.put(CantActCmnEvent.class, EventTag.CANT_ACT);
+		TAG_BY_CLASS.put(TurnTimeoutCmnEvent.class, EventTag.TURN_TIMEOUT);
+		TAG_BY_CLASS.put(UnauthorizedActionCmnEvent.class,
+				EventTag.UNAUTHORIZED_ACTION);
+		TAG_BY_CLASS.put(YourTurnCmnEvent.class, EventTag.YOUR_TURN);
+		TAG_BY_CLASS.put(ConfigurationUpdateCrEvent.class,
+				EventTag.CONFIGURATION_UPDATE);
+		TAG_BY_CLASS.put(GameCreatedCrEvent.class, EventTag.GAME_CREATED);
+		TAG_BY_CLASS.put(GameDestroyedCrEvent.class, EventTag.GAME_DESTROYED);
+		TAG_BY_CLASS.put(GameFullCrEvent.class, EventTag.GAME_FULL);
+		TAG_BY_CLASS.put(GameLeftCrEvent.class, EventTag.GAME_LEFT);
+		TAG_BY_CLASS.put(KickedFromGameCrEvent.class,
+				EventTag.KICKED_FROM_GAME);
+		TAG_BY_CLASS.put(PlayerListUpdateCrEvent.class,
+				EventTag.PLAYER_LIST_UPDATE);
+		TAG_BY_CLASS.put(GameListDeltaCtrlEvent.class,
+				EventTag.GAME_LIST_DELTA);
+	}
+
+	/**
+	 * Private constructor, this class only holds static methods.
+	 */
+	private EventCodec()
+	{
+		// nothing to do
+	}
+
+	/**
+	 * Write an event. The encoded form of a {@link ServerStateCtrlEvent} or of
+	 * an {@link IMultiCastGameEvent} is cached in the event.
+	 * 
+	 * @param buf
+	 *            the buffer to write to.
+	 * @param event
+	 *            the event to write.
+	 */
+	static void write(final IoBuffer buf, final AbstractEvent event)
+	{
+		if (event instanceof ServerStateCtrlEvent
+				|| event instanceof IMultiCastGameEvent)
+		{
+			writeShared(buf, event);
+		}
+		else
+		{
+			writeFields(buf, event);
+		}
+	}
+
+	/**
+	 * Write an event sent unchanged to many clients. The event is encoded
+	 * once, its encoded form is cached in the event and copied for the next
+	 * clients.
+	 * 
+	 * @param buf
+	 *            the buffer to write to.
+	 * @param event
+	 *            the event to write.
+	 */
+	static void writeShared(final IoBuffer buf, final AbstractEvent event)
+	{
+		final byte[] encodedForm = event.getEncodedForm();
+		if (encodedForm != null)
+		{
+			buf.put(encodedForm);
+			return;
+		}
+		final int iStart = buf.position();
+		writeFields(buf, event);
+		final byte[] newEncodedForm = new byte[buf.position() - iStart];
+		buf.position(iStart);
+		buf.get(newEncodedForm);
+		event.setEncodedForm(newEncodedForm);
+	}
+
+	/**
+	 * Write the tag and the fields of an event.
+	 * 
+	 * @param buf
+	 *            the buffer to write to.
+	 * @param event
+	 *            the event to write.
+	 */
+	private static void writeFields(final IoBuffer buf,
+			final AbstractEvent event)
+	{
+		EventTag tag = TAG_BY_CLASS.get(event.getClass());
+		if (tag == null)
+		{
+			tag = EventTag.OPAQUE;
+		}
+		buf.put((byte) tag.ordinal());
+		switch (tag)
+		{
+		case GAME_CREATION_STARTED:
+			final GameCreationStartedCtrlEvent startedEvent = (GameCreationStartedCtrlEvent) event;
+			writeIds(buf, startedEvent.getGameId(), startedEvent.getPlayerId());
+			FieldCodec.putOpaque(buf, startedEvent.getClientGameCreator());
+			break;
+		case GAME_JOINED:
+			final GameJoinedCtrlEvent joinedEvent = (GameJoinedCtrlEvent) event;
+			writeIds(buf, joinedEvent.getGameId(), joinedEvent.getPlayerId());
+			FieldCodec.putOpaque(buf, joinedEvent.getClientGameCreator());
+			break;
+		case SERVER_STATE:
+			final ServerStateCtrlEvent stateEvent = (ServerStateCtrlEvent) event;
+			buf.putLong(stateEvent.getSequence());
+			FieldCodec.putBoolean(buf, stateEvent.isOnlyJoinableGames());
+			writeServerState(buf, stateEvent.getServerState());
+			FieldCodec.putOpaque(buf, stateEvent.getGameDescriptionList());
+			break;
+		case GAME_LIST_DELTA:
+			final GameListDeltaCtrlEvent deltaEvent = (GameListDeltaCtrlEvent) event;
+			buf.putLong(deltaEvent.getSequence());
+			buf.put((byte) deltaEvent.getDeltaType().ordinal());
+			buf.putInt(deltaEvent.getGameId());
+			writeServerState(buf, deltaEvent.getServerState());
+			FieldCodec.putOpaque(buf, deltaEvent.getDescription());
+			break;
+		case UNAUTHORIZED_ACTION:
+			final UnauthorizedActionCmnEvent unauthorizedEvent = (UnauthorizedActionCmnEvent) event;
+			writeIds(buf, unauthorizedEvent.getGameId(),
+					unauthorizedEvent.getPlayerId());
+			FieldCodec.putOpaque(buf,
+					unauthorizedEvent.getIncriminatedActionType());
+			break;
+		case CONFIGURATION_UPDATE:
+			final ConfigurationUpdateCrEvent confEvent = (ConfigurationUpdateCrEvent) event;
+			writeIds(buf, confEvent.getGameId(), confEvent.getPlayerId());
+			FieldCodec.putOpaque(buf, confEvent.getGameConfiguration());
+			break;
+		case PLAYER_LIST_UPDATE:
+			final PlayerListUpdateCrEvent listEvent = (PlayerListUpdateCrEvent) event;
+			writeIds(buf, listEvent.getGameId(), listEvent.getPlayerId());
+			writePlayerList(buf, listEvent.getPlayerList());
+			break;
+		case CANT_ACT:
+		case TURN_TIMEOUT:
+		case YOUR_TURN:
+		{
+			final IUniCastGameEvent gameEvent = (IUniCastGameEvent) event;
+			writeIds(buf, gameEvent.getGameId(), gameEvent.getPlayerId());
+			break;
+		}
+		case GAME_CREATED:
+		{
+			final IGameCreationEvent creationEvent = (IGameCreationEvent) event;
+			writeIds(buf, creationEvent.getGameId(),
+					creationEvent.getPlayerId());
+			break;
+		}
+		case GAME_DESTROYED:
+		case GAME_FULL:
+		case GAME_LEFT:
+		case KICKED_FROM_GAME:
+		{
+			final IGameCtrlEvent ctrlEvent = (IGameCtrlEvent) event;
+			writeIds(buf, ctrlEvent.getGameId(), ctrlEvent.getPlayerId());
+			break;
+		}
+		case OPAQUE:
+		default:
+			FieldCodec.putOpaque(buf, event);
+			break;
+		}
+	}
+
+	/**
+	 * Read an event.
+	 * 
+	 * @param buf
+	 *            the buffer to read from.
+	 * @param classLoader
+	 *            the class loader used to resolve the classes of the objects
+	 *            written using the java serialization.
+	 * @return the read event.
+	 * @throws ProtocolDecoderException
+	 *             if the tag of the event is unknown.
+	 * @throws ClassNotFoundException
+	 *             if the class of an object written using the java
+	 *             serialization can't be found.
+	 */
+	static AbstractEvent read(final IoBuffer buf, final ClassLoader classLoader)
+			throws ProtocolDecoderException, ClassNotFoundException
+	{
+		final int iTag = buf.get();
+		if (iTag < 0 || iTag >= TAGS.length)
+		{
+			throw new ProtocolDecoderException("Unknown event tag " + iTag);
+		}
+		final EventTag tag = TAGS[iTag];
+		if (tag == EventTag.OPAQUE)
+		{
+			return (AbstractEvent) FieldCodec.getOpaque(buf, classLoader);
+		}
+		if (tag == EventTag.SERVER_STATE)
+		{
+			final long lSequence = buf.getLong();
+			final boolean bOnlyJoinableGames = FieldCodec.getBoolean(buf);
+			final IServerState serverState = readServerState(buf, classLoader);
+			return new ServerStateCtrlEvent(serverState, readDescriptionSet(
+					buf, classLoader), bOnlyJoinableGames, lSequence);
+		}
+		if (tag == EventTag.GAME_LIST_DELTA)
+		{
+			return readGameListDelta(buf, classLoader);
+		}
+		final int iGameId = buf.getInt();
+		final int iPlayerId = buf.getInt();
+		switch (tag)
+		{
+		case GAME_CREATION_STARTED:
+			return new GameCreationStartedCtrlEvent(iGameId, iPlayerId,
+					(IClientGameCreator<?, ?, ?, ?, ?, ?>) FieldCodec
+							.getOpaque(buf, classLoader));
+		case GAME_JOINED:
+			return new GameJoinedCtrlEvent(iGameId, iPlayerId,
+					(IClientGameCreator<?, ?, ?, ?, ?, ?>) FieldCodec
+							.getOpaque(buf, classLoader));
+		case UNAUTHORIZED_ACTION:
+			return new UnauthorizedActionCmnEvent(iGameId, iPlayerId,
+					(Enum<?>) FieldCodec.getOpaque(buf, classLoader));
+		case CONFIGURATION_UPDATE:
+			return new ConfigurationUpdateCrEvent(iGameId, iPlayerId,
+					(IGameConfiguration<?>) FieldCodec.getOpaque(buf,
+							classLoader));
+		case PLAYER_LIST_UPDATE:
+			return new PlayerListUpdateCrEvent(iGameId, iPlayerId,
+					readPlayerList(buf, classLoader));
+		case CANT_ACT:
+			return new CantActCmnEvent(iGameId, iPlayerId);
+		case TURN_TIMEOUT:
+			return new TurnTimeoutCmnEvent(iGameId, iPlayerId);
+		case YOUR_TURN:
+			return new YourTurnCmnEvent(iGameId, iPlayerId);
+		case GAME_CREATED:
+			return new GameCreatedCrEvent(iGameId, iPlayerId);
+		case GAME_DESTROYED:
+			return new GameDestroyedCrEvent(iGameId, iPlayerId);
+		case GAME_FULL:
+			return new GameFullCrEvent(iGameId, iPlayerId);
+		case GAME_LEFT:
+			return new GameLeftCrEvent(iGameId, iPlayerId);
+		case KICKED_FROM_GAME:
+			return new KickedFromGameCrEvent(iGameId, iPlayerId);
+		default:
+			throw new ProtocolDecoderException("Unhandled event tag " + tag);
+		}
+	}
+
+	/**
+	 * Write the game id and the player id of a game related event.
+	 * 
+	 * @param buf
+	 *            the buffer to write to.
+	 * @param iGameId
+	 *            the id of the game.
+	 * @param iPlayerId
+	 *            the id of the player.
+	 */
+	private static void writeIds(final IoBuffer buf, final int iGameId,
+			final int iPlayerId)
+	{
+		buf.putInt(iGameId);
+		buf.putInt(iPlayerId);
+	}
+
+	/**
+	 * Write the state of a server. A {@link ServerStateImpl} is written as four
+	 * int, any other implementation using the java serialization.
+	 * 
+	 * @param buf
+	 *            the buffer to write to.
+	 * @param serverState
+	 *            the state of the server.
+	 */
+	private static void writeServerState(final IoBuffer buf,
+			final IServerState serverState)
+	{
+		if (serverState instanceof ServerStateImpl)
+		{
+			buf.put(STRUCTURED);
+			buf.putInt(serverState.getNbClients());
+			buf.putInt(serverState.getMaxNbClients());
+			buf.putInt(serverState.getNbGames());
+			buf.putInt(serverState.getMaxNbGames());
+		}
+		else
+		{
+			buf.put(SERIALIZED);
+			FieldCodec.putOpaque(buf, serverState);
+		}
+	}
+
+	/**
+	 * Read the state of a server written by
+	 * {@link #writeServerState(IoBuffer, IServerState)}.
+	 * 
+	 * @param buf
+	 *            the buffer to read from.
+	 * @param classLoader
+	 *            the class loader used to resolve the classes of the objects
+	 *            written using the java serialization.
+	 * @return the state of the server.
+	 * @throws ProtocolDecoderException
+	 *             if the length of a field is invalid.
+	 * @throws ClassNotFoundException
+	 *             if the class of an object written using the java
+	 *             serialization can't be found.
+	 */
+	private static IServerState readServerState(final IoBuffer buf,
+			final ClassLoader classLoader) throws ProtocolDecoderException,
+			ClassNotFoundException
+	{
+		if (buf.get() == SERIALIZED)
+		{
+			return (IServerState) FieldCodec.getOpaque(buf, classLoader);
+		}
+		final int iNbClients = buf.getInt();
+		final int iMaxNbClients = buf.getInt();
+		final int iNbGames = buf.getInt();
+		final int iMaxNbGames = buf.getInt();
+		return new ServerStateImpl(iNbClients, iMaxNbClients, iNbGames,
+				iMaxNbGames);
+	}
+
+	/**
+	 * Read the fields of a {@link GameListDeltaCtrlEvent}.
+	 * 
+	 * @param buf
+	 *            the buffer to read from.
+	 * @param classLoader
+	 *            the class loader used to resolve the classes of the objects
+	 *            written using the java serialization.
+	 * @return the read event.
+	 * @throws ProtocolDecoderException
+	 *             if the type of change is unknown.
+	 * @throws ClassNotFoundException
+	 *             if the class of an object written using the java
+	 *             serialization can't be found.
+	 */
+	private static GameListDeltaCtrlEvent readGameListDelta(
+			final IoBuffer buf, final ClassLoader classLoader)
+			throws ProtocolDecoderException, ClassNotFoundException
+	{
+		final long lSequence = buf.getLong();
+		final int iDeltaType = buf.get();
+		if (iDeltaType < 0 || iDeltaType >= DELTA_TYPES.length)
+		{
+			throw new ProtocolDecoderException("Unknown delta type "
+					+ iDeltaType);
+		}
+		final int iGameId = buf.getInt();
+		final IServerState serverState = readServerState(buf, classLoader);
+		return new GameListDeltaCtrlEvent(lSequence, DELTA_TYPES[iDeltaType],
+				iGameId, (IGameInstanceDescription) FieldCodec.getOpaque(buf,
+						classLoader), serverState);
+	}
+
+	/**
+	 * Read the set of game descriptions of a {@link ServerStateCtrlEvent}.
+	 * 
+	 * @param buf
+	 *            the buffer to read from.
+	 * @param classLoader
+	 *            the class loader used to resolve the classes of the objects
+	 *            written using the java serialization.
+	 * @return the set of game descriptions.
+	 * @throws ProtocolDecoderException
+	 *             if the length of a field is invalid.
+	 * @throws ClassNotFoundException
+	 *             if the class of an object written using the java
+	 *             serialization can't be found.
+	 */
+	@SuppressWarnings("unchecked")
+	private static TreeSet<IGameInstanceDescription> readDescriptionSet(
+			final IoBuffer buf, final ClassLoader classLoader)
+			throws ProtocolDecoderException, ClassNotFoundException
+	{
+		return (TreeSet<IGameInstanceDescription>) FieldCodec.getOpaque(buf,
+				classLoader);
+	}
+
+	/**
+	 * Write a list of players. A list using the natural ordering and only
+	 * holding {@link PlayerDescriptionImpl} is written field by field, any
+	 * other list using the java serialization.
+	 * 
+	 * @param buf
+	 *            the buffer to write to.
+	 * @param playerList
+	 *            the list of players.
+	 */
+	private static void writePlayerList(final IoBuffer buf,
+			final SortedSet<IPlayerDescription> playerList)
+	{
+		boolean bStructured = playerList != null
+				&& playerList.comparator() == null;
+		if (bStructured)
+		{
+			for (final IPlayerDescription player : playerList)
+			{
+				if (player.getClass() != PlayerDescriptionImpl.class)
+				{
+					bStructured = false;
+					break;
+				}
+			}
+		}
+		if (!bStructured)
+		{
+			buf.put(SERIALIZED);
+			FieldCodec.putOpaque(buf, playerList);
+			return;
+		}
+		buf.put(STRUCTURED);
+		buf.putInt(playerList.size());
+		for (final IPlayerDescription player : playerList)
+		{
+			FieldCodec.putString(buf, player.getPlayerName());
+			FieldCodec.putBoolean(buf, player.isAI());
+			FieldCodec.putBoolean(buf, player.isReady());
+		}
+	}
+
+	/**
+	 * Read a list of players written by
+	 * {@link #writePlayerList(IoBuffer, SortedSet)}.
+	 * 
+	 * @param buf
+	 *            the buffer to read from.
+	 * @param classLoader
+	 *            the class loader used to resolve the classes of the objects
+	 *            written using the java serialization.
+	 * @return the list of players.
+	 * @throws ProtocolDecoderException
+	 *             if the length of a field is invalid.
+	 * @throws ClassNotFoundException
+	 *             if the class of an object written using the java
+	 *             serialization can't be found.
+	 */
+	@SuppressWarnings("unchecked")
+	private static SortedSet<IPlayerDescription> readPlayerList(
+			final IoBuffer buf, final ClassLoader classLoader)
+			throws ProtocolDecoderException, ClassNotFoundException
+	{
+		if (buf.get() == SERIALIZED)
+		{
+			return (SortedSet<IPlayerDescription>) FieldCodec.getOpaque(buf,
+					classLoader);
+		}
+		final int iSize = buf.getInt();
+		final SortedSet<IPlayerDescription> playerList = new TreeSet<>();
+		for (int i = 0; i < iSize; i++)
+		{
+			final String strName = FieldCodec.getString(buf);
+			final boolean bIsAI = FieldCodec.getBoolean(buf);
+			final PlayerDescriptionImpl player = new PlayerDescriptionImpl(
+					strName, bIsAI);
+			player.setReady(FieldCodec.getBoolean(buf));
+			playerList.add(player);
+		}
+		return playerList;
+	}
+}
@@ -0,0 +1,152 @@
+package game.network.codec;
+
+import java.nio.charset.Charset;
+
+import org.apache.mina.core.buffer.IoBuffer;
+import org.apache.mina.filter.codec.ProtocolDecoderException;
+
+/**
+ * Helper methods used by the binary codec to write and read the fields of the
+ * messages, actions and events.
+ * 
+ * @author benobiwan
+ * 
+ */
+public final class FieldCodec
+{
+	/**
+	 * Charset used to encode the Strings.
+	 */
+	private static final Charset UTF8 = Charset.forName("UTF-8");
+
+	/**
+	 * Length written in place of the length of a null String.
+	 */
+	private static final int NULL_LENGTH = -1;
+
+	/**
+	 * Private constructor, this class only holds static methods.
+	 */
+	private FieldCodec()
+	{
+		// nothing to do
+	}
+
+	/**
+	 * Write a String, prefixed by the length of its UTF-8 representation. A
+	 * null String is supported.
+	 * 
+	 * @param buf
+	 *            the buffer to write to.
+	 * @param str
+	 *            the String to write.
+	 */
+	public static void putString(final IoBuffer buf, final String str)
+	{
+		if (str == null)
+		{
+			buf.putInt(NULL_LENGTH);
+		}
+		else
+		{
+			final byte[] bytes = str.getBytes(UTF8);
+			buf.putInt(bytes.length);
+			buf.put(bytes);
+		}
+	}
+
+	/**
+	 * Read a String written by {@link #putString(IoBuffer, String)}.
+	 * 
+	 * @param buf
+	 *            the buffer to read from.
+	 * @return the read String, may be null.
+	 * @throws ProtocolDecoderException
+	 *             if the length of the String is invalid.
+	 */
+	public static String getString(final IoBuffer buf)
+			throws ProtocolDecoderException
+	{
+		final int iLength = buf.getInt();
+		if (iLength == NULL_LENGTH)
+		{
+			return null;
+		}
+		if (iLength < 0 || iLength > buf.remaining())
+		{
+			throw new ProtocolDecoderException("Invalid String length "
+					+ iLength);
+		}
+		final byte[] bytes = new byte[iLength];
+		buf.get(bytes);
+		return new String(bytes, UTF8);
+	}
+
+	/**
+	 * Write a boolean on one byte.
+	 * 
+	 * @param buf
+	 *            the buffer to write to.
+	 * @param bValue
+	 *            the boolean to write.
+	 */
+	public static void putBoolean(final IoBuffer buf, final boolean bValue)
+	{
+		buf.put(bValue ? (byte) 1 : (byte) 0);
+	}
+
+	/**
+	 * Read a boolean written by {@link #putBoolean(IoBuffer, boolean)}.
+	 * 
+	 * @param buf
+	 *            the buffer to read from.
+	 * @return the read boolean.
+	 */
+	public static boolean getBoolean(final IoBuffer buf)
+	{
+		return buf.get() != 0;
+	}
+
+	/**
+	 * Write an object whose class isn't known by the binary codec (game
+	 * specific configurations, game creators...). Those objects are written
+	 * using the java serialization.
+	 * 
+	 * @param buf
+	 *            the buffer to write to.
+	 * @param obj
+	 *            the object to write.
+	 */
+	public static void putOpaque(final IoBuffer buf, final Object obj)
+	{
+		buf.putObject(obj);
+	}
+
+	/**
+	 * Read an object written by {@link #putOpaque(IoBuffer, Object)}.
+	 * 
+	 * @param buf
+	 *            the buffer to read from.
+	 * @param classLoader
+	 *            the class loader used to resolve the class of the object.
+	 * @return the read object.
+	 * @throws ProtocolDecoderException
+	 *             if the length of the serialized object is invalid.
+	 * @throws ClassNotFoundException
+	 *             if the class of the object can't be found.
+	 */
+	public static Object getOpaque(final IoBuffer buf,
+			final ClassLoader classLoader) throws ProtocolDecoderException,
+			ClassNotFoundException
+	{
+		// the serialized object is prefixed by its length, checked before
+		// the buffer limit is moved to its end
+		final int iLength = buf.getInt(buf.position());
+		if (iLength < 0 || iLength > buf.remaining() - 4)
+		{
+			throw new ProtocolDecoderException(
+					"Invalid serialized object length " + iLength);
+		}
+		return buf.getObject(classLoader);
+	}
+}
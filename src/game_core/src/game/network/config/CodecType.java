@@ -0,0 +1,22 @@
+package game.network.config;
+
+/**
+ * An enum describing the different codec which can be used to encode and
+ * decode the messages exchanged between two hosts. Both hosts must use the
+ * same codec.
+ * 
+ * @author benobiwan
+ * 
+ */
+public enum CodecType
+{
+	/**
+	 * Messages are encoded using the java serialization.
+	 */
+	SERIALIZATION,
+
+	/**
+	 * Messages are encoded using the compact binary protocol.
+	 */
+	BINARY;
+}
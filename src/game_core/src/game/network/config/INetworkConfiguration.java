@@ -32,10 +32,36 @@ public interface INetworkConfiguration extends IConfigurationBranch
 	String REGISTRATION_TYPE_TAG = "RegistrationType";
 
 	/**
-	 * Attribute used to attach to the IoSession the information about the
-	 * distant peer.
+	 * Tag for the codec used to encode and decode the messages.
 	 */
-	String PEER_ATTRIBUTE = "Peer";
+	String CODEC_TYPE_TAG = "Codec";
+
+	/**
+	 * Tag for the maximum number of actions sent to a server and not yet
+	 * written to the network.
+	 */
+	String MAX_ACTIONS_IN_FLIGHT_TAG = "MaxActionsInFlight";
+
+	/**
+	 * Tag for the maximum number of actions waiting to be sent to a server.
+	 */
+	String MAX_ACTIONS_QUEUED_TAG = "MaxActionsQueued";
+
+	/**
+	 * Tag for the timeout of a connection attempt to a server.
+	 */
+	String CONNECT_TIMEOUT_TAG = "ConnectTimeout";
+
+	/**
+	 * Tag for the number of I/O processors of each socket acceptor or
+	 * connector.
+	 */
+	String IO_PROCESSOR_COUNT_TAG = "IoProcessorCount";
+
+	/**
+	 * Tag for the number of threads running the message handlers.
+	 */
+	String WORKER_THREAD_COUNT_TAG = "WorkerThreadCount";
 
 	/**
 	 * Get the KeepAlive request timeout before closing the connection.
@@ -57,4 +83,56 @@ public interface INetworkConfiguration extends IConfigurationBranch
 	 * @return the type of registration available on the server.
 	 */
 	RegistrationType getRegistrationType();
+
+	/**
+	 * Get the codec used to encode and decode the messages.
+	 * 
+	 * @return the codec used to encode and decode the messages.
+	 */
+	CodecType getCodecType();
+
+	/**
+	 * Get the maximum number of actions sent to a server and not yet written to
+	 * the network. An action is in flight from the time it is handed to the
+	 * session until it is written to the socket, the answers of the server
+	 * aren't waited for: the protocol doesn't acknowledge the actions. Another
+	 * action waits in a queue until one of them is written.
+	 * 
+	 * @return the maximum number of actions sent to a server and not yet
+	 *         written to the network.
+	 */
+	int getMaxActionsInFlight();
+
+	/**
+	 * Get the maximum number of actions waiting in the queue for one of the
+	 * actions in flight to be written. Beyond that the actions are rejected.
+	 * 
+	 * @return the maximum number of actions waiting to be sent to a server.
+	 */
+	int getMaxActionsQueued();
+
+	/**
+	 * Get the timeout in seconds of a connection attempt to a server.
+	 * 
+	 * @return the timeout in seconds of a connection attempt to a server.
+	 */
+	int getConnectTimeout();
+
+	/**
+	 * Get the number of I/O processors, each one a thread reading and writing
+	 * the sockets, of each socket acceptor or connector.
+	 * 
+	 * @return the number of I/O processors, 0 to use one more than the number
+	 *         of available processors.
+	 */
+	int getIoProcessorCount();
+
+	/**
+	 * Get the number of threads running the message handlers. The messages
+	 * of a session are still handled one at a time, in order.
+	 * 
+	 * @return the number of threads running the message handlers, 0 to run
+	 *         them on the I/O processors.
+	 */
+	int getWorkerThreadCount();
 }
@@ -35,4 +35,11 @@ public interface INetworkConfigurationLoader extends IConfigurationLoader
 	 * @return the list of network client configuration.
 	 */
 	INetworkClientConfigurationList getNetworkINetworkClientConfigurationList();
+
+	/**
+	 * Get the socket options of the connections.
+	 * 
+	 * @return the socket options of the connections.
+	 */
+	INetworkTuningConfiguration getNetworkTuningConfiguration();
 }
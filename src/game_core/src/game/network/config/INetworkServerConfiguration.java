@@ -35,6 +35,23 @@ public interface INetworkServerConfiguration extends IConfigurationBranch
 	 */
 	String ALLOWED_INTERVAL_TAG = "AllowedInterval";
 
+	/**
+	 * Tag for the interval between two flushes of the events queued for a
+	 * client.
+	 */
+	String EVENT_FLUSH_INTERVAL_TAG = "EventFlushInterval";
+
+	/**
+	 * Tag for the number of connections waiting for a free slot once the
+	 * maximum number of clients is reached.
+	 */
+	String CONNECTION_QUEUE_SIZE_TAG = "ConnectionQueueSize";
+
+	/**
+	 * Tag for the number of connections a client can open in a burst.
+	 */
+	String CONNECTION_BURST_TAG = "ConnectionBurst";
+
 	/**
 	 * Get the server TCP listen port.
 	 * 
@@ -51,7 +68,7 @@ public interface INetworkServerConfiguration extends IConfigurationBranch
 
 	/**
 	 * Get the allowed interval between connections from the same client in
-	 * milliseconds.
+	 * milliseconds, once the client used its burst.
 	 * 
 	 * @return the allowed interval between connections from the same client in
 	 *         milliseconds.
@@ -65,4 +82,30 @@ public interface INetworkServerConfiguration extends IConfigurationBranch
 	 * @return the time in seconds a client informations are kept.
 	 */
 	int getClientConnectionTimeout();
+
+	/**
+	 * Get the interval in milliseconds between two flushes of the events queued
+	 * for a client. Events sent during this interval are written in a single
+	 * batch.
+	 * 
+	 * @return the interval in milliseconds between two flushes of the events
+	 *         queued for a client.
+	 */
+	int getEventFlushInterval();
+
+	/**
+	 * Get the number of connections allowed to wait for a free slot once the
+	 * maximum number of clients is reached, 0 to refuse them immediately.
+	 * 
+	 * @return the number of connections allowed to wait for a free slot.
+	 */
+	int getConnectionQueueSize();
+
+	/**
+	 * Get the number of connections a client can open in a burst. A client
+	 * regains one connection every allowed interval, up to this number.
+	 * 
+	 * @return the number of connections a client can open in a burst.
+	 */
+	int getConnectionBurst();
 }
@@ -0,0 +1,109 @@
+package game.network.config;
+
+import common.config.IConfigurationBranch;
+
+/**
+ * Socket options of the connections, applied to the server socket and to the
+ * connections to the distant servers.
+ * 
+ * @author benobiwan
+ * 
+ */
+public interface INetworkTuningConfiguration extends IConfigurationBranch
+{
+	/**
+	 * Tag of this configuration node.
+	 */
+	String NETWORK_TUNING_CONFIGURATION_TAG = "tuning";
+
+	/**
+	 * Tag for the TCP_NODELAY option.
+	 */
+	String TCP_NO_DELAY_TAG = "TcpNoDelay";
+
+	/**
+	 * Tag for the size of the socket send buffer.
+	 */
+	String SEND_BUFFER_SIZE_TAG = "SendBufferSize";
+
+	/**
+	 * Tag for the size of the socket receive buffer.
+	 */
+	String RECEIVE_BUFFER_SIZE_TAG = "ReceiveBufferSize";
+
+	/**
+	 * Tag for the backlog of the server socket.
+	 */
+	String BACKLOG_TAG = "Backlog";
+
+	/**
+	 * Tag for the SO_REUSEADDR option of the server socket.
+	 */
+	String REUSE_ADDRESS_TAG = "ReuseAddress";
+
+	/**
+	 * Tag for the minimum size of the read buffer.
+	 */
+	String MIN_READ_BUFFER_SIZE_TAG = "MinReadBufferSize";
+
+	/**
+	 * Tag for the maximum size of the read buffer.
+	 */
+	String MAX_READ_BUFFER_SIZE_TAG = "MaxReadBufferSize";
+
+	/**
+	 * Check whether the TCP_NODELAY option is set, disabling the Nagle
+	 * algorithm.
+	 * 
+	 * @return true if the TCP_NODELAY option is set.
+	 */
+	boolean isTcpNoDelay();
+
+	/**
+	 * Get the size in bytes of the socket send buffer.
+	 * 
+	 * @return the size in bytes of the socket send buffer, 0 to use the
+	 *         system default.
+	 */
+	int getSendBufferSize();
+
+	/**
+	 * Get the size in bytes of the socket receive buffer.
+	 * 
+	 * @return the size in bytes of the socket receive buffer, 0 to use the
+	 *         system default.
+	 */
+	int getReceiveBufferSize();
+
+	/**
+	 * Get the maximum number of connections waiting to be accepted by the
+	 * server socket.
+	 * 
+	 * @return the backlog of the server socket.
+	 */
+	int getBacklog();
+
+	/**
+	 * Check whether the server socket can be bound to an address still used
+	 * by connections being closed.
+	 * 
+	 * @return true if the SO_REUSEADDR option of the server socket is set.
+	 */
+	boolean isReuseAddress();
+
+	/**
+	 * Get the minimum size in bytes of the read buffer. The read buffer grows
+	 * when it is filled by a read and shrinks when it is mostly empty, between
+	 * its minimum and maximum sizes.
+	 * 
+	 * @return the minimum size in bytes of the read buffer.
+	 */
+	int getMinReadBufferSize();
+
+	/**
+	 * Get the maximum size in bytes of the read buffer.
+	 * 
+	 * @return the maximum size in bytes of the read buffer.
+	 */
+	int getMaxReadBufferSize();
+}
@@ -35,6 +35,39 @@ public class NetworkConfigurationImpl extends AbstractConfigurationBranch
 	 */
 	private final ConfigurationEnum<RegistrationType> _leafRegistrationType;
 
+	/**
+	 * Leaf configuring the codec used to encode and decode the messages.
+	 */
+	private final ConfigurationEnum<CodecType> _leafCodecType;
+
+	/**
+	 * Leaf configuring the maximum number of actions sent to a server and not
+	 * yet written to the network.
+	 */
+	private final ConfigurationInteger _leafMaxActionsInFlight;
+
+	/**
+	 * Leaf configuring the maximum number of actions waiting to be sent to a
+	 * server.
+	 */
+	private final ConfigurationInteger _leafMaxActionsQueued;
+
+	/**
+	 * Leaf configuring the timeout of a connection attempt to a server.
+	 */
+	private final ConfigurationInteger _leafConnectTimeout;
+
+	/**
+	 * Leaf configuring the number of I/O processors of each socket acceptor
+	 * or connector.
+	 */
+	private final ConfigurationInteger _leafIoProcessorCount;
+
+	/**
+	 * Leaf configuring the number of threads running the message handlers.
+	 */
+	private final ConfigurationInteger _leafWorkerThreadCount;
+
 	/**
 	 * Creates a new NetworkConfigurationImpl using default values for every
 	 * elements.
@@ -65,9 +98,48 @@ public class NetworkConfigurationImpl extends AbstractConfigurationBranch
 				"Registration type available to the clients.",
 				"Invalid Registration type", true, EnumDisplayType.COMBOBOX,
 				RegistrationType.NONE);
+		_leafCodecType = new ConfigurationEnum<>(this, CODEC_TYPE_TAG,
+				"Codec", "Codec used to encode and decode the messages.",
+				"Invalid Codec", true, EnumDisplayType.COMBOBOX,
+				CodecType.BINARY);
+		_leafMaxActionsInFlight = new ConfigurationInteger(this,
+				MAX_ACTIONS_IN_FLIGHT_TAG, "Max actions in flight",
+				"Maximum number of actions sent to a server and not yet written to the network.",
+				"Invalid maximum number of actions in flight", true,
+				IntegerDisplayType.SPINNER, Integer.valueOf(1),
+				Integer.valueOf(1024), Integer.valueOf(32));
+		_leafMaxActionsQueued = new ConfigurationInteger(this,
+				MAX_ACTIONS_QUEUED_TAG, "Max actions queued",
+				"Maximum number of actions waiting to be sent to a server.",
+				"Invalid maximum number of actions queued", true,
+				IntegerDisplayType.SPINNER, Integer.valueOf(1),
+				Integer.valueOf(65536), Integer.valueOf(1024));
+		_leafConnectTimeout = new ConfigurationInteger(this,
+				CONNECT_TIMEOUT_TAG, "Connect timeout",
+				"Timeout in seconds of a connection attempt to a server.",
+				"Invalid connect timeout", true, IntegerDisplayType.SPINNER,
+				Integer.valueOf(1), Integer.valueOf(600), Integer.valueOf(30));
+		_leafIoProcessorCount = new ConfigurationInteger(this,
+				IO_PROCESSOR_COUNT_TAG, "I/O processor count",
+				"Number of I/O processors of each socket acceptor or connector, 0 for one more than the number of processors.",
+				"Invalid I/O processor count", true,
+				IntegerDisplayType.SPINNER, Integer.valueOf(0),
+				Integer.valueOf(256), Integer.valueOf(0));
+		_leafWorkerThreadCount = new ConfigurationInteger(this,
+				WORKER_THREAD_COUNT_TAG, "Worker thread count",
+				"Number of threads running the message handlers, 0 to run them on the I/O processors.",
+				"Invalid worker thread count", true,
+				IntegerDisplayType.SPINNER, Integer.valueOf(0),
+				Integer.valueOf(256), Integer.valueOf(16));
 		addLeaf(_leafKeepAliveRequestInterval);
 		addLeaf(_leafKeepAliveRequestTimeout);
 		addLeaf(_leafRegistrationType);
+		addLeaf(_leafCodecType);
+		addLeaf(_leafMaxActionsInFlight);
+		addLeaf(_leafMaxActionsQueued);
+		addLeaf(_leafConnectTimeout);
+		addLeaf(_leafIoProcessorCount);
+		addLeaf(_leafWorkerThreadCount);
 	}
 
 	/**
@@ -86,6 +158,25 @@ public class NetworkConfigurationImpl extends AbstractConfigurationBranch
 	 * @param eCommandLineRegistrationType
 	 *            the value specified on the command line for the registration
 	 *            type available to the clients.
+	 * @param eCommandLineCodecType
+	 *            the value specified on the command line for the codec used to
+	 *            encode and decode the messages.
+	 * @param iCommandLineMaxActionsInFlight
+	 *            the value specified on the command line for the maximum number
+	 *            of actions sent to a server and not yet written to the
+	 *            network.
+	 * @param iCommandLineMaxActionsQueued
+	 *            the value specified on the command line for the maximum number
+	 *            of actions waiting to be sent to a server.
+	 * @param iCommandLineConnectTimeout
+	 *            the value specified on the command line for the timeout of a
+	 *            connection attempt to a server.
+	 * @param iCommandLineIoProcessorCount
+	 *            the value specified on the command line for the number of I/O
+	 *            processors of each socket acceptor or connector.
+	 * @param iCommandLineWorkerThreadCount
+	 *            the value specified on the command line for the number of
+	 *            threads running the message handlers.
 	 * @throws InvalidConfigurationException
 	 *             one of the given value is invalid.
 	 */
@@ -93,7 +184,13 @@ public class NetworkConfigurationImpl extends AbstractConfigurationBranch
 			final MBeanServer mBeanServer,
 			final Integer iCommandLineKeepAliveRequestInterval,
 			final Integer iCommandLineKeepAliveRequestTimeout,
-			final RegistrationType eCommandLineRegistrationType)
+			final RegistrationType eCommandLineRegistrationType,
+			final CodecType eCommandLineCodecType,
+			final Integer iCommandLineMaxActionsInFlight,
+			final Integer iCommandLineMaxActionsQueued,
+			final Integer iCommandLineConnectTimeout,
+			final Integer iCommandLineIoProcessorCount,
+			final Integer iCommandLineWorkerThreadCount)
 			throws InvalidConfigurationException
 	{
 		super(parent, NETWORK_CONFIGURATION_TAG, mBeanServer);
@@ -116,9 +213,53 @@ public class NetworkConfigurationImpl extends AbstractConfigurationBranch
 				"Registration type available to the clients.",
 				"Invalid Registration type", true, EnumDisplayType.COMBOBOX,
 				RegistrationType.NONE, eCommandLineRegistrationType);
+		_leafCodecType = new ConfigurationEnum<>(this, CODEC_TYPE_TAG,
+				"Codec", "Codec used to encode and decode the messages.",
+				"Invalid Codec", true, EnumDisplayType.COMBOBOX,
+				CodecType.BINARY, eCommandLineCodecType);
+		_leafMaxActionsInFlight = new ConfigurationInteger(this,
+				MAX_ACTIONS_IN_FLIGHT_TAG, "Max actions in flight",
+				"Maximum number of actions sent to a server and not yet written to the network.",
+				"Invalid maximum number of actions in flight", true,
+				IntegerDisplayType.SPINNER, Integer.valueOf(1),
+				Integer.valueOf(1024), Integer.valueOf(32),
+				iCommandLineMaxActionsInFlight);
+		_leafMaxActionsQueued = new ConfigurationInteger(this,
+				MAX_ACTIONS_QUEUED_TAG, "Max actions queued",
+				"Maximum number of actions waiting to be sent to a server.",
+				"Invalid maximum number of actions queued", true,
+				IntegerDisplayType.SPINNER, Integer.valueOf(1),
+				Integer.valueOf(65536), Integer.valueOf(1024),
+				iCommandLineMaxActionsQueued);
+		_leafConnectTimeout = new ConfigurationInteger(this,
+				CONNECT_TIMEOUT_TAG, "Connect timeout",
+				"Timeout in seconds of a connection attempt to a server.",
+				"Invalid connect timeout", true, IntegerDisplayType.SPINNER,
+				Integer.valueOf(1), Integer.valueOf(600), Integer.valueOf(30),
+				iCommandLineConnectTimeout);
+		_leafIoProcessorCount = new ConfigurationInteger(this,
+				IO_PROCESSOR_COUNT_TAG, "I/O processor count",
+				"Number of I/O processors of each socket acceptor or connector, 0 for one more than the number of processors.",
+				"Invalid I/O processor count", true,
+				IntegerDisplayType.SPINNER, Integer.valueOf(0),
+				Integer.valueOf(256), Integer.valueOf(0),
+				iCommandLineIoProcessorCount);
+		_leafWorkerThreadCount = new ConfigurationInteger(this,
+				WORKER_THREAD_COUNT_TAG, "Worker thread count",
+				"Number of threads running the message handlers, 0 to run them on the I/O processors.",
+				"Invalid worker thread count", true,
+				IntegerDisplayType.SPINNER, Integer.valueOf(0),
+				Integer.valueOf(256), Integer.valueOf(16),
+				iCommandLineWorkerThreadCount);
 		addLeaf(_leafKeepAliveRequestInterval);
 		addLeaf(_leafKeepAliveRequestTimeout);
 		addLeaf(_leafRegistrationType);
+		addLeaf(_leafCodecType);
+		addLeaf(_leafMaxActionsInFlight);
+		addLeaf(_leafMaxActionsQueued);
+		addLeaf(_leafConnectTimeout);
+		addLeaf(_leafIoProcessorCount);
+		addLeaf(_leafWorkerThreadCount);
 	}
 
 	/**
@@ -138,6 +279,25 @@ public class NetworkConfigurationImpl extends AbstractConfigurationBranch
 	 * @param eCommandLineRegistrationType
 	 *            the value specified on the command line for the registration
 	 *            type available to the clients.
+	 * @param eCommandLineCodecType
+	 *            the value specified on the command line for the codec used to
+	 *            encode and decode the messages.
+	 * @param iCommandLineMaxActionsInFlight
+	 *            the value specified on the command line for the maximum number
+	 *            of actions sent to a server and not yet written to the
+	 *            network.
+	 * @param iCommandLineMaxActionsQueued
+	 *            the value specified on the command line for the maximum number
+	 *            of actions waiting to be sent to a server.
+	 * @param iCommandLineConnectTimeout
+	 *            the value specified on the command line for the timeout of a
+	 *            connection attempt to a server.
+	 * @param iCommandLineIoProcessorCount
+	 *            the value specified on the command line for the number of I/O
+	 *            processors of each socket acceptor or connector.
+	 * @param iCommandLineWorkerThreadCount
+	 *            the value specified on the command line for the number of
+	 *            threads running the message handlers.
 	 * @param iConfigurationKeepAliveRequestInterval
 	 *            the value specified in the configuration file for the period
 	 *            between KeepAlive requests.
@@ -147,6 +307,25 @@ public class NetworkConfigurationImpl extends AbstractConfigurationBranch
 	 * @param eConfigurationRegistrationType
 	 *            the value specified in the configuration file for the
 	 *            registration type available to the clients.
+	 * @param eConfigurationCodecType
+	 *            the value specified in the configuration file for the codec
+	 *            used to encode and decode the messages.
+	 * @param iConfigurationMaxActionsInFlight
+	 *            the value specified in the configuration file for the maximum
+	 *            number of actions sent to a server and not yet written to the
+	 *            network.
+	 * @param iConfigurationMaxActionsQueued
+	 *            the value specified in the configuration file for the maximum
+	 *            number of actions waiting to be sent to a server.
+	 * @param iConfigurationConnectTimeout
+	 *            the value specified in the configuration file for the timeout
+	 *            of a connection attempt to a server.
+	 * @param iConfigurationIoProcessorCount
+	 *            the value specified in the configuration file for the number
+	 *            of I/O processors of each socket acceptor or connector.
+	 * @param iConfigurationWorkerThreadCount
+	 *            the value specified in the configuration file for the number
+	 *            of threads running the message handlers.
 	 * @throws InvalidConfigurationException
 	 *             one of the given value is invalid.
 	 */
@@ -155,20 +334,45 @@ public class NetworkConfigurationImpl extends AbstractConfigurationBranch
 			final Integer iCommandLineKeepAliveRequestInterval,
 			final Integer iCommandLineKeepAliveRequestTimeout,
 			final RegistrationType eCommandLineRegistrationType,
+			final CodecType eCommandLineCodecType,
+			final Integer iCommandLineMaxActionsInFlight,
+			final Integer iCommandLineMaxActionsQueued,
+			final Integer iCommandLineConnectTimeout,
+			final Integer iCommandLineIoProcessorCount,
+			final Integer iCommandLineWorkerThreadCount,
 			final Integer iConfigurationKeepAliveRequestInterval,
 			final Integer iConfigurationKeepAliveRequestTimeout,
-			final RegistrationType eConfigurationRegistrationType)
+			final RegistrationType eConfigurationRegistrationType,
+			final CodecType eConfigurationCodecType,
+			final Integer iConfigurationMaxActionsInFlight,
+			final Integer iConfigurationMaxActionsQueued,
+			final Integer iConfigurationConnectTimeout,
+			final Integer iConfigurationIoProcessorCount,
+			final Integer iConfigurationWorkerThreadCount)
 			throws InvalidConfigurationException
 	{
 		this(parent, mBeanServer, iCommandLineKeepAliveRequestInterval,
 				iCommandLineKeepAliveRequestTimeout,
-				eCommandLineRegistrationType);
+				eCommandLineRegistrationType, eCommandLineCodecType,
+				iCommandLineMaxActionsInFlight, iCommandLineMaxActionsQueued,
+				iCommandLineConnectTimeout, iCommandLineIoProcessorCount,
+				iCommandLineWorkerThreadCount);
 		_leafKeepAliveRequestInterval
 				.setConfigurationValue(iConfigurationKeepAliveRequestInterval);
 		_leafKeepAliveRequestTimeout
 				.setConfigurationValue(iConfigurationKeepAliveRequestTimeout);
 		_leafRegistrationType
 				.setConfigurationValue(eConfigurationRegistrationType);
+		_leafCodecType.setConfigurationValue(eConfigurationCodecType);
+		_leafMaxActionsInFlight
+				.setConfigurationValue(iConfigurationMaxActionsInFlight);
+		_leafMaxActionsQueued
+				.setConfigurationValue(iConfigurationMaxActionsQueued);
+		_leafConnectTimeout.setConfigurationValue(iConfigurationConnectTimeout);
+		_leafIoProcessorCount
+				.setConfigurationValue(iConfigurationIoProcessorCount);
+		_leafWorkerThreadCount
+				.setConfigurationValue(iConfigurationWorkerThreadCount);
 	}
 
 	@Override
@@ -189,6 +393,42 @@ public class NetworkConfigurationImpl extends AbstractConfigurationBranch
 		return _leafRegistrationType.getCurrentValue();
 	}
 
+	@Override
+	public CodecType getCodecType()
+	{
+		return _leafCodecType.getCurrentValue();
+	}
+
+	@Override
+	public int getMaxActionsInFlight()
+	{
+		return _leafMaxActionsInFlight.getCurrentValue().intValue();
+	}
+
+	@Override
+	public int getMaxActionsQueued()
+	{
+		return _leafMaxActionsQueued.getCurrentValue().intValue();
+	}
+
+	@Override
+	public int getConnectTimeout()
+	{
+		return _leafConnectTimeout.getCurrentValue().intValue();
+	}
+
+	@Override
+	public int getIoProcessorCount()
+	{
+		return _leafIoProcessorCount.getCurrentValue().intValue();
+	}
+
+	@Override
+	public int getWorkerThreadCount()
+	{
+		return _leafWorkerThreadCount.getCurrentValue().intValue();
+	}
+
 	@Override
 	public String getDescription()
 	{
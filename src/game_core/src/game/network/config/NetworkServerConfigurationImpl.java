@@ -40,6 +40,24 @@ public class NetworkServerConfigurationImpl extends AbstractConfigurationBranch
 	 */
 	private final ConfigurationLong _leafAllowedInterval;
 
+	/**
+	 * Leaf configuring the interval between two flushes of the events queued
+	 * for a client.
+	 */
+	private final ConfigurationInteger _leafEventFlushInterval;
+
+	/**
+	 * Leaf configuring the number of connections waiting for a free slot
+	 * once the maximum number of clients is reached.
+	 */
+	private final ConfigurationInteger _leafConnectionQueueSize;
+
+	/**
+	 * Leaf configuring the number of connections a client can open in a
+	 * burst.
+	 */
+	private final ConfigurationInteger _leafConnectionBurst;
+
 	/**
 	 * Creates a new NetworkServerConfigurationImpl using default values for
 	 * every elements.
@@ -76,10 +94,30 @@ public class NetworkServerConfigurationImpl extends AbstractConfigurationBranch
 				"Allowed interval between connections from the same client in milliseconds.",
 				"Invalid allowed interval", true, LongDisplayType.SPINNER, Long
 						.valueOf(100), Long.valueOf(10000), Long.valueOf(1000));
+		_leafEventFlushInterval = new ConfigurationInteger(this,
+				EVENT_FLUSH_INTERVAL_TAG, "Event flush interval",
+				"Interval between two flushes of the events queued for a client in milliseconds.",
+				"Invalid event flush interval", true,
+				IntegerDisplayType.SPINNER, Integer.valueOf(0),
+				Integer.valueOf(1000), Integer.valueOf(5));
+		_leafConnectionQueueSize = new ConfigurationInteger(this,
+				CONNECTION_QUEUE_SIZE_TAG, "Connection queue size",
+				"Number of connections waiting for a free slot once the maximum number of clients is reached, 0 to refuse them.",
+				"Invalid connection queue size", true,
+				IntegerDisplayType.SPINNER, Integer.valueOf(0),
+				Integer.valueOf(10000), Integer.valueOf(0));
+		_leafConnectionBurst = new ConfigurationInteger(this,
+				CONNECTION_BURST_TAG, "Connection burst",
+				"Number of connections a client can open in a burst before being limited to one every allowed interval.",
+				"Invalid connection burst", true, IntegerDisplayType.SPINNER,
+				Integer.valueOf(1), Integer.valueOf(1000), Integer.valueOf(5));
 		addLeaf(_leafListenPort);
 		addLeaf(_leafMaxNumberOfClient);
 		addLeaf(_leafConnectionTimeOut);
 		addLeaf(_leafAllowedInterval);
+		addLeaf(_leafEventFlushInterval);
+		addLeaf(_leafConnectionQueueSize);
+		addLeaf(_leafConnectionBurst);
 	}
 
 	/**
@@ -101,6 +139,15 @@ public class NetworkServerConfigurationImpl extends AbstractConfigurationBranch
 	 * @param lCommandLineAllowedInterval
 	 *            the value specified on the command line for the allowed
 	 *            interval between connections from the same client.
+	 * @param iCommandLineEventFlushInterval
+	 *            the value specified on the command line for the interval
+	 *            between two flushes of the events queued for a client.
+	 * @param iCommandLineConnectionQueueSize
+	 *            the value specified on the command line for the number of
+	 *            connections waiting for a free slot.
+	 * @param iCommandLineConnectionBurst
+	 *            the value specified on the command line for the number of
+	 *            connections a client can open in a burst.
 	 * @throws InvalidConfigurationException
 	 *             one of the given value is invalid.
 	 */
@@ -109,7 +156,10 @@ public class NetworkServerConfigurationImpl extends AbstractConfigurationBranch
 			final Integer iCommandLineListenPort,
 			final Integer iCommandLineMaxNumberOfClient,
 			final Integer iCommandLineConnectionTimeOut,
-			final Long lCommandLineAllowedInterval)
+			final Long lCommandLineAllowedInterval,
+			final Integer iCommandLineEventFlushInterval,
+			final Integer iCommandLineConnectionQueueSize,
+			final Integer iCommandLineConnectionBurst)
 			throws InvalidConfigurationException
 	{
 		super(parent, NETWORK_SERVER_CONFIGURATION_TAG, mBeanServer);
@@ -139,10 +189,33 @@ public class NetworkServerConfigurationImpl extends AbstractConfigurationBranch
 				"Invalid allowed interval", true, LongDisplayType.SPINNER, Long
 						.valueOf(100), Long.valueOf(10000), Long.valueOf(1000),
 				lCommandLineAllowedInterval);
+		_leafEventFlushInterval = new ConfigurationInteger(this,
+				EVENT_FLUSH_INTERVAL_TAG, "Event flush interval",
+				"Interval between two flushes of the events queued for a client in milliseconds.",
+				"Invalid event flush interval", true,
+				IntegerDisplayType.SPINNER, Integer.valueOf(0),
+				Integer.valueOf(1000), Integer.valueOf(5),
+				iCommandLineEventFlushInterval);
+		_leafConnectionQueueSize = new ConfigurationInteger(this,
+				CONNECTION_QUEUE_SIZE_TAG, "Connection queue size",
+				"Number of connections waiting for a free slot once the maximum number of clients is reached, 0 to refuse them.",
+				"Invalid connection queue size", true,
+				IntegerDisplayType.SPINNER, Integer.valueOf(0),
+				Integer.valueOf(10000), Integer.valueOf(0),
+				iCommandLineConnectionQueueSize);
+		_leafConnectionBurst = new ConfigurationInteger(this,
+				CONNECTION_BURST_TAG, "Connection burst",
+				"Number of connections a client can open in a burst before being limited to one every allowed interval.",
+				"Invalid connection burst", true, IntegerDisplayType.SPINNER,
+				Integer.valueOf(1), Integer.valueOf(1000), Integer.valueOf(5),
+				iCommandLineConnectionBurst);
 		addLeaf(_leafListenPort);
 		addLeaf(_leafMaxNumberOfClient);
 		addLeaf(_leafConnectionTimeOut);
 		addLeaf(_leafAllowedInterval);
+		addLeaf(_leafEventFlushInterval);
+		addLeaf(_leafConnectionQueueSize);
+		addLeaf(_leafConnectionBurst);
 	}
 
 	/**
@@ -164,6 +237,15 @@ public class NetworkServerConfigurationImpl extends AbstractConfigurationBranch
 	 * @param lCommandLineAllowedInterval
 	 *            the value specified on the command line for the allowed
 	 *            interval between connections from the same client.
+	 * @param iCommandLineEventFlushInterval
+	 *            the value specified on the command line for the interval
+	 *            between two flushes of the events queued for a client.
+	 * @param iCommandLineConnectionQueueSize
+	 *            the value specified on the command line for the number of
+	 *            connections waiting for a free slot.
+	 * @param iCommandLineConnectionBurst
+	 *            the value specified on the command line for the number of
+	 *            connections a client can open in a burst.
 	 * @param iConfigurationListenPort
 	 *            the value specified in the configuration file for the listen
 	 *            port.
@@ -176,6 +258,15 @@ public class NetworkServerConfigurationImpl extends AbstractConfigurationBranch
 	 * @param lConfigurationAllowedInterval
 	 *            the value specified in the configuration file for the allowed
 	 *            interval between connections from the same client.
+	 * @param iConfigurationEventFlushInterval
+	 *            the value specified in the configuration file for the interval
+	 *            between two flushes of the events queued for a client.
+	 * @param iConfigurationConnectionQueueSize
+	 *            the value specified in the configuration file for the number
+	 *            of connections waiting for a free slot.
+	 * @param iConfigurationConnectionBurst
+	 *            the value specified in the configuration file for the number
+	 *            of connections a client can open in a burst.
 	 * @throws InvalidConfigurationException
 	 *             one of the given value is invalid.
 	 */
@@ -185,15 +276,22 @@ public class NetworkServerConfigurationImpl extends AbstractConfigurationBranch
 			final Integer iCommandLineMaxNumberOfClient,
 			final Integer iCommandLineConnectionTimeOut,
 			final Long lCommandLineAllowedInterval,
+			final Integer iCommandLineEventFlushInterval,
+			final Integer iCommandLineConnectionQueueSize,
+			final Integer iCommandLineConnectionBurst,
 			final Integer iConfigurationListenPort,
 			final Integer iConfigurationMaxNumberOfClient,
 			final Integer iConfigurationConnectionTimeOut,
-			final Long lConfigurationAllowedInterval)
+			final Long lConfigurationAllowedInterval,
+			final Integer iConfigurationEventFlushInterval,
+			final Integer iConfigurationConnectionQueueSize,
+			final Integer iConfigurationConnectionBurst)
 			throws InvalidConfigurationException
 	{
 		this(parent, mBeanServer, iCommandLineListenPort,
 				iCommandLineMaxNumberOfClient, iCommandLineConnectionTimeOut,
-				lCommandLineAllowedInterval);
+				lCommandLineAllowedInterval, iCommandLineEventFlushInterval,
+				iCommandLineConnectionQueueSize, iCommandLineConnectionBurst);
 		_leafListenPort.setConfigurationValue(iConfigurationListenPort);
 		_leafMaxNumberOfClient
 				.setConfigurationValue(iConfigurationMaxNumberOfClient);
@@ -201,6 +299,12 @@ public class NetworkServerConfigurationImpl extends AbstractConfigurationBranch
 				.setConfigurationValue(iConfigurationConnectionTimeOut);
 		_leafAllowedInterval
 				.setConfigurationValue(lConfigurationAllowedInterval);
+		_leafEventFlushInterval
+				.setConfigurationValue(iConfigurationEventFlushInterval);
+		_leafConnectionQueueSize
+				.setConfigurationValue(iConfigurationConnectionQueueSize);
+		_leafConnectionBurst
+				.setConfigurationValue(iConfigurationConnectionBurst);
 	}
 
 	@Override
@@ -227,6 +331,24 @@ public class NetworkServerConfigurationImpl extends AbstractConfigurationBranch
 		return _leafConnectionTimeOut.getCurrentValue().intValue();
 	}
 
+	@Override
+	public int getEventFlushInterval()
+	{
+		return _leafEventFlushInterval.getCurrentValue().intValue();
+	}
+
+	@Override
+	public int getConnectionQueueSize()
+	{
+		return _leafConnectionQueueSize.getCurrentValue().intValue();
+	}
+
+	@Override
+	public int getConnectionBurst()
+	{
+		return _leafConnectionBurst.getCurrentValue().intValue();
+	}
+
 	@Override
 	public String getDescription()
 	{
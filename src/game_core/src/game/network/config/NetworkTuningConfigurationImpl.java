@@ -0,0 +1,353 @@
+package game.network.config;
+
+import javax.management.MBeanServer;
+
+import common.config.AbstractConfigurationBranch;
+import common.config.IConfiguration;
+import common.config.InvalidConfigurationException;
+import common.config.display.BooleanDisplayType;
+import common.config.display.IntegerDisplayType;
+import common.config.leaf.ConfigurationBoolean;
+import common.config.leaf.ConfigurationInteger;
+
+/**
+ * An implementation of the {@link INetworkTuningConfiguration} interface.
+ * 
+ * @author benobiwan
+ * 
+ */
+public class NetworkTuningConfigurationImpl extends AbstractConfigurationBranch
+		implements INetworkTuningConfiguration
+{
+	/**
+	 * Leaf configuring the TCP_NODELAY option.
+	 */
+	private final ConfigurationBoolean _leafTcpNoDelay;
+
+	/**
+	 * Leaf configuring the size of the socket send buffer.
+	 */
+	private final ConfigurationInteger _leafSendBufferSize;
+
+	/**
+	 * Leaf configuring the size of the socket receive buffer.
+	 */
+	private final ConfigurationInteger _leafReceiveBufferSize;
+
+	/**
+	 * Leaf configuring the backlog of the server socket.
+	 */
+	private final ConfigurationInteger _leafBacklog;
+
+	/**
+	 * Leaf configuring the SO_REUSEADDR option of the server socket.
+	 */
+	private final ConfigurationBoolean _leafReuseAddress;
+
+	/**
+	 * Leaf configuring the minimum size of the read buffer.
+	 */
+	private final ConfigurationInteger _leafMinReadBufferSize;
+
+	/**
+	 * Leaf configuring the maximum size of the read buffer.
+	 */
+	private final ConfigurationInteger _leafMaxReadBufferSize;
+
+	/**
+	 * Creates a new NetworkTuningConfigurationImpl using default values for
+	 * every elements.
+	 * 
+	 * @param parent
+	 *            the parent configuration.
+	 * @param mBeanServer
+	 *            the {@link MBeanServer} to use.
+	 */
+	public NetworkTuningConfigurationImpl(final IConfiguration parent,
+			final MBeanServer mBeanServer)
+	{
+		super(parent, NETWORK_TUNING_CONFIGURATION_TAG, mBeanServer);
+		_leafTcpNoDelay = new ConfigurationBoolean(this,
+				TCP_NO_DELAY_TAG, "TCP no delay",
+				"Disable the Nagle algorithm, sending small messages without waiting.",
+				"Invalid TCP no delay boolean", true,
+				BooleanDisplayType.CHECKBOX, Boolean.FALSE);
+		_leafSendBufferSize = new ConfigurationInteger(this,
+				SEND_BUFFER_SIZE_TAG, "Send buffer size",
+				"Size in bytes of the socket send buffer, 0 for the system default.",
+				"Invalid send buffer size", true,
+				IntegerDisplayType.SPINNER, Integer.valueOf(0),
+				Integer.valueOf(16777216), Integer.valueOf(0));
+		_leafReceiveBufferSize = new ConfigurationInteger(this,
+				RECEIVE_BUFFER_SIZE_TAG, "Receive buffer size",
+				"Size in bytes of the socket receive buffer, 0 for the system default.",
+				"Invalid receive buffer size", true,
+				IntegerDisplayType.SPINNER, Integer.valueOf(0),
+				Integer.valueOf(16777216), Integer.valueOf(0));
+		_leafBacklog = new ConfigurationInteger(this,
+				BACKLOG_TAG, "Backlog",
+				"Maximum number of connections waiting to be accepted by the server socket.",
+				"Invalid backlog", true,
+				IntegerDisplayType.SPINNER, Integer.valueOf(1),
+				Integer.valueOf(65535), Integer.valueOf(50));
+		_leafReuseAddress = new ConfigurationBoolean(this,
+				REUSE_ADDRESS_TAG, "Reuse address",
+				"Allow the server socket to be bound to an address still used by connections being closed.",
+				"Invalid reuse address boolean", true,
+				BooleanDisplayType.CHECKBOX, Boolean.FALSE);
+		_leafMinReadBufferSize = new ConfigurationInteger(this,
+				MIN_READ_BUFFER_SIZE_TAG, "Min read buffer size",
+				"Minimum size in bytes of the read buffer.",
+				"Invalid minimum read buffer size", true,
+				IntegerDisplayType.SPINNER, Integer.valueOf(1),
+				Integer.valueOf(16777216), Integer.valueOf(64));
+		_leafMaxReadBufferSize = new ConfigurationInteger(this,
+				MAX_READ_BUFFER_SIZE_TAG, "Max read buffer size",
+				"Maximum size in bytes of the read buffer.",
+				"Invalid maximum read buffer size", true,
+				IntegerDisplayType.SPINNER, Integer.valueOf(1),
+				Integer.valueOf(16777216), Integer.valueOf(65536));
+		addLeaf(_leafTcpNoDelay);
+		addLeaf(_leafSendBufferSize);
+		addLeaf(_leafReceiveBufferSize);
+		addLeaf(_leafBacklog);
+		addLeaf(_leafReuseAddress);
+		addLeaf(_leafMinReadBufferSize);
+		addLeaf(_leafMaxReadBufferSize);
+	}
+
+	/**
+	 * Creates a new NetworkTuningConfigurationImpl and sets the command line
+	 * values.
+	 * 
+	 * @param parent
+	 *            the parent configuration.
+	 * @param mBeanServer
+	 *            the {@link MBeanServer} to use.
+	 * @param bCommandLineTcpNoDelay
+	 *            the value specified on the command line for the setting of the
+	 *            TCP_NODELAY option.
+	 * @param iCommandLineSendBufferSize
+	 *            the value specified on the command line for the size of the
+	 *            socket send buffer.
+	 * @param iCommandLineReceiveBufferSize
+	 *            the value specified on the command line for the size of the
+	 *            socket receive buffer.
+	 * @param iCommandLineBacklog
+	 *            the value specified on the command line for the backlog of the
+	 *            server socket.
+	 * @param bCommandLineReuseAddress
+	 *            the value specified on the command line for the setting of the
+	 *            SO_REUSEADDR option of the server socket.
+	 * @param iCommandLineMinReadBufferSize
+	 *            the value specified on the command line for the minimum size
+	 *            of the read buffer.
+	 * @param iCommandLineMaxReadBufferSize
+	 *            the value specified on the command line for the maximum size
+	 *            of the read buffer.
+	 * @throws InvalidConfigurationException
+	 *             one of the given value is invalid.
+	 */
+	public NetworkTuningConfigurationImpl(final IConfiguration parent,
+			final MBeanServer mBeanServer,
+			final Boolean bCommandLineTcpNoDelay,
+			final Integer iCommandLineSendBufferSize,
+			final Integer iCommandLineReceiveBufferSize,
+			final Integer iCommandLineBacklog,
+			final Boolean bCommandLineReuseAddress,
+			final Integer iCommandLineMinReadBufferSize,
+			final Integer iCommandLineMaxReadBufferSize)
+			throws InvalidConfigurationException
+	{
+		super(parent, NETWORK_TUNING_CONFIGURATION_TAG, mBeanServer);
+		_leafTcpNoDelay = new ConfigurationBoolean(this,
+				TCP_NO_DELAY_TAG, "TCP no delay",
+				"Disable the Nagle algorithm, sending small messages without waiting.",
+				"Invalid TCP no delay boolean", true,
+				BooleanDisplayType.CHECKBOX, Boolean.FALSE,
+				bCommandLineTcpNoDelay);
+		_leafSendBufferSize = new ConfigurationInteger(this,
+				SEND_BUFFER_SIZE_TAG, "Send buffer size",
+				"Size in bytes of the socket send buffer, 0 for the system default.",
+				"Invalid send buffer size", true,
+				IntegerDisplayType.SPINNER, Integer.valueOf(0),
+				Integer.valueOf(16777216), Integer.valueOf(0),
+				iCommandLineSendBufferSize);
+		_leafReceiveBufferSize = new ConfigurationInteger(this,
+				RECEIVE_BUFFER_SIZE_TAG, "Receive buffer size",
+				"Size in bytes of the socket receive buffer, 0 for the system default.",
+				"Invalid receive buffer size", true,
+				IntegerDisplayType.SPINNER, Integer.valueOf(0),
+				Integer.valueOf(16777216), Integer.valueOf(0),
+				iCommandLineReceiveBufferSize);
+		_leafBacklog = new ConfigurationInteger(this,
+				BACKLOG_TAG, "Backlog",
+				"Maximum number of connections waiting to be accepted by the server socket.",
+				"Invalid backlog", true,
+				IntegerDisplayType.SPINNER, Integer.valueOf(1),
+				Integer.valueOf(65535), Integer.valueOf(50),
+				iCommandLineBacklog);
+		_leafReuseAddress = new ConfigurationBoolean(this,
+				REUSE_ADDRESS_TAG, "Reuse address",
+				"Allow the server socket to be bound to an address still used by connections being closed.",
+				"Invalid reuse address boolean", true,
+				BooleanDisplayType.CHECKBOX, Boolean.FALSE,
+				bCommandLineReuseAddress);
+		_leafMinReadBufferSize = new ConfigurationInteger(this,
+				MIN_READ_BUFFER_SIZE_TAG, "Min read buffer size",
+				"Minimum size in bytes of the read buffer.",
+				"Invalid minimum read buffer size", true,
+				IntegerDisplayType.SPINNER, Integer.valueOf(1),
+				Integer.valueOf(16777216), Integer.valueOf(64),
+				iCommandLineMinReadBufferSize);
+		_leafMaxReadBufferSize = new ConfigurationInteger(this,
+				MAX_READ_BUFFER_SIZE_TAG, "Max read buffer size",
+				"Maximum size in bytes of the read buffer.",
+				"Invalid maximum read buffer size", true,
+				IntegerDisplayType.SPINNER, Integer.valueOf(1),
+				Integer.valueOf(16777216), Integer.valueOf(65536),
+				iCommandLineMaxReadBufferSize);
+		addLeaf(_leafTcpNoDelay);
+		addLeaf(_leafSendBufferSize);
+		addLeaf(_leafReceiveBufferSize);
+		addLeaf(_leafBacklog);
+		addLeaf(_leafReuseAddress);
+		addLeaf(_leafMinReadBufferSize);
+		addLeaf(_leafMaxReadBufferSize);
+	}
+
+	/**
+	 * Creates a new NetworkTuningConfigurationImpl and sets the command line
+	 * and configuration values.
+	 * 
+	 * @param parent
+	 *            the parent configuration.
+	 * @param mBeanServer
+	 *            the {@link MBeanServer} to use.
+	 * @param bCommandLineTcpNoDelay
+	 *            the value specified on the command line for the setting of the
+	 *            TCP_NODELAY option.
+	 * @param iCommandLineSendBufferSize
+	 *            the value specified on the command line for the size of the
+	 *            socket send buffer.
+	 * @param iCommandLineReceiveBufferSize
+	 *            the value specified on the command line for the size of the
+	 *            socket receive buffer.
+	 * @param iCommandLineBacklog
+	 *            the value specified on the command line for the backlog of the
+	 *            server socket.
+	 * @param bCommandLineReuseAddress
+	 *            the value specified on the command line for the setting of the
+	 *            SO_REUSEADDR option of the server socket.
+	 * @param iCommandLineMinReadBufferSize
+	 *            the value specified on the command line for the minimum size
+	 *            of the read buffer.
+	 * @param iCommandLineMaxReadBufferSize
+	 *            the value specified on the command line for the maximum size
+	 *            of the read buffer.
+	 * @param bConfigurationTcpNoDelay
+	 *            the value specified in the configuration file for the setting
+	 *            of the TCP_NODELAY option.
+	 * @param iConfigurationSendBufferSize
+	 *            the value specified in the configuration file for the size of
+	 *            the socket send buffer.
+	 * @param iConfigurationReceiveBufferSize
+	 *            the value specified in the configuration file for the size of
+	 *            the socket receive buffer.
+	 * @param iConfigurationBacklog
+	 *            the value specified in the configuration file for the backlog
+	 *            of the server socket.
+	 * @param bConfigurationReuseAddress
+	 *            the value specified in the configuration file for the setting
+	 *            of the SO_REUSEADDR option of the server socket.
+	 * @param iConfigurationMinReadBufferSize
+	 *            the value specified in the configuration file for the minimum
+	 *            size of the read buffer.
+	 * @param iConfigurationMaxReadBufferSize
+	 *            the value specified in the configuration file for the maximum
+	 *            size of the read buffer.
+	 * @throws InvalidConfigurationException
+	 *             one of the given value is invalid.
+	 */
+	public NetworkTuningConfigurationImpl(final IConfiguration parent,
+			final MBeanServer mBeanServer,
+			final Boolean bCommandLineTcpNoDelay,
+			final Integer iCommandLineSendBufferSize,
+			final Integer iCommandLineReceiveBufferSize,
+			final Integer iCommandLineBacklog,
+			final Boolean bCommandLineReuseAddress,
+			final Integer iCommandLineMinReadBufferSize,
+			final Integer iCommandLineMaxReadBufferSize,
+			final Boolean bConfigurationTcpNoDelay,
+			final Integer iConfigurationSendBufferSize,
+			final Integer iConfigurationReceiveBufferSize,
+			final Integer iConfigurationBacklog,
+			final Boolean bConfigurationReuseAddress,
+			final Integer iConfigurationMinReadBufferSize,
+			final Integer iConfigurationMaxReadBufferSize)
+			throws InvalidConfigurationException
+	{
+		this(parent, mBeanServer, bCommandLineTcpNoDelay,
+				iCommandLineSendBufferSize, iCommandLineReceiveBufferSize,
+				iCommandLineBacklog, bCommandLineReuseAddress,
+				iCommandLineMinReadBufferSize, iCommandLineMaxReadBufferSize);
+		_leafTcpNoDelay.setConfigurationValue(bConfigurationTcpNoDelay);
+		_leafSendBufferSize.setConfigurationValue(iConfigurationSendBufferSize);
+		_leafReceiveBufferSize
+				.setConfigurationValue(iConfigurationReceiveBufferSize);
+		_leafBacklog.setConfigurationValue(iConfigurationBacklog);
+		_leafReuseAddress.setConfigurationValue(bConfigurationReuseAddress);
+		_leafMinReadBufferSize
+				.setConfigurationValue(iConfigurationMinReadBufferSize);
+		_leafMaxReadBufferSize
+				.setConfigurationValue(iConfigurationMaxReadBufferSize);
+	}
+
+	@Override
+	public boolean isTcpNoDelay()
+	{
+		return _leafTcpNoDelay.getCurrentValue().booleanValue();
+	}
+
+	@Override
+	public int getSendBufferSize()
+	{
+		return _leafSendBufferSize.getCurrentValue().intValue();
+	}
+
+	@Override
+	public int getReceiveBufferSize()
+	{
+		return _leafReceiveBufferSize.getCurrentValue().intValue();
+	}
+
+	@Override
+	public int getBacklog()
+	{
+		return _leafBacklog.getCurrentValue().intValue();
+	}
+
+	@Override
+	public boolean isReuseAddress()
+	{
+		return _leafReuseAddress.getCurrentValue().booleanValue();
+	}
+
+	@Override
+	public int getMinReadBufferSize()
+	{
+		return _leafMinReadBufferSize.getCurrentValue().intValue();
+	}
+
+	@Override
+	public int getMaxReadBufferSize()
+	{
+		return _leafMaxReadBufferSize.getCurrentValue().intValue();
+	}
+
+	@Override
+	public String getDescription()
+	{
+		return "Network Tuning Configuration";
+	}
+}
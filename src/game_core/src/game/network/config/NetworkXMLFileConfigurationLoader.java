@@ -6,8 +6,9 @@ import common.config.AbstractXMLFileConfigurationLoader;
 
 /**
  * {@link INetworkConfigurationLoader} that loads the
- * {@link INetworkConfiguration}, {@link INetworkServerConfiguration} and
- * {@link INetworkClientConfigurationList} from an XML file.
+ * {@link INetworkConfiguration}, {@link INetworkServerConfiguration},
+ * {@link INetworkClientConfigurationList} and
+ * {@link INetworkTuningConfiguration} from an XML file.
  * 
  * @author benobiwan
  * 
@@ -37,6 +38,11 @@ public final class NetworkXMLFileConfigurationLoader extends
 	 */
 	private final INetworkClientConfigurationList _networkClientConfig;
 
+	/**
+	 * The socket options of the connections.
+	 */
+	private final INetworkTuningConfiguration _networkTuningConfig;
+
 	/**
 	 * Creates a new NetworkXMLFileConfigurationLoader.
 	 * 
@@ -51,6 +57,8 @@ public final class NetworkXMLFileConfigurationLoader extends
 				_mBeanServer);
 		_networkClientConfig = new NetworkClientConfigurationListImpl(null,
 				_mBeanServer);
+		_networkTuningConfig = new NetworkTuningConfigurationImpl(null,
+				_mBeanServer);
 		// TODO pour test
 		final NetworkClientConfigurationElementImpl locConf = new NetworkClientConfigurationElementImpl(
 				_networkClientConfig, "localhost", _mBeanServer);
@@ -81,4 +89,10 @@ public final class NetworkXMLFileConfigurationLoader extends
 	{
 		return _networkClientConfig;
 	}
+
+	@Override
+	public INetworkTuningConfiguration getNetworkTuningConfiguration()
+	{
+		return _networkTuningConfig;
+	}
 }
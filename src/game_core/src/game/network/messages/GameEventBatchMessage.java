@@ -0,0 +1,47 @@
+package game.network.messages;
+
+import game.communication.event.AbstractEvent;
+
+import java.util.List;
+
+/**
+ * A message used by a GameServer to transmit several Events to a GameClient in
+ * a single write. The Events must be handled in the order of the list.
+ * 
+ * @author benobiwan
+ * 
+ */
+public final class GameEventBatchMessage extends AbstractMessage
+{
+	/**
+	 * serialVersionUID for Serialization.
+	 */
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * The Events to transmit.
+	 */
+	private final List<AbstractEvent> _eventList;
+
+	/**
+	 * Create a new GameEventBatchMessage with the specified Events as payload.
+	 * 
+	 * @param eventList
+	 *            the Events to send.
+	 */
+	public GameEventBatchMessage(final List<AbstractEvent> eventList)
+	{
+		super(MessageType.GAME_EVENT_BATCH);
+		_eventList = eventList;
+	}
+
+	/**
+	 * Get this message's Events.
+	 * 
+	 * @return this message's Events.
+	 */
+	public List<AbstractEvent> getEventList()
+	{
+		return _eventList;
+	}
+}
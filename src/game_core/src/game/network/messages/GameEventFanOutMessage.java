@@ -0,0 +1,67 @@
+package game.network.messages;
+
+import game.communication.event.AbstractEvent;
+import game.communication.event.IRetargetableEvent;
+
+/**
+ * A message used by a GameServer to transmit the same Event to several
+ * players of a GameClient. The Event is sent once, followed by the ids of the
+ * players it is addressed to.
+ * 
+ * @author benobiwan
+ * 
+ */
+public final class GameEventFanOutMessage extends AbstractMessage
+{
+	/**
+	 * serialVersionUID for Serialization.
+	 */
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * The ids of the players to which the Event is addressed.
+	 */
+	private final int[] _playerIds;
+
+	/**
+	 * The Event to transmit, its own player id is ignored.
+	 */
+	private final AbstractEvent _event;
+
+	/**
+	 * Create a new GameEventFanOutMessage.
+	 * 
+	 * @param playerIds
+	 *            the ids of the players to which the Event is addressed.
+	 * @param event
+	 *            the Event to send, which must be an
+	 *            {@link IRetargetableEvent}.
+	 */
+	public GameEventFanOutMessage(final int[] playerIds,
+			final AbstractEvent event)
+	{
+		super(MessageType.GAME_EVENT_FAN_OUT);
+		_playerIds = playerIds;
+		_event = event;
+	}
+
+	/**
+	 * Get the ids of the players to which the Event is addressed.
+	 * 
+	 * @return the ids of the players.
+	 */
+	public int[] getPlayerIds()
+	{
+		return _playerIds;
+	}
+
+	/**
+	 * Get this message's Event.
+	 * 
+	 * @return this message's Event.
+	 */
+	public AbstractEvent getEvent()
+	{
+		return _event;
+	}
+}
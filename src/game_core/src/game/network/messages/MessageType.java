@@ -64,5 +64,15 @@ public enum MessageType
 	/**
 	 * Game action message.
 	 */
-	GAME_ACTION;
+	GAME_ACTION,
+
+	/**
+	 * Message holding several game events.
+	 */
+	GAME_EVENT_BATCH,
+
+	/**
+	 * Message holding a game event addressed to several players.
+	 */
+	GAME_EVENT_FAN_OUT;
 }
@@ -132,9 +132,8 @@ public final class GameStarterPanel extends JPanel
 	public void updateServerList()
 	{
 		_comboServer.removeAllItems();
-		for (int i = 0; i < _connectionList.getNumberOfServers(); i++)
+		for (final IGameServer server : _connectionList.getServers())
 		{
-			final IGameServer server = _connectionList.getServerAtIndex(i);
 			if (server.isGameCreationAllowed())
 			{
 				_comboServer.addItem(server);
@@ -1,16 +1,21 @@
 package game.network.swing;
 
 import game.network.ConnectionList;
+import game.network.IConnectionListListener;
 
 import java.awt.BorderLayout;
 import java.awt.GridLayout;
+import java.util.List;
 
 import javax.swing.JButton;
 import javax.swing.JPanel;
 import javax.swing.JScrollPane;
 import javax.swing.JTable;
+import javax.swing.SwingUtilities;
 import javax.swing.border.EmptyBorder;
 
+import org.apache.mina.core.session.IoSession;
+
 /**
  * {@link JPanel} displaying the list of servers which are declared.
  * 
@@ -40,6 +45,23 @@ public final class ServerListPanel extends JPanel
 		super(new BorderLayout(5, 5));
 		setBorder(new EmptyBorder(5, 5, 5, 5));
 		_tableModel = new ServerListTableModel(connectionList);
+		connectionList.addListener(new IConnectionListListener()
+		{
+			@Override
+			public void sessionsChanged(
+					final List<IoSession> addedSessionList,
+					final List<IoSession> removedSessionList)
+			{
+				SwingUtilities.invokeLater(new Runnable()
+				{
+					@Override
+					public void run()
+					{
+						_tableModel.refresh();
+					}
+				});
+			}
+		});
 		final JTable tableServerList = new JTable(_tableModel);
 		tableServerList.setAutoCreateRowSorter(true);
 		add(new JScrollPane(tableServerList), BorderLayout.CENTER);
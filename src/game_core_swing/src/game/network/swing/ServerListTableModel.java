@@ -4,6 +4,7 @@ import game.common.IGameServer;
 import game.network.ConnectionList;
 
 import java.net.SocketAddress;
+import java.util.List;
 
 import javax.swing.table.AbstractTableModel;
 
@@ -31,6 +32,12 @@ public final class ServerListTableModel extends AbstractTableModel
 	 */
 	public final ConnectionList _connectionList;
 
+	/**
+	 * Snapshot of the servers displayed, only accessed from the event
+	 * dispatch thread.
+	 */
+	private List<IGameServer> _serverList;
+
 	/**
 	 * creates a new ServerListTableModel.
 	 * 
@@ -40,6 +47,17 @@ public final class ServerListTableModel extends AbstractTableModel
 	public ServerListTableModel(final ConnectionList connectionList)
 	{
 		_connectionList = connectionList;
+		_serverList = _connectionList.getServers();
+	}
+
+	/**
+	 * Take a new snapshot of the servers and redisplay the table. Must be
+	 * called from the event dispatch thread.
+	 */
+	public void refresh()
+	{
+		_serverList = _connectionList.getServers();
+		fireTableDataChanged();
 	}
 
 	@Override
@@ -57,13 +75,13 @@ public final class ServerListTableModel extends AbstractTableModel
 	@Override
 	public int getRowCount()
 	{
-		return _connectionList.getNumberOfServers();
+		return _serverList.size();
 	}
 
 	@Override
 	public Object getValueAt(final int rowIndex, final int columnIndex)
 	{
-		final IGameServer server = _connectionList.getServerAtIndex(rowIndex);
+		final IGameServer server = _serverList.get(rowIndex);
 		switch (columnIndex)
 		{
 		case 0:// Server Name